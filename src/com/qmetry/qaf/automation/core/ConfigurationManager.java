@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -54,6 +55,7 @@ import com.qmetry.qaf.automation.step.TestStep;
 import com.qmetry.qaf.automation.step.client.ScenarioFactory;
 import com.qmetry.qaf.automation.step.client.csv.KwdTestFactory;
 import com.qmetry.qaf.automation.step.client.excel.ExcelTestFactory;
+import com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper.BDDKeyword;
 import com.qmetry.qaf.automation.step.client.text.BDDTestFactory;
 import com.qmetry.qaf.automation.util.FileUtil;
 import com.qmetry.qaf.automation.util.PropertyUtil;
@@ -80,6 +82,7 @@ import com.qmetry.qaf.automation.util.StringUtil;
 public class ConfigurationManager {
 	// early initialization
 	static final Log log = LogFactoryImpl.getLog(ConfigurationManager.class);
+	private static final AtomicInteger BUNDLE_VERSION = new AtomicInteger();
 	private static final ConfigurationManager INSTANCE = new ConfigurationManager();
 
 	/**
@@ -231,9 +234,22 @@ public class ConfigurationManager {
 			} else {
 				log.error(resourceFile.getAbsolutePath() + " not exist!");
 			}
+			BUNDLE_VERSION.incrementAndGet();
 		}
 	}
 
+	/**
+	 * Version of loaded resources, changes each time resources are
+	 * (re)loaded using {@link #addBundle(String)}. Can be used as stamp by
+	 * components caching values compiled from resources, for instance
+	 * locators from <code>.loc</code> files.
+	 * 
+	 * @return current resources version
+	 */
+	public static int getBundleVersion() {
+		return BUNDLE_VERSION.get();
+	}
+
 	private static void addLocal(PropertyUtil p, String local, String fileOrDir) {
 		String defaultLocal = p.getString(ApplicationProperties.DEFAULT_LOCALE.key, "");//
 		File resourceFile = new File(fileOrDir);
@@ -365,6 +381,12 @@ public class ConfigurationManager {
 		@Override
 		public void configurationChanged(ConfigurationEvent event) {
 
+			// BDD keyword synonyms
+			if (!event.isBeforeUpdate() && (null == event.getPropertyName()
+					|| BDDKeyword.isKeyword(event.getPropertyName()))) {
+				BDDKeyword.synonymsChanged();
+			}
+
 			if ((event.getType() == AbstractConfiguration.EVENT_CLEAR_PROPERTY
 					|| event.getType() == AbstractConfiguration.EVENT_SET_PROPERTY)
 					&& event.isBeforeUpdate()) {
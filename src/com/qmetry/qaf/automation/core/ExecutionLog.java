@@ -0,0 +1,444 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Execution log organized as stack of step frames. All list operations work on
+ * entries of the current frame. {@link #push()} starts new frame when step
+ * starts and {@link #pop()} ends it, returning entries logged by the step, so
+ * cost of a step doesn't depend on number of entries logged by previous steps.
+ * <p>
+ * When created with max entries, each frame keeps only latest max entries,
+ * older entries are discarded in batches. Entries matching retain condition,
+ * if provided, are never discarded and not counted for max entries.
+ * <p>
+ * It extends {@link ArrayList} so that it can be passed where command log is
+ * expected as {@link ArrayList}, for example driver command logger.
+ * 
+ * @author chirag.jayswal
+ */
+public class ExecutionLog<T> extends ArrayList<T> {
+	private static final long serialVersionUID = 8305364498712387742L;
+
+	private final int maxEntries;
+	private final Predicate<? super T> retained;
+	private final Deque<Frame<T>> parents = new ArrayDeque<Frame<T>>();
+	private Frame<T> current;
+	private long discarded;
+
+	public ExecutionLog() {
+		this(0);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            max entries to keep per frame, 0 or less for no limit
+	 */
+	public ExecutionLog(int maxEntries) {
+		this(maxEntries, null);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            max entries to keep per frame, 0 or less for no limit
+	 * @param retained
+	 *            condition for entries that must not be discarded, for
+	 *            instance failure results, can be null
+	 */
+	public ExecutionLog(int maxEntries, Predicate<? super T> retained) {
+		super(0);
+		this.maxEntries = maxEntries;
+		this.retained = retained;
+		current = new Frame<T>(retained);
+	}
+
+	/**
+	 * Starts new frame. Entries added after this call are collected in new
+	 * frame until {@link #pop()}.
+	 */
+	public void push() {
+		parents.push(current);
+		current = new Frame<T>(retained);
+	}
+
+	/**
+	 * Ends current frame and makes parent frame current.
+	 * 
+	 * @return entries of the ended frame
+	 * @throws IllegalStateException
+	 *             if there is no frame to end
+	 */
+	public ArrayList<T> pop() {
+		if (parents.isEmpty()) {
+			throw new IllegalStateException("No step frame to end");
+		}
+		Frame<T> frame = current;
+		current = parents.pop();
+		return frame;
+	}
+
+	/**
+	 * @return number of frames started and not ended
+	 */
+	public int getDepth() {
+		return parents.size();
+	}
+
+	/**
+	 * @return number of entries discarded because of max entries limit
+	 */
+	public long getDiscardedCount() {
+		return discarded;
+	}
+
+	/**
+	 * Ends all frames and removes all entries.
+	 */
+	public void reset() {
+		if (!parents.isEmpty()) {
+			current = parents.getLast();
+			parents.clear();
+		}
+		current.clear();
+	}
+
+	private void retain() {
+		// discard in batches so that add remains constant time
+		int batch = Math.max(1, maxEntries / 4);
+		if ((maxEntries > 0) && (current.size() >= (maxEntries + batch))) {
+			int excess = current.size() - maxEntries;
+			if (null == retained) {
+				current.subList(0, excess).clear();
+				discarded += excess;
+				return;
+			}
+			int size = current.size();
+			int retainedCount = current.getRetainedCount();
+			excess -= retainedCount;
+			// pass over retained entries needs to be amortized as well
+			if (excess < Math.max(batch, retainedCount / 4)) {
+				return;
+			}
+			// discard oldest entries not to be retained, keeping order
+			int removed = 0;
+			int to = 0;
+			for (int from = 0; from < size; from++) {
+				T entry = current.get(from);
+				if (removed < excess && !retained.test(entry)) {
+					removed++;
+				} else {
+					current.set(to++, entry);
+				}
+			}
+			current.subList(to, size).clear();
+			current.counted();
+			discarded += removed;
+		}
+	}
+
+	@Override
+	public boolean add(T e) {
+		current.add(e);
+		retain();
+		return true;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		current.add(index, element);
+		retain();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		boolean modified = current.addAll(c);
+		retain();
+		return modified;
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> c) {
+		boolean modified = current.addAll(index, c);
+		retain();
+		return modified;
+	}
+
+	@Override
+	public T get(int index) {
+		return current.get(index);
+	}
+
+	@Override
+	public T set(int index, T element) {
+		return current.set(index, element);
+	}
+
+	@Override
+	public T remove(int index) {
+		return current.remove(index);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return current.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return current.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return current.retainAll(c);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		return current.removeIf(filter);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		current.subList(fromIndex, toIndex).clear();
+	}
+
+	@Override
+	public void clear() {
+		current.clear();
+	}
+
+	@Override
+	public int size() {
+		return current.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return current.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return current.contains(o);
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		return current.containsAll(c);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		return current.indexOf(o);
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return current.lastIndexOf(o);
+	}
+
+	@Override
+	public Object[] toArray() {
+		return current.toArray();
+	}
+
+	@Override
+	public <E> E[] toArray(E[] a) {
+		return current.toArray(a);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return current.iterator();
+	}
+
+	@Override
+	public ListIterator<T> listIterator() {
+		return current.listIterator();
+	}
+
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		return current.listIterator(index);
+	}
+
+	@Override
+	public List<T> subList(int fromIndex, int toIndex) {
+		return current.subList(fromIndex, toIndex);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return current.spliterator();
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		current.forEach(action);
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<T> operator) {
+		current.replaceAll(operator);
+	}
+
+	@Override
+	public void sort(Comparator<? super T> c) {
+		current.sort(c);
+	}
+
+	@Override
+	public void ensureCapacity(int minCapacity) {
+		current.ensureCapacity(minCapacity);
+	}
+
+	@Override
+	public void trimToSize() {
+		current.trimToSize();
+	}
+
+	@Override
+	public Object clone() {
+		return new ArrayList<T>(current);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return (o == this) || current.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return current.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return current.toString();
+	}
+
+	private Object writeReplace() {
+		return new ArrayList<T>(current);
+	}
+
+	/**
+	 * Entries of a step with number of entries to be retained, counted while
+	 * adding entries. Count is computed again only after other modification.
+	 */
+	private static final class Frame<T> extends ArrayList<T> {
+		private static final long serialVersionUID = -2457011426231983375L;
+
+		private final transient Predicate<? super T> retained;
+		private int retainedCount;
+		// modification count for which retained count is valid
+		private int countedModCount;
+
+		Frame(Predicate<? super T> retained) {
+			this.retained = retained;
+		}
+
+		int getRetainedCount() {
+			if (countedModCount != modCount) {
+				retainedCount = 0;
+				for (T entry : this) {
+					if (retained.test(entry)) {
+						retainedCount++;
+					}
+				}
+				counted();
+			}
+			return retainedCount;
+		}
+
+		/**
+		 * To be called after modification that doesn't change retained count.
+		 */
+		void counted() {
+			countedModCount = modCount;
+		}
+
+		@Override
+		public boolean add(T e) {
+			boolean counted = countedModCount == modCount;
+			super.add(e);
+			count(counted, e);
+			return true;
+		}
+
+		@Override
+		public void add(int index, T element) {
+			boolean counted = countedModCount == modCount;
+			super.add(index, element);
+			count(counted, element);
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends T> c) {
+			boolean counted = countedModCount == modCount;
+			boolean modified = super.addAll(c);
+			count(counted, c);
+			return modified;
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends T> c) {
+			boolean counted = countedModCount == modCount;
+			boolean modified = super.addAll(index, c);
+			count(counted, c);
+			return modified;
+		}
+
+		private void count(boolean counted, T e) {
+			if (counted && null != retained) {
+				if (retained.test(e)) {
+					retainedCount++;
+				}
+				counted();
+			}
+		}
+
+		private void count(boolean counted, Collection<? extends T> c) {
+			if (counted && null != retained) {
+				for (T e : c) {
+					if (retained.test(e)) {
+						retainedCount++;
+					}
+				}
+				counted();
+			}
+		}
+	}
+}
@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -39,12 +40,14 @@ import com.google.common.base.Supplier;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.ui.UiDriver;
 import com.qmetry.qaf.automation.ui.UiDriverFactory;
+import com.qmetry.qaf.automation.ui.UiDriverPool;
 import com.qmetry.qaf.automation.ui.WebDriverTestBase;
 import com.qmetry.qaf.automation.ui.util.DynamicWait;
 import com.qmetry.qaf.automation.ui.util.ExpectedCondition;
 import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
 import com.qmetry.qaf.automation.util.FileUtil;
 import com.qmetry.qaf.automation.util.PropertyUtil;
+import com.qmetry.qaf.automation.util.ScreenShotWriter;
 import com.qmetry.qaf.automation.util.StringMatcher;
 import com.qmetry.qaf.automation.util.StringUtil;
 
@@ -136,8 +139,17 @@ public class QAFTestBase {
 	protected QAFTestBase() {
 		context = new PropertyUtil();
 		context.setDelimiterParsingDisabled(true);
-		context.setProperty(COMMAND_LOG, new ArrayList<LoggingBean>());
-		context.setProperty(CHECKPOINTS, new ArrayList<CheckpointResultBean>());
+		context.setProperty(COMMAND_LOG,
+				new ExecutionLog<LoggingBean>(ApplicationProperties.REPORT_COMMAND_LOG_MAX.getIntVal(0)));
+		context.setProperty(CHECKPOINTS, new ExecutionLog<CheckpointResultBean>(
+				ApplicationProperties.REPORT_CHECKPOINT_MAX.getIntVal(0), new Predicate<CheckpointResultBean>() {
+					@Override
+					public boolean test(CheckpointResultBean checkpoint) {
+						// failures and warnings are always reported
+						return null != checkpoint.getType() && (checkpoint.getType().toLowerCase().contains("fail")
+								|| checkpoint.getType().toLowerCase().contains("warn"));
+					}
+				}));
 		context.setProperty(VERIFICATION_ERRORS, 0);
 		driverContext = new HashMap<String, UiDriver>();
 
@@ -180,7 +192,7 @@ public class QAFTestBase {
 		for (String driver : drivers) {
 			UiDriver uiDriver = (UiDriver) drivercontext.get(driver);
 			if (null != uiDriver) {
-				new UiDriverFactory().tearDown(uiDriver);
+				releaseDriver(uiDriver);
 				if (getDriverName().equalsIgnoreCase(driver)) {
 					setDriver("");
 				}
@@ -194,7 +206,7 @@ public class QAFTestBase {
 		Map<String, UiDriver> drivercontext = getDriverContext();
 		UiDriver uiDriver = (UiDriver) drivercontext.get(driverName);
 		if (null != uiDriver) {
-			new UiDriverFactory().tearDown(uiDriver);
+			releaseDriver(uiDriver);
 		}
 		drivercontext.remove(driverName);
 		if (getDriverName().equalsIgnoreCase(driverName)) {
@@ -311,11 +323,20 @@ public class QAFTestBase {
 
 	public void claerAssertionsLog() {
 		clearVerificationErrors();
-		getCheckPointResults().clear();
-		getLog().clear();
+		clearLog(getCheckPointResults());
+		clearLog(getLog());
 		lastCapturedScreenShot = "";
 	}
 
+	private static void clearLog(List<?> log) {
+		if (log instanceof ExecutionLog) {
+			// also ends step frames not ended by step listener
+			((ExecutionLog<?>) log).reset();
+		} else {
+			log.clear();
+		}
+	}
+
 	/** Clears out the list of verification errors */
 	public void clearVerificationErrors() {
 		getContext().setProperty(VERIFICATION_ERRORS, 0);
@@ -464,17 +485,30 @@ public class QAFTestBase {
 		stb = initStbArgs();
 		logger.info("Initializing Driver..." + STBArgs.allToString(stb));
 		// uiDriver = new UiDriverFactory().get(commandLog, stb);
-		DriverInitExpectedCondition driverInitExpectedCondition = new DriverInitExpectedCondition(
-				(ArrayList<LoggingBean>) getLog(), stb);
-		UiDriver uiDriver = new UiDriverInitializer()
-				.withTimeout(ApplicationProperties.DRIVER_INIT_TIMEOUT.getIntVal(0), TimeUnit.SECONDS)
-				.pollingEvery(10, TimeUnit.SECONDS).withMessage(driverInitExpectedCondition)
-				.ignoring(WebDriverException.class).until(driverInitExpectedCondition);
+		UiDriverPool pool = UiDriverPool.instance();
+		UiDriver uiDriver = pool.lease((ArrayList<LoggingBean>) getLog(), stb);
+		if (null == uiDriver) {
+			DriverInitExpectedCondition driverInitExpectedCondition = new DriverInitExpectedCondition(
+					(ArrayList<LoggingBean>) getLog(), stb);
+			uiDriver = new UiDriverInitializer()
+					.withTimeout(ApplicationProperties.DRIVER_INIT_TIMEOUT.getIntVal(0), TimeUnit.SECONDS)
+					.pollingEvery(10, TimeUnit.SECONDS).withMessage(driverInitExpectedCondition)
+					.ignoring(WebDriverException.class).until(driverInitExpectedCondition);
+			pool.register(uiDriver, stb);
+		}
 
 		setUiDriver(uiDriver);
 		logger.info("driver init done");
 	}
 
+	private void releaseDriver(UiDriver uiDriver) {
+		if (isPrepareForShutdown()) {
+			new UiDriverFactory().tearDown(uiDriver);
+		} else {
+			UiDriverPool.instance().release(uiDriver);
+		}
+	}
+
 	private boolean hasFailure(List<CheckpointResultBean> subSteps) {
 		for (CheckpointResultBean subStep : subSteps) {
 			if (StringMatcher.containsIgnoringCase("fail").match(subStep.getType())) {
@@ -519,7 +553,7 @@ public class QAFTestBase {
 			if (tcname.length() > 25) {
 				tcname.substring(0, 25);
 			}
-			filename = FileUtil.saveImageFile(base64Image, StringUtil.createRandomString(tcname), getScreenShotDir());
+			filename = ScreenShotWriter.write(base64Image, StringUtil.createRandomString(tcname), getScreenShotDir());
 			lastCapturedScreenShot = filename;
 			logger.debug("Capturing screen shot" + lastCapturedScreenShot);
 
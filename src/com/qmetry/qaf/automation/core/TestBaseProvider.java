@@ -25,7 +25,10 @@ import java.util.Iterator;
 import java.util.Vector;
 
 import com.qmetry.qaf.automation.integration.ResultUpdator;
+import com.qmetry.qaf.automation.ui.UiDriverPool;
 import com.qmetry.qaf.automation.ui.webdriver.ChromeDriverHelper;
+import com.qmetry.qaf.automation.util.ScreenShotWriter;
+import com.qmetry.qaf.automation.ws.rest.PooledRestClient;
 
 /**
  * This class provides thread-local {@link #QAFTestBase}.
@@ -93,7 +96,10 @@ public class TestBaseProvider extends ThreadLocal<QAFTestBase> {
 			public void run() {
 				TestBaseProvider.instance().prepareForShutDown();
 				TestBaseProvider.instance().stopAll();
+				UiDriverPool.instance().shutdown();
+				PooledRestClient.shutdown();
 				ChromeDriverHelper.teardownService();
+				ScreenShotWriter.awaitTermination();
 				ResultUpdator.awaitTermination();
 			}
 		});
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.data;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.qmetry.qaf.automation.util.StringUtil;
+
+/**
+ * Include/exclude meta-data filter compiled once and applied to many
+ * scenarios. A scenario is included if, for each include key, it has any of
+ * the values for that key, and it has none of exclude values. Keys with no
+ * values are ignored.
+ * <p>
+ * Use {@link #include(Map)} for single scenario or {@link #select(List)} to
+ * apply filter on a list of scenarios using {@link MetaDataIndex}.
+ * 
+ * @author chirag.jayswal
+ */
+public class MetaDataFilter {
+	private static final Map<String, MetaDataFilter> COMPILED = new ConcurrentHashMap<String, MetaDataFilter>();
+	private static final MetaDataFilter NONE = new MetaDataFilter(null, null);
+
+	private final Map<String, Set<Object>> include;
+	private final Map<String, Set<Object>> exclude;
+
+	public MetaDataFilter(Map<String, Object> includeMeta, Map<String, Object> excludeMeta) {
+		include = compile(includeMeta);
+		exclude = compile(excludeMeta);
+	}
+
+	/**
+	 * @param includeJson
+	 *            include filter as json map
+	 * @param excludeJson
+	 *            exclude filter as json map
+	 * @return compiled filter, same instance for same include and exclude
+	 */
+	@SuppressWarnings("unchecked")
+	public static MetaDataFilter compile(String includeJson, String excludeJson) {
+		if (StringUtil.isBlank(includeJson) && StringUtil.isBlank(excludeJson)) {
+			return NONE;
+		}
+		String key = includeJson + "\n" + excludeJson;
+		MetaDataFilter filter = COMPILED.get(key);
+		if (null == filter) {
+			Gson gson = new Gson();
+			filter = new MetaDataFilter(gson.fromJson(includeJson, Map.class), gson.fromJson(excludeJson, Map.class));
+			COMPILED.put(key, filter);
+		}
+		return filter;
+	}
+
+	/**
+	 * @return true if filter includes all scenarios
+	 */
+	public boolean isEmpty() {
+		return include.isEmpty() && exclude.isEmpty();
+	}
+
+	/**
+	 * @return meta-data keys used by this filter
+	 */
+	public Set<String> getKeys() {
+		Set<String> keys = new LinkedHashSet<String>(include.keySet());
+		keys.addAll(exclude.keySet());
+		return keys;
+	}
+
+	/**
+	 * @param metadata
+	 *            scenario meta-data
+	 * @return true if scenario should be included
+	 */
+	public boolean include(Map<String, Object> metadata) {
+		for (Entry<String, Set<Object>> entry : include.entrySet()) {
+			if (!hasAny(metadata.get(entry.getKey()), entry.getValue())) {
+				return false;
+			}
+		}
+		for (Entry<String, Set<Object>> entry : exclude.entrySet()) {
+			if (hasAny(metadata.get(entry.getKey()), entry.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param metadataList
+	 *            meta-data of scenarios
+	 * @return bits set for index of scenarios to be included
+	 */
+	public BitSet select(List<? extends Map<String, Object>> metadataList) {
+		BitSet selected = new BitSet(metadataList.size());
+		selected.set(0, metadataList.size());
+		if (isEmpty()) {
+			return selected;
+		}
+		MetaDataIndex index = new MetaDataIndex(metadataList, getKeys());
+		for (Entry<String, Set<Object>> entry : include.entrySet()) {
+			// OR values of the key, AND between keys
+			BitSet any = new BitSet(metadataList.size());
+			for (Object value : entry.getValue()) {
+				any.or(index.get(entry.getKey(), value));
+			}
+			selected.and(any);
+		}
+		for (Entry<String, Set<Object>> entry : exclude.entrySet()) {
+			for (Object value : entry.getValue()) {
+				selected.andNot(index.get(entry.getKey(), value));
+			}
+		}
+		return selected;
+	}
+
+	static void forEachValue(Object metaVal, Collection<Object> target) {
+		if (null == metaVal) {
+			return;
+		}
+		if (metaVal instanceof List) {
+			target.addAll((List<?>) metaVal);
+		} else if (metaVal.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(metaVal); i++) {
+				target.add(Array.get(metaVal, i));
+			}
+		} else {
+			target.add(metaVal);
+		}
+	}
+
+	private static boolean hasAny(Object metaVal, Set<Object> values) {
+		if (null == metaVal) {
+			return false;
+		}
+		if (metaVal instanceof List) {
+			for (Object val : (List<?>) metaVal) {
+				if (values.contains(val)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (metaVal.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(metaVal); i++) {
+				if (values.contains(Array.get(metaVal, i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return values.contains(metaVal);
+	}
+
+	private static Map<String, Set<Object>> compile(Map<String, Object> filter) {
+		if (null == filter || filter.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, Set<Object>> compiled = new LinkedHashMap<String, Set<Object>>();
+		for (Entry<String, Object> entry : filter.entrySet()) {
+			Set<Object> values = new HashSet<Object>();
+			forEachValue(entry.getValue(), values);
+			if (!values.isEmpty()) {
+				compiled.put(entry.getKey(), values);
+			}
+		}
+		return compiled;
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.data;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from meta-data key and value to scenarios having that
+ * value. Scenario is identified by its index in the list used to build the
+ * index.
+ * 
+ * @author chirag.jayswal
+ */
+public class MetaDataIndex {
+	private static final BitSet EMPTY = new BitSet(0);
+	private final Map<String, Map<Object, BitSet>> index = new HashMap<String, Map<Object, BitSet>>();
+	private final int size;
+
+	/**
+	 * @param metadataList
+	 *            meta-data of scenarios
+	 * @param keys
+	 *            meta-data keys to index
+	 */
+	public MetaDataIndex(List<? extends Map<String, Object>> metadataList, Collection<String> keys) {
+		size = metadataList.size();
+		List<Object> values = new ArrayList<Object>();
+		for (String key : keys) {
+			Map<Object, BitSet> valueIndex = new HashMap<Object, BitSet>();
+			for (int i = 0; i < size; i++) {
+				values.clear();
+				// get from scenario meta-data to respect its key comparison
+				MetaDataFilter.forEachValue(metadataList.get(i).get(key), values);
+				for (Object value : values) {
+					BitSet scenarios = valueIndex.get(value);
+					if (null == scenarios) {
+						scenarios = new BitSet(size);
+						valueIndex.put(value, scenarios);
+					}
+					scenarios.set(i);
+				}
+			}
+			index.put(key, valueIndex);
+		}
+	}
+
+	/**
+	 * @return number of scenarios indexed
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param key
+	 * @param value
+	 * @return scenarios having given value for the key, must not be modified
+	 */
+	public BitSet get(String key, Object value) {
+		Map<Object, BitSet> valueIndex = index.get(key);
+		BitSet scenarios = null == valueIndex ? null : valueIndex.get(value);
+		return null == scenarios ? EMPTY : scenarios;
+	}
+}
@@ -31,11 +31,9 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.TreeMap;
 
 import org.apache.commons.configuration.Configuration;
@@ -49,7 +47,6 @@ import org.testng.xml.XmlTest;
 
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.step.client.Scenario;
 import com.qmetry.qaf.automation.step.client.TestNGScenario;
@@ -265,81 +262,17 @@ public class MetaDataScanner {
 		return applyMetafilter(imethod, scenarioMetadata);
 	}
 
-	@SuppressWarnings("unchecked")
 	private static boolean applyMetafilter(ITestNGMethod imethod, Map<String, Object> scenarioMetadata) {
-		String includeStr = getParameter(imethod, "include");
-		String excludeStr = getParameter(imethod, "exclude");
-		if (StringUtil.isBlank(includeStr) && StringUtil.isBlank(excludeStr)) {
-			// no need to process as no include/exclude filter provided
-			return true;
-		}
-
-		Gson gson = new GsonBuilder().create();
-
-		Map<String, Object> includeMeta = gson.fromJson(includeStr, Map.class);
-		Map<String, Object> excludeMeta = gson.fromJson(excludeStr, Map.class);
-
-		return MetaDataScanner.includeMethod(scenarioMetadata, includeMeta, excludeMeta);
+		// compiled once for same include and exclude
+		MetaDataFilter filter = MetaDataFilter.compile(getParameter(imethod, "include"),
+				getParameter(imethod, "exclude"));
+		// no need to process if no include/exclude filter provided
+		return filter.isEmpty() || filter.include(scenarioMetadata);
 	}
 
 	public static boolean includeMethod(Map<String, Object> scenarioMetadata, Map<String, Object> includeMeta,
 			Map<String, Object> excludeMeta) {
-
-		boolean binclude = includeMeta == null || includeMeta.isEmpty()
-				|| hasMetaValue(includeMeta, scenarioMetadata, true);
-		boolean bexclude = excludeMeta != null && !excludeMeta.isEmpty()
-				&& hasMetaValue(excludeMeta, scenarioMetadata, false);
-
-		return binclude && !bexclude;
-	}
-
-	private static boolean hasMetaValue(Map<String, Object> metaFilter, Map<String, Object> metadata,
-			boolean isInclude) {
-
-		// get all the meta data keys used in filter
-		Set<String> filterKeys = metaFilter.keySet(); // author, module, brand
-		// iterate for each key and match with scenario meta data
-		for (String metaKey : filterKeys) {
-			// scenario's meta-value for given key
-			Object metaVal = metadata.get(metaKey); // M1,M2,M3
-			Set<Object> scMetaValues = getMetaValues(metaVal);
-
-			// get meta-data value in filter for given key
-			Object metaValuesObjForKey = metaFilter.get(metaKey);
-			Set<Object> metaValuesForKey = getMetaValues(metaValuesObjForKey); // M1
-
-			if (!metaValuesForKey.isEmpty()) {
-
-				scMetaValues.retainAll(metaValuesForKey);
-				// M1
-				// found so just return as AND operation between deferment
-				// meta-keys and OR with given meta-key values
-
-				if (isInclude) {
-					if (scMetaValues.isEmpty()) {
-						return !isInclude;
-					}
-				} else {
-					if (!scMetaValues.isEmpty()) {
-						return !isInclude;
-					}
-				}
-			}
-		}
-		return isInclude;
-	}
-
-	@SuppressWarnings("unchecked")
-	private static Set<Object> getMetaValues(Object metaVal) {
-		if (null == metaVal)
-			return new HashSet<Object>();
-		if (List.class.isAssignableFrom(metaVal.getClass()))
-			return new HashSet<Object>((List<Object>) (metaVal));
-		if (metaVal.getClass().isArray()) {
-			Object[] vals = (Object[]) metaVal;
-			return new HashSet<Object>(Arrays.asList(vals));
-		}
-		return new HashSet<Object>(Arrays.asList(metaVal));
+		return new MetaDataFilter(includeMeta, excludeMeta).include(scenarioMetadata);
 	}
 
 	private static boolean matches(String formatStr, String s) {
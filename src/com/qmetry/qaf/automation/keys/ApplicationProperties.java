@@ -51,6 +51,39 @@ public enum ApplicationProperties {
 	 * <b>value</b>: dir to place generated result files
 	 */
 	REPORT_DIR("test.results.dir"), JSON_REPORT_ROOT_DIR("json.report.root.dir"), JSON_REPORT_DIR("json.report.dir"),
+	/**
+	 * <b>key</b>: <code>report.flush.interval</code><br/>
+	 * <b>value</b>: max time in milliseconds json report updates are kept in
+	 * memory before written to the file system. Default is 1000.
+	 * 
+	 * @since 2.1.15
+	 */
+	REPORT_FLUSH_INTERVAL("report.flush.interval"),
+	/**
+	 * <b>key</b>: <code>report.flush.size</code><br/>
+	 * <b>value</b>: number of pending json report updates that triggers write
+	 * before {@link #REPORT_FLUSH_INTERVAL} elapsed. Default is 500.
+	 * 
+	 * @since 2.1.15
+	 */
+	REPORT_FLUSH_SIZE("report.flush.size"),
+	/**
+	 * <b>key</b>: <code>report.command.log.max</code><br/>
+	 * <b>value</b>: max number of command log entries kept for a test and for
+	 * each step. Older entries are discarded. Default is 0 (no limit).
+	 * 
+	 * @since 2.1.15
+	 */
+	REPORT_COMMAND_LOG_MAX("report.command.log.max"),
+	/**
+	 * <b>key</b>: <code>report.checkpoint.max</code><br/>
+	 * <b>value</b>: max number of check point results kept for a test and for
+	 * each step. Older results are discarded except failures and warnings.
+	 * Default is 0 (no limit).
+	 * 
+	 * @since 2.1.15
+	 */
+	REPORT_CHECKPOINT_MAX("report.checkpoint.max"),
 	/**
 	 * <b>key</b>: <code> selenium.screenshots.dir </code><br/>
 	 * <b>value</b>: dir to place screen-shots
@@ -61,6 +94,40 @@ public enum ApplicationProperties {
 	 * <b>value</b>: screen-shots relative path for reporting
 	 */
 	SCREENSHOT_RELATIVE_PATH("selenium.screenshots.relative.path"),
+	/**
+	 * <b>key</b>: <code>selenium.screenshots.async</code><br/>
+	 * <b>value</b>: set false to write screen-shots on test thread. Default is
+	 * true, screen-shot file name is reserved immediately and file is written
+	 * in background.
+	 * 
+	 * @since 2.1.15
+	 */
+	SCREENSHOT_ASYNC("selenium.screenshots.async"),
+	/**
+	 * <b>key</b>: <code>selenium.screenshots.queue.size</code><br/>
+	 * <b>value</b>: max number of screen-shots waiting to be written in
+	 * background. When queue is full screen-shot is written on test thread.
+	 * Default is 50.
+	 * 
+	 * @since 2.1.15
+	 */
+	SCREENSHOT_QUEUE_SIZE("selenium.screenshots.queue.size"),
+	/**
+	 * <b>key</b>: <code>selenium.screenshots.format</code><br/>
+	 * <b>value</b>: image format to save screen-shots, png or jpg. Default is
+	 * png.
+	 * 
+	 * @since 2.1.15
+	 */
+	SCREENSHOT_FORMAT("selenium.screenshots.format"),
+	/**
+	 * <b>key</b>: <code>selenium.screenshots.scale</code><br/>
+	 * <b>value</b>: scale factor between 0 and 1 to downscale screen-shots
+	 * before saving. Default is 1 (original size).
+	 * 
+	 * @since 2.1.15
+	 */
+	SCREENSHOT_SCALE("selenium.screenshots.scale"),
 	/**
 	 * <b>key</b>: <code>selenium.success.screenshots </code><br/>
 	 * <b>value</b>: set this flag to 1 if you want to capture screen-shots for
@@ -252,6 +319,18 @@ public enum ApplicationProperties {
 	 */
 	REPORTER_LOG_EXCLUDE_CMD("reporter.log.exclude.commands"),
 
+	/**
+	 * <b>key</b>: <code>reporter.log.exclude.wait.commands</code><br/>
+	 * <b>value</b>: set true to exclude commands executed while waiting for
+	 * condition (for example by waitFor, verify and assert methods of
+	 * element) from selenium log in HTML report. Default is false. Commands
+	 * executed inside selenium 1 {@link com.thoughtworks.selenium.Wait} are
+	 * always excluded.
+	 * 
+	 * @since 2.1.15
+	 */
+	REPORTER_LOG_EXCLUDE_WAIT_CMD("reporter.log.exclude.wait.commands"),
+
 	/**
 	 * <b>key</b>: <code>commands.execution.interval </code><br/>
 	 * <b>value</b>: Set execution interval between two selenium commands.
@@ -497,6 +576,34 @@ public enum ApplicationProperties {
 	 * "step.provider.pkg", the last package has highest priority.
 	 */
 	STEP_PROVIDER_PKG("step.provider.pkg"),
+	/**
+	 * <b>key</b>: <code>step.index.file</code><br/>
+	 * <b>value</b>: file path to persist discovered step provider classes for
+	 * each package of "step.provider.pkg". When provided, package for which
+	 * classes are not changed since last run will be loaded from index instead
+	 * of scanning entire package.
+	 * 
+	 * @since 2.1.15
+	 */
+	STEP_INDEX_FILE("step.index.file"),
+	/**
+	 * <b>key</b>: <code>scenario.file.parse.threads</code><br/>
+	 * <b>value</b>: number of threads to parse scenario files. Default is
+	 * number of available processors, 1 to parse one file after another.
+	 * 
+	 * @since 2.1.15
+	 */
+	SCENARIO_PARSE_THREADS("scenario.file.parse.threads"),
+	/**
+	 * <b>key</b>: <code>scenario.file.cache.dir</code><br/>
+	 * <b>value</b>: directory to persist statements parsed from scenario
+	 * files. When provided, scenario file not changed since last run (same
+	 * path, size and last modified time) will be loaded from cache instead of
+	 * parsing.
+	 * 
+	 * @since 2.1.15
+	 */
+	SCENARIO_CACHE_DIR("scenario.file.cache.dir"),
 	/**
 	 * <b>key</b>: <code>retry.count </code><br/>
 	 * <b>value</b>: integer to specify how many times test should be retried on
@@ -530,6 +637,42 @@ public enum ApplicationProperties {
 	 *        {@link RestClientFactory}.
 	 */
 	REST_CLIENT_FACTORY_IMPL("rest.client.impl"),
+	/**
+	 * <b>key</b>: <code>rest.client.pool.max.total</code><br/>
+	 * <b>value</b>: max connections in pool shared by
+	 * {@link com.qmetry.qaf.automation.ws.rest.PooledRestClient}. Default is
+	 * 100.
+	 * 
+	 * @since 2.1.15
+	 */
+	REST_CLIENT_POOL_MAX_TOTAL("rest.client.pool.max.total"),
+	/**
+	 * <b>key</b>: <code>rest.client.pool.max.per.host</code><br/>
+	 * <b>value</b>: max connections per host in pool shared by
+	 * {@link com.qmetry.qaf.automation.ws.rest.PooledRestClient}. Default is
+	 * 20.
+	 * 
+	 * @since 2.1.15
+	 */
+	REST_CLIENT_POOL_MAX_PER_HOST("rest.client.pool.max.per.host"),
+	/**
+	 * <b>key</b>: <code>rest.client.pool.host.limits</code><br/>
+	 * <b>value</b>: json map of host url to max connections for that host,
+	 * for example <code>{"https://api.example.com":50}</code>. Overrides
+	 * {@link #REST_CLIENT_POOL_MAX_PER_HOST} for given hosts.
+	 * 
+	 * @since 2.1.15
+	 */
+	REST_CLIENT_POOL_HOST_LIMITS("rest.client.pool.host.limits"),
+	/**
+	 * <b>key</b>: <code>rest.client.log.entity.max</code><br/>
+	 * <b>value</b>: max bytes of request and response entity to keep for
+	 * logging, rest of the entity is streamed without logging. Default is 0
+	 * (no limit).
+	 * 
+	 * @since 2.1.15
+	 */
+	REST_LOG_ENTITY_MAX("rest.client.log.entity.max"),
 
 	/**
 	 * @since 2.1.13 <b>key</b>: <code>password.decryptor.impl</code><br/>
@@ -574,6 +717,130 @@ public enum ApplicationProperties {
 	 * 
 	 */
 	ELEMENT_ATTACH_DEFAULT_LISTENER("element.default.listener"),
+	/**
+	 * <p>
+	 * Set true to reuse resolved element reference across commands until
+	 * page navigation, frame/window switch or stale element. When not set
+	 * non-cacheable element will be located before each command.
+	 * </p>
+	 * <b>key</b>: <code>element.reference.cache</code><br/>
+	 * <b>value</b>: boolean true/false. Default is false.
+	 * 
+	 * @see com.qmetry.qaf.automation.ui.webdriver.ElementReferenceCache
+	 * @since 2.1.15
+	 * 
+	 */
+	ELEMENT_REFERENCE_CACHE("element.reference.cache"),
+	/**
+	 * <p>
+	 * Max time in milliseconds {@link com.qmetry.qaf.automation.ui.webdriver.ElementSnapshot}
+	 * values are used for element read commands. Snapshot is discarded earlier
+	 * when any other command executed.
+	 * </p>
+	 * <b>key</b>: <code>element.snapshot.ttl</code><br/>
+	 * <b>value</b>: time in milliseconds. Default is 500.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	ELEMENT_SNAPSHOT_TTL("element.snapshot.ttl"),
+	/**
+	 * <p>
+	 * Max time in milliseconds elements located by
+	 * {@link com.qmetry.qaf.automation.ui.webdriver.RefreshableElementList}
+	 * are reused for list calls. Elements are located again earlier when any
+	 * driver command that may change the page executed. Set 0 to locate
+	 * elements on each list call.
+	 * </p>
+	 * <b>key</b>: <code>element.list.snapshot.ttl</code><br/>
+	 * <b>value</b>: time in milliseconds. Default is 500.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	ELEMENT_LIST_SNAPSHOT_TTL("element.list.snapshot.ttl"),
+	/**
+	 * <p>
+	 * Set false to locate elements of
+	 * {@link com.qmetry.qaf.automation.ui.webdriver.ByAny},
+	 * {@link com.qmetry.qaf.automation.ui.webdriver.ByJQuery} and ExtJS
+	 * locators with separate driver call for each locator instead of single
+	 * script execution in browser.
+	 * </p>
+	 * <b>key</b>: <code>element.script.resolver</code><br/>
+	 * <b>value</b>: true/false. Default is true.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	ELEMENT_SCRIPT_RESOLVER("element.script.resolver"),
+	/**
+	 * <p>
+	 * Interval in milliseconds before second evaluation of wait condition.
+	 * Interval is doubled after each evaluation up to
+	 * <code>selenium.wait.interval</code>, so condition satisfied quickly
+	 * is detected early while long waits are polled less often. Set 0 to
+	 * poll with fixed interval.
+	 * </p>
+	 * <b>key</b>: <code>selenium.wait.interval.initial</code><br/>
+	 * <b>value</b>: time in milliseconds. Default is 100.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	WAIT_INTERVAL_INITIAL("selenium.wait.interval.initial"),
+	/**
+	 * <p>
+	 * Set false to evaluate java script wait conditions, for instance
+	 * {@link com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver#waitForAjax(long...)},
+	 * by polling from driver instead of waiting in browser.
+	 * </p>
+	 * <b>key</b>: <code>selenium.wait.in.browser</code><br/>
+	 * <b>value</b>: true/false. Default is true.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	WAIT_IN_BROWSER("selenium.wait.in.browser"),
+	/**
+	 * <p>
+	 * Number of driver sessions to keep per driver configuration in
+	 * {@link com.qmetry.qaf.automation.ui.UiDriverPool}. When set, sessions are
+	 * pre-warmed at suite start and on tear down session is reset and returned
+	 * to the pool instead of quit.
+	 * </p>
+	 * <b>key</b>: <code>driver.pool.size</code><br/>
+	 * <b>value</b>: number of sessions. Default is 0 (pool disabled).
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	DRIVER_POOL_SIZE("driver.pool.size"),
+	/**
+	 * <p>
+	 * Max time in milliseconds a session can stay idle in
+	 * {@link com.qmetry.qaf.automation.ui.UiDriverPool} before it is quit.
+	 * </p>
+	 * <b>key</b>: <code>driver.pool.max.idle</code><br/>
+	 * <b>value</b>: time in milliseconds. Default is 300000.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	DRIVER_POOL_MAX_IDLE("driver.pool.max.idle"),
+	/**
+	 * <p>
+	 * Max number of times a session from
+	 * {@link com.qmetry.qaf.automation.ui.UiDriverPool} can be leased before
+	 * it is quit.
+	 * </p>
+	 * <b>key</b>: <code>driver.pool.max.uses</code><br/>
+	 * <b>value</b>: number of leases. Default is 100.
+	 * 
+	 * @since 2.1.15
+	 * 
+	 */
+	DRIVER_POOL_MAX_USES("driver.pool.max.uses"),
 	/**
 	 * <p>
 	 * Set true to trust all certificates and ignore host name verification for
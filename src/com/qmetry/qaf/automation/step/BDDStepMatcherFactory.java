@@ -47,6 +47,11 @@ public class BDDStepMatcherFactory {
 	}
 
 	public static class DefaultBDDStepMatcher implements BDDStepMatcher {
+		private static final Pattern ESC_PARENTHESES = Pattern.compile("\\\\\\((.*?)\\)");
+		private static final Pattern ESC_BRACES = Pattern.compile("\\\\\\{(.*?)\\}");
+
+		// step description and description with fixed escape characters
+		private volatile String[] escaped = new String[] { null, null };
 
 		@Override
 		public boolean matches(String stepDescription, String stepCall, Map<String, Object> context) {
@@ -64,17 +69,25 @@ public class BDDStepMatcherFactory {
 			stepCall = quoteParams(stepCall);
 			return BDDDefinitionHelper.getArgsFromCall(stepDescription, stepCall);
 		}
-		private static String fixEsc(String s) {
-			Pattern p1 = Pattern.compile("\\\\\\((.*?)\\)");
-			Pattern p2 = Pattern.compile("\\\\\\{(.*?)\\}");
-			s = p1.matcher(s).replaceAll("\\\\\\($1\\\\\\)");
-			s = p2.matcher(s).replaceAll("\\\\\\{$1\\\\\\}");
-			return s;
+		private String fixEsc(String s) {
+			String[] last = escaped;
+			if (s.equals(last[0])) {
+				return last[1];
+			}
+			String fixed = s;
+			if (s.indexOf('\\') >= 0) {
+				fixed = ESC_PARENTHESES.matcher(fixed).replaceAll("\\\\\\($1\\\\\\)");
+				fixed = ESC_BRACES.matcher(fixed).replaceAll("\\\\\\{$1\\\\\\}");
+			}
+			escaped = new String[] { s, fixed };
+			return fixed;
 		}
 
 	}
 
 	public static class GherkinStepMatcher implements BDDStepMatcher {
+		private static final Pattern OPTIONAL_ARG = Pattern.compile(Pattern.quote("(?:") + ".*" + Pattern.quote(")?"));
+
 		@Override
 		public boolean matches(String stepDescription, String stepCall, Map<String, Object> context) {
 			stepCall = replaceParams(stepCall, context);
@@ -111,19 +124,20 @@ public class BDDStepMatcherFactory {
 				String exp = "(.+)";
 				stepDescription = StringUtil.replace(stepDescription, ":$", ":" + exp + "$", 1);
 			}
-			return Pattern.compile(stepDescription, Pattern.CASE_INSENSITIVE);
+			return BDDDefinitionHelper.getPattern(stepDescription, Pattern.CASE_INSENSITIVE);
 		}
 
 		private static String opArgs(String stepDescription) {
-			String st = Pattern.quote("(?:");
-			String end = Pattern.quote(")?");
-			Pattern pattern = Pattern.compile(st + ".*" + end);
-			Matcher matcher = pattern.matcher(stepDescription);
+			if (stepDescription.indexOf("(?:") < 0) {
+				return stepDescription;
+			}
+			Matcher matcher = OPTIONAL_ARG.matcher(stepDescription);
 			while (matcher.find()) {
 				for (int i = 0; i <= matcher.groupCount(); i++) {
 					String match = matcher.group(i);
 					match = match.substring(3, match.length() - 2);
-					stepDescription = stepDescription.replaceFirst(st + ".*" + end, match);
+					stepDescription = OPTIONAL_ARG.matcher(stepDescription)
+							.replaceFirst(match);
 				}
 			}
 			return stepDescription;
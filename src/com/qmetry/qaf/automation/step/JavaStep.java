@@ -22,28 +22,21 @@
 package com.qmetry.qaf.automation.step;
 
 import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
-import static com.qmetry.qaf.automation.util.ClassUtil.getAnnotation;
-import static org.apache.commons.lang.StringUtils.isBlank;
-import static org.apache.commons.lang.StringUtils.isNotBlank;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.commons.lang.text.StrSubstitutor;
-import org.json.JSONException;
 
 import com.qmetry.qaf.automation.core.AutomationError;
 import com.qmetry.qaf.automation.core.TestBaseProvider;
-import com.qmetry.qaf.automation.data.MetaData;
 import com.qmetry.qaf.automation.ui.webdriver.QAFWebElement;
-import com.qmetry.qaf.automation.util.JSONUtil;
 
 /**
  * com.qmetry.qaf.automation.step.JavaStep.java
@@ -57,6 +50,7 @@ public class JavaStep extends BaseTestStep {
 	 */
 	public static final String ATTACH_LISTENER = "attach.javastep.listener";
 	protected transient Method method;
+	private transient JavaStepDefinition definition;
 	private Object stepProvider;
 	// package access
 	String signature = "";
@@ -67,61 +61,37 @@ public class JavaStep extends BaseTestStep {
 	}
 
 	public JavaStep(Method method, String name, String description) {
-		this.method = method;
-		this.name = name;
-		this.description = description;
-		init();
-	}
-
-	public boolean isQafStepImpl() {
-		return qafStepImpl;
+		this(new JavaStepDefinition(method, name, description));
+		stepMatcher = BDDStepMatcherFactory.getStepMatcher(this);
 	}
 
-	private void init() {
-		fileName = method.getDeclaringClass().getName();
-		MetaData stepMetaData = getAnnotation(method, MetaData.class);
-		MetaData classMetaData = getAnnotation(method.getDeclaringClass(), MetaData.class);
-		QAFTestStep step = getAnnotation(method, QAFTestStep.class);
-
-		if (null != classMetaData && isNotBlank(classMetaData.value())) {
-			try {
-				metaData = JSONUtil.toMap(classMetaData.value());
-			} catch (JSONException e) {
-				System.err.println(metaData + " is not valid json map for step meta-data");
-			}
-		}
-
-		setMetaData();
-		if (null != stepMetaData && isNotBlank(stepMetaData.value())) {
-			try {
-				// keep class meta-data which is not in step meta-data, override
-				// common
-				metaData.putAll(JSONUtil.toMap(stepMetaData.value()));
-			} catch (JSONException e) {
-				System.err.println(metaData + " is not valid json map for step meta-data");
-			}
+	/**
+	 * Creates new step instance sharing pre-resolved definition of the
+	 * prototype. Use it to implement {@link #clone()} in sub-class.
+	 * 
+	 * @param prototype
+	 */
+	protected JavaStep(JavaStep prototype) {
+		this(prototype.definition);
+		stepMatcher = prototype.getStepMatcher();
+		if (null != prototype.actualArgs) {
+			actualArgs = prototype.actualArgs.clone();
 		}
+	}
 
-		if (isBlank(name)) {
-			QAFTestStepProvider provider = method.getDeclaringClass().getAnnotation(QAFTestStepProvider.class);
-
-			String prefix = (provider != null) && isNotBlank(provider.prefix()) ? provider.prefix() + "." : "";
-			name = prefix + ((step != null) && isNotBlank(step.stepName()) ? step.stepName() : method.getName());
+	private JavaStep(JavaStepDefinition definition) {
+		this.definition = definition;
+		method = definition.getMethod();
+		name = definition.getName();
+		description = definition.getDescription();
+		fileName = definition.getFileName();
+		threshold = definition.getThreshold();
+		qafStepImpl = definition.isQafStepImpl();
+		metaData = new HashMap<String, Object>(definition.getMetaData());
+	}
 
-		}
-		if (step != null) {
-			threshold = step.threshold();
-			if (isNotBlank(step.description())) {
-				// highest priority to QAFTestStep annotation if multiple step
-				// definition way opted
-				description = step.description();
-				qafStepImpl = true;
-			}
-		}
-		if (isBlank(description)) {
-			description = name;
-		}
-		stepMatcher = BDDStepMatcherFactory.getStepMatcher(this);
+	public boolean isQafStepImpl() {
+		return qafStepImpl;
 	}
 
 	/*
@@ -145,9 +115,8 @@ public class JavaStep extends BaseTestStep {
 			// block joint-point listener
 			TestBaseProvider.instance().get().getContext().setProperty(ATTACH_LISTENER, false);
 			TestBaseProvider.instance().get().getContext().setProperty("current.teststep", this);
-			method.setAccessible(true);
 			Object[] args = processArgs(method, actualArgs);
-			return method.invoke(stepProvider, args);
+			return definition.invoke(stepProvider, args);
 		} catch (IllegalArgumentException e) {
 			throw new StepInvocationException(this, "Unable to invoke JavaStep with given arguments: " + getName()
 					+ Arrays.toString(actualArgs) + "\nat " + getSignature(), true);
@@ -187,7 +156,10 @@ public class JavaStep extends BaseTestStep {
 
 	@SuppressWarnings("unchecked")
 	protected Object[] processArgs(Method method, Object... objects) {
-		int noOfParams = method.getParameterTypes().length;
+		JavaStepDefinition definition = method.equals(this.method) ? this.definition
+				: new JavaStepDefinition(method, "", "");
+		Class<?>[] paramTypes = definition.getParameterTypes();
+		int noOfParams = paramTypes.length;
 		if (noOfParams == 0) {
 			return null;
 		}
@@ -195,7 +167,7 @@ public class JavaStep extends BaseTestStep {
 		Map<String, Object> context = getStepExecutionTracker().getContext();
 
 		try {
-			if ((noOfParams == (objects.length - 1)) && method.getParameterTypes()[noOfParams - 1].isArray()) {
+			if ((noOfParams == (objects.length - 1)) && paramTypes[noOfParams - 1].isArray()) {
 				// case of optional arguments!...
 				System.arraycopy(objects, 0, params, 0, objects.length);
 				params[noOfParams - 1] = "[]";
@@ -210,21 +182,15 @@ public class JavaStep extends BaseTestStep {
 
 		description = StrSubstitutor.replace(description, context);
 		description = getBundle().getSubstitutor().replace(description);
-		Annotation[][] paramsAnnotations = method.getParameterAnnotations();
 		context.put("__method", method);
 		QAFTestStepArgumentFormatter<Object> defaultFormatter = new QAFTestStepArgumentFormatterImpl();
 		for (int i = 0; i < noOfParams; i++) {
-			Class<?> paramType = method.getParameterTypes()[i];
+			Class<?> paramType = paramTypes[i];
 			context.put("__paramType", paramType);
 			context.put("__paramIndex", i);
 
-			Annotation[] paramAnnotations = paramsAnnotations[i];
-			Class<QAFTestStepArgumentFormatter<?>> formatter = null;
-			for (Annotation paramAnnotation : paramAnnotations) {
-				if (paramAnnotation instanceof Formatter) {
-					formatter = (Class<QAFTestStepArgumentFormatter<?>>) ((Formatter) paramAnnotation).value();
-				}
-			}
+			Class<QAFTestStepArgumentFormatter<?>> formatter = (Class<QAFTestStepArgumentFormatter<?>>) definition
+					.getFormatter(i);
 			if (null != formatter) {
 				try {
 					params[i] = formatter.newInstance().format(params[i], context);
@@ -244,12 +210,7 @@ public class JavaStep extends BaseTestStep {
 
 	@Override
 	public TestStep clone() {
-		JavaStep cloneObj = new JavaStep(method);
-		if (null != actualArgs) {
-			cloneObj.actualArgs = actualArgs.clone();
-		}
-		setStepMatcher(getStepMatcher());
-		return cloneObj;
+		return new JavaStep(this);
 	}
 
 	public void getSubSteps() {
@@ -257,43 +218,5 @@ public class JavaStep extends BaseTestStep {
 
 		}
 	}
-	
-	private void setMetaData() {
-
-		Annotation[] allAnnotations = method.getAnnotations();
-		for (Annotation annotation : allAnnotations) {
-			if (annotation instanceof MetaData || annotation instanceof QAFTestStep)
-				continue;
-
-			Method[] annotationMethods = annotation.annotationType().getDeclaredMethods();
-			for (Method annotationMethod : annotationMethods) {
-				Object objVal;
-				try {
-					objVal = annotationMethod.invoke(annotation);
-					String key = annotationMethod.getName();
-					metaData.put(key, objVal);
-					if (key.equalsIgnoreCase("value") && isTestStepAnnotation(annotation)) {
-						description = (String) objVal;
-						qafStepImpl = false;
-
-					}
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-			}
-		}
-	}
-
-	@SuppressWarnings("unchecked")
-	private boolean isTestStepAnnotation(Annotation annotation) {
-		List<String> annotationPkgs = getBundle().getList("step.annotation.pkgs", Arrays.asList("cucumber.api.java"));
-
-		for (String pkg : annotationPkgs) {
-			if (annotation.annotationType().getName().indexOf(pkg) >= 0) {
-				return true;
-			}
-		}
-		return false;
-	}
 
 }
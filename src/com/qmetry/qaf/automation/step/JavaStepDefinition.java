@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+import static com.qmetry.qaf.automation.util.ClassUtil.getAnnotation;
+import static org.apache.commons.lang.StringUtils.isBlank;
+import static org.apache.commons.lang.StringUtils.isNotBlank;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.ClassUtils;
+import org.json.JSONException;
+
+import com.qmetry.qaf.automation.data.MetaData;
+import com.qmetry.qaf.automation.util.JSONUtil;
+
+/**
+ * Immutable, pre-resolved definition of java step. It is resolved once for
+ * the step method and shared by all {@link JavaStep} instances created by
+ * cloning, so that annotations, meta-data and argument formatters are not
+ * resolved again for each step call.
+ * 
+ * @author chirag.jayswal
+ */
+final class JavaStepDefinition {
+	private final Method method;
+	private final String fileName;
+	private final Class<?>[] parameterTypes;
+	private final Class<?>[] formatters;
+	private final MethodHandle invoker;
+
+	private final String name;
+	private final String description;
+	private final int threshold;
+	private final boolean qafStepImpl;
+	private final Map<String, Object> metaData;
+
+	JavaStepDefinition(Method method, String name, String description) {
+		this.method = method;
+		fileName = method.getDeclaringClass().getName();
+		parameterTypes = method.getParameterTypes();
+		formatters = getFormatters(method);
+
+		QAFTestStep step = getAnnotation(method, QAFTestStep.class);
+		String annotatedDescription = getTestStepAnnotationValue(method);
+		boolean qafStepImpl = true;
+		if (null != step && isNotBlank(step.description())) {
+			// highest priority to QAFTestStep annotation if multiple step
+			// definition way opted
+			description = step.description();
+		} else if (null != annotatedDescription) {
+			description = annotatedDescription;
+			qafStepImpl = false;
+		}
+		this.name = isBlank(name) ? getDefaultName(method, step) : name;
+		this.description = isBlank(description) ? this.name : description;
+		this.qafStepImpl = qafStepImpl;
+		threshold = null != step ? step.threshold() : 0;
+		metaData = Collections.unmodifiableMap(getMetaData(method));
+		invoker = getInvoker(method);
+	}
+
+	private static String getDefaultName(Method method, QAFTestStep step) {
+		QAFTestStepProvider provider = method.getDeclaringClass().getAnnotation(QAFTestStepProvider.class);
+
+		String prefix = (provider != null) && isNotBlank(provider.prefix()) ? provider.prefix() + "." : "";
+		return prefix + ((step != null) && isNotBlank(step.stepName()) ? step.stepName() : method.getName());
+	}
+
+	private static Map<String, Object> getMetaData(Method method) {
+		Map<String, Object> metaData = new HashMap<String, Object>();
+		MetaData stepMetaData = getAnnotation(method, MetaData.class);
+		MetaData classMetaData = getAnnotation(method.getDeclaringClass(), MetaData.class);
+
+		if (null != classMetaData && isNotBlank(classMetaData.value())) {
+			try {
+				metaData = JSONUtil.toMap(classMetaData.value());
+			} catch (JSONException e) {
+				System.err.println(metaData + " is not valid json map for step meta-data");
+			}
+		}
+
+		// other annotations on step method
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotation instanceof MetaData || annotation instanceof QAFTestStep)
+				continue;
+
+			Method[] annotationMethods = annotation.annotationType().getDeclaredMethods();
+			for (Method annotationMethod : annotationMethods) {
+				try {
+					metaData.put(annotationMethod.getName(), annotationMethod.invoke(annotation));
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		if (null != stepMetaData && isNotBlank(stepMetaData.value())) {
+			try {
+				// keep class meta-data which is not in step meta-data, override
+				// common
+				metaData.putAll(JSONUtil.toMap(stepMetaData.value()));
+			} catch (JSONException e) {
+				System.err.println(metaData + " is not valid json map for step meta-data");
+			}
+		}
+		return metaData;
+	}
+
+	/**
+	 * @param method
+	 * @return value of step annotation from {@code step.annotation.pkgs}
+	 *         (for example cucumber) or null if method doesn't have one
+	 */
+	private static String getTestStepAnnotationValue(Method method) {
+		String value = null;
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotation instanceof MetaData || annotation instanceof QAFTestStep
+					|| !isTestStepAnnotation(annotation))
+				continue;
+			for (Method annotationMethod : annotation.annotationType().getDeclaredMethods()) {
+				if (annotationMethod.getName().equalsIgnoreCase("value")) {
+					try {
+						value = (String) annotationMethod.invoke(annotation);
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean isTestStepAnnotation(Annotation annotation) {
+		List<String> annotationPkgs = getBundle().getList("step.annotation.pkgs", Arrays.asList("cucumber.api.java"));
+
+		for (String pkg : annotationPkgs) {
+			if (annotation.annotationType().getName().indexOf(pkg) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Class<?>[] getFormatters(Method method) {
+		Annotation[][] paramsAnnotations = method.getParameterAnnotations();
+		Class<?>[] formatters = new Class<?>[paramsAnnotations.length];
+		for (int i = 0; i < paramsAnnotations.length; i++) {
+			for (Annotation paramAnnotation : paramsAnnotations[i]) {
+				if (paramAnnotation instanceof Formatter) {
+					formatters[i] = ((Formatter) paramAnnotation).value();
+				}
+			}
+		}
+		return formatters;
+	}
+
+	/**
+	 * Creates method handle of type (Object, Object[])Object, where first
+	 * argument is step provider (ignored for static method) and second is
+	 * array of step arguments.
+	 * 
+	 * @param method
+	 * @return method handle or null if not accessible
+	 */
+	private static MethodHandle getInvoker(Method method) {
+		try {
+			method.setAccessible(true);
+			int noOfParams = method.getParameterTypes().length;
+			MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = handle.asType(MethodType.genericMethodType(noOfParams));
+				handle = handle.asSpreader(Object[].class, noOfParams);
+				return MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			handle = handle.asType(MethodType.genericMethodType(noOfParams + 1));
+			return handle.asSpreader(Object[].class, noOfParams);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Invokes step method with same contract as
+	 * {@link Method#invoke(Object, Object...)}.
+	 */
+	Object invoke(Object stepProvider, Object[] args)
+			throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+		if (null == invoker) {
+			return method.invoke(stepProvider, args);
+		}
+		checkArgs(stepProvider, args);
+		try {
+			return (Object) invoker.invokeExact(stepProvider, args);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	private void checkArgs(Object stepProvider, Object[] args) {
+		if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(stepProvider)) {
+			throw new IllegalArgumentException("object is not an instance of declaring class");
+		}
+		int noOfArgs = null == args ? 0 : args.length;
+		if (noOfArgs != parameterTypes.length) {
+			throw new IllegalArgumentException("wrong number of arguments");
+		}
+		for (int i = 0; i < noOfArgs; i++) {
+			Class<?> paramType = parameterTypes[i];
+			// primitive accepts wrapper with widening conversion, same as
+			// Method.invoke
+			if (paramType.isPrimitive() ? (null == args[i] || !ClassUtils.isAssignable(args[i].getClass(), paramType, true))
+					: (null != args[i] && !paramType.isInstance(args[i]))) {
+				throw new IllegalArgumentException("argument type mismatch");
+			}
+		}
+	}
+
+	Method getMethod() {
+		return method;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	String getDescription() {
+		return description;
+	}
+
+	String getFileName() {
+		return fileName;
+	}
+
+	int getThreshold() {
+		return threshold;
+	}
+
+	boolean isQafStepImpl() {
+		return qafStepImpl;
+	}
+
+	/**
+	 * @return unmodifiable meta-data
+	 */
+	Map<String, Object> getMetaData() {
+		return metaData;
+	}
+
+	Class<?>[] getParameterTypes() {
+		return parameterTypes;
+	}
+
+	Class<?> getFormatter(int paramIndex) {
+		return formatters[paramIndex];
+	}
+}
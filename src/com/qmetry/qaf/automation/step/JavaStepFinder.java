@@ -22,6 +22,7 @@
 package com.qmetry.qaf.automation.step;
 
 import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.STEP_INDEX_FILE;
 import static com.qmetry.qaf.automation.keys.ApplicationProperties.STEP_PROVIDER_PKG;
 
 import java.lang.annotation.Annotation;
@@ -29,15 +30,22 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.StringUtils;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.LogFactoryImpl;
@@ -55,8 +63,12 @@ public final class JavaStepFinder {
 	public static final String STEPS_PACKAGE = "com.qmetry.qaf.automation.step";
 	private static final Log logger = LogFactoryImpl.getLog(JavaStepFinder.class);
     private static final ClassFinder CLASS_FINDER = ClassFinderFactory.getClassFinder();
+	// steps found by package with context class loader, so that change in
+	// step provider packages requires to scan only newly added packages
+	private static volatile ScannedPackages scannedPackages;
+
 	public static Map<String, TestStep> getAllJavaSteps() {
-		Map<String, TestStep> stepMapping = new HashMap<String, TestStep>();
+		Map<String, TestStep> stepMapping = new StepMapping();
 		Set<Method> steps = new LinkedHashSet<Method>();
 
 		List<String> pkgs = new ArrayList<String>();
@@ -65,13 +77,12 @@ public final class JavaStepFinder {
 		if (getBundle().containsKey(STEP_PROVIDER_PKG.key)) {
 			pkgs.addAll(Arrays.asList(getBundle().getStringArray(STEP_PROVIDER_PKG.key)));
 		}
+		Map<String, Set<Method>> scanned = getScannedPackages();
+		scanPackages(pkgs, scanned);
 		for (String pkg : pkgs) {
-			logger.info("pkg: " + pkg);
-			try {
-				List<Class<?>> classes = CLASS_FINDER.getClasses(pkg);
-				steps.addAll(getAllMethodsWithAnnotation(classes, QAFTestStep.class));
-			} catch (Exception e) {
-				System.err.println("Unable to load steps for package: " + pkg);
+			Set<Method> pkgSteps = scanned.get(pkg);
+			if (null != pkgSteps) {
+				steps.addAll(pkgSteps);
 			}
 		}
 
@@ -94,6 +105,122 @@ public final class JavaStepFinder {
 		return stepMapping;
 	}
 
+	/**
+	 * Scans packages not scanned yet, in parallel. If
+	 * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#STEP_INDEX_FILE
+	 * step.index.file} provided, package having no change since last indexed
+	 * will be loaded from index.
+	 * 
+	 * @param pkgs
+	 * @param scanned
+	 *            steps by package scanned already
+	 */
+	private static void scanPackages(List<String> pkgs, Map<String, Set<Method>> scanned) {
+		Set<String> pkgsToScan = new LinkedHashSet<String>();
+		for (String pkg : pkgs) {
+			if (!scanned.containsKey(pkg)) {
+				pkgsToScan.add(pkg);
+			}
+		}
+		if (pkgsToScan.isEmpty()) {
+			return;
+		}
+		String indexFile = STEP_INDEX_FILE.getStringVal();
+		final StepProviderIndex index = StringUtils.isBlank(indexFile) ? null : new StepProviderIndex(indexFile);
+		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+		int threads = Math.min(pkgsToScan.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			Map<String, Future<Set<Method>>> results = new LinkedHashMap<String, Future<Set<Method>>>();
+			for (final String pkg : pkgsToScan) {
+				Callable<Set<Method>> task = new Callable<Set<Method>>() {
+					@Override
+					public Set<Method> call() throws Exception {
+						Thread.currentThread().setContextClassLoader(classLoader);
+						return scanPackage(pkg, index);
+					}
+				};
+				if (null == executor) {
+					try {
+						scanned.put(pkg, task.call());
+					} catch (Exception e) {
+						System.err.println("Unable to load steps for package: " + pkg);
+					}
+				} else {
+					results.put(pkg, executor.submit(task));
+				}
+			}
+			for (Entry<String, Future<Set<Method>>> result : results.entrySet()) {
+				try {
+					scanned.put(result.getKey(), result.getValue().get());
+				} catch (Exception e) {
+					System.err.println("Unable to load steps for package: " + result.getKey());
+				}
+			}
+		} finally {
+			if (null != executor) {
+				executor.shutdown();
+			}
+			if (null != index) {
+				index.save();
+			}
+		}
+	}
+
+	/**
+	 * Clears steps found by package, so that all packages are scanned again by
+	 * next call of {@link #getAllJavaSteps()}. Packages are scanned again
+	 * without calling this method when context class loader changes.
+	 */
+	public static void clearScannedSteps() {
+		scannedPackages = null;
+	}
+
+	private static Map<String, Set<Method>> getScannedPackages() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		ScannedPackages current = scannedPackages;
+		if (null == current || current.classLoader != classLoader) {
+			// steps of previous class loader are not kept
+			current = new ScannedPackages(classLoader);
+			scannedPackages = current;
+		}
+		return current.steps;
+	}
+
+	private static final class ScannedPackages {
+		private final ClassLoader classLoader;
+		private final Map<String, Set<Method>> steps = new ConcurrentHashMap<String, Set<Method>>();
+
+		ScannedPackages(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+	}
+
+	private static Set<Method> scanPackage(String pkg, StepProviderIndex index) throws Exception {
+		logger.info("pkg: " + pkg);
+		String checksum = null == index ? null : StepProviderIndex.getChecksum(pkg);
+		List<Class<?>> classes = null == index ? null : index.getClasses(pkg, checksum);
+		boolean indexed = null != classes;
+		if (!indexed) {
+			classes = CLASS_FINDER.getClasses(pkg);
+		}
+
+		Set<Method> methods = new HashSet<Method>();
+		List<Class<?>> stepProviders = new ArrayList<Class<?>>();
+		for (Class<?> cls : classes) {
+			Set<Method> clsMethods = getMethodsWithAnnotation(cls, QAFTestStep.class);
+			if (!clsMethods.isEmpty()) {
+				methods.addAll(clsMethods);
+				stepProviders.add(cls);
+			}
+		}
+		if (!indexed && null != index) {
+			index.put(pkg, checksum, stepProviders);
+		}
+		return methods;
+	}
+
 	private static void add(Map<String, TestStep> stepMapping, TestStep step) {
 		TestStep oldStep = stepMapping.put(step.getName().toUpperCase(), step);
 
@@ -131,23 +258,18 @@ public final class JavaStepFinder {
 		return i;
 	}
 
-	private static Set<Method> getAllMethodsWithAnnotation(Collection<Class<?>> classes,
-			Class<? extends Annotation> annotation) {
+	private static Set<Method> getMethodsWithAnnotation(Class<?> cls, Class<? extends Annotation> annotation) {
 
 		Set<Method> methods = new HashSet<Method>();
-		for (Class<?> cls : classes) {
-
-			if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers()))
-				continue;
+		if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers()))
+			return methods;
 
-			boolean isStepProvider = cls.isAnnotationPresent(QAFTestStepProvider.class);
+		boolean isStepProvider = cls.isAnnotationPresent(QAFTestStepProvider.class);
 
-			for (Method method : cls.getMethods()) {
-				if (isStepProvider || ClassUtil.hasAnnotation(method, annotation)) {
-					methods.add(method);
-				}
+		for (Method method : cls.getMethods()) {
+			if (isStepProvider || ClassUtil.hasAnnotation(method, annotation)) {
+				methods.add(method);
 			}
-
 		}
 
 		return methods;
@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import static com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper.replaceParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.DefaultBDDStepMatcher;
+import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.GherkinStepMatcher;
+import com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper.ParamType;
+
+/**
+ * Index of test steps used to find step for natural language step call. Each
+ * step description is broken into literal words which must be present in the
+ * step call for it to match. Step call is checked only against steps having
+ * all literal words present in call, so that {@link BDDStepMatcher} gets
+ * applied on few candidates only rather than on all available steps. Step
+ * description which can't be broken into literal words (for example custom
+ * matcher or regular expression with alternation) will be always considered
+ * as candidate.
+ * <p>
+ * Resolved step for call (after parameter replacement) is cached so repeated
+ * call of same step text doesn't require any matching.
+ * <p>
+ * Index is immutable, {@link StepMapping} creates new index when steps
+ * changed. Candidates are returned in the same order as steps provided while
+ * creating index, so first matching step remains same as sequential scan.
+ * com.qmetry.qaf.automation.step.StepIndex.java
+ * 
+ * @author chirag.jayswal
+ */
+public class StepIndex {
+	private static final int MAX_RESOLVED_CALLS = 10000;
+	private static final char NON_LITERAL = '\uE000';
+	private static final String NON_LITERAL_CHARS = ".?*+{}" + NON_LITERAL;
+	private static final Object NOT_FOUND = new Object();
+
+	private final TestStep[] steps;
+	private final String[][] literals;
+	private final Map<String, int[]> index;
+	private final int[] alwaysCandidates;
+	private final boolean cacheable;
+	private final Map<String, Object> resolvedCalls = new ConcurrentHashMap<String, Object>();
+
+	public StepIndex(Collection<TestStep> steps) {
+		this.steps = steps.toArray(new TestStep[steps.size()]);
+		literals = new String[this.steps.length][];
+
+		Map<String, Integer> frequency = new HashMap<String, Integer>();
+		boolean knownMatchers = true;
+		for (int i = 0; i < this.steps.length; i++) {
+			BDDStepMatcher matcher = this.steps[i].getStepMatcher();
+			knownMatchers = knownMatchers && isKnownMatcher(matcher);
+			literals[i] = getLiterals(this.steps[i].getDescription(), matcher);
+			if (null != literals[i]) {
+				for (String literal : literals[i]) {
+					Integer count = frequency.get(literal);
+					frequency.put(literal, null == count ? 1 : count + 1);
+				}
+			}
+		}
+		cacheable = knownMatchers;
+
+		// index each step by its least frequent literal
+		Map<String, List<Integer>> buckets = new HashMap<String, List<Integer>>();
+		List<Integer> always = new ArrayList<Integer>();
+		for (int i = 0; i < this.steps.length; i++) {
+			if (null == literals[i]) {
+				always.add(i);
+				continue;
+			}
+			String key = literals[i][0];
+			for (String literal : literals[i]) {
+				if (frequency.get(literal) < frequency.get(key)) {
+					key = literal;
+				}
+			}
+			List<Integer> bucket = buckets.get(key);
+			if (null == bucket) {
+				bucket = new ArrayList<Integer>();
+				buckets.put(key, bucket);
+			}
+			bucket.add(i);
+		}
+		index = new HashMap<String, int[]>(buckets.size() * 2);
+		for (Map.Entry<String, List<Integer>> bucket : buckets.entrySet()) {
+			index.put(bucket.getKey(), toArray(bucket.getValue()));
+		}
+		alwaysCandidates = toArray(always);
+	}
+
+	/**
+	 * @param stepCall
+	 *            step call without BDD keyword
+	 * @param context
+	 * @return first step, in order of index, matches with the step call or
+	 *         null if no step matches.
+	 */
+	public TestStep find(String stepCall, Map<String, Object> context) {
+		String resolvedCall = replaceParams(stepCall, context);
+		if (cacheable) {
+			Object resolved = resolvedCalls.get(resolvedCall);
+			if (null != resolved) {
+				return resolved == NOT_FOUND ? null : (TestStep) resolved;
+			}
+		}
+		TestStep found = null;
+		for (TestStep step : getCandidates(resolvedCall)) {
+			if (step.getStepMatcher().matches(step.getDescription(), stepCall, context)) {
+				found = step;
+				break;
+			}
+		}
+		if (cacheable) {
+			if (resolvedCalls.size() >= MAX_RESOLVED_CALLS) {
+				resolvedCalls.clear();
+			}
+			resolvedCalls.put(resolvedCall, null == found ? NOT_FOUND : found);
+		}
+		return found;
+	}
+
+	/**
+	 * @param resolvedCall
+	 *            step call after parameter replacement
+	 * @return steps which may match with given step call in order of index.
+	 */
+	public List<TestStep> getCandidates(String resolvedCall) {
+		Set<String> words = getWords(resolvedCall);
+		int[] found = new int[steps.length];
+		int size = 0;
+		for (String word : words) {
+			int[] bucket = index.get(word);
+			if (null == bucket) {
+				continue;
+			}
+			for (int pos : bucket) {
+				if (words.containsAll(Arrays.asList(literals[pos]))) {
+					found[size++] = pos;
+				}
+			}
+		}
+		System.arraycopy(alwaysCandidates, 0, found, size, alwaysCandidates.length);
+		size += alwaysCandidates.length;
+		Arrays.sort(found, 0, size);
+
+		List<TestStep> candidates = new ArrayList<TestStep>(size);
+		for (int i = 0; i < size; i++) {
+			candidates.add(steps[found[i]]);
+		}
+		return candidates;
+	}
+
+	private static Set<String> getWords(String s) {
+		Set<String> words = new HashSet<String>();
+		for (String word : s.trim().split("\\s+")) {
+			words.add(word.toUpperCase(Locale.ENGLISH));
+		}
+		return words;
+	}
+
+	private static boolean isKnownMatcher(BDDStepMatcher matcher) {
+		return matcher instanceof DefaultBDDStepMatcher || matcher instanceof GherkinStepMatcher;
+	}
+
+	/**
+	 * Literal words from step description those must be present as a word in
+	 * matching step call.
+	 * 
+	 * @param description
+	 * @param matcher
+	 * @return literal words or null if description can't be indexed.
+	 */
+	static String[] getLiterals(String description, BDDStepMatcher matcher) {
+		if (null == description || !isKnownMatcher(matcher)) {
+			return null;
+		}
+		if (matcher instanceof DefaultBDDStepMatcher) {
+			description = description.replaceAll(ParamType.getParamDefRegx(), String.valueOf(NON_LITERAL));
+		} else {
+			if (description.endsWith(":$")) {
+				// matcher appends argument to the end
+				return null;
+			}
+			if (description.startsWith("^")) {
+				description = description.substring(1);
+			}
+			if (description.endsWith("$") && !description.endsWith("\\$")) {
+				description = description.substring(0, description.length() - 1);
+			}
+		}
+		String expression = removeGroups(description);
+		if (null == expression) {
+			return null;
+		}
+		Set<String> literals = new HashSet<String>();
+		for (String word : expression.trim().split("\\s+")) {
+			if (word.length() > 0 && isLiteral(word)) {
+				literals.add(word.toUpperCase(Locale.ENGLISH));
+			}
+		}
+		return literals.isEmpty() ? null : literals.toArray(new String[literals.size()]);
+	}
+
+	/**
+	 * Replaces escaped characters, groups and character classes with non
+	 * literal place holder.
+	 * 
+	 * @return expression or null if literal words in expression may not be
+	 *         separated by white spaces in matching call.
+	 */
+	private static String removeGroups(String description) {
+		StringBuilder expression = new StringBuilder();
+		int depth = 0;
+		boolean inClass = false;
+		for (int i = 0; i < description.length(); i++) {
+			char c = description.charAt(i);
+			if (c == '\\') {
+				i++;
+				if (depth == 0 && !inClass) {
+					expression.append(NON_LITERAL);
+				}
+			} else if (inClass) {
+				if (c == ']') {
+					inClass = false;
+					if (depth == 0) {
+						expression.append(NON_LITERAL);
+					}
+				}
+			} else if (c == '[') {
+				inClass = true;
+			} else if (c == '(') {
+				if (description.startsWith("(?", i) && description.length() > i + 2
+						&& ":=!<".indexOf(description.charAt(i + 2)) < 0) {
+					// inline flags
+					return null;
+				}
+				depth++;
+			} else if (c == ')') {
+				if (--depth < 0) {
+					return null;
+				}
+				if (depth == 0) {
+					expression.append(NON_LITERAL);
+				}
+			} else if (depth == 0) {
+				if (c == '|' || c == '^' || c == '$') {
+					return null;
+				}
+				if ("?*+{".indexOf(c) >= 0 && (expression.length() == 0
+						|| Character.isWhitespace(expression.charAt(expression.length() - 1)))) {
+					// white space is optional or repeated
+					return null;
+				}
+				expression.append(c);
+			}
+		}
+		return depth == 0 && !inClass ? expression.toString() : null;
+	}
+
+	private static boolean isLiteral(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			if (NON_LITERAL_CHARS.indexOf(word.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * @return number of steps in index
+	 */
+	public int size() {
+		return steps.length;
+	}
+}
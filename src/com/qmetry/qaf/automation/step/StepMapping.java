@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test step mapping that keeps {@link StepIndex} in sync with registered steps.
+ * Any modification, through map methods or through key, value and entry
+ * views, invalidates index, it will be rebuilt lazily on next natural
+ * language step look up.
+ * com.qmetry.qaf.automation.step.StepMapping.java
+ * 
+ * @author chirag.jayswal
+ */
+public class StepMapping extends AbstractMap<String, TestStep> implements Cloneable, Serializable {
+
+	private static final long serialVersionUID = 3521766411283045719L;
+	private HashMap<String, TestStep> steps;
+	private transient volatile StepIndex index;
+	// incremented after each modification, index built meanwhile is not kept
+	private transient volatile int modifications;
+	private transient Set<Entry<String, TestStep>> entrySet;
+
+	public StepMapping() {
+		steps = new HashMap<String, TestStep>();
+	}
+
+	public StepMapping(Map<String, TestStep> steps) {
+		this.steps = new HashMap<String, TestStep>(steps);
+	}
+
+	/**
+	 * @return index of currently registered steps.
+	 */
+	public StepIndex getIndex() {
+		StepIndex current = index;
+		if (null == current) {
+			synchronized (this) {
+				current = index;
+				if (null == current) {
+					int modificationsBefore = modifications;
+					current = new StepIndex(steps.values());
+					if (modificationsBefore == modifications) {
+						index = current;
+					}
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * To be called after modification of steps.
+	 */
+	private void invalidate() {
+		modifications++;
+		index = null;
+	}
+
+	@Override
+	public int size() {
+		return steps.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return steps.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return steps.containsValue(value);
+	}
+
+	@Override
+	public TestStep get(Object key) {
+		return steps.get(key);
+	}
+
+	@Override
+	public TestStep put(String key, TestStep value) {
+		TestStep previous = steps.put(key, value);
+		invalidate();
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends TestStep> m) {
+		steps.putAll(m);
+		invalidate();
+	}
+
+	@Override
+	public TestStep remove(Object key) {
+		TestStep previous = steps.remove(key);
+		invalidate();
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		steps.clear();
+		invalidate();
+	}
+
+	/**
+	 * Entry set backed by this mapping, removal through iterator and
+	 * {@link Entry#setValue(Object)} invalidates index. Other map views and
+	 * default methods of {@link Map} modify mapping through this set or
+	 * through put and remove.
+	 */
+	@Override
+	public Set<Entry<String, TestStep>> entrySet() {
+		Set<Entry<String, TestStep>> es = entrySet;
+		if (null == es) {
+			es = new EntrySet();
+			entrySet = es;
+		}
+		return es;
+	}
+
+	@Override
+	public Object clone() {
+		try {
+			StepMapping clone = (StepMapping) super.clone();
+			clone.steps = new HashMap<String, TestStep>(steps);
+			clone.index = null;
+			clone.entrySet = null;
+			return clone;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e.getMessage());
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<String, TestStep>> {
+		@Override
+		public Iterator<Entry<String, TestStep>> iterator() {
+			final Iterator<Entry<String, TestStep>> iter = steps.entrySet().iterator();
+			return new Iterator<Entry<String, TestStep>>() {
+				@Override
+				public boolean hasNext() {
+					return iter.hasNext();
+				}
+
+				@Override
+				public Entry<String, TestStep> next() {
+					final Entry<String, TestStep> entry = iter.next();
+					return new SimpleEntry<String, TestStep>(entry) {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						public TestStep setValue(TestStep value) {
+							super.setValue(value);
+							TestStep previous = entry.setValue(value);
+							invalidate();
+							return previous;
+						}
+					};
+				}
+
+				@Override
+				public void remove() {
+					iter.remove();
+					invalidate();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return steps.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return steps.entrySet().contains(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			boolean removed = steps.entrySet().remove(o);
+			invalidate();
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			StepMapping.this.clear();
+		}
+	}
+}
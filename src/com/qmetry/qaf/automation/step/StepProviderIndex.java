@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+/**
+ * Persistent index of step provider classes by package. Each entry is keyed
+ * by package name and holds checksum of package resources (jar file or class
+ * files in directory) along with classes having steps. Package with
+ * unchanged checksum can be loaded from index without scanning all classes
+ * of the package.
+ * 
+ * @author chirag.jayswal
+ */
+final class StepProviderIndex {
+	private static final Log logger = LogFactoryImpl.getLog(StepProviderIndex.class);
+	private static final String SEPARATOR = "|";
+
+	private final File file;
+	private final Properties entries = new Properties();
+	private boolean modified;
+
+	StepProviderIndex(String fileName) {
+		file = new File(fileName);
+		if (file.isFile()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(file);
+				entries.load(in);
+			} catch (IOException e) {
+				logger.warn("Unable to load step index from " + file, e);
+			} finally {
+				closeQuietly(in);
+			}
+		}
+	}
+
+	/**
+	 * @param pkg
+	 * @param checksum
+	 *            current checksum of package resources
+	 * @return classes from index or null if package is not indexed or changed
+	 *         since indexed
+	 */
+	synchronized List<Class<?>> getClasses(String pkg, String checksum) {
+		String entry = entries.getProperty(pkg);
+		if (null == checksum || null == entry || !entry.startsWith(checksum + SEPARATOR)) {
+			return null;
+		}
+		List<Class<?>> classes = new ArrayList<Class<?>>();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		for (String clsName : StringUtils.split(entry.substring(checksum.length() + 1), ',')) {
+			try {
+				classes.add(Class.forName(clsName, true, classLoader));
+			} catch (Throwable e) {
+				// stale entry
+				return null;
+			}
+		}
+		return classes;
+	}
+
+	synchronized void put(String pkg, String checksum, Collection<Class<?>> classes) {
+		if (null == checksum) {
+			return;
+		}
+		List<String> clsNames = new ArrayList<String>();
+		for (Class<?> cls : classes) {
+			clsNames.add(cls.getName());
+		}
+		entries.setProperty(pkg, checksum + SEPARATOR + StringUtils.join(clsNames, ','));
+		modified = true;
+	}
+
+	synchronized void save() {
+		if (!modified) {
+			return;
+		}
+		OutputStream out = null;
+		try {
+			if (null != file.getParentFile()) {
+				file.getParentFile().mkdirs();
+			}
+			out = new FileOutputStream(file);
+			entries.store(out, "step provider classes by package");
+			modified = false;
+		} catch (IOException e) {
+			logger.warn("Unable to save step index to " + file, e);
+		} finally {
+			closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Calculates checksum of package resources available in class path. For
+	 * jar it uses jar path, size and last modified time. For directory it uses
+	 * path, size and last modified time of each file under package directory.
+	 * 
+	 * @param pkg
+	 * @return checksum or null if unable to calculate
+	 */
+	static String getChecksum(String pkg) {
+		try {
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			Enumeration<URL> resources = classLoader.getResources(pkg.replace('.', '/'));
+			CRC32 crc = new CRC32();
+			boolean found = false;
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				found = true;
+				if (resource.getProtocol().equalsIgnoreCase("jar")) {
+					String jarFileName = URLDecoder.decode(resource.getFile(), "UTF-8");
+					jarFileName = jarFileName.substring(5, jarFileName.indexOf("!"));
+					update(crc, new File(jarFileName));
+				} else if (resource.getProtocol().equalsIgnoreCase("file")) {
+					update(crc, new File(resource.toURI()));
+				} else {
+					return null;
+				}
+			}
+			return found ? Long.toHexString(crc.getValue()) : null;
+		} catch (Exception e) {
+			logger.debug("Unable to calculate checksum for package " + pkg, e);
+			return null;
+		}
+	}
+
+	private static void update(CRC32 crc, File file) {
+		crc.update((file.getAbsolutePath() + SEPARATOR + file.length() + SEPARATOR + file.lastModified())
+				.getBytes());
+		File[] files = file.listFiles();
+		if (null != files) {
+			Arrays.sort(files);
+			for (File child : files) {
+				update(crc, child);
+			}
+		}
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			if (null != closeable)
+				closeable.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+}
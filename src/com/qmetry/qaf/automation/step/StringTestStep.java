@@ -26,7 +26,6 @@ import static com.qmetry.qaf.automation.core.ConfigurationManager.getStepMapping
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -184,28 +183,38 @@ public class StringTestStep extends BaseTestStep {
 
 			step = getStepMapping().get(nameWithoutPrefix.toUpperCase()).clone();
 		} else if (getBundle().getBoolean("step.natural.lang.support", true)) {
-			Collection<TestStep> set = getStepMapping().values();
-			for (TestStep stepName : set) {
-				BDDStepMatcher matcher = stepName.getStepMatcher();//BDDStepMatcherFactory.getStepMatcher(stepName);
-				if (matcher.matches(stepName.getDescription(), nameWithoutPrefix,
-						context)) {
-					List<String[]> parameters = matcher.getArgsFromCall(
-							stepName.getDescription(), nameWithoutPrefix, context);
-					Object[] params = new Object[parameters.size()];
-					for (int i = 0; i < parameters.size(); i++) {
-						params[i] = parameters.get(i)[0];
-					}
-					setActualArgs(params);
-					step = getStepMapping().get(stepName.getName().toUpperCase()).clone();
-					step.getStepExecutionTracker().setType(prefix);
-					break;
+			TestStep stepName = findStep(nameWithoutPrefix);
+			if (null != stepName) {
+				BDDStepMatcher matcher = stepName.getStepMatcher();
+				List<String[]> parameters = matcher.getArgsFromCall(
+						stepName.getDescription(), nameWithoutPrefix, context);
+				Object[] params = new Object[parameters.size()];
+				for (int i = 0; i < parameters.size(); i++) {
+					params[i] = parameters.get(i)[0];
 				}
+				setActualArgs(params);
+				step = getStepMapping().get(stepName.getName().toUpperCase()).clone();
+				step.getStepExecutionTracker().setType(prefix);
 			}
 		}
 
 		return step;
 	}
 
+	private TestStep findStep(String call) {
+		Map<String, TestStep> stepMapping = getStepMapping();
+		if (stepMapping instanceof StepMapping) {
+			return ((StepMapping) stepMapping).getIndex().find(call, context);
+		}
+		for (TestStep stepName : stepMapping.values()) {
+			BDDStepMatcher matcher = stepName.getStepMatcher();
+			if (matcher.matches(stepName.getDescription(), call, context)) {
+				return stepName;
+			}
+		}
+		return null;
+	}
+
 	private static String removePrefix(String prefix, String s) {
 		if (StringUtil.isBlank(prefix))
 			return s;
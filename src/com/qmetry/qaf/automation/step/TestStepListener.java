@@ -33,6 +33,7 @@ import org.apache.commons.logging.impl.LogFactoryImpl;
 
 import com.google.gson.Gson;
 import com.qmetry.qaf.automation.core.CheckpointResultBean;
+import com.qmetry.qaf.automation.core.ExecutionLog;
 import com.qmetry.qaf.automation.core.LoggingBean;
 import com.qmetry.qaf.automation.core.MessageTypes;
 import com.qmetry.qaf.automation.core.QAFTestBase;
@@ -52,8 +53,6 @@ import com.qmetry.qaf.automation.util.StringUtil;
 class TestStepListener implements QAFTestStepListener {
 
 	private static final Log logger = LogFactoryImpl.getLog(TestStepListener.class);
-	private ArrayList<CheckpointResultBean> allResults;
-	private ArrayList<LoggingBean> allCommands;
 
 	// for transaction steps
 	private boolean ignoreDefaultListener = false;
@@ -70,11 +69,10 @@ class TestStepListener implements QAFTestStepListener {
 		if (!ignoreDefaultListener) {
 			logger.info("Invoking " + getStepInfo(stepExecutionTracker.getStep()));
 
+			// step results and commands are collected in new frame
 			QAFTestBase stb = TestBaseProvider.instance().get();
-			allResults = new ArrayList<CheckpointResultBean>(stb.getCheckPointResults());
-			allCommands = new ArrayList<LoggingBean>(stb.getLog());
-			stb.getCheckPointResults().clear();
-			stb.getLog().clear();
+			getCheckPoints(stb).push();
+			getCommands(stb).push();
 		}
 	}
 
@@ -118,25 +116,29 @@ class TestStepListener implements QAFTestStepListener {
 		LoggingBean stepLogBean = new LoggingBean(stepExecutionTracker.getStep().getName(),
 				new String[] { Arrays.toString(stepExecutionTracker.getStep().getActualArgs()) },
 				success ? "success" : "fail");
-		stepLogBean.setSubLogs(new ArrayList<LoggingBean>(stb.getLog()));
+		ExecutionLog<LoggingBean> commands = getCommands(stb);
+		stepLogBean.setSubLogs(commands.pop());
 
 		CheckpointResultBean stepResultBean = new CheckpointResultBean();
 		stepResultBean.setMessage(processArgs(stepExecutionTracker.getStep().getDescription(),
 				stepExecutionTracker.getStep().getActualArgs()));
-		stepResultBean.setSubCheckPoints(new ArrayList<CheckpointResultBean>(stb.getCheckPointResults()));
+		ExecutionLog<CheckpointResultBean> checkPoints = getCheckPoints(stb);
+		stepResultBean.setSubCheckPoints(checkPoints.pop());
 		stepResultBean.setDuration(duration.intValue());
 		stepResultBean.setThreshold(stepExecutionTracker.getStep().getThreshold());
 
 		stepResultBean.setType(type);
 
-		allResults.add(stepResultBean);
+		checkPoints.add(stepResultBean);
+		commands.add(stepLogBean);
+	}
 
-		stb.getCheckPointResults().clear();
-		stb.getCheckPointResults().addAll(allResults);
+	private static ExecutionLog<CheckpointResultBean> getCheckPoints(QAFTestBase stb) {
+		return (ExecutionLog<CheckpointResultBean>) stb.getCheckPointResults();
+	}
 
-		allCommands.add(stepLogBean);
-		stb.getLog().clear();
-		stb.getLog().addAll(allCommands);
+	private static ExecutionLog<LoggingBean> getCommands(QAFTestBase stb) {
+		return (ExecutionLog<LoggingBean>) stb.getLog();
 	}
 
 	private String getStepInfo(TestStep step) {
@@ -173,9 +175,9 @@ class TestStepListener implements QAFTestStepListener {
 			int stIndex = getCheckPointIndex(testBase.getCheckPointResults(),
 					processArgs(starStepExecutionTracker.getStep().getDescription(),
 							starStepExecutionTracker.getStep().getActualArgs()));
-
+			// start step may be discarded by max entries limit, then all are part of transaction
 			List<CheckpointResultBean> allcheckPoints = new ArrayList<CheckpointResultBean>(
-					testBase.getCheckPointResults().subList(0, stIndex));
+					testBase.getCheckPointResults().subList(0, Math.max(0, stIndex)));
 
 			List<CheckpointResultBean> subcheckPoints = new ArrayList<CheckpointResultBean>(
 					testBase.getCheckPointResults().subList(stIndex + 1, testBase.getCheckPointResults().size()));
@@ -202,7 +204,8 @@ class TestStepListener implements QAFTestStepListener {
 			// update commands
 			int commandIndex = getLogginIndex(testBase.getLog(), starStepExecutionTracker.getStep().getName());
 
-			List<LoggingBean> allCommands = new ArrayList<LoggingBean>(testBase.getLog().subList(0, commandIndex));
+			List<LoggingBean> allCommands = new ArrayList<LoggingBean>(
+					testBase.getLog().subList(0, Math.max(0, commandIndex)));
 
 			List<LoggingBean> subCommands = new ArrayList<LoggingBean>(
 					testBase.getLog().subList(commandIndex + 1, testBase.getLog().size()));
@@ -36,6 +36,10 @@ class WebDriverStep extends JavaStep {
 		super(method);
 	}
 
+	private WebDriverStep(WebDriverStep prototype) {
+		super(prototype);
+	}
+
 	@Override
 	protected Object getStepProvider() {
 		return new WebDriverTestBase().getDriver();
@@ -43,10 +47,6 @@ class WebDriverStep extends JavaStep {
 
 	@Override
 	public TestStep clone() {
-		WebDriverStep clone = new WebDriverStep(method);
-		if (null != actualArgs) {
-			clone.actualArgs = actualArgs.clone();
-		}
-		return clone;
+		return new WebDriverStep(this);
 	}
 }
@@ -44,6 +44,12 @@ public class WebElementStep extends JavaStep {
 		this.component = component;
 	}
 
+	private WebElementStep(WebElementStep prototype) {
+		super(prototype);
+		loc = prototype.loc;
+		component = prototype.component;
+	}
+
 	@Override
 	public void setActualArgs(Object... args) {
 		if ((args == null) || (args.length == 0)) {
@@ -79,12 +85,6 @@ public class WebElementStep extends JavaStep {
 
 	@Override
 	public TestStep clone() {
-		WebElementStep weStep = new WebElementStep(method);
-
-		if (null != actualArgs) {
-			weStep.actualArgs = actualArgs.clone();
-		}
-		weStep.loc = loc;
-		return weStep;
+		return new WebElementStep(this);
 	}
 }
@@ -24,11 +24,13 @@ package com.qmetry.qaf.automation.step.client;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.LogFactoryImpl;
@@ -44,6 +46,8 @@ import com.qmetry.qaf.automation.util.FileUtil;
 import com.qmetry.qaf.automation.util.JSONUtil;
 import com.qmetry.qaf.automation.util.StringUtil;
 import static com.qmetry.qaf.automation.data.MetaDataScanner.hasDP;
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.SCENARIO_CACHE_DIR;
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.SCENARIO_PARSE_THREADS;
 /**
  * @author chirag.jayswal
  */
@@ -75,6 +79,94 @@ public abstract class AbstractScenarioFileParser implements ScenarioFileParser {
 		processStatements(statements.toArray(new Object[0][0]), reference, scenarios);
 	}
 
+	/**
+	 * Parses scenario files in parallel using
+	 * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#SCENARIO_PARSE_THREADS
+	 * scenario.file.parse.threads} threads. Parsed
+	 * statements are processed in order of files, so scenarios and step
+	 * definitions are added in the same order as parsing one file after
+	 * another. If
+	 * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#SCENARIO_CACHE_DIR
+	 * scenario.file.cache.dir} provided, statements of file not changed since last run will be loaded from the
+	 * cache.
+	 * 
+	 * @param scenarioFiles
+	 * @param scenarios
+	 */
+	public void parse(List<String> scenarioFiles, List<Scenario> scenarios) {
+		if (overridesParse()) {
+			// parser with own parse implementation
+			for (String scenarioFile : scenarioFiles) {
+				try {
+					parse(scenarioFile, scenarios);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+			return;
+		}
+		String cacheDir = SCENARIO_CACHE_DIR.getStringVal();
+		final ScenarioFileCache cache = StringUtil.isBlank(cacheDir) ? null : new ScenarioFileCache(cacheDir);
+		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+		int threads = Math.min(scenarioFiles.size(),
+				SCENARIO_PARSE_THREADS.getIntVal(Runtime.getRuntime().availableProcessors()));
+		ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			List<Future<Collection<Object[]>>> results = new ArrayList<Future<Collection<Object[]>>>();
+			for (int i = 0; null != executor && i < scenarioFiles.size(); i++) {
+				final String scenarioFile = scenarioFiles.get(i);
+				results.add(executor.submit(new Callable<Collection<Object[]>>() {
+					@Override
+					public Collection<Object[]> call() throws Exception {
+						Thread.currentThread().setContextClassLoader(classLoader);
+						return getStatements(scenarioFile, cache);
+					}
+				}));
+			}
+			for (int i = 0; i < scenarioFiles.size(); i++) {
+				String scenarioFile = scenarioFiles.get(i);
+				try {
+					Collection<Object[]> statements = null == executor ? getStatements(scenarioFile, cache)
+							: results.get(i).get();
+					String reference = FileUtil.getRelativePath(scenarioFile, "./");
+					processStatements(statements.toArray(new Object[0][0]), reference, scenarios);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		} finally {
+			if (null != executor) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	private Collection<Object[]> getStatements(String scenarioFile, ScenarioFileCache cache) {
+		if (null == cache) {
+			return parseFile(scenarioFile);
+		}
+		// parsing may depend on groups, for instance examples to include
+		String parserStamp = getClass().getName() + includeGroups + excludeGroups;
+		Collection<Object[]> statements = cache.get(scenarioFile, parserStamp);
+		if (null == statements) {
+			statements = parseFile(scenarioFile);
+			cache.put(scenarioFile, parserStamp, statements);
+		} else {
+			logger.debug("loaded cached statements for: " + scenarioFile);
+		}
+		return statements;
+	}
+
+	private boolean overridesParse() {
+		try {
+			return getClass().getMethod("parse", String.class, List.class)
+					.getDeclaringClass() != AbstractScenarioFileParser.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
 	@Override
 	public void setExcludeGroups(List<String> excludeGroups) {
 		this.excludeGroups = excludeGroups;
@@ -312,20 +404,24 @@ public abstract class AbstractScenarioFileParser implements ScenarioFileParser {
 	 * @param defInclude
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	protected boolean include(Map<String, Object> metadata, List<String> defInclude) {
 		// check for enabled
 		if (metadata.containsKey("enabled") && !((Boolean) metadata.get("enabled")))
 			return false;
 
-		Set<Object> groups = new HashSet<Object>(metadata.containsKey(ScenarioFactory.GROUPS)
-				? (List<String>) metadata.get(ScenarioFactory.GROUPS) : new ArrayList<String>());
-		if (!includeGroups.isEmpty()) {
-			groups.retainAll(includeGroups);
-		}else{
-			groups.retainAll(defInclude);
+		List<String> include = includeGroups.isEmpty() ? defInclude : includeGroups;
+		if (include.isEmpty()) {
+			return excludeGroups.isEmpty();
+		}
+		// any group that is included and not excluded, without copying groups
+		Object groups = metadata.get(ScenarioFactory.GROUPS);
+		if (groups instanceof List) {
+			for (Object group : (List<?>) groups) {
+				if (include.contains(group) && !excludeGroups.contains(group)) {
+					return true;
+				}
+			}
 		}
-		groups.removeAll(excludeGroups);
-		return (!groups.isEmpty() || (includeGroups.isEmpty() && defInclude.isEmpty() && excludeGroups.isEmpty()));
+		return false;
 	}
 }
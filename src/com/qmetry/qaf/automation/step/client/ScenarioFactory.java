@@ -24,7 +24,6 @@ package com.qmetry.qaf.automation.step.client;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -91,25 +90,27 @@ public abstract class ScenarioFactory {
 		parser.setExcludeGroups(excludeGroups);
 		parser.setIncludeGroups(includeGroups);
 
+		List<String> files = new ArrayList<String>();
 		File fileOrDir = new File(fileName);
 		if (fileOrDir.isDirectory()) {
-			Collection<File> files = FileUtil.listFiles(fileOrDir, fileExtension.toArray(new String[] {}), true);
-			for (File scenarioFile : files) {
-				try {
-					parser.parse(scenarioFile.getAbsolutePath(), scenarios);
-
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
+			for (File scenarioFile : FileUtil.listFiles(fileOrDir, fileExtension.toArray(new String[] {}), true)) {
+				files.add(scenarioFile.getAbsolutePath());
 			}
 		} else if (fileExtension.contains(FileUtil.getExtention(fileName.toLowerCase()))) {
+			files.add(fileName);
+		}
+
+		if (parser instanceof AbstractScenarioFileParser) {
+			((AbstractScenarioFileParser) parser).parse(files, scenarios);
+			return;
+		}
+		for (String scenarioFile : files) {
 			try {
-				parser.parse(fileName, scenarios);
+				parser.parse(scenarioFile, scenarios);
 
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-
 		}
 	}
 
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+/**
+ * Persistent cache of statements parsed from scenario files. Each scenario
+ * file has its own cache entry, in java serialization format, stamped with
+ * path, size and last modified time of the file along with parser and groups
+ * used to parse. Scenario file with unchanged stamp is not parsed again.
+ * 
+ * @author chirag.jayswal
+ */
+final class ScenarioFileCache {
+	private static final Log logger = LogFactoryImpl.getLog(ScenarioFileCache.class);
+	private static final String SEPARATOR = "|";
+	private static final int VERSION = 1;
+
+	private final File dir;
+
+	ScenarioFileCache(String dirName) {
+		dir = new File(dirName);
+	}
+
+	/**
+	 * @param scenarioFile
+	 * @param parserStamp
+	 *            parser and its settings that affects parsed statements
+	 * @return statements from cache or null if file is not cached or changed
+	 *         since cached
+	 */
+	@SuppressWarnings("unchecked")
+	Collection<Object[]> get(String scenarioFile, String parserStamp) {
+		String stamp = getStamp(scenarioFile, parserStamp);
+		File entry = getEntry(stamp);
+		if (!entry.isFile()) {
+			return null;
+		}
+		ObjectInputStream in = null;
+		try {
+			in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(entry)));
+			if (in.readInt() != VERSION || !stamp.equals(in.readUTF())) {
+				return null;
+			}
+			return (Collection<Object[]>) in.readObject();
+		} catch (Exception e) {
+			logger.debug("Unable to load cached statements for " + scenarioFile, e);
+			return null;
+		} finally {
+			closeQuietly(in);
+		}
+	}
+
+	void put(String scenarioFile, String parserStamp, Collection<Object[]> statements) {
+		String stamp = getStamp(scenarioFile, parserStamp);
+		File entry = getEntry(stamp);
+		File tmp = new File(dir, entry.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		ObjectOutputStream out = null;
+		try {
+			dir.mkdirs();
+			out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			out.writeInt(VERSION);
+			out.writeUTF(stamp);
+			out.writeObject(new ArrayList<Object[]>(statements));
+			out.close();
+			out = null;
+			// replace entry only after completely written
+			entry.delete();
+			if (!tmp.renameTo(entry)) {
+				tmp.delete();
+			}
+		} catch (IOException e) {
+			// statements may have values those are not serializable
+			logger.debug("Unable to cache statements for " + scenarioFile, e);
+			closeQuietly(out);
+			tmp.delete();
+		}
+	}
+
+	private File getEntry(String stamp) {
+		// stamp without size and time identifies entry
+		CRC32 crc = new CRC32();
+		crc.update(stamp.substring(stamp.indexOf(SEPARATOR) + 1).getBytes());
+		return new File(dir, Long.toHexString(crc.getValue()) + ".ser");
+	}
+
+	private static String getStamp(String scenarioFile, String parserStamp) {
+		File file = new File(scenarioFile);
+		return file.length() + ":" + file.lastModified() + SEPARATOR + file.getAbsolutePath() + SEPARATOR
+				+ parserStamp;
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			if (null != closeable)
+				closeable.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+}
@@ -24,8 +24,11 @@ package com.qmetry.qaf.automation.step.client.text;
 import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,13 +36,21 @@ import org.apache.commons.lang.text.StrLookup;
 import org.apache.commons.lang.text.StrSubstitutor;
 
 import com.qmetry.qaf.automation.util.JSONUtil;
-import com.qmetry.qaf.automation.util.StringMatcher;
 import com.qmetry.qaf.automation.util.StringUtil;
 
 /**
  * @author chirag.jayswal
  */
 public class BDDDefinitionHelper {
+	private static final int MAX_CACHED_PATTERNS = 10000;
+	private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<String, Pattern>();
+	private static final Map<String, StepDefinition> DEFINITIONS =
+			new ConcurrentHashMap<String, StepDefinition>();
+	private static final Pattern UNQUOTED_PARAM = Pattern.compile("(\\s|^)\\$\\{[\\w\\.]*}(\\s|$)");
+	private static final Pattern GHERKIN_PARAM = Pattern.compile("(?<!\\\\)<([^>]).*?>");
+	private static final Pattern NUMBER = Pattern.compile(ParamType.LONG.getRegx());
+	private static final String PARAM_VALUE_REGX = ParamType.getParamValueRegx();
+	private static final Pattern PARAM_DEF = Pattern.compile(ParamType.getParamDefRegx());
 
 	/**
 	 * This enumeration specifies BDD keywords used while BDD step mapping. You
@@ -58,6 +69,12 @@ public class BDDDefinitionHelper {
 	public enum BDDKeyword {
 		Given, When, Then, And, Using, Having, With;
 
+		/**
+		 * incremented on synonym change, to refresh keyword pattern.
+		 */
+		private static final AtomicInteger SYNONYMS_VERSION = new AtomicInteger();
+		private static final ThreadLocal<KeywordPattern> KEYWORD_PATTERN = new ThreadLocal<KeywordPattern>();
+
 		/**
 		 * all keywords including synonyms
 		 * 
@@ -76,6 +93,10 @@ public class BDDDefinitionHelper {
 		}
 
 		public static String getKeyWordRegEx() {
+			return getKeywordPattern().regx;
+		}
+
+		private static String buildKeyWordRegEx() {
 			StringBuilder sb = new StringBuilder("^(");
 			for (String keyword : getAllKeyWords()) {
 				sb.append(keyword);
@@ -100,13 +121,54 @@ public class BDDDefinitionHelper {
 		}
 
 		public static String getKeywordFrom(String behavior) {
-			String regx = getKeyWordRegEx();
-			Pattern p = Pattern.compile(regx, Pattern.CASE_INSENSITIVE);
-			Matcher matcher = p.matcher(behavior);
+			Matcher matcher = getKeywordPattern().pattern.matcher(behavior);
 			if (matcher.find())
 				return matcher.group();
 			return "";
 		}
+
+		/**
+		 * Synonyms are read from current configuration bundle, this method
+		 * needs to be called when synonym for any keyword changed.
+		 */
+		public static void synonymsChanged() {
+			SYNONYMS_VERSION.incrementAndGet();
+		}
+
+		/**
+		 * @param key
+		 * @return true if key is name of any {@link BDDKeyword}
+		 */
+		public static boolean isKeyword(String key) {
+			for (BDDKeyword keyword : values()) {
+				if (keyword.name().equals(key)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static KeywordPattern getKeywordPattern() {
+			int version = SYNONYMS_VERSION.get();
+			KeywordPattern keywordPattern = KEYWORD_PATTERN.get();
+			if (null == keywordPattern || keywordPattern.version != version) {
+				keywordPattern = new KeywordPattern(buildKeyWordRegEx(), version);
+				KEYWORD_PATTERN.set(keywordPattern);
+			}
+			return keywordPattern;
+		}
+
+		private static final class KeywordPattern {
+			private final String regx;
+			private final Pattern pattern;
+			private final int version;
+
+			private KeywordPattern(String regx, int version) {
+				this.regx = regx;
+				this.version = version;
+				pattern = Pattern.compile(regx, Pattern.CASE_INSENSITIVE);
+			}
+		}
 	}
 
 	public enum ParamType {
@@ -117,17 +179,18 @@ public class BDDDefinitionHelper {
 						"(\\[.*])","Object[] objArray"), LONG("([-+]?\\d+)","long l"), DOUBLE("([-+]?\\d+(\\.\\d+)?)","double d"), ANY("(.*)","Object anyObj"), OPTIONAL("(\\(\\?:.*\\)\\?)","Object optionalObj");
 
 		private String regx;
+		private Pattern pattern;
 		String argString;
 		ParamType(String regx, String argString) {
 			this.regx = regx;
 			this.argString=argString;
+			pattern = Pattern.compile(regx);
 		}
 
 		public static ParamType getType(String value) {
 			if(value==null)	return OPTIONAL;
 			for (ParamType type : ParamType.values()) {
-				Pattern p = Pattern.compile(type.getRegx());
-				Matcher matcher = p.matcher(value);
+				Matcher matcher = type.pattern.matcher(value);
 				if (matcher.matches())
 					return type;
 			}
@@ -168,9 +231,7 @@ public class BDDDefinitionHelper {
 	}
 
 	public static String quoteParams(String call) {
-		String exp = "(\\s|^)\\$\\{[\\w\\.]*}(\\s|$)";
-		Pattern p = Pattern.compile(exp);
-		Matcher matcher = p.matcher(call);
+		Matcher matcher = UNQUOTED_PARAM.matcher(call);
 		String resultString = new String(call);
 		while (matcher.find()) {
 			for (int i = 0; i <= matcher.groupCount(); i++) {
@@ -207,8 +268,10 @@ public class BDDDefinitionHelper {
 	 * @return
 	 */
 	public static String convertPrameter(String s) {
-		String paramPattern = "(?<!\\\\)<([^>]).*?>";
-		Matcher m = Pattern.compile(paramPattern).matcher(s);
+		if (s.indexOf('<') < 0) {
+			return s;
+		}
+		Matcher m = GHERKIN_PARAM.matcher(s);
 		while (m.find()) {
 			String param = m.group();
 			String newParam = param.replace("<", "${").replace(">", "}");
@@ -257,8 +320,8 @@ public class BDDDefinitionHelper {
 			String nextGroup = i == argsInDef.size() - 1 ? wcopy
 					: wcopy.substring(0, wcopy.indexOf(argsInDef.get(i + 1)));
 			nextGroup = getFirstMatch(Pattern.quote(nextGroup), call);
-			String temp = getFirstMatch(ParamType.getParamValueRegx() + nextGroup, call);
-			temp = temp.replaceAll(nextGroup, "");
+			String temp = getFirstMatch(PARAM_VALUE_REGX + nextGroup, call);
+			temp = getPattern(nextGroup).matcher(temp).replaceAll("");
 
 			String[] arg = new String[] { temp, ParamType.getType(temp).name() };
 			rlst.add(arg);
@@ -283,8 +346,6 @@ public class BDDDefinitionHelper {
 	public static List<String[]> getArgsFromCall(String def, String call,List<String> defArgPos) {
 		List<String[]> argsToreturn = new ArrayList<String[]>();
 		List<String[]> args = getArgs(call, def, defArgPos);
-		
-		Pattern num = Pattern.compile(ParamType.LONG.getRegx());
 
 		argsToreturn.addAll(args);
 		// check possible combinations
@@ -292,7 +353,7 @@ public class BDDDefinitionHelper {
 			String posInDef = defArgPos.get(i);
 			def = def.replace(posInDef, Pattern.quote(args.get(i)[0]));
 
-			Matcher numMathcher = num.matcher(posInDef);
+			Matcher numMathcher = NUMBER.matcher(posInDef);
 			int argPos = Character.isDigit(posInDef.charAt(1))&&numMathcher.find() ? Integer.parseInt(numMathcher.group()) : i;
 			args.get(i)[0] = processArg(args.get(i)[0]);
 			argsToreturn.set(argPos, args.get(i));
@@ -302,13 +363,12 @@ public class BDDDefinitionHelper {
 	}
 	
 	public static boolean matches(String def, String call) {
-		String origDef = def;
-		def = def.replaceAll(ParamType.getParamDefRegx(), ParamType.getParamValueRegx().replaceAll("\\\\", "\\\\\\\\"));
-		if (!StringMatcher.likeIgnoringCase("(((" + BDDKeyword.getKeyWordRegEx() + ")\\s)?" + def + ")").match(call)) {
+		StepDefinition definition = getDefinition(def);
+		if (!definition.pattern.matcher(call).matches()) {
 			return false;
 		} else {
-			List<String[]> argsa = getArgsFromCall(origDef, call);
-			if (getArgNames(origDef).size() != argsa.size())
+			List<String[]> argsa = getArgsFromCall(def, call, definition.getArgNames());
+			if (definition.argNames.size() != argsa.size())
 				return false;
 		}
 		return true;
@@ -323,8 +383,7 @@ public class BDDDefinitionHelper {
 	}
 
 	public static List<String> getArgNames(String def) {
-		Pattern p = Pattern.compile(ParamType.getParamDefRegx());
-		Matcher matcher = p.matcher(def);
+		Matcher matcher = PARAM_DEF.matcher(def);
 		List<String> args = new ArrayList<String>();
 		while (matcher.find()) {
 			args.add(matcher.group());
@@ -333,13 +392,81 @@ public class BDDDefinitionHelper {
 	}
 
 	private static String getFirstMatch(String exp, String s) {
-		Matcher m = Pattern.compile(exp).matcher(s);
+		Matcher m = getPattern(exp).matcher(s);
 		if (m.find()) {
 			return m.group();
 		}
 		return "";
 	}
 
+	/**
+	 * Compiled pattern for given regular expression. Patterns used by step
+	 * matching are derived from step definitions, so compiled patterns are
+	 * reused instead of compiling on each match.
+	 * 
+	 * @param regex
+	 * @return compiled pattern
+	 */
+	public static Pattern getPattern(String regex) {
+		return getPattern(regex, 0);
+	}
+
+	/**
+	 * @param regex
+	 * @param flags
+	 *            match flags as in {@link Pattern#compile(String, int)}
+	 * @return compiled pattern
+	 */
+	public static Pattern getPattern(String regex, int flags) {
+		String key = flags + ":" + regex;
+		Pattern pattern = PATTERNS.get(key);
+		if (null == pattern) {
+			pattern = Pattern.compile(regex, flags);
+			if (PATTERNS.size() >= MAX_CACHED_PATTERNS) {
+				PATTERNS.clear();
+			}
+			PATTERNS.put(key, pattern);
+		}
+		return pattern;
+	}
+
+	private static StepDefinition getDefinition(String def) {
+		String keywordRegx = BDDKeyword.getKeyWordRegEx();
+		StepDefinition definition = DEFINITIONS.get(def);
+		if (null == definition || !definition.keywordRegx.equals(keywordRegx)) {
+			definition = new StepDefinition(def, keywordRegx);
+			if (DEFINITIONS.size() >= MAX_CACHED_PATTERNS) {
+				DEFINITIONS.clear();
+			}
+			DEFINITIONS.put(def, definition);
+		}
+		return definition;
+	}
+
+	/**
+	 * Step definition compiled once, with pattern to match step call and
+	 * argument place holders. Pattern depends on BDD keywords so it will be
+	 * recompiled only when keyword synonyms changes.
+	 */
+	private static final class StepDefinition {
+		private static final String PARAM_VALUE_REPLACEMENT = Matcher.quoteReplacement(PARAM_VALUE_REGX);
+
+		private final String keywordRegx;
+		private final Pattern pattern;
+		private final List<String> argNames;
+
+		private StepDefinition(String def, String keywordRegx) {
+			this.keywordRegx = keywordRegx;
+			String regx = PARAM_DEF.matcher(def).replaceAll(PARAM_VALUE_REPLACEMENT);
+			pattern = Pattern.compile("(((" + keywordRegx + ")\\s)?" + regx + ")", Pattern.CASE_INSENSITIVE);
+			argNames = Collections.unmodifiableList(BDDDefinitionHelper.getArgNames(def));
+		}
+
+		private List<String> getArgNames() {
+			return new ArrayList<String>(argNames);
+		}
+	}
+
 	public static String format(String def, Object... objects) {
 		if (null == objects || objects.length <= 0)
 			return def;
@@ -27,17 +27,15 @@ import static org.apache.commons.lang.StringUtils.isNotBlank;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import org.apache.commons.configuration.ConfigurationConverter;
 import org.apache.commons.lang.text.StrSubstitutor;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.impl.LogFactoryImpl;
 import org.json.JSONObject;
 import org.testng.ITestContext;
 import org.testng.ITestNGMethod;
@@ -47,10 +45,9 @@ import org.testng.internal.Configuration;
 import org.testng.internal.MethodInvocationHelper;
 import org.testng.internal.annotations.IAnnotationFinder;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.qmetry.qaf.automation.core.ConfigurationManager;
-import com.qmetry.qaf.automation.data.DataBean;
+import com.qmetry.qaf.automation.core.QAFListenerAdapter;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.step.client.TestNGScenario;
 import com.qmetry.qaf.automation.testng.DataProviderException;
@@ -68,7 +65,6 @@ import com.qmetry.qaf.automation.util.StringUtil;
  *
  */
 public class QAFInetrceptableDataProvider {
-	private static final Log logger = LogFactoryImpl.getLog(QAFInetrceptableDataProvider.class);
 
 	/**
 	 * 
@@ -102,23 +98,25 @@ public class QAFInetrceptableDataProvider {
 			intercepter.beforeFech(scenario, c);
 		}
 				
-		List<Object[]> dataList = null;
+		Iterator<Object[]> testData = null;
 		String dataProvider = (String) metadata.get(params.DATAPROVIDER.name());
 		boolean hasCustomDataProvider = null!=dataProvider && !dataProvider.startsWith(QAFDataProvider.NAME);
 		
 		if (hasCustomDataProvider) {
 			// get data provider from description!...
 			String dataProviderClass = (String) metadata.get(params.DATAPROVIDERCLASS.name());
-			Iterator<Object[]> testData = invokeCustomDataProvider(method, c, dataProvider, dataProviderClass);
-			dataList = ListUtils.toList(testData);
+			testData = invokeCustomDataProvider(method, c, dataProvider, dataProviderClass);
 		} else {
-			Object[][] testData = getData(metadata);
-			dataList = ListUtils.toList(testData);
+			testData = getDataIterator(metadata);
 		}
 
-		List<Object[]> data = process(scenario, dataList);
+		if (!requiresDataSet(intercepters)) {
+			// lazy: filter, slice and process records on demand
+			return TestDataIterator.create(scenario, testData);
+		}
 
-		// listeners
+		// listeners need entire data-set
+		List<Object[]> data = ListUtils.toList(new TestDataIterator(scenario, testData, false));
 		List<Object[]> interceptedData = intercept(scenario, c, data,intercepters);
 		return interceptedData.iterator();
 	}
@@ -190,115 +188,34 @@ public class QAFInetrceptableDataProvider {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private static List<Object[]> process(TestNGScenario scenario, List<Object[]> data) {
-		Class<?>[] paramTypes = scenario.getConstructorOrMethod().getParameterTypes();
-		List<Object[]> testdata = new ArrayList<Object[]>(data);
-		// list of only map object
-		if (null != testdata && !testdata.isEmpty() && testdata.get(0).length == 1
-				&& Map.class.isAssignableFrom(testdata.get(0)[0].getClass())) {
-
-			try {
-				// filter records using key include/exclude if provided in data
-				String filter = (String) scenario.getMetaData().get("filter");
-				if (StringUtil.isNotBlank(filter)) {
-					// resolve parameters
-					TreeMap<String, Object> parametes = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
-					parametes.putAll(scenario.getMetaData());
-					parametes.put("method", scenario.getMethodName());
-					parametes.put("class", scenario.getMethod().getDeclaringClass().getSimpleName());
-					
-					filter = StrSubstitutor.replace(filter, parametes);
-					filter = getBundle().getSubstitutor().replace(filter);
-					logger.info("Applying Filter " + filter);
-					int i =0;
-					Iterator<Object[]> iter = testdata.iterator();
-					while (iter.hasNext()) {
-						// consider column values as context variables
-						Map<String, Object> record = (Map<String, Object>) iter.next()[0];
-						boolean include = StringUtil.eval(filter, record);
-						i=i+1;
-						if (!include) {
-							logger.debug("removing " + record);
-							iter.remove();
-						}else{
-							record.put("__baseindex", i);
-						}
-					}
-				}
-			} catch (Exception e) {
-				throw new DataProviderException("Unable to apply filter on data-set", e);
-			}
-
-			// process parameters
-			for (int i = 0; i < testdata.size(); i++) {
-				Map<String, Object> record = (Map<String, Object>) testdata.get(i)[0];
-				if (paramTypes.length > 1) {
-					Object[] values = record.values().toArray();
-					if (paramTypes.length == values.length && paramTypes[0].isAssignableFrom(values[0].getClass())) {
-						testdata.set(i, values);
-					} else {
-						Object[] params = new Object[paramTypes.length];
-						for (int pi = 0; pi < paramTypes.length; pi++) {
-							try {
-								if (values.length > pi && paramTypes[pi].isAssignableFrom(values[pi].getClass())) {
-									params[pi] = values[pi];
-								} else if (DataBean.class.isAssignableFrom(paramTypes[pi])) {
-									DataBean bean = (DataBean) paramTypes[pi].newInstance();
-									bean.fillData(record);
-									params[pi] = bean;
-
-								} else {
-									Gson gson = new Gson();
-									String seralizedObj = gson.toJson(record);
-									params[pi] = gson.fromJson(seralizedObj, paramTypes[pi]);
-								}
-							} catch (Exception e) {
-								throw new DataProviderException("Unable to populate data" + paramTypes, e);
-							}
-						}
-						testdata.set(i, params);
-					}
-				} else if (!Map.class.isAssignableFrom(paramTypes[0])) {
-					if (DataBean.class.isAssignableFrom(paramTypes[0])) {
-						try {
-							DataBean bean = (DataBean) paramTypes[0].newInstance();
-							bean.fillData(record);
-							testdata.set(i, new Object[] { bean });
-
-						} catch (Exception e) {
-							throw new DataProviderException("Unable to populate databean", e);
-						}
-					} else {
-						Gson gson = new Gson();
-						String seralizedObj = gson.toJson(record);
-						Object obj = new Gson().fromJson(seralizedObj, paramTypes[0]);
-						testdata.set(i, new Object[] { obj });
-					}
-				} else {
-					record.put("__index", i + 1);
-				}
-			}
-		}
-
-		return testdata;
+	/**
+	 * 
+	 * @param metadata
+	 * @return
+	 */
+	public static Object[][] getData(Map<String, Object> metadata) {
+		List<Object[]> data = ListUtils.toList(getDataIterator(metadata));
+		return data.toArray(new Object[][] {});
 	}
 
 	/**
+	 * Data from csv file and json file is read lazily, other sources are
+	 * loaded entirely. Database records are loaded at once so the connection
+	 * is not held during test execution.
 	 * 
 	 * @param metadata
 	 * @return
 	 */
-	public static Object[][] getData(Map<String, Object> metadata) {
+	private static Iterator<Object[]> getDataIterator(Map<String, Object> metadata) {
 
 		String query = (String) metadata.get(params.SQLQUERY.name());
 		if (isNotBlank(query)) {
-			return DatabaseUtil.getRecordDataAsMap(query);
+			return Arrays.asList(DatabaseUtil.getRecordDataAsMap(query)).iterator();
 		}
 
 		String jsonTable = (String) metadata.get(params.JSON_DATA_TABLE.name());
 		if (isNotBlank(jsonTable)) {
-			return JSONUtil.getJsonArrayOfMaps(jsonTable);
+			return JSONUtil.getJsonArrayOfMapsIterator(jsonTable);
 		}
 
 		String file = (String) metadata.get(params.DATAFILE.name());
@@ -306,26 +223,24 @@ public class QAFInetrceptableDataProvider {
 
 		if (isNotBlank(file)) {
 			if (file.endsWith("json")) {
-				return JSONUtil.getJsonArrayOfMaps(file);
+				return JSONUtil.getJsonArrayOfMapsIterator(file);
 			}
 			if (file.endsWith("xml")) {
-				List<Object[]> mapData = DataProviderUtil.getDataSetAsMap(key, file);
-				return mapData.toArray(new Object[][] {});
+				return DataProviderUtil.getDataSetAsMap(key, file).iterator();
 			}
 			if (file.endsWith("xls")) {
 				if (isNotBlank(key)) {
-					return ExcelUtil.getTableDataAsMap(file, ((String) metadata.get(params.KEY.name())),
-							(String) metadata.get(params.SHEETNAME.name()));
+					return Arrays.asList(ExcelUtil.getTableDataAsMap(file, ((String) metadata.get(params.KEY.name())),
+							(String) metadata.get(params.SHEETNAME.name()))).iterator();
 				}
-				return ExcelUtil.getExcelDataAsMap(file, (String) metadata.get(params.SHEETNAME.name()));
+				return Arrays.asList(ExcelUtil.getExcelDataAsMap(file, (String) metadata.get(params.SHEETNAME.name())))
+						.iterator();
 			}
 			// csv, text
-			List<Object[]> csvData = CSVUtil.getCSVDataAsMap(file);
-			return csvData.toArray(new Object[][] {});
+			return CSVUtil.getCSVDataAsMapIterator(file);
 		}
 		if (isNotBlank(key)) {
-			List<Object[]> mapData = DataProviderUtil.getDataSetAsMap(key, "");
-			return mapData.toArray(new Object[][] {});
+			return DataProviderUtil.getDataSetAsMap(key, "").iterator();
 		}
 		throw new RuntimeException("No data provider found");
 	}
@@ -398,6 +313,32 @@ public class QAFInetrceptableDataProvider {
 		return intercepters;
 	}
 	
+	/**
+	 * @return false if none of intercepters overrides intercept, so entire
+	 *         data-set is not required
+	 */
+	private static boolean requiresDataSet(Set<QAFDataProviderIntercepter> intercepters) {
+		for (QAFDataProviderIntercepter intercepter : intercepters) {
+			if (!isNoOpIntercepter(intercepter.getClass())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Listener extending {@link QAFListenerAdapter} without overriding
+	 * intercept doesn't require entire data-set.
+	 */
+	private static boolean isNoOpIntercepter(Class<?> listenerClass) {
+		try {
+			return listenerClass.getMethod("intercept", TestNGScenario.class, ITestContext.class, List.class)
+					.getDeclaringClass().equals(QAFListenerAdapter.class);
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
 	private static String getConfigParameters(String key){
 		if(getBundle().containsKey(key) || !getBundle().subset(key).isEmpty()){
 			org.apache.commons.configuration.Configuration config = getBundle().subset(key);
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.testng.dataprovider;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.text.StrSubstitutor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+import com.google.gson.Gson;
+import com.qmetry.qaf.automation.data.DataBean;
+import com.qmetry.qaf.automation.step.client.TestNGScenario;
+import com.qmetry.qaf.automation.testng.DataProviderException;
+import com.qmetry.qaf.automation.testng.dataprovider.QAFDataProvider.params;
+import com.qmetry.qaf.automation.util.StringUtil;
+
+/**
+ * Lazy test data pipeline: source, filter, slice (FROM/TO) and conversion of
+ * record to test method arguments. Records are pulled from source only when
+ * requested, so data-set is never held in memory entirely and source is not
+ * read beyond TO.
+ * 
+ * @author chirag.jayswal
+ */
+class TestDataIterator implements Iterator<Object[]>, Closeable {
+	private static final Log logger = LogFactoryImpl.getLog(TestDataIterator.class);
+
+	private final TestNGScenario scenario;
+	private final Iterator<Object[]> source;
+	private final Class<?>[] paramTypes;
+	private int from = 1;
+	private int to = Integer.MAX_VALUE;
+
+	// resolved on first record
+	private Boolean mapRecords;
+	private String filter;
+
+	// number of records read from source
+	private int baseIndex;
+	// number of records passed filter
+	private int index;
+	private Object[] next;
+	private boolean done;
+
+	/**
+	 * @param scenario
+	 * @param source
+	 * @param slice
+	 *            whether to apply FROM/TO from scenario meta-data
+	 */
+	TestDataIterator(TestNGScenario scenario, Iterator<Object[]> source, boolean slice) {
+		this.scenario = scenario;
+		this.source = source;
+		paramTypes = scenario.getConstructorOrMethod().getParameterTypes();
+
+		Map<String, Object> metadata = scenario.getMetaData();
+		if (slice) {
+			if (metadata.containsKey(params.TO.name())) {
+				to = (int) metadata.get(params.TO.name());
+			}
+			if (metadata.containsKey(params.FROM.name()) && (int) metadata.get(params.FROM.name()) > from) {
+				from = (int) metadata.get(params.FROM.name());
+			}
+			if (from - 1 > to) {
+				throw new IllegalArgumentException("Invalid data range FROM: " + from + ", TO: " + to);
+			}
+		}
+	}
+
+	/**
+	 * Creates pipeline with FROM/TO or INDICES from scenario meta-data applied.
+	 * When INDICES provided, only records at those indices are kept in memory.
+	 * 
+	 * @param scenario
+	 * @param source
+	 * @return
+	 */
+	static Iterator<Object[]> create(TestNGScenario scenario, Iterator<Object[]> source) {
+		Map<String, Object> metadata = scenario.getMetaData();
+		if (metadata.containsKey(params.FROM.name()) || metadata.containsKey(params.TO.name())
+				|| !metadata.containsKey(params.INDICES.name())) {
+			return new TestDataIterator(scenario, source, true);
+		}
+
+		List<?> indices = (List<?>) metadata.get(params.INDICES.name());
+		int max = -1;
+		for (Object i : indices) {
+			max = Math.max(max, (int) i);
+		}
+		TestDataIterator data = new TestDataIterator(scenario, source, false);
+		Map<Integer, Object[]> selected = new HashMap<Integer, Object[]>();
+		for (int i = 0; i <= max && data.hasNext(); i++) {
+			Object[] record = data.next();
+			if (indices.contains(i)) {
+				selected.put(i, record);
+			}
+		}
+		data.close();
+
+		List<Object[]> filteredList = new ArrayList<Object[]>();
+		for (Object i : indices) {
+			Object[] record = selected.get((int) i);
+			if (null == record) {
+				throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + data.index);
+			}
+			filteredList.add(record);
+		}
+		return filteredList.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (null == next && !done) {
+			next = fetch();
+		}
+		return null != next;
+	}
+
+	@Override
+	public Object[] next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Object[] record = next;
+		next = null;
+		return record;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void close() {
+		done = true;
+		if (source instanceof Closeable) {
+			try {
+				((Closeable) source).close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private Object[] fetch() {
+		while (index < to && source.hasNext()) {
+			Object[] record = source.next();
+			baseIndex++;
+			if (null == mapRecords) {
+				// list of only map object
+				mapRecords = record.length == 1 && null != record[0] && Map.class.isAssignableFrom(record[0].getClass());
+				filter = mapRecords ? getFilter() : null;
+			}
+			if (!mapRecords) {
+				if (++index >= from) {
+					return record;
+				}
+				continue;
+			}
+			if (!include(record)) {
+				continue;
+			}
+			if (++index >= from) {
+				return process(record);
+			}
+		}
+		close();
+		if (from - 1 > index) {
+			// same as sub-list of entire data-set
+			throw new IllegalArgumentException(
+					"Invalid data range FROM: " + from + ", data-set size: " + index);
+		}
+		return null;
+	}
+
+	private String getFilter() {
+		// filter records using key include/exclude if provided in data
+		String filter = (String) scenario.getMetaData().get("filter");
+		if (StringUtil.isNotBlank(filter)) {
+			// resolve parameters
+			TreeMap<String, Object> parametes = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+			parametes.putAll(scenario.getMetaData());
+			parametes.put("method", scenario.getMethodName());
+			parametes.put("class", scenario.getMethod().getDeclaringClass().getSimpleName());
+
+			filter = StrSubstitutor.replace(filter, parametes);
+			filter = getBundle().getSubstitutor().replace(filter);
+			logger.info("Applying Filter " + filter);
+			return filter;
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean include(Object[] data) {
+		if (null == filter) {
+			return true;
+		}
+		// consider column values as context variables
+		Map<String, Object> record = (Map<String, Object>) data[0];
+		try {
+			boolean include = StringUtil.eval(filter, record);
+			if (!include) {
+				logger.debug("removing " + record);
+			} else {
+				record.put("__baseindex", baseIndex);
+			}
+			return include;
+		} catch (Exception e) {
+			throw new DataProviderException("Unable to apply filter on data-set", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object[] process(Object[] data) {
+		Map<String, Object> record = (Map<String, Object>) data[0];
+		if (paramTypes.length > 1) {
+			Object[] values = record.values().toArray();
+			if (paramTypes.length == values.length && paramTypes[0].isAssignableFrom(values[0].getClass())) {
+				return values;
+			}
+			Object[] params = new Object[paramTypes.length];
+			for (int pi = 0; pi < paramTypes.length; pi++) {
+				try {
+					if (values.length > pi && paramTypes[pi].isAssignableFrom(values[pi].getClass())) {
+						params[pi] = values[pi];
+					} else if (DataBean.class.isAssignableFrom(paramTypes[pi])) {
+						DataBean bean = (DataBean) paramTypes[pi].newInstance();
+						bean.fillData(record);
+						params[pi] = bean;
+
+					} else {
+						Gson gson = new Gson();
+						String seralizedObj = gson.toJson(record);
+						params[pi] = gson.fromJson(seralizedObj, paramTypes[pi]);
+					}
+				} catch (Exception e) {
+					throw new DataProviderException("Unable to populate data" + paramTypes, e);
+				}
+			}
+			return params;
+		}
+		if (!Map.class.isAssignableFrom(paramTypes[0])) {
+			if (DataBean.class.isAssignableFrom(paramTypes[0])) {
+				try {
+					DataBean bean = (DataBean) paramTypes[0].newInstance();
+					bean.fillData(record);
+					return new Object[] { bean };
+
+				} catch (Exception e) {
+					throw new DataProviderException("Unable to populate databean", e);
+				}
+			}
+			Gson gson = new Gson();
+			String seralizedObj = gson.toJson(record);
+			Object obj = new Gson().fromJson(seralizedObj, paramTypes[0]);
+			return new Object[] { obj };
+		}
+		record.put("__index", index);
+		return data;
+	}
+}
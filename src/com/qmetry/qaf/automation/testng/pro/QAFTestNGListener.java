@@ -171,9 +171,7 @@ public class QAFTestNGListener {
 	public void beforeInvocation(IInvokedMethod method, ITestResult tr,
 			ITestContext context) {
 		QAFTestBase stb = TestBaseProvider.instance().get();
-		stb.getLog().clear();
-		stb.clearVerificationErrors();
-		stb.getCheckPointResults().clear();
+		stb.claerAssertionsLog();
 		logger.debug("beforeInvocation: " + method.getTestMethod().getMethodName());
 		tr.setAttribute("context", context);
 		ConfigurationManager.getBundle().setProperty(ApplicationProperties.CURRENT_TEST_CONTEXT.key, context);
@@ -54,7 +54,9 @@ import com.qmetry.qaf.automation.step.client.TestNGScenario;
 import com.qmetry.qaf.automation.testng.RetryAnalyzer;
 import com.qmetry.qaf.automation.testng.dataprovider.DataProviderUtil;
 import com.qmetry.qaf.automation.testng.report.ReporterUtil;
+import com.qmetry.qaf.automation.ui.UiDriverPool;
 import com.qmetry.qaf.automation.util.ClassUtil;
+import com.qmetry.qaf.automation.util.ScreenShotWriter;
 import com.qmetry.qaf.automation.util.StringUtil;
 
 /**
@@ -81,6 +83,7 @@ public class QAFTestNGListener2 extends QAFTestNGListener
 
 	@Override
 	public void onStart(final ISuite suite) {
+		UiDriverPool.instance().prewarm();
 		if (skipReporting())
 			return;
 		super.onStart(suite);
@@ -93,6 +96,7 @@ public class QAFTestNGListener2 extends QAFTestNGListener
 			return;
 		super.onFinish(suite);
 		logger.debug("onFinish: start");
+		ScreenShotWriter.flush();
 		ReporterUtil.createMetaInfo(suite);
 		logger.debug("onFinish: done");
 
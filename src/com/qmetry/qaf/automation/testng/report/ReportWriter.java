@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.testng.report;
+
+import static com.qmetry.qaf.automation.util.JSONUtil.getJsonObjectFromFile;
+import static com.qmetry.qaf.automation.util.JSONUtil.writeJsonObjectToFile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+
+/**
+ * Writes json report files from single background thread. Test threads
+ * {@link #submit(Update) submit} updates in lock free queue and the writer
+ * thread applies them on in-memory report model. Each modified file is written
+ * once per flush, which happens every
+ * {@link ApplicationProperties#REPORT_FLUSH_INTERVAL}, when
+ * {@link ApplicationProperties#REPORT_FLUSH_SIZE} updates are pending or on
+ * {@link #flush()}.
+ * 
+ * @author chirag.jayswal
+ */
+final class ReportWriter implements Runnable {
+	private static final Log logger = LogFactoryImpl.getLog(ReportWriter.class);
+	private static final long FLUSH_TIMEOUT = 120;
+
+	/**
+	 * Update on report model of a file. Model is loaded from the file on first
+	 * update and kept in memory until next {@link ReportWriter#flush() flush}.
+	 * Always applied on writer thread.
+	 */
+	static abstract class Update<T> {
+		private final String file;
+		private final Class<T> type;
+
+		/**
+		 * Update that replaces content of the file.
+		 * 
+		 * @param file
+		 */
+		Update(String file) {
+			this(file, null);
+		}
+
+		Update(String file, Class<T> type) {
+			this.file = file;
+			this.type = type;
+		}
+
+		/**
+		 * @param model
+		 *            current model of the file, <code>null</code> for update
+		 *            that replaces file content
+		 * @return model to write
+		 */
+		abstract T apply(T model);
+	}
+
+	private static final class Put extends Update<Object> {
+		private final Object model;
+
+		Put(String file, Object model) {
+			super(file);
+			this.model = model;
+		}
+
+		@Override
+		Object apply(Object ignore) {
+			return model;
+		}
+	}
+
+	private static class InstanceHolder {
+		private static final ReportWriter INSTANCE = new ReportWriter(
+				ApplicationProperties.REPORT_FLUSH_INTERVAL.getIntVal(1000),
+				ApplicationProperties.REPORT_FLUSH_SIZE.getIntVal(500));
+	}
+
+	static ReportWriter instance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<Object>();
+	private final AtomicInteger pending = new AtomicInteger();
+	// accessed only by writer thread
+	private final Map<String, Object> models = new HashMap<String, Object>();
+	private final Map<String, Object> dirty = new LinkedHashMap<String, Object>();
+
+	private final long intervalNanos;
+	private final int size;
+	private final Thread writer;
+
+	ReportWriter(long interval, int size) {
+		intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(interval, 1));
+		this.size = Math.max(size, 1);
+
+		writer = new Thread(this, "qaf-report-writer");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				flush();
+			}
+		});
+	}
+
+	/**
+	 * Queues update without blocking calling thread.
+	 * 
+	 * @param update
+	 */
+	void submit(Update<?> update) {
+		queue.offer(update);
+		if (pending.incrementAndGet() >= size) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * Queues the object to be written as is, replacing existing file if any.
+	 * 
+	 * @param file
+	 * @param model
+	 */
+	void write(String file, Object model) {
+		submit(new Put(file, model));
+	}
+
+	/**
+	 * Writes all updates submitted so far and waits for completion.
+	 */
+	void flush() {
+		if (Thread.currentThread() == writer) {
+			return;
+		}
+		CountDownLatch done = new CountDownLatch(1);
+		queue.offer(done);
+		LockSupport.unpark(writer);
+		try {
+			if (!done.await(FLUSH_TIMEOUT, TimeUnit.SECONDS)) {
+				logger.warn("Timed out waiting for json report to be written");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			LockSupport.parkNanos(this, intervalNanos);
+			try {
+				drain();
+			} catch (Throwable t) {
+				logger.error("Unable to write json report", t);
+			}
+		}
+	}
+
+	private void drain() {
+		List<CountDownLatch> flushRequests = new ArrayList<CountDownLatch>();
+		try {
+			Object item;
+			while ((item = queue.poll()) != null) {
+				if (item instanceof CountDownLatch) {
+					flushRequests.add((CountDownLatch) item);
+				} else {
+					pending.decrementAndGet();
+					apply((Update<?>) item);
+				}
+			}
+			Iterator<Entry<String, Object>> iter = dirty.entrySet().iterator();
+			while (iter.hasNext()) {
+				Entry<String, Object> entry = iter.next();
+				iter.remove();
+				writeJsonObjectToFile(entry.getKey(), entry.getValue());
+			}
+		} finally {
+			if (!flushRequests.isEmpty()) {
+				// everything is on disk, release memory held by models
+				models.clear();
+				for (CountDownLatch flushRequest : flushRequests) {
+					flushRequest.countDown();
+				}
+			}
+		}
+	}
+
+	private <T> void apply(Update<T> update) {
+		try {
+			T model;
+			if (null == update.type) {
+				model = update.apply(null);
+				models.remove(update.file);
+			} else {
+				// content replaced by write may not be on disk yet
+				Object current = models.containsKey(update.file) ? models.get(update.file)
+						: dirty.get(update.file);
+				model = update.type.isInstance(current) ? update.type.cast(current)
+						: getJsonObjectFromFile(update.file, update.type);
+				model = update.apply(model);
+				models.put(update.file, model);
+			}
+			if (null != model) {
+				dirty.put(update.file, model);
+			}
+		} catch (Throwable t) {
+			logger.warn("Unable to update " + update.file, t);
+		}
+	}
+}
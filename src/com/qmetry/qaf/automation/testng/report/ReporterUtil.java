@@ -22,8 +22,6 @@
 package com.qmetry.qaf.automation.testng.report;
 
 import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
-import static com.qmetry.qaf.automation.util.JSONUtil.getJsonObjectFromFile;
-import static com.qmetry.qaf.automation.util.JSONUtil.writeJsonObjectToFile;
 
 import java.io.File;
 import java.io.IOException;
@@ -32,6 +30,7 @@ import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -40,6 +39,7 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration.Configuration;
@@ -73,17 +73,39 @@ public class ReporterUtil {
 	private static final Log logger = LogFactoryImpl.getLog(ReporterUtil.class);
 	private static final String QAF_TEST_IDENTIFIER = "qaf_test_identifier";
 	private static final AtomicInteger indexer = new AtomicInteger(0);
+	// report updates waiting for writer, used to coalesce summary calculation
+	private static final Set<Object> pendingSummaries =
+			Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+	private static final Set<String> resultFiles =
+			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * Queues suite summary update. Summary is calculated once by report writer
+	 * for all updates received between two writes.
+	 * 
+	 * @param suite
+	 */
 	public static void updateMetaInfo(ISuite suite) {
-		createMetaInfo(suite, false);
+		if (pendingSummaries.add(suite)) {
+			createMetaInfo(suite, false);
+		}
 	}
 
+	/**
+	 * Creates or updates suite meta-info and writes all pending report updates
+	 * to the file system. Should be called on suite start and finish.
+	 * 
+	 * @param suite
+	 */
 	public static void createMetaInfo(ISuite suite) {
 		createMetaInfo(suite, true);
-
+		ReportWriter.instance().flush();
 	}
 
-	private static Map<XmlSuite, Collection<ISuiteResult>> resultMap= new HashMap<XmlSuite, Collection<ISuiteResult>>();
-	private static void createMetaInfo(ISuite suite, boolean listEntry) {
+	private static Map<XmlSuite, Collection<ISuiteResult>> resultMap =
+			new ConcurrentHashMap<XmlSuite, Collection<ISuiteResult>>();
+
+	private static void createMetaInfo(final ISuite suite, boolean listEntry) {
 		List<XmlTest> tests = suite.getXmlSuite().getTests();
 		List<String> testNames = new ArrayList<String>();
 		for (XmlTest test : tests) {
@@ -91,7 +113,7 @@ public class ReporterUtil {
 		}
 
 		String dir = ApplicationProperties.JSON_REPORT_DIR.getStringVal();
-		Report report = new Report();
+		final Report report = new Report();
 
 		if (!getBundle().containsKey("suit.start.ts")) {
 			dir = ApplicationProperties.JSON_REPORT_DIR
@@ -108,20 +130,53 @@ public class ReporterUtil {
 		report.setName(suite.getName());
 		report.setTests(testNames);
 		report.setDir(dir);
+		report.setStartTime(getBundle().getLong("suit.start.ts", 0));
+		resultMap.put(suite.getXmlSuite(), suite.getResults().values());
+		// configuration is thread specific, read it here not on writer thread
+		final boolean retry = ApplicationProperties.RETRY_CNT.getIntVal(0) > 0;
+
+		ReportWriter.instance().submit(
+				new ReportWriter.Update<Report>(dir + "/meta-info.json") {
+					@Override
+					Report apply(Report ignore) {
+						pendingSummaries.remove(suite);
+						setSummary(report, suite, retry);
+						return report;
+					}
+				});
+		if (listEntry) {
+			final ReportEntry reportEntry = new ReportEntry();
+			reportEntry.setName(suite.getName());
+			reportEntry.setStartTime(getBundle().getLong("suit.start.ts", 0));
+			reportEntry.setDir(dir);
+			String file = ApplicationProperties.JSON_REPORT_ROOT_DIR
+					.getStringVal("test-results") + "/meta-info.json";
+			ReportWriter.instance()
+					.submit(new ReportWriter.Update<MetaInfo>(file, MetaInfo.class) {
+						@Override
+						MetaInfo apply(MetaInfo metaInfo) {
+							metaInfo.getReports().remove(reportEntry);
+							metaInfo.getReports().add(reportEntry);
+							return metaInfo;
+						}
+					});
+		}
+	}
 
+	private static void setSummary(Report report, ISuite suite, boolean retry) {
+		List<String> testNames = report.getTests();
 		int pass = 0, fail = 0, skip = 0, total = 0;
 		Iterator<ISuiteResult> iter = suite.getResults().values().iterator();
-		resultMap.put(suite.getXmlSuite(), suite.getResults().values());
 		while (iter.hasNext()) {
 			ITestContext context = iter.next().getTestContext();
 			pass += getPassCnt(context);
-			skip += getSkipCnt(context);
+			skip += getSkipCnt(context, retry);
 			fail += getFailCnt(context) + getFailWithPassPerCnt(context);
 			total += getTotal(context);
 		}
 		List<XmlSuite> childs = suite.getXmlSuite().getChildSuites();
 		for(XmlSuite csuite: childs){
-			tests = csuite.getTests();
+			List<XmlTest> tests = csuite.getTests();
 			for (XmlTest test : tests) {
 				testNames.add(getTestName(test));
 			}	
@@ -130,7 +185,7 @@ public class ReporterUtil {
 				while (iter.hasNext()) {
 					ITestContext context = iter.next().getTestContext();
 					pass += getPassCnt(context);
-					skip += getSkipCnt(context);
+					skip += getSkipCnt(context, retry);
 					fail += getFailCnt(context) + getFailWithPassPerCnt(context);
 					total += getTotal(context);
 				}
@@ -141,89 +196,108 @@ public class ReporterUtil {
 		report.setSkip(skip);
 		report.setTotal((pass + fail + skip) > total ? pass + fail + skip : total);
 		report.setStatus(fail > 0 ? "fail" : pass > 0 ? "pass" : "unstable");
-		report.setStartTime(getBundle().getLong("suit.start.ts", 0));
-
-		appendReportInfo(report);
-		if (listEntry) {
-			ReportEntry reportEntry = new ReportEntry();
-			reportEntry.setName(suite.getName());
-			reportEntry.setStartTime(getBundle().getLong("suit.start.ts", 0));
-			reportEntry.setDir(dir);
-			appendMetaInfo(reportEntry);
-		}
 	}
 
-	public static synchronized void updateOverview(ITestContext context,
+	/**
+	 * Queues test overview update, should be called on test start and finish
+	 * with <code>null</code> result and on test method completion.
+	 * 
+	 * @param context
+	 * @param result
+	 */
+	public static void updateOverview(final ITestContext context,
 			ITestResult result) {
 		try {
-			String file = ApplicationProperties.JSON_REPORT_DIR.getStringVal() + "/"
+			final String file = ApplicationProperties.JSON_REPORT_DIR.getStringVal() + "/"
 					+ getTestName(context) + "/overview.json";
-			TestOverview overview = getJsonObjectFromFile(file, TestOverview.class);
-			if (null == result) {
-				Map<String, Object> runPrams = new HashMap<String, Object>(
-						context.getCurrentXmlTest().getAllParameters());
-				Configuration env = getBundle().subset("env");
-				Iterator<?> iter = env.getKeys();
-				while (iter.hasNext()) {
-					String key = (String) iter.next();
-					runPrams.put(key, env.getString(key));
+			final Map<String, Object> envInfo = null == result ? getEnvInfo(context) : null;
+			final String testClass = null == result ? null : result.getTestClass().getName();
+			final long ts = System.currentTimeMillis();
+			// configuration is thread specific, read it here not on writer thread
+			final boolean retry = ApplicationProperties.RETRY_CNT.getIntVal(0) > 0;
+
+			ReportWriter writer = ReportWriter.instance();
+			writer.submit(new ReportWriter.Update<TestOverview>(file, TestOverview.class) {
+				@Override
+				TestOverview apply(TestOverview overview) {
+					if (null != envInfo) {
+						overview.setEnvInfo(envInfo);
+					}
+					if (null != testClass) {
+						overview.getClasses().add(testClass);
+					}
+					if ((overview.getStartTime() > 0)) {
+						overview.setEndTime(ts);
+					} else {
+						overview.setStartTime(ts);
+					}
+					return overview;
 				}
-				Map<String, Object> envInfo = new HashMap<String, Object>();
-				envInfo.put("isfw-build-info", getBundle().getObject("isfw.build.info"));
-				envInfo.put("run-parameters", runPrams);
-				envInfo.put("browser-desired-capabilities",
-						getBundle().getObject("driver.desiredCapabilities"));
-				envInfo.put("browser-actual-capabilities", getActualCapabilities());
-
-				overview.setEnvInfo(envInfo);
-				Map<String, Object> executionEnvInfo = new HashMap<String, Object>();
-				executionEnvInfo.put("os.name", System.getProperty("os.name"));
-				executionEnvInfo.put("os.version", System.getProperty("os.version"));
-
-				executionEnvInfo.put("os.arch", System.getProperty("os.arch"));
-				executionEnvInfo.put("java.version", System.getProperty("java.version"));
-				executionEnvInfo.put("java.vendor", System.getProperty("java.vendor"));
-				executionEnvInfo.put("java.arch",
-						System.getProperty("sun.arch.data.model"));
-
-				executionEnvInfo.put("user.name", System.getProperty("user.name"));
-				try {
-					executionEnvInfo.put("host",
-							InetAddress.getLocalHost().getHostName());
-				} catch (Exception e) {
-					// This code added for MAC to fetch hostname
-					String hostname = execHostName("hostname");
-					executionEnvInfo.put("host", hostname);
-				}
-
-				envInfo.put("execution-env-info", executionEnvInfo);
-
-			}
-
-			int pass = getPassCnt(context);
-			int fail = getFailCnt(context) + getFailWithPassPerCnt(context);
-			int skip = getSkipCnt(context);
-			int total = getTotal(context);
-
-			overview.setTotal(total > (pass + fail + skip) ? total : pass + fail + skip);
-			overview.setPass(pass);
-			overview.setSkip(skip);
-			overview.setFail(fail);
-			if (null != result) {
-				overview.getClasses().add(result.getTestClass().getName());
-			}
-			if ((overview.getStartTime() > 0)) {
-				overview.setEndTime(System.currentTimeMillis());
-			} else {
-				overview.setStartTime(System.currentTimeMillis());
+			});
+			if (pendingSummaries.add(file)) {
+				writer.submit(new ReportWriter.Update<TestOverview>(file, TestOverview.class) {
+					@Override
+					TestOverview apply(TestOverview overview) {
+						pendingSummaries.remove(file);
+						int pass = getPassCnt(context);
+						int fail = getFailCnt(context) + getFailWithPassPerCnt(context);
+						int skip = getSkipCnt(context, retry);
+						int total = getTotal(context);
+
+						overview.setTotal(total > (pass + fail + skip) ? total : pass + fail + skip);
+						overview.setPass(pass);
+						overview.setSkip(skip);
+						overview.setFail(fail);
+						return overview;
+					}
+				});
 			}
-			writeJsonObjectToFile(file, overview);
 			updateMetaInfo(context.getSuite());
 		} catch (Exception e) {
 			logger.debug(e);
 		}
 	}
 
+	private static Map<String, Object> getEnvInfo(ITestContext context) {
+		Map<String, Object> runPrams = new HashMap<String, Object>(
+				context.getCurrentXmlTest().getAllParameters());
+		Configuration env = getBundle().subset("env");
+		Iterator<?> iter = env.getKeys();
+		while (iter.hasNext()) {
+			String key = (String) iter.next();
+			runPrams.put(key, env.getString(key));
+		}
+		Map<String, Object> envInfo = new HashMap<String, Object>();
+		envInfo.put("isfw-build-info", getBundle().getObject("isfw.build.info"));
+		envInfo.put("run-parameters", runPrams);
+		envInfo.put("browser-desired-capabilities",
+				getBundle().getObject("driver.desiredCapabilities"));
+		envInfo.put("browser-actual-capabilities", getActualCapabilities());
+
+		Map<String, Object> executionEnvInfo = new HashMap<String, Object>();
+		executionEnvInfo.put("os.name", System.getProperty("os.name"));
+		executionEnvInfo.put("os.version", System.getProperty("os.version"));
+
+		executionEnvInfo.put("os.arch", System.getProperty("os.arch"));
+		executionEnvInfo.put("java.version", System.getProperty("java.version"));
+		executionEnvInfo.put("java.vendor", System.getProperty("java.vendor"));
+		executionEnvInfo.put("java.arch",
+				System.getProperty("sun.arch.data.model"));
+
+		executionEnvInfo.put("user.name", System.getProperty("user.name"));
+		try {
+			executionEnvInfo.put("host",
+					InetAddress.getLocalHost().getHostName());
+		} catch (Exception e) {
+			// This code added for MAC to fetch hostname
+			String hostname = execHostName("hostname");
+			executionEnvInfo.put("host", hostname);
+		}
+
+		envInfo.put("execution-env-info", executionEnvInfo);
+		return envInfo;
+	}
+
 	private static Map<String, String> getActualCapabilities() {
 		@SuppressWarnings("unchecked")
 		Map<String, Object> map =
@@ -263,22 +337,21 @@ public class ReporterUtil {
 			String fileName = getMethodIdentifier(result);//StringUtil.toTitleCaseIdentifier(getMethodName(result));
 			String methodResultFile = dir + "/" + fileName;
 
-			File f = new File(methodResultFile + ".json");
-			if (f.exists()) {
+			// result files are written asynchronously so file may not exist yet
+			if (!resultFiles.add(methodResultFile)
+					|| new File(methodResultFile + ".json").exists()) {
 				// if file already exists then it will append some random
 				// character as suffix
 				String suffix = "_"+indexer.incrementAndGet();
 				fileName += suffix;
 				// add updated file name as 'resultFileName' key in metaData
 				methodResultFile = dir + "/" + fileName;
+				resultFiles.add(methodResultFile);
 				result.setAttribute(QAF_TEST_IDENTIFIER,fileName);
-
-				updateClassMetaInfo(context, result, fileName);
-			} else {
-				updateClassMetaInfo(context, result, fileName);
 			}
+			updateClassMetaInfo(context, result, fileName);
 
-			writeJsonObjectToFile(methodResultFile + ".json", methodResult);
+			ReportWriter.instance().write(methodResultFile + ".json", methodResult);
 		} catch (Exception e) {
 			logger.warn(e.getMessage(), e);
 		}
@@ -291,15 +364,12 @@ public class ReporterUtil {
 	 * @param context
 	 * @param result
 	 */
-	private static synchronized void updateClassMetaInfo(ITestContext context,
+	private static void updateClassMetaInfo(ITestContext context,
 			ITestResult result, String methodfname) {
 		String dir = getClassDir(context, result);
 		String file = dir + "/meta-info.json";
-		FileUtil.checkCreateDir(dir);
-
-		ClassInfo classInfo = getJsonObjectFromFile(file, ClassInfo.class);
 
-		MethodInfo methodInfo = new MethodInfo();
+		final MethodInfo methodInfo = new MethodInfo();
 		methodInfo.setStartTime(result.getStartMillis());
 		methodInfo.setDuration(result.getEndMillis() - result.getStartMillis());
 
@@ -362,15 +432,19 @@ public class ReporterUtil {
 			metadata.put("resultFileName", methodfname);
 		}
 
-		if (!classInfo.getMethods().contains(methodInfo)) {
-			logger.debug("method:  result: " + methodInfo.getResult() + " groups: "
-					+ methodInfo.getMetaData());
-			classInfo.getMethods().add(methodInfo);
-			writeJsonObjectToFile(file, classInfo);
-		} else {
-			logger.warn("methodInfo already wrritten for " + methodInfo.getName());
-		}
-
+		ReportWriter.instance().submit(new ReportWriter.Update<ClassInfo>(file, ClassInfo.class) {
+			@Override
+			ClassInfo apply(ClassInfo classInfo) {
+				if (!classInfo.getMethods().contains(methodInfo)) {
+					logger.debug("method:  result: " + methodInfo.getResult() + " groups: "
+							+ methodInfo.getMetaData());
+					classInfo.getMethods().add(methodInfo);
+				} else {
+					logger.warn("methodInfo already wrritten for " + methodInfo.getName());
+				}
+				return classInfo;
+			}
+		});
 	}
 
 	private static String getMethodName(ITestResult result) {
@@ -417,23 +491,6 @@ public class ReporterUtil {
 				+ result.getTestClass().getName();
 	}
 
-	private static void appendReportInfo(Report report) {
-
-		String file = report.getDir() + "/meta-info.json";
-		writeJsonObjectToFile(file, report);
-	}
-
-	private static void appendMetaInfo(ReportEntry report) {
-
-		String file =
-				ApplicationProperties.JSON_REPORT_ROOT_DIR.getStringVal("test-results")
-						+ "/meta-info.json";
-		MetaInfo metaInfo = getJsonObjectFromFile(file, MetaInfo.class);
-		metaInfo.getReports().remove(report);
-		metaInfo.getReports().add(report);
-		writeJsonObjectToFile(file, metaInfo);
-	}
-
 	private static String getResult(int res) {
 		switch (res) {
 			case ITestResult.SUCCESS :
@@ -495,13 +552,13 @@ public class ReporterUtil {
 		return 0;
 	}
 
-	private static int getSkipCnt(ITestContext context) {
+	private static int getSkipCnt(ITestContext context, boolean retry) {
 		if ((context != null) && (context.getSkippedTests() != null)) {
 			if (context.getSkippedTests().getAllResults() != null) {
 				Collection<ITestNGMethod> skippedTest =
 						context.getSkippedTests().getAllMethods();
 				Set<ITestNGMethod> set = new HashSet<ITestNGMethod>(skippedTest);
-				if (ApplicationProperties.RETRY_CNT.getIntVal(0) > 0) {
+				if (retry) {
 					set.removeAll(context.getPassedTests().getAllMethods());
 					set.removeAll(context.getFailedTests().getAllMethods());
 					return set.size();
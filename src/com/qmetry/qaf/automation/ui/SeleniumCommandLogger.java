@@ -35,6 +35,7 @@ import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.ui.selenium.QAFCommandProcessor;
 import com.qmetry.qaf.automation.ui.selenium.SeleniumCommandListener;
 import com.qmetry.qaf.automation.ui.selenium.SeleniumCommandTracker;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
 import com.qmetry.qaf.automation.util.StackTraceUtils;
 
 /**
@@ -76,7 +77,7 @@ public class SeleniumCommandLogger implements SeleniumCommandListener {
 		String[] args = commandTracker.getArgs();
 		LoggingBean bean = new LoggingBean(commandTracker.getCommand(), args, commandTracker.getResult());
 
-		if ((args != null) && (args.length > 0) && !StackTraceUtils.isWaitInvolved()
+		if ((args != null) && (args.length > 0) && !DynamicWait.isWaitInProgress() && !StackTraceUtils.isWaitInvolved()
 				&& !isCommandExcludedFromLogging(commandTracker.getCommand())) {
 			commandLog.add(bean);
 
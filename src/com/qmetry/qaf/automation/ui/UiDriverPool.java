@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.core.LoggingBean;
+import com.qmetry.qaf.automation.core.QAFTestBase.STBArgs;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
+
+/**
+ * Pool of driver sessions keyed by driver name, server and desired
+ * capabilities. When {@link ApplicationProperties#DRIVER_POOL_SIZE} is set,
+ * sessions are created in background at suite start and leased to test
+ * threads through {@link com.qmetry.qaf.automation.core.TestBaseProvider}. On
+ * tear down session is reset (extra windows closed, storage and cookies
+ * cleared and navigated to blank page) and returned to the pool instead of
+ * quit. Session idle for more than
+ * {@link ApplicationProperties#DRIVER_POOL_MAX_IDLE} or leased
+ * {@link ApplicationProperties#DRIVER_POOL_MAX_USES} times is quit.
+ * <p>
+ * Only {@link QAFExtendedWebDriver} sessions are pooled. Webdriver can clear
+ * cookies and storage for the domain of current page only, so do not enable
+ * pool when tests depend on clean state of other domains.
+ * <p>
+ * Driver resources and <code>driver.desiredCapabilities</code> are set for the
+ * test leasing session same as for new session.
+ * {@link com.qmetry.qaf.automation.ui.webdriver.QAFWebDriverCommandListener#beforeInitialize(org.openqa.selenium.Capabilities)
+ * beforeInitialize} and other initialization listener methods are called only
+ * when session is created, they are not called for the test that leases
+ * existing session.
+ * 
+ * @author chirag.jayswal
+ */
+public final class UiDriverPool {
+	private static final Log logger = LogFactoryImpl.getLog(UiDriverPool.class);
+	private static final String RESET_STORAGE_SCRIPT = "try{window.localStorage.clear();}catch(e){}"
+			+ "try{window.sessionStorage.clear();}catch(e){}";
+	private static final UiDriverPool INSTANCE = new UiDriverPool();
+
+	private final Map<String, LinkedBlockingDeque<PooledDriver>> idle = new ConcurrentHashMap<String, LinkedBlockingDeque<PooledDriver>>();
+	private final Map<String, AtomicInteger> warming = new ConcurrentHashMap<String, AtomicInteger>();
+	private final Map<QAFExtendedWebDriver, PooledDriver> leased = Collections
+			.synchronizedMap(new IdentityHashMap<QAFExtendedWebDriver, PooledDriver>());
+	private ExecutorService warmer;
+	private ScheduledExecutorService sweeper;
+
+	private UiDriverPool() {
+	}
+
+	public static UiDriverPool instance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return true if {@link ApplicationProperties#DRIVER_POOL_SIZE} is set
+	 */
+	public boolean isEnabled() {
+		return getSize() > 0;
+	}
+
+	/**
+	 * Starts creating sessions in background for configured driver, until
+	 * pool has {@link ApplicationProperties#DRIVER_POOL_SIZE} sessions. Does
+	 * nothing when pool is not enabled.
+	 */
+	public void prewarm() {
+		if (isEnabled()) {
+			prewarm(getConfiguredArgs());
+		}
+	}
+
+	void prewarm(String... stb) {
+		if (!isPoolable(stb)) {
+			return;
+		}
+		// same as lease so that capabilities from driver resources are part of key
+		UiDriverFactory.loadDriverResouces(STBArgs.browser_str.getFrom(stb));
+		String key = getKey(stb);
+		int required = getSize() - getIdle(key).size() - getWarming(key).get();
+		for (int i = 0; i < required; i++) {
+			warm(key, stb);
+		}
+	}
+
+	/**
+	 * Leases idle session for given driver arguments. When no session is idle
+	 * but sessions are being pre-warmed, waits for one of them. Driver
+	 * resources are loaded for the calling thread as session may be created
+	 * on other thread.
+	 * 
+	 * @param commandLog
+	 *            command log for the test leasing session
+	 * @param stb
+	 *            driver arguments
+	 * @return idle session or null if there is no session available in pool
+	 */
+	public UiDriver lease(ArrayList<LoggingBean> commandLog, String... stb) {
+		if (!isEnabled() || !isPoolable(stb)) {
+			return null;
+		}
+		String driverName = STBArgs.browser_str.getFrom(stb);
+		UiDriverFactory.loadDriverResouces(driverName);
+		String key = getKey(stb);
+		PooledDriver pooled;
+		while (null != (pooled = next(key))) {
+			if (pooled.getIdleTime() > getMaxIdle() || !pooled.isAlive()) {
+				quit(pooled);
+				continue;
+			}
+			pooled.uses++;
+			pooled.driver.setReporter(new WebDriverCommandLogger(commandLog));
+			leased.put(pooled.driver, pooled);
+			ConfigurationManager.getBundle().setProperty("driver.desiredCapabilities",
+					UiDriverFactory.getDesiredCapabilities(driverName).asMap());
+			ConfigurationManager.getBundle().setProperty("driver.actualCapabilities",
+					pooled.driver.getCapabilities().asMap());
+			logger.info("Leased driver session from pool: " + key);
+			return pooled.driver;
+		}
+		return null;
+	}
+
+	/**
+	 * Registers session created outside the pool, so that it can be returned
+	 * to the pool on {@link #release(UiDriver)}.
+	 * 
+	 * @param driver
+	 * @param stb
+	 *            driver arguments used to create session
+	 */
+	public void register(UiDriver driver, String... stb) {
+		if (isEnabled() && (driver instanceof QAFExtendedWebDriver) && isPoolable(stb)) {
+			PooledDriver pooled = new PooledDriver(getKey(stb), (QAFExtendedWebDriver) driver);
+			pooled.uses++;
+			leased.put(pooled.driver, pooled);
+		}
+	}
+
+	/**
+	 * Resets and returns session to the pool. Session that is not from pool,
+	 * can not be reset or reached max uses is quit.
+	 * 
+	 * @param driver
+	 */
+	public void release(UiDriver driver) {
+		PooledDriver pooled = (driver instanceof QAFExtendedWebDriver) ? leased.remove(driver) : null;
+		if (null == pooled) {
+			new UiDriverFactory().tearDown(driver);
+			return;
+		}
+		LinkedBlockingDeque<PooledDriver> sessions = getIdle(pooled.key);
+		if (!isEnabled() || (pooled.uses >= getMaxUses()) || (sessions.size() >= getSize()) || !pooled.reset()) {
+			quit(pooled);
+			return;
+		}
+		pooled.lastUsed = System.currentTimeMillis();
+		sessions.offerFirst(pooled);
+		startSweeper();
+	}
+
+	/**
+	 * Quits all idle sessions and stops background threads. Leased sessions
+	 * are quit when released.
+	 */
+	public synchronized void shutdown() {
+		if (null != sweeper) {
+			sweeper.shutdownNow();
+			sweeper = null;
+		}
+		if (null != warmer) {
+			warmer.shutdownNow();
+			warmer = null;
+		}
+		for (LinkedBlockingDeque<PooledDriver> sessions : idle.values()) {
+			PooledDriver pooled;
+			while (null != (pooled = sessions.pollFirst())) {
+				quit(pooled);
+			}
+		}
+	}
+
+	int getIdleCount() {
+		int count = 0;
+		for (LinkedBlockingDeque<PooledDriver> sessions : idle.values()) {
+			count += sessions.size();
+		}
+		return count;
+	}
+
+	void evictIdle() {
+		long maxIdle = getMaxIdle();
+		for (LinkedBlockingDeque<PooledDriver> sessions : idle.values()) {
+			Iterator<PooledDriver> iter = sessions.iterator();
+			while (iter.hasNext()) {
+				PooledDriver pooled = iter.next();
+				if ((pooled.getIdleTime() > maxIdle) && sessions.remove(pooled)) {
+					logger.info("Evicting idle driver session: " + pooled.key);
+					quit(pooled);
+				}
+			}
+		}
+	}
+
+	private PooledDriver next(String key) {
+		LinkedBlockingDeque<PooledDriver> sessions = getIdle(key);
+		PooledDriver pooled = sessions.pollFirst();
+		try {
+			// warming counter is decremented after session added to idle
+			while ((null == pooled) && (getWarming(key).get() > 0)) {
+				pooled = sessions.pollFirst(1, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return pooled;
+	}
+
+	private void warm(final String key, final String[] stb) {
+		getWarming(key).incrementAndGet();
+		try {
+			getWarmer().execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						UiDriver driver = new UiDriverFactory().get(new ArrayList<LoggingBean>(), stb);
+						if (driver instanceof QAFExtendedWebDriver) {
+							PooledDriver pooled = new PooledDriver(key, (QAFExtendedWebDriver) driver);
+							getIdle(key).offerLast(pooled);
+							startSweeper();
+						} else {
+							new UiDriverFactory().tearDown(driver);
+						}
+					} catch (Throwable t) {
+						logger.warn("Unable to pre-warm driver session: " + key, t);
+					} finally {
+						getWarming(key).decrementAndGet();
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			getWarming(key).decrementAndGet();
+			throw e;
+		}
+	}
+
+	private void quit(PooledDriver pooled) {
+		new UiDriverFactory().tearDown(pooled.driver);
+	}
+
+	private LinkedBlockingDeque<PooledDriver> getIdle(String key) {
+		LinkedBlockingDeque<PooledDriver> sessions = idle.get(key);
+		if (null == sessions) {
+			synchronized (idle) {
+				sessions = idle.get(key);
+				if (null == sessions) {
+					sessions = new LinkedBlockingDeque<PooledDriver>();
+					idle.put(key, sessions);
+				}
+			}
+		}
+		return sessions;
+	}
+
+	private AtomicInteger getWarming(String key) {
+		AtomicInteger count = warming.get(key);
+		if (null == count) {
+			synchronized (warming) {
+				count = warming.get(key);
+				if (null == count) {
+					count = new AtomicInteger();
+					warming.put(key, count);
+				}
+			}
+		}
+		return count;
+	}
+
+	private synchronized ExecutorService getWarmer() {
+		if (null == warmer) {
+			warmer = Executors.newCachedThreadPool(new PoolThreadFactory());
+		}
+		return warmer;
+	}
+
+	private synchronized void startSweeper() {
+		if (null == sweeper) {
+			long period = Math.max(1000, getMaxIdle() / 2);
+			sweeper = Executors.newSingleThreadScheduledExecutor(new PoolThreadFactory());
+			sweeper.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					evictIdle();
+				}
+			}, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static int getSize() {
+		return ApplicationProperties.DRIVER_POOL_SIZE.getIntVal(0);
+	}
+
+	private static long getMaxIdle() {
+		return ApplicationProperties.DRIVER_POOL_MAX_IDLE.getIntVal(300000);
+	}
+
+	private static int getMaxUses() {
+		return ApplicationProperties.DRIVER_POOL_MAX_USES.getIntVal(100);
+	}
+
+	private static boolean isPoolable(String... stb) {
+		// same check as UiDriverFactory#get for webdriver
+		String browser = STBArgs.browser_str.getFrom(stb);
+		return browser.toLowerCase().contains("driver") && !browser.startsWith("*");
+	}
+
+	static String[] getConfiguredArgs() {
+		return STBArgs.browser_str.set(
+				ApplicationProperties.DRIVER_NAME.getStringVal(STBArgs.browser_str.getDefaultVal()),
+				STBArgs.base_url.set(
+						ApplicationProperties.SELENIUM_BASE_URL.getStringVal(STBArgs.base_url.getDefaultVal()),
+						STBArgs.port.set(ApplicationProperties.REMOTE_PORT.getStringVal(STBArgs.port.getDefaultVal()),
+								STBArgs.sel_server.set(ApplicationProperties.REMOTE_SERVER
+										.getStringVal(STBArgs.sel_server.getDefaultVal())))));
+	}
+
+	/**
+	 * @param stb
+	 * @return driver name, server, port and desired capabilities in
+	 *         normalized form
+	 */
+	static String getKey(String... stb) {
+		String driverName = STBArgs.browser_str.getFrom(stb);
+		Object capabilities;
+		try {
+			capabilities = normalize(UiDriverFactory.getDesiredCapabilities(driverName).asMap());
+		} catch (RuntimeException e) {
+			capabilities = "";
+		}
+		return driverName.toLowerCase() + "|" + STBArgs.sel_server.getFrom(stb) + "|" + STBArgs.port.getFrom(stb)
+				+ "|" + capabilities;
+	}
+
+	private static Object normalize(Object value) {
+		if (value instanceof Map) {
+			Map<String, Object> sorted = new TreeMap<String, Object>();
+			for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				sorted.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+			}
+			return sorted;
+		}
+		return value;
+	}
+
+	private static class PooledDriver {
+		private final String key;
+		private final QAFExtendedWebDriver driver;
+		private int uses;
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		PooledDriver(String key, QAFExtendedWebDriver driver) {
+			this.key = key;
+			this.driver = driver;
+		}
+
+		long getIdleTime() {
+			return System.currentTimeMillis() - lastUsed;
+		}
+
+		boolean isAlive() {
+			try {
+				driver.getWindowHandle();
+				return true;
+			} catch (Throwable t) {
+				return false;
+			}
+		}
+
+		boolean reset() {
+			try {
+				// commands for reset are not part of test log
+				driver.setReporter(new WebDriverCommandLogger());
+				Iterator<String> handles = driver.getWindowHandles().iterator();
+				String main = handles.next();
+				while (handles.hasNext()) {
+					driver.switchTo().window(handles.next());
+					driver.close();
+				}
+				driver.switchTo().window(main);
+				driver.executeScript(RESET_STORAGE_SCRIPT);
+				driver.manage().deleteAllCookies();
+				driver.get("about:blank");
+				return true;
+			} catch (Throwable t) {
+				logger.warn("Unable to reset driver session, it will be quit: " + t.getMessage());
+				return false;
+			}
+		}
+	}
+
+	private static class PoolThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "qaf-driver-pool-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -39,6 +39,8 @@ import com.qmetry.qaf.automation.core.MessageTypes;
 import com.qmetry.qaf.automation.core.QAFTestBase;
 import com.qmetry.qaf.automation.core.TestBaseProvider;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.selenium.AdaptiveWait;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
 import com.qmetry.qaf.automation.ui.webdriver.CommandTracker;
 import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
 import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebElement;
@@ -51,6 +53,7 @@ public class WebDriverCommandLogger
 	private ArrayList<LoggingBean> commandLog;
 	private final Log logger = LogFactory.getLog(getClass());
 	private Set<String> excludeCommandsFromLogging;
+	private final boolean excludeWaitCommandsFromLogging;
 	
 	public WebDriverCommandLogger(ArrayList<LoggingBean> commandLog) {
 		
@@ -64,6 +67,7 @@ public class WebDriverCommandLogger
 				"captureEntirePageScreenshotToString", "executeScript", "screenshot" }));
 		excludeCommandsFromLogging
 				.addAll(Arrays.asList(ApplicationProperties.REPORTER_LOG_EXCLUDE_CMD.getStringVal("").split(",")));
+		excludeWaitCommandsFromLogging = ApplicationProperties.REPORTER_LOG_EXCLUDE_WAIT_CMD.getBoolenVal(false);
 	}
 
 	public WebDriverCommandLogger() {
@@ -72,18 +76,20 @@ public class WebDriverCommandLogger
 
 	@Override
 	public void afterCommand(QAFExtendedWebDriver driver, CommandTracker commandTracker) {
-		if (!StackTraceUtils.isWaitInvolved() && !isCommandExcludedFromLogging(commandTracker.getCommand())) {
+		if (!isWaitCommandExcludedFromLogging() && !isCommandExcludedFromLogging(commandTracker.getCommand())) {
 			LoggingBean bean;
 			try {
 				bean = (new LoggingBean(commandTracker.getCommand(),
-						new String[] { String.format("%s", new Object[] { commandTracker.getParameters() }) },
+						new String[] { String.valueOf(commandTracker.getParameters()) },
 						null == commandTracker.getResponce() ? "OK" : "" + commandTracker.getResponce().getValue()));
 			} catch (Exception e) {
 				bean = (new LoggingBean(commandTracker.getCommand(), new String[] {}, ""));
 			}
 			logDuration(commandTracker, bean);
 			commandLog.add(bean);
-			logger.info(bean.toString());
+			if (logger.isInfoEnabled()) {
+				logger.info(bean.toString());
+			}
 		}
 
 	}
@@ -102,6 +108,9 @@ public class WebDriverCommandLogger
 				commandTracker.getParameters().put("url", baseUrl + url);
 			}
 		}
+		if (!logger.isInfoEnabled()) {
+			return;
+		}
 		try {
 			logger.info("Executing " + commandTracker.getCommand() + " parameters: "
 					+ new JSONObject(commandTracker.getParameters()).toString());
@@ -115,8 +124,7 @@ public class WebDriverCommandLogger
 		LoggingBean bean;
 		try {
 			bean = (new LoggingBean(commandTracker.getCommand(),
-					new String[] { String.format("%s", new Object[] { commandTracker.getParameters() }) },
-					commandTracker.getMessage()));
+					new String[] { String.valueOf(commandTracker.getParameters()) }, commandTracker.getMessage()));
 		} catch (Exception e) {
 			bean = (new LoggingBean(commandTracker.getCommand(), new String[] {}, commandTracker.getMessage()));
 
@@ -131,7 +139,7 @@ public class WebDriverCommandLogger
 
 	@Override
 	public void afterCommand(QAFExtendedWebElement element, CommandTracker commandTracker) {
-		if (!StackTraceUtils.isWaitInvolved() && !isCommandExcludedFromLogging(commandTracker.getCommand())) {
+		if (!isWaitCommandExcludedFromLogging() && !isCommandExcludedFromLogging(commandTracker.getCommand())) {
 			LoggingBean bean;
 			try {
 				bean = new LoggingBean(commandTracker.getCommand(),
@@ -144,13 +152,17 @@ public class WebDriverCommandLogger
 			}
 			logDuration(commandTracker, bean);
 			commandLog.add(bean);
-			logger.info(bean.toString());
-
+			if (logger.isInfoEnabled()) {
+				logger.info(bean.toString());
+			}
 		}
 	}
 
 	@Override
 	public void beforeCommand(QAFExtendedWebElement element, CommandTracker commandTracker) {
+		if (!logger.isInfoEnabled()) {
+			return;
+		}
 		try {
 			logger.info("Executing " + commandTracker.getCommand() + " element: " + element.toString() + " parameters: "
 					+ new JSONObject(commandTracker.getParameters()).toString());
@@ -251,4 +263,13 @@ public class WebDriverCommandLogger
 	protected boolean isCommandExcludedFromLogging(final String commandName) {
 		return excludeCommandsFromLogging.contains(commandName);
 	}
+
+	private boolean isWaitCommandExcludedFromLogging() {
+		if (DynamicWait.isWaitInProgress()) {
+			// selenium 1 wait is also evaluated by dynamic wait
+			return excludeWaitCommandsFromLogging || AdaptiveWait.isWaitInProgress();
+		}
+		// commands of selenium 1 wait are never logged
+		return StackTraceUtils.isWaitInvolved();
+	}
 }
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.TimeoutException;
+
+import com.google.common.base.Predicate;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
+import com.thoughtworks.selenium.Wait;
+
+/**
+ * {@link Wait} evaluated by {@link DynamicWait}, so it is considered in wait
+ * statistics. With default interval it polls with adaptive interval starting
+ * from
+ * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#WAIT_INTERVAL_INITIAL}
+ * up to {@link Wait#DEFAULT_INTERVAL}, other interval is used as is.
+ * 
+ * @author chirag.jayswal
+ */
+public abstract class AdaptiveWait extends Wait {
+	// nesting level of waits in progress on current thread
+	private static final ThreadLocal<int[]> WAIT_DEPTH = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+	/**
+	 * @return true if current thread is executing condition of this wait.
+	 */
+	public static boolean isWaitInProgress() {
+		return WAIT_DEPTH.get()[0] > 0;
+	}
+
+	@Override
+	public void wait(String message, long timeoutInMilliseconds, long intervalInMilliseconds) {
+		DynamicWait<AdaptiveWait> dynamicWait = new DynamicWait<AdaptiveWait>(this)
+				.withTimeout(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+		if (intervalInMilliseconds == DEFAULT_INTERVAL) {
+			dynamicWait.pollingUpTo(intervalInMilliseconds, TimeUnit.MILLISECONDS);
+		} else {
+			dynamicWait.pollingEvery(intervalInMilliseconds, TimeUnit.MILLISECONDS);
+		}
+		int[] depth = WAIT_DEPTH.get();
+		depth[0]++;
+		try {
+			dynamicWait.until(new Predicate<AdaptiveWait>() {
+				@Override
+				public boolean apply(AdaptiveWait wait) {
+					return wait.until();
+				}
+			});
+		} catch (TimeoutException e) {
+			throw new WaitTimedOutException(message);
+		} finally {
+			depth[0]--;
+		}
+	}
+}
@@ -44,6 +44,7 @@ import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.ui.selenium.webdriver.QAFWebDriverBackedSelenium;
 import com.qmetry.qaf.automation.util.FileUtil;
 import com.qmetry.qaf.automation.util.PropertyUtil;
+import com.qmetry.qaf.automation.util.ScreenShotWriter;
 import com.qmetry.qaf.automation.util.StringMatcher;
 import com.qmetry.qaf.automation.util.StringUtil;
 
@@ -746,7 +747,7 @@ public class AssertionService {
 	private String base64ImageToFile(String base64Image) {
 		String filename = "";
 		try {
-			filename = FileUtil.saveImageFile(base64Image, getTestCaseName(), getScreenShotDir());
+			filename = ScreenShotWriter.write(base64Image, getTestCaseName(), getScreenShotDir());
 			lastCapturedScreenShot = filename;
 			logger.info("Capturing screen shot" + lastCapturedScreenShot);
 
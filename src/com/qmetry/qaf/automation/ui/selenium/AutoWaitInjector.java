@@ -26,8 +26,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.LogFactoryImpl;
 
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
 import com.qmetry.qaf.automation.util.StackTraceUtils;
-import com.thoughtworks.selenium.Wait;
 
 /**
  * com.qmetry.qaf.automation.ui.selenium.AutoWaitInjector.java <br>
@@ -63,7 +63,7 @@ public class AutoWaitInjector implements SeleniumCommandListener {
 
 	@Override
 	public void beforeCommand(final QAFCommandProcessor proc, SeleniumCommandTracker commandTracker) {
-		boolean isWaitInvolved = StackTraceUtils.isWaitInvolved();
+		boolean isWaitInvolved = DynamicWait.isWaitInProgress() || StackTraceUtils.isWaitInvolved();
 
 		if (!ApplicationProperties.SKIP_AUTO_WAIT.getBoolenVal(false) && (null != commandTracker.getArgs())
 				&& (commandTracker.getArgs().length > 0) && StringUtils.isNotBlank(commandTracker.getArgs()[0])
@@ -71,7 +71,7 @@ public class AutoWaitInjector implements SeleniumCommandListener {
 				&& !isWaitInvolved) {
 			final String loc = commandTracker.getArgs()[0];
 			try {
-				new Wait() {
+				new AdaptiveWait() {
 					@Override
 					public boolean until() {
 						return proc.getBoolean("isElementPresent", new String[] { loc, });
@@ -85,7 +85,7 @@ public class AutoWaitInjector implements SeleniumCommandListener {
 
 			if (commandTracker.getCommand().equalsIgnoreCase("select")) {
 				try {
-					new Wait() {
+					new AdaptiveWait() {
 						@Override
 						public boolean until() {
 							return StringUtils.isNotBlank(proc.getString("getSelectedIndex", new String[] { loc, }));
@@ -29,7 +29,6 @@ import com.qmetry.qaf.automation.core.ConfigurationManager;
 import com.qmetry.qaf.automation.core.QAFTestBase;
 import com.qmetry.qaf.automation.ui.SeleniumTestBase;
 import com.qmetry.qaf.automation.util.StringUtil;
-import com.thoughtworks.selenium.Wait;
 
 /**
  * @deprecated use wait methods available with driver or element.
@@ -152,7 +151,7 @@ public class WaitService {
 	}
 
 	public void waitForElementVisible(final String elementVisibleIndicator) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isElementPresent(elementVisibleIndicator)
@@ -162,7 +161,7 @@ public class WaitService {
 	}
 
 	public void waitForElementEditable(final String element) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isElementPresent(element) && selenium.isEditable(element);
@@ -171,7 +170,7 @@ public class WaitService {
 	}
 
 	public void waitForElementNotEditable(final String element) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isElementPresent(element) && !selenium.isEditable(element);
@@ -180,7 +179,7 @@ public class WaitService {
 	}
 
 	public void waitForElementInVisible(final String elementVisibleIndicator) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.isVisible(elementVisibleIndicator);
@@ -189,7 +188,7 @@ public class WaitService {
 	}
 
 	public void waitForElementInVisible(final String elementVisibleIndicator, String failMsg, long timeOut) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.isVisible(elementVisibleIndicator);
@@ -204,7 +203,7 @@ public class WaitService {
 		} else {
 			ele = elementVisibleIndicator;
 		}
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.getAttribute(ele + "@class").contains(cssClass);
@@ -219,7 +218,7 @@ public class WaitService {
 		} else {
 			ele = elementVisibleIndicator;
 		}
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.getAttribute(ele + "@class").contains(cssClass);
@@ -233,7 +232,7 @@ public class WaitService {
 
 	public void waitForElementNotPresent(final String elementLocator, final long waitTime) {
 
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.isElementPresent(elementLocator);
@@ -242,7 +241,7 @@ public class WaitService {
 	}
 
 	public void waitForElementPresent(final String element) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isElementPresent(element);
@@ -259,7 +258,7 @@ public class WaitService {
 	 * @param text
 	 */
 	public void waitForTextNotPresent(final String text) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.isTextPresent(text);
@@ -276,7 +275,7 @@ public class WaitService {
 	 * @param text
 	 */
 	public void waitForTextNotPresent(final String loc, final String text) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return !selenium.getText(loc).toUpperCase().contains(text.toUpperCase());
@@ -293,7 +292,7 @@ public class WaitService {
 	 * @param text
 	 */
 	public void waitForTextPresent(final String loc, final String text) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isElementPresent(loc)
@@ -304,7 +303,7 @@ public class WaitService {
 	}
 
 	public void waitForTextPresent(final String text) {
-		new Wait() {
+		new AdaptiveWait() {
 			@Override
 			public boolean until() {
 				return selenium.isTextPresent(text.toUpperCase());
@@ -39,15 +39,28 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
 
 /**
  * @author chirag.jayswal
  *
  */
 public class DynamicWait<T>{ //implements Wait<T> {
+	// nesting level of waits in progress on current thread
+	private static final ThreadLocal<int[]> WAIT_DEPTH = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
 	private T input;
 	private long timeout = getDefaultTimeout();
-	private long interval = getDefaultTimeout();
+	private long interval = getDefaultInterval();
+	// back off from initial interval, only for default interval
+	private boolean backoff = true;
+	// of wait in progress, for statistics
+	private int evaluations;
+	private boolean inBrowser;
 	private Supplier<String> messageSupplier = new StringSupplier(null);
 	private List<Class<? extends Throwable>> ignoredExceptions = Lists.newLinkedList();
 
@@ -85,16 +98,37 @@ public class DynamicWait<T>{ //implements Wait<T> {
 	 * <p>
 	 * In reality, the interval may be greater as the cost of actually
 	 * evaluating a condition function is not factored in. The default polling
-	 * interval is {@link #FIVE_HUNDRED_MILLIS}.
+	 * interval is <code>selenium.wait.interval</code>, with default interval
+	 * polling starts with {@link ApplicationProperties#WAIT_INTERVAL_INITIAL}
+	 * and backs off up to the interval. Other interval is used as is.
 	 *
 	 * @param duration
 	 *            The timeout duration.
 	 * @param unit
 	 *            The unit of time.
 	 * @return A self reference.
+	 * @see #pollingUpTo(long, TimeUnit)
 	 */
 	public DynamicWait<T> pollingEvery(long duration, TimeUnit unit) {
 		this.interval = duration(duration, unit);
+		backoff = interval == getDefaultInterval();
+		return this;
+	}
+
+	/**
+	 * Sets maximum polling interval. Polling starts with
+	 * {@link ApplicationProperties#WAIT_INTERVAL_INITIAL} and backs off up to
+	 * this interval.
+	 *
+	 * @param duration
+	 *            The maximum interval duration.
+	 * @param unit
+	 *            The unit of time.
+	 * @return A self reference.
+	 */
+	public DynamicWait<T> pollingUpTo(long duration, TimeUnit unit) {
+		this.interval = duration(duration, unit);
+		backoff = true;
 		return this;
 	}
 
@@ -140,10 +174,55 @@ public class DynamicWait<T>{ //implements Wait<T> {
 	 *             If the timeout expires.
 	 */
 	public <V> V until(Function<? super T, V> isTrue) {
+		int[] depth = WAIT_DEPTH.get();
+		depth[0]++;
+		long start = now();
+		boolean timedOut = false;
+		evaluations = 0;
+		inBrowser = false;
+		try {
+			return doUntil(isTrue);
+		} catch (TimeoutException e) {
+			timedOut = true;
+			throw e;
+		} finally {
+			depth[0]--;
+			WaitStatistics.record(now() - start, evaluations, inBrowser, timedOut);
+		}
+	}
+
+	/**
+	 * Cheaper alternative of
+	 * {@link com.qmetry.qaf.automation.util.StackTraceUtils#isWaitInvolved()}
+	 * for waits extending this class.
+	 * 
+	 * @return true if current thread is executing condition of the wait.
+	 */
+	public static boolean isWaitInProgress() {
+		return WAIT_DEPTH.get()[0] > 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V> V doUntil(Function<? super T, V> isTrue) {
 		long end = laterBy(timeout);
+		if ((isTrue instanceof QAFWebDriverExpectedConditions.JsCondition)
+				&& (input instanceof QAFExtendedWebDriver)) {
+			Boolean value = new ScriptWait((QAFExtendedWebDriver) input)
+					.until(((QAFWebDriverExpectedConditions.JsCondition) isTrue).getSnippet(), timeout);
+			if (null != value) {
+				inBrowser = true;
+				if (value) {
+					return (V) value;
+				}
+				// timed out, evaluate once more for timeout message
+				end = now();
+			}
+		}
+		long sleep = getInitialInterval();
 		Throwable lastException = null;
 		while (true) {
 			try {
+				evaluations++;
 				V value = isTrue.apply(input);
 				if (value != null && Boolean.class.equals(value.getClass())) {
 					if (Boolean.TRUE.equals(value)) {
@@ -167,8 +246,17 @@ public class DynamicWait<T>{ //implements Wait<T> {
 				String timeoutMessage = String.format("Timed out after %d seconds%s", SECONDS.convert(timeout,MILLISECONDS), toAppend);
 				throw new TimeoutException(timeoutMessage, lastException);
 			}
-				pause(interval);
+			pause(Math.max(0, Math.min(sleep, end - now())));
+			sleep = Math.min(sleep * 2, interval);
+		}
+	}
+
+	private long getInitialInterval() {
+		if (!backoff) {
+			return interval;
 		}
+		long initial = getBundle().getLong(ApplicationProperties.WAIT_INTERVAL_INITIAL.key, 100);
+		return initial > 0 ? Math.min(initial, interval) : interval;
 	}
 
 	/**
@@ -248,6 +336,6 @@ public class DynamicWait<T>{ //implements Wait<T> {
 	}
 	
 	public static long duration(long time, TimeUnit unit){
-		return unit.convert(time, MILLISECONDS);
+		return MILLISECONDS.convert(time, unit);
 	}
 }
@@ -43,13 +43,29 @@ public class QAFWebDriverExpectedConditions {
 	 * @return
 	 */
 	public static ExpectedCondition<QAFExtendedWebDriver, Boolean> jsCondition(final String snippet) {
-		return new ExpectedCondition<QAFExtendedWebDriver, Boolean>() {
-			@Override
-			public Boolean apply(QAFExtendedWebDriver driver) {
-				Object res = driver.executeScript(snippet);
-				return (Boolean) res;
-			}
-		};
+		return new JsCondition(snippet);
+	}
+
+	/**
+	 * Condition evaluated by executing JS snippet. {@link DynamicWait} waits
+	 * for it in browser using {@link ScriptWait} when possible.
+	 */
+	public static class JsCondition implements ExpectedCondition<QAFExtendedWebDriver, Boolean> {
+		private final String snippet;
+
+		public JsCondition(String snippet) {
+			this.snippet = snippet;
+		}
+
+		public String getSnippet() {
+			return snippet;
+		}
+
+		@Override
+		public Boolean apply(QAFExtendedWebDriver driver) {
+			Object res = driver.executeScript(snippet);
+			return (Boolean) res;
+		}
 	}
 
 	public static ExpectedCondition<QAFExtendedWebDriver, Boolean> elementPresent(final By locator) {
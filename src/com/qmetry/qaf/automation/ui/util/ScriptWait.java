@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.util;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriverException;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
+
+/**
+ * Waits for java script condition in browser with single asynchronous
+ * script execution. Condition is evaluated on each DOM mutation, using
+ * MutationObserver, and at short interval for conditions not related to DOM,
+ * for instance pending ajax requests. Wait returns as soon as condition holds
+ * instead of driver polling condition with fixed interval.
+ * {@link DynamicWait} uses it for
+ * {@link QAFWebDriverExpectedConditions#jsCondition(String)} and falls back
+ * to polling when script can't be executed asynchronously. Element conditions
+ * (present, visible, text etc.) are evaluated by driver and still polled.
+ * <p>
+ * Script timeout of the session is raised for the wait when required and
+ * restored after the wait.
+ * 
+ * @author chirag.jayswal
+ */
+public class ScriptWait {
+	private static final Log logger = LogFactory.getLog(ScriptWait.class);
+	// driver sessions not supporting asynchronous script
+	private static final Set<QAFExtendedWebDriver> UNSUPPORTED = Collections
+			.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<QAFExtendedWebDriver, Boolean>()));
+	private static final long MARGIN = 1000;
+	// webdriver default, used to restore when script timeout was never set
+	private static final long DEFAULT_SCRIPT_TIMEOUT = 30000;
+
+	private final QAFExtendedWebDriver driver;
+
+	public ScriptWait(QAFExtendedWebDriver driver) {
+		this.driver = driver;
+	}
+
+	/**
+	 * @return false if waits in browser are disabled using
+	 *         {@link ApplicationProperties#WAIT_IN_BROWSER}
+	 */
+	public static boolean isEnabled() {
+		return getBundle().getBoolean(ApplicationProperties.WAIT_IN_BROWSER.key, true);
+	}
+
+	/**
+	 * @param snippet
+	 *            JS snippet returning boolean value, for example
+	 *            <code>return jQuery.active==0;</code>
+	 * @param timeout
+	 *            timeout in milliseconds
+	 * @return true if condition satisfied, false if timed out or null if
+	 *         condition can't be evaluated in browser.
+	 */
+	public Boolean until(String snippet, long timeout) {
+		if (!isEnabled() || UNSUPPORTED.contains(driver)) {
+			return null;
+		}
+		long scriptTimeout = driver.getScriptTimeout();
+		long required = timeout + MARGIN;
+		boolean changeTimeout = scriptTimeout < required;
+		try {
+			if (changeTimeout) {
+				driver.manage().timeouts().setScriptTimeout(required, TimeUnit.MILLISECONDS);
+			}
+			long interval = getBundle().getLong(ApplicationProperties.WAIT_INTERVAL_INITIAL.key, 100);
+			Object result = driver.executeAsyncScript(getScript(snippet), timeout, interval > 0 ? interval : 100);
+			// condition failed with error in browser
+			return result instanceof Boolean ? (Boolean) result : null;
+		} catch (UnsupportedCommandException e) {
+			logger.debug("Unable to wait in browser: " + e.getMessage());
+			UNSUPPORTED.add(driver);
+			return null;
+		} catch (WebDriverException e) {
+			// for instance page unloaded or alert present, fall back for this wait only
+			logger.debug("Unable to wait in browser: " + e.getMessage());
+			return null;
+		} finally {
+			if (changeTimeout) {
+				restoreScriptTimeout(scriptTimeout);
+			}
+		}
+	}
+
+	private void restoreScriptTimeout(long scriptTimeout) {
+		try {
+			driver.manage().timeouts().setScriptTimeout(scriptTimeout < 0 ? DEFAULT_SCRIPT_TIMEOUT : scriptTimeout,
+					TimeUnit.MILLISECONDS);
+		} catch (WebDriverException e) {
+			logger.debug("Unable to restore script timeout: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Condition for no pending XMLHttpRequest or fetch request for given
+	 * time. Requests are tracked from first evaluation of the condition on
+	 * the page, use it along with {@link com.qmetry.qaf.automation.ui.JsToolkit}
+	 * conditions to cover requests started earlier.
+	 * 
+	 * @param quietTime
+	 *            time in milliseconds without network activity
+	 * @return JS snippet returning boolean value
+	 */
+	public static String networkIdle(long quietTime) {
+		return "var w=window;if(!w.__qafNet){var n=w.__qafNet={pending:0,last:Date.now()};"
+				+ "var start=function(){n.pending++;n.last=Date.now();};"
+				+ "var end=function(){n.pending=Math.max(0,n.pending-1);n.last=Date.now();};"
+				+ "var send=XMLHttpRequest.prototype.send;XMLHttpRequest.prototype.send=function(){"
+				+ "start();this.addEventListener('loadend',end);return send.apply(this,arguments);};"
+				+ "if(w.fetch){var f=w.fetch;w.fetch=function(){start();"
+				+ "return f.apply(this,arguments).then(function(r){end();return r;},function(e){end();throw e;});};}}"
+				+ "return w.__qafNet.pending==0&&Date.now()-w.__qafNet.last>=" + quietTime + ";";
+	}
+
+	private static String getScript(String snippet) {
+		return "var done=arguments[arguments.length-1],timeout=arguments[0],interval=arguments[1],"
+				+ "finished=false,observer=null,timer=null,poll=null;"
+				+ "var cond=function(){" + snippet + "\n};"
+				+ "function finish(v){if(finished)return;finished=true;if(observer)observer.disconnect();"
+				+ "clearTimeout(timer);clearInterval(poll);done(v);}"
+				+ "function check(){try{if(cond()===true)finish(true);}catch(e){finish('error: '+e);}}"
+				+ "check();if(!finished){if(window.MutationObserver){observer=new MutationObserver(check);"
+				+ "observer.observe(document,{childList:true,subtree:true,attributes:true,characterData:true});}"
+				+ "poll=setInterval(check,interval);timer=setTimeout(function(){finish(false);},timeout);}";
+	}
+}
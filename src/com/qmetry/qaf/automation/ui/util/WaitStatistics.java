@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of waits completed by {@link DynamicWait} and its
+ * specializations, including waits resolved in browser by
+ * {@link ScriptWait}.
+ * 
+ * @author chirag.jayswal
+ */
+public final class WaitStatistics {
+	private static final AtomicLong waits = new AtomicLong();
+	private static final AtomicLong browserWaits = new AtomicLong();
+	private static final AtomicLong timeouts = new AtomicLong();
+	private static final AtomicLong evaluations = new AtomicLong();
+	private static final AtomicLong totalTime = new AtomicLong();
+	private static final AtomicLong maxTime = new AtomicLong();
+
+	private WaitStatistics() {
+	}
+
+	/**
+	 * @param time
+	 *            time in milliseconds spent in wait
+	 * @param evaluation
+	 *            number of times condition evaluated from driver side
+	 * @param inBrowser
+	 *            whether condition was resolved in browser
+	 * @param timedOut
+	 *            whether wait timed out
+	 */
+	static void record(long time, int evaluation, boolean inBrowser, boolean timedOut) {
+		waits.incrementAndGet();
+		if (inBrowser) {
+			browserWaits.incrementAndGet();
+		}
+		if (timedOut) {
+			timeouts.incrementAndGet();
+		}
+		evaluations.addAndGet(evaluation);
+		totalTime.addAndGet(time);
+		long max = maxTime.get();
+		while (time > max && !maxTime.compareAndSet(max, time)) {
+			max = maxTime.get();
+		}
+	}
+
+	/**
+	 * @return number of waits completed
+	 */
+	public static long getWaitCount() {
+		return waits.get();
+	}
+
+	/**
+	 * @return number of waits resolved in browser
+	 */
+	public static long getBrowserWaitCount() {
+		return browserWaits.get();
+	}
+
+	/**
+	 * @return number of waits timed out
+	 */
+	public static long getTimeoutCount() {
+		return timeouts.get();
+	}
+
+	/**
+	 * @return number of times conditions evaluated from driver side
+	 */
+	public static long getEvaluationCount() {
+		return evaluations.get();
+	}
+
+	/**
+	 * @return total time in milliseconds spent in waits
+	 */
+	public static long getTotalTime() {
+		return totalTime.get();
+	}
+
+	/**
+	 * @return longest wait time in milliseconds
+	 */
+	public static long getMaxTime() {
+		return maxTime.get();
+	}
+
+	/**
+	 * @return average wait time in milliseconds
+	 */
+	public static double getAverageTime() {
+		long count = waits.get();
+		return count == 0 ? 0 : (double) totalTime.get() / count;
+	}
+
+	public static void reset() {
+		waits.set(0);
+		browserWaits.set(0);
+		timeouts.set(0);
+		evaluations.set(0);
+		totalTime.set(0);
+		maxTime.set(0);
+	}
+}
@@ -58,10 +58,17 @@ public class ByAny extends By {
 		if (locators.length == 0) {
 			return new ArrayList<WebElement>();
 		}
-		List<WebElement> elems = new ArrayList<WebElement>();
+		By[] bys = new By[locators.length];
+		for (int i = 0; i < locators.length; i++) {
+			bys[i] = LocatorUtil.getBy(locators[i]);
+		}
+		List<WebElement> elems = findUsingScript(context, bys);
+		if (null != elems) {
+			return elems;
+		}
+		elems = new ArrayList<WebElement>();
 
-		for (String locator : locators) {
-			By by = LocatorUtil.getBy(locator);
+		for (By by : bys) {
 			elems.addAll(by.findElements(context));
 			if (!elems.isEmpty()) {
 				break;
@@ -71,6 +78,31 @@ public class ByAny extends By {
 		return elems;
 	}
 
+	/**
+	 * Tries all locators with single script execution when all of them can be
+	 * evaluated by {@link ElementResolver}.
+	 * 
+	 * @return elements or null if not located using script
+	 */
+	private List<WebElement> findUsingScript(SearchContext context, By[] bys) {
+		if (bys.length < 2) {
+			return null;
+		}
+		ElementResolver resolver = ElementResolver.of(context);
+		if (null == resolver) {
+			return null;
+		}
+		List<String[]> strategies = new ArrayList<String[]>(bys.length);
+		for (By by : bys) {
+			String[] strategy = ElementResolver.strategyOf(by);
+			if (null == strategy) {
+				return null;
+			}
+			strategies.add(strategy);
+		}
+		return resolver.find(context, strategies);
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder stringBuilder = new StringBuilder("Using any of");
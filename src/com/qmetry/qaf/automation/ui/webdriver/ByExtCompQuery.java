@@ -21,6 +21,7 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.ui.webdriver;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.openqa.selenium.By;
@@ -70,6 +71,10 @@ public class ByExtCompQuery extends By {
 		this.querySelector = querySelector;
 	}
 
+	String getSelector() {
+		return querySelector;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -79,6 +84,14 @@ public class ByExtCompQuery extends By {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<WebElement> findElements(SearchContext context) {
+		ElementResolver resolver = ElementResolver.of(context);
+		if (null != resolver) {
+			List<WebElement> elements = resolver.find(context,
+					Collections.singletonList(ElementResolver.strategyOf(this)));
+			if (null != elements) {
+				return elements;
+			}
+		}
 		Object res;
 		if (context instanceof RemoteWebElement) {
 			res = ((JavascriptExecutor) ((RemoteWebElement) context).getWrappedDriver()).executeScript(CHILD_COMP_QUERY,
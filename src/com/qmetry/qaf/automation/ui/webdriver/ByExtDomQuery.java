@@ -21,6 +21,7 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.ui.webdriver;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.openqa.selenium.By;
@@ -54,17 +55,17 @@ import org.openqa.selenium.remote.RemoteWebElement;
 public class ByExtDomQuery extends By {
 	private String querySelector;
 
-	private static final String COMP_QUERY = "var elements = new Array();"
-			+ "var res = Ext.query(arguments[0]); " 
-			+ "return elements;";
-	private static final String CHILD_COMP_QUERY = "var elements = new Array();"
-			+ "var res = Ext.dom.query('#'+arguments[0].id+' '+ arguments[1]);" 
-			+ "return elements;";
+	private static final String COMP_QUERY = "return Ext.query(arguments[0]);";
+	private static final String CHILD_COMP_QUERY = "return Ext.dom.query('#'+arguments[0].id+' '+ arguments[1]);";
 
 	public ByExtDomQuery(String querySelector) {
 		this.querySelector = querySelector;
 	}
 
+	String getSelector() {
+		return querySelector;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -74,6 +75,14 @@ public class ByExtDomQuery extends By {
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<WebElement> findElements(SearchContext context) {
+		ElementResolver resolver = ElementResolver.of(context);
+		if (null != resolver) {
+			List<WebElement> elements = resolver.find(context,
+					Collections.singletonList(ElementResolver.strategyOf(this)));
+			if (null != elements) {
+				return elements;
+			}
+		}
 		Object res;
 		if (context instanceof RemoteWebElement) {
 			res = ((JavascriptExecutor) ((RemoteWebElement) context).getWrappedDriver()).executeScript(CHILD_COMP_QUERY,
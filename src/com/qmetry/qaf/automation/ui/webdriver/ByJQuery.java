@@ -21,6 +21,7 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.ui.webdriver;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.openqa.selenium.By;
@@ -33,8 +34,9 @@ import org.openqa.selenium.remote.RemoteWebElement;
  * com.qmetry.qaf.automation.ui.webdriver.ByJQuery
  * 
  * JQuery strategy locator strategy for application where JQuery used in client
- * side implementation. If JQuery is not used, then either a direct connection or
- * a proxy setting is needed to access
+ * side implementation. Elements are located using jQuery of the page in
+ * single script execution. If JQuery is not used, then either a direct
+ * connection or a proxy setting is needed to access
  * https://ajax.googleapis.com/ajax/libs/jquery in order for the JQuery JS to be
  * retrieved.
  * 
@@ -49,9 +51,21 @@ public class ByJQuery extends By {
 		this.jQuerySelector = jQuerySelector;
 	}
 
+	String getSelector() {
+		return jQuerySelector;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<WebElement> findElements(SearchContext context) {
+		ElementResolver resolver = ElementResolver.of(context);
+		if (null != resolver) {
+			List<WebElement> elements = resolver.find(context,
+					Collections.singletonList(ElementResolver.strategyOf(this)));
+			if (null != elements) {
+				return elements;
+			}
+		}
 		JavascriptExecutor jse;
 		String js;
 		Object[] args;
@@ -23,6 +23,10 @@ package com.qmetry.qaf.automation.ui.webdriver;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
@@ -36,12 +40,10 @@ public class ComponentFactory {
 	public static Object getObject(Class<?> component, String loc, Object declaringClass) {
 		try {
 			if ((component.getDeclaringClass() != null) && !Modifier.isStatic(component.getModifiers())) {
-				Constructor<?> con = component.getDeclaredConstructor(declaringClass.getClass(), String.class);
-				con.setAccessible(true);
+				Constructor<?> con = getConstructor(component, declaringClass.getClass(), String.class);
 				return con.newInstance(declaringClass, loc);
 			} else {
-				Constructor<?> con = component.getDeclaredConstructor(String.class);
-				con.setAccessible(true);
+				Constructor<?> con = getConstructor(component, String.class);
 				return con.newInstance(loc);
 			}
 		} catch (Exception e) {
@@ -57,13 +59,11 @@ public class ComponentFactory {
 		}
 		try {
 			if ((component.getDeclaringClass() != null) && !Modifier.isStatic(component.getModifiers())) {
-				Constructor<?> con = component.getDeclaredConstructor(declaringClass.getClass(),
+				Constructor<?> con = getConstructor(component, declaringClass.getClass(),
 						QAFExtendedWebElement.class, String.class);
-				con.setAccessible(true);
 				return con.newInstance(declaringClass, parent, loc);
 			} else {
-				Constructor<?> con = component.getDeclaredConstructor(QAFExtendedWebElement.class, String.class);
-				con.setAccessible(true);
+				Constructor<?> con = getConstructor(component, QAFExtendedWebElement.class, String.class);
 				return con.newInstance(parent, loc);
 			}
 		} catch (Exception e) {
@@ -78,4 +78,39 @@ public class ComponentFactory {
 			return obj;
 		}
 	}
+
+	private static final Object NONE = new Object();
+
+	/**
+	 * Constructors looked up for component class, by parameter types. Missing
+	 * constructors are remembered as well so fallback doesn't repeat failed
+	 * lookups.
+	 */
+	private static final ClassValue<Map<List<Class<?>>, Object>> CONSTRUCTORS = new ClassValue<Map<List<Class<?>>, Object>>() {
+		@Override
+		protected Map<List<Class<?>>, Object> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<List<Class<?>>, Object>();
+		}
+	};
+
+	private static Constructor<?> getConstructor(Class<?> component, Class<?>... types)
+			throws NoSuchMethodException {
+		Map<List<Class<?>>, Object> constructors = CONSTRUCTORS.get(component);
+		List<Class<?>> key = Arrays.asList(types);
+		Object con = constructors.get(key);
+		if (null == con) {
+			try {
+				Constructor<?> declared = component.getDeclaredConstructor(types);
+				declared.setAccessible(true);
+				con = declared;
+			} catch (NoSuchMethodException e) {
+				con = NONE;
+			}
+			constructors.put(key, con);
+		}
+		if (con == NONE) {
+			throw new NoSuchMethodException(component.getName() + ".<init>" + key);
+		}
+		return (Constructor<?>) con;
+	}
 }
@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import org.json.JSONException;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriverException;
@@ -37,7 +36,7 @@ import com.qmetry.qaf.automation.core.ConfigurationManager;
 import com.qmetry.qaf.automation.ui.WebDriverTestBase;
 import com.qmetry.qaf.automation.ui.util.ExpectedCondition;
 import com.qmetry.qaf.automation.ui.util.QAFWebDriverWait;
-import com.qmetry.qaf.automation.util.JSONUtil;
+import com.qmetry.qaf.automation.util.CompiledLocator;
 import com.qmetry.qaf.automation.util.LocatorUtil;
 
 /**
@@ -52,6 +51,7 @@ public class ComponentListHandler implements InvocationHandler {
 	private Object declaringclassObj;
 	private String description;
 	private By by;
+	private final ElementListSnapshot<QAFExtendedWebElement> snapshot;
 
 	public ComponentListHandler(SearchContext context, String loc,
 			Class<? extends QAFExtendedWebElement> cls, Object declaringclassObj) {
@@ -59,6 +59,17 @@ public class ComponentListHandler implements InvocationHandler {
 		componentClass = cls;
 		this.declaringclassObj = declaringclassObj;
 		init(loc);
+		snapshot = new ElementListSnapshot<QAFExtendedWebElement>(ElementListSnapshot.isLive(this.loc)) {
+			@Override
+			protected List<QAFExtendedWebElement> find() {
+				return getComponents();
+			}
+
+			@Override
+			protected SearchContext getContext() {
+				return ComponentListHandler.this.context;
+			}
+		};
 	}
 
 	public Object invoke(Object object, Method method, Object[] objects)
@@ -66,77 +77,71 @@ public class ComponentListHandler implements InvocationHandler {
 		if (context == null) {
 			context = new WebDriverTestBase().getDriver();
 		}
-		final List<WebElement> elements = new ArrayList<WebElement>();
+		if (method.getDeclaringClass() == RefreshableElementList.class) {
+			if (method.getName().equals("refresh")) {
+				snapshot.refresh();
+				return null;
+			}
+			return snapshot.isStale();
+		}
 		if (method.getName().equalsIgnoreCase("get")) {
 			final int index = (Integer) objects[0];
-			new QAFWebDriverWait()
-					.withMessage(String.format("Wait timeout for list of %s with size %d",
-							description, index + 1))
-					.until(new ExpectedCondition<QAFExtendedWebDriver, Boolean>() {
-						@Override
-						public Boolean apply(QAFExtendedWebDriver driver) {
-							try {
-								elements.clear();
-								elements.addAll(context.findElements(by));
-								return elements.size() > index;
-							} catch (WebDriverException e) {
-								return false;
+			if (snapshot.get().size() <= index) {
+				new QAFWebDriverWait()
+						.withMessage(String.format("Wait timeout for list of %s with size %d",
+								description, index + 1))
+						.until(new ExpectedCondition<QAFExtendedWebDriver, Boolean>() {
+							@Override
+							public Boolean apply(QAFExtendedWebDriver driver) {
+								try {
+									snapshot.refresh();
+									return snapshot.get().size() > index;
+								} catch (WebDriverException e) {
+									return false;
+								}
 							}
-						}
-					});
-		} else {
-			elements.clear();
-			elements.addAll((context).findElements(by));
+						});
+			}
 		}
+		return snapshot.invoke(method, objects);
+	}
 
-		List<Object> components = new ArrayList<Object>();
-
-		if ((elements != null) && !elements.isEmpty()) {
-			for (WebElement element : elements) {
-				Object component = ComponentFactory.getObject(componentClass, loc,
-						declaringclassObj, context);
-				QAFExtendedWebElement extendedWebElement =
-						(QAFExtendedWebElement) component;
-				extendedWebElement.setId(((QAFExtendedWebElement) element).getId());
-				extendedWebElement.cacheable = true;
-				extendedWebElement.getMetaData().put("pageClass",
-						declaringclassObj.getClass());
-
-				if ((null != context) && (context instanceof QAFExtendedWebElement)) {
-					extendedWebElement.parentElement = (QAFExtendedWebElement) context;
-				}
+	private List<QAFExtendedWebElement> getComponents() {
+		List<QAFExtendedWebElement> components = new ArrayList<QAFExtendedWebElement>();
+		for (WebElement element : context.findElements(by)) {
+			Object component = ComponentFactory.getObject(componentClass, loc,
+					declaringclassObj, context);
+			QAFExtendedWebElement extendedWebElement =
+					(QAFExtendedWebElement) component;
+			extendedWebElement.setId(((QAFExtendedWebElement) element).getId());
+			extendedWebElement.cacheable = true;
+			extendedWebElement.getMetaData().put("pageClass",
+					declaringclassObj.getClass());
 
-				components.add(component);
+			if ((null != context) && (context instanceof QAFExtendedWebElement)) {
+				extendedWebElement.parentElement = (QAFExtendedWebElement) context;
 			}
 
+			components.add(extendedWebElement);
 		}
-
-		try {
-			return method.invoke(components, objects);
-		} catch (Exception e) {
-			throw e.getCause();
-		}
+		return components;
 	}
 
 	// TODO: fix map.get("child") as string case.....
 	private void init(String locator) {
 		loc = ConfigurationManager.getBundle().getString(locator, locator);
 		loc = ConfigurationManager.getBundle().getSubstitutor().replace(loc);
-		by = LocatorUtil.getBy(loc);
-		if (JSONUtil.isValidJsonString(loc)) {
-			try {
-				Map<String, Object> map = JSONUtil.toMap(loc);
-				description =
-						map.containsKey("desc") ? (String) map.get("desc")
-								: map.containsKey("description")
-										? (String) map.get("description")
-										: (String) map.get("locator");
-				if (map.containsKey("child") && !(Boolean) map.get("child")) {
-					context = null;
-				}
-
-			} catch (JSONException e) {
-				description = loc;
+		CompiledLocator compiled = LocatorUtil.compile(loc);
+		by = compiled.getBy();
+		Map<String, Object> map = compiled.getMetaData();
+		if (!map.isEmpty()) {
+			description =
+					map.containsKey("desc") ? (String) map.get("desc")
+							: map.containsKey("description")
+									? (String) map.get("description")
+									: (String) map.get("locator");
+			if (map.containsKey("child") && !(Boolean) map.get("child")) {
+				context = null;
 			}
 		}
 	}
@@ -27,7 +27,11 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -58,67 +62,113 @@ public class ElementFactory {
 		this.context = context;
 	}
 
-	@SuppressWarnings("unchecked")
 	public void initFields(Object classObj) {
-		Field[] flds = ClassUtil.getAllFields(classObj.getClass(), AbstractTestPage.class);
-		for (Field field : flds) {
+		for (FieldPlan plan : PLANS.get(classObj.getClass())) {
 			try {
-				field.setAccessible(true);
-				if (isDecoratable(field)) {
-					Object value = null;
-					if (hasAnnotation(field, FindBy.class, FindBys.class)) {
-						Annotations annotations = new Annotations(field);
-						boolean cacheElement = annotations.isLookupCached();
-						By by = annotations.buildBy();
-						if (List.class.isAssignableFrom(field.getType())) {
-							value = initList(by, context);
+				Object value = null;
+				if (null != plan.by) {
+					if (plan.list) {
+						value = initList(plan.by, context);
+					} else {
+						if (context instanceof WebElement) {
+							value = new QAFExtendedWebElement((QAFExtendedWebElement) context, plan.by);
 						} else {
-							if (context instanceof WebElement) {
-								value = new QAFExtendedWebElement((QAFExtendedWebElement) context, by);
-							} else {
-								value = new QAFExtendedWebElement((QAFExtendedWebDriver) context, by, cacheElement);
-							}
-							initMetadata(classObj, field, (QAFExtendedWebElement) value);
-
+							value = new QAFExtendedWebElement((QAFExtendedWebDriver) context, plan.by,
+									plan.cacheLookup);
 						}
+						initMetadata(plan, (QAFExtendedWebElement) value);
+					}
+				} else {
+					if (plan.list) {
+						value = initList(plan.listType, plan.locator, context, classObj);
 					} else {
-						com.qmetry.qaf.automation.ui.annotations.FindBy findBy = field
-								.getAnnotation(com.qmetry.qaf.automation.ui.annotations.FindBy.class);
-						if (List.class.isAssignableFrom(field.getType())) {
-							value = initList(field, findBy.locator(), context, classObj);
-						} else {
-							if (QAFWebComponent.class.isAssignableFrom(field.getType())) {
-								value = ComponentFactory.getObject(field.getType(), findBy.locator(), classObj,
-										context);
+						if (plan.component) {
+							value = ComponentFactory.getObject(plan.field.getType(), plan.locator, classObj, context);
 
-							} else {
-								value = $(findBy.locator());
+						} else {
+							value = $(plan.locator);
 
-								if (context instanceof QAFExtendedWebElement) {
-									((QAFExtendedWebElement) value).parentElement = (QAFExtendedWebElement) context;
-								}
+							if (context instanceof QAFExtendedWebElement) {
+								((QAFExtendedWebElement) value).parentElement = (QAFExtendedWebElement) context;
 							}
-							initMetadata(classObj, field, (QAFExtendedWebElement) value);
 						}
+						initMetadata(plan, (QAFExtendedWebElement) value);
 					}
-
-					field.set(classObj, value);
 				}
+
+				plan.field.set(classObj, value);
 			} catch (Exception e) {
 				logger.error(e);
 			}
 		}
 	}
 
-	private void initMetadata(Object classObj, Field field, QAFExtendedWebElement value) {
+	private void initMetadata(FieldPlan plan, QAFExtendedWebElement value) {
 		if (null == value)
 			return;
-		value.getMetaData().put("pageClass", classObj.getClass());
-		value.getMetaData().put("objectName", field.getName());
-		value.getMetaData().putAll(MetaDataScanner.getMetadata(field));
+		value.getMetaData().putAll(plan.metaData);
+	}
+
+	/**
+	 * Decoratable fields of the page class with everything that doesn't
+	 * change between page instances resolved, so page initialization doesn't
+	 * need reflection lookups.
+	 */
+	private static final ClassValue<FieldPlan[]> PLANS = new ClassValue<FieldPlan[]>() {
+		@Override
+		protected FieldPlan[] computeValue(Class<?> type) {
+			List<FieldPlan> plans = new ArrayList<FieldPlan>();
+			for (Field field : ClassUtil.getAllFields(type, AbstractTestPage.class)) {
+				try {
+					if (isDecoratable(field)) {
+						field.setAccessible(true);
+						plans.add(new FieldPlan(type, field));
+					}
+				} catch (Exception e) {
+					logger.error(e);
+				}
+			}
+			return plans.toArray(new FieldPlan[plans.size()]);
+		}
+	};
+
+	private static class FieldPlan {
+		private final Field field;
+		private final boolean list;
+		private final Class<?> listType;
+		private final boolean component;
+		// selenium FindBy
+		private final By by;
+		private final boolean cacheLookup;
+		// qaf FindBy
+		private final String locator;
+		private final Map<String, Object> metaData;
+
+		@SuppressWarnings("unchecked")
+		FieldPlan(Class<?> pageClass, Field field) {
+			this.field = field;
+			list = List.class.isAssignableFrom(field.getType());
+			listType = list ? getListType(field) : null;
+			component = QAFWebComponent.class.isAssignableFrom(field.getType());
+			if (hasAnnotation(field, FindBy.class, FindBys.class)) {
+				Annotations annotations = new Annotations(field);
+				cacheLookup = annotations.isLookupCached();
+				by = annotations.buildBy();
+				locator = null;
+			} else {
+				cacheLookup = false;
+				by = null;
+				locator = field.getAnnotation(com.qmetry.qaf.automation.ui.annotations.FindBy.class).locator();
+			}
+			Map<String, Object> metaData = new LinkedHashMap<String, Object>();
+			metaData.put("pageClass", pageClass);
+			metaData.put("objectName", field.getName());
+			metaData.putAll(MetaDataScanner.getMetadata(field));
+			this.metaData = Collections.unmodifiableMap(metaData);
+		}
 	}
 
-	private boolean hasAnnotation(Field field, Class<? extends Annotation>... classes) {
+	private static boolean hasAnnotation(Field field, Class<? extends Annotation>... classes) {
 		for (Class<? extends Annotation> cls : classes) {
 			if (field.isAnnotationPresent(cls)) {
 				return true;
@@ -128,7 +178,7 @@ public class ElementFactory {
 	}
 
 	@SuppressWarnings("unchecked")
-	private boolean isDecoratable(Field field) {
+	private static boolean isDecoratable(Field field) {
 		if (!hasAnnotation(field, com.qmetry.qaf.automation.ui.annotations.FindBy.class, FindBy.class, FindBys.class)) {
 			return false;
 		}
@@ -147,7 +197,7 @@ public class ElementFactory {
 		return WebElement.class.isAssignableFrom((Class<?>) listType);
 	}
 
-	private Class<?> getListType(Field field) {
+	private static Class<?> getListType(Field field) {
 		Type genericType = field.getGenericType();
 		Type listType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
 		return (Class<?>) listType;
@@ -155,18 +205,19 @@ public class ElementFactory {
 	}
 
 	private Object initList(By by, SearchContext context) throws Exception {
-		return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] { List.class },
+		return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] { RefreshableElementList.class },
 				new QAFExtendedWebElementListHandler(context, by));
 	}
 
 	@SuppressWarnings("unchecked")
-	private Object initList(Field field, String loc, SearchContext context, Object clsObject) throws Exception {
+	private Object initList(Class<?> listType, String loc, SearchContext context, Object clsObject) throws Exception {
 		loc = ConfigurationManager.getBundle().getString(loc, loc);
-		Class<? extends QAFExtendedWebElement> cls = (Class<? extends QAFExtendedWebElement>) getListType(field);
+		Class<? extends QAFExtendedWebElement> cls = (Class<? extends QAFExtendedWebElement>) listType;
 		InvocationHandler iHandler = QAFWebComponent.class.isAssignableFrom(cls)
 				? new ComponentListHandler(context, loc, cls, clsObject)
 				: new ComponentListHandler(context, loc, getElemenetClass(), clsObject);
-		return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] { List.class }, iHandler);
+		return Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] { RefreshableElementList.class },
+				iHandler);
 	}
 
 	public static QAFWebElement $(String loc) {
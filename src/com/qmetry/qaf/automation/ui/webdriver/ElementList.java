@@ -23,6 +23,7 @@ package com.qmetry.qaf.automation.ui.webdriver;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.json.JSONException;
@@ -85,6 +86,23 @@ public class ElementList<T extends QAFWebElement> extends ArrayList<T> {
 		}
 	}
 
+	/**
+	 * Fetch given properties of all elements in the list with single script
+	 * execution.
+	 * 
+	 * @param properties
+	 *            properties to fetch, see {@link ElementSnapshot}
+	 * @return snapshot for each element in the list
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ElementSnapshot> getSnapshots(String... properties) {
+		if (!cacheable || isEmpty()) {
+			clear();
+			addAll((Collection<T>) context.findElements(by));
+		}
+		return ElementSnapshot.of(this, properties);
+	}
+
 	public void waitForEmpty() {
 		waitForIndex(-1);
 	}
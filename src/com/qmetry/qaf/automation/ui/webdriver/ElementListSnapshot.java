@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.util.JSONUtil;
+
+/**
+ * Elements of list locator resolved once and reused by list handlers until
+ * command cycle of the driver changes or time to live elapsed.
+ * 
+ * @author chirag.jayswal
+ */
+abstract class ElementListSnapshot<T extends WebElement> {
+	private static final Set<String> MODIFY_METHODS = new HashSet<String>(Arrays.asList("add", "addAll", "remove",
+			"removeAll", "retainAll", "clear", "set", "replaceAll", "sort", "removeIf"));
+
+	private final boolean live;
+	private List<T> elements;
+	private long cycle;
+	private long expiresAt;
+
+	ElementListSnapshot(boolean live) {
+		this.live = live;
+	}
+
+	/**
+	 * @return elements located on the page
+	 */
+	protected abstract List<T> find();
+
+	protected abstract SearchContext getContext();
+
+	List<T> get() {
+		if (!isValid()) {
+			refresh();
+		}
+		return elements;
+	}
+
+	void refresh() {
+		elements = find();
+		resetValidity();
+	}
+
+	private void resetValidity() {
+		QAFExtendedWebDriver driver = getDriver();
+		cycle = null == driver ? -1 : driver.getCommandCycle();
+		long ttl = ConfigurationManager.getBundle().getLong(ApplicationProperties.ELEMENT_LIST_SNAPSHOT_TTL.key, 500);
+		expiresAt = ttl > 0 ? System.currentTimeMillis() + ttl : -1;
+	}
+
+	boolean isStale() {
+		if (null == elements) {
+			refresh();
+			return true;
+		}
+		List<T> found = find();
+		boolean stale = !getIds(found).equals(getIds(elements));
+		if (stale) {
+			elements = found;
+		}
+		// elements are verified with page just now
+		resetValidity();
+		return stale;
+	}
+
+	/**
+	 * Invokes list method on snapshot, or on copy of it for method modifying
+	 * the list, so list modification doesn't affect snapshot same as live
+	 * list.
+	 */
+	Object invoke(Method method, Object[] args) throws Throwable {
+		List<T> list = get();
+		if (MODIFY_METHODS.contains(method.getName())) {
+			list = new ArrayList<T>(list);
+		}
+		try {
+			return method.invoke(list, args);
+		} catch (Exception e) {
+			throw e.getCause();
+		}
+	}
+
+	private boolean isValid() {
+		QAFExtendedWebDriver driver;
+		return !live && null != elements && null != (driver = getDriver()) && cycle == driver.getCommandCycle()
+				&& System.currentTimeMillis() <= expiresAt;
+	}
+
+	private QAFExtendedWebDriver getDriver() {
+		SearchContext context = getContext();
+		if (context instanceof QAFExtendedWebDriver) {
+			return (QAFExtendedWebDriver) context;
+		}
+		if (context instanceof QAFExtendedWebElement) {
+			return ((QAFExtendedWebElement) context).getWrappedDriver();
+		}
+		return null;
+	}
+
+	private static List<String> getIds(List<?> elements) {
+		List<String> ids = new ArrayList<String>(elements.size());
+		for (Object element : elements) {
+			ids.add(element instanceof RemoteWebElement ? ((RemoteWebElement) element).getId()
+					: String.valueOf(element));
+		}
+		return ids;
+	}
+
+	/**
+	 * @param loc
+	 * @return true if locator has <code>"live":true</code>
+	 */
+	static boolean isLive(String loc) {
+		if (JSONUtil.isValidJsonString(loc)) {
+			try {
+				Map<String, Object> map = JSONUtil.toMap(loc);
+				return Boolean.TRUE.equals(map.get("live"));
+			} catch (JSONException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+}
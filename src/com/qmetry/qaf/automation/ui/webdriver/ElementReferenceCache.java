@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.remote.DriverCommand;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+
+/**
+ * Page scoped element reference cache of a driver session. Element located
+ * once keeps its resolved reference for subsequent commands until the page
+ * changes. Each driver command that loads another page or switches
+ * frame/window starts new generation and any reference resolved in earlier
+ * generation is located again on next use. Stale reference reported by
+ * browser is handled by {@link QAFExtendedWebElement#onFailure}.
+ * <p>
+ * Enable it using {@link ApplicationProperties#ELEMENT_REFERENCE_CACHE}. Call
+ * {@link #invalidate()} when page was changed by other means, for example DOM
+ * updated by ajax call.
+ * 
+ * @author chirag.jayswal
+ */
+public class ElementReferenceCache {
+	private static final Set<String> PAGE_COMMANDS = new HashSet<String>(Arrays.asList(DriverCommand.GET,
+			DriverCommand.GO_BACK, DriverCommand.GO_FORWARD, DriverCommand.REFRESH, DriverCommand.SWITCH_TO_WINDOW,
+			DriverCommand.SWITCH_TO_CONTEXT, DriverCommand.SWITCH_TO_FRAME, DriverCommand.SWITCH_TO_PARENT_FRAME,
+			DriverCommand.CLOSE, DriverCommand.QUIT));
+
+	private final boolean enabled;
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong stale = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public ElementReferenceCache() {
+		this(ConfigurationManager.getBundle().getBoolean(ApplicationProperties.ELEMENT_REFERENCE_CACHE.key, false));
+	}
+
+	public ElementReferenceCache(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Discard all element references resolved so far.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		invalidations.incrementAndGet();
+	}
+
+	/**
+	 * Invalidates cache if given driver command may change the current page.
+	 * 
+	 * @param command
+	 *            driver command about to execute
+	 */
+	void onCommand(String command) {
+		if (PAGE_COMMANDS.contains(command)) {
+			invalidate();
+		}
+	}
+
+	long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * @param resolvedIn
+	 *            generation in which reference was resolved
+	 * @return true if reference can be reused, counted as hit.
+	 */
+	boolean reuse(long resolvedIn) {
+		if (enabled && resolvedIn == generation.get()) {
+			hits.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	void resolved() {
+		misses.incrementAndGet();
+	}
+
+	void stale() {
+		stale.incrementAndGet();
+	}
+
+	/**
+	 * @return number of commands executed with reused element reference
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of element look-ups made for element reference
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of element references found stale by browser
+	 */
+	public long getStaleCount() {
+		return stale.get();
+	}
+
+	/**
+	 * @return number of times cache invalidated
+	 */
+	public long getInvalidations() {
+		return invalidations.get();
+	}
+
+	@Override
+	public String toString() {
+		return "hits: " + getHits() + ", misses: " + getMisses() + ", stale: " + getStaleCount() + ", invalidations: "
+				+ getInvalidations();
+	}
+}
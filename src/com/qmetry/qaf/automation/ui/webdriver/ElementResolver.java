@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+
+/**
+ * Locates elements using resolver script injected in the page. Resolver
+ * evaluates ordered list of xpath, css, id, name, className, tagName, jquery,
+ * extDom and extComp locators in browser and returns first non-empty match
+ * set, so alternative locators cost single driver call. Resolver is injected
+ * once per page, injection state is tracked with page generation of
+ * {@link ElementReferenceCache}.
+ * 
+ * @author chirag.jayswal
+ */
+final class ElementResolver {
+	private static final Log logger = LogFactory.getLog(ElementResolver.class);
+
+	static final String NOT_INJECTED = "qaf:inject";
+	static final String NO_JQUERY = "qaf:jquery";
+	static final String LOOKUP_ERROR = "qaf:error:";
+
+	private static final String RESOLVER = "if(!window.__qafResolver){window.__qafResolver=function(ctx,strategies){"
+			+ "var root=ctx||document,doc=root.ownerDocument||root;"
+			+ "function list(c){var l=[];for(var i=0;c&&i<c.length;i++){if(c[i]&&c[i].nodeType==1)l.push(c[i]);}return l;}"
+			+ "function attr(n,v){return root.querySelectorAll('['+n+'=\"'+String(v).replace(/([\"\\\\])/g,'\\\\$1')+'\"]');}"
+			+ "function comps(res){var l=[];if(!res)return l;if(!Ext.isArray(res))res=[res];"
+			+ "for(var i=0;i<res.length;i++){l.push(res[i].getEl().dom);}return l;}"
+			+ "function find(s,v){"
+			+ "if(s=='xpath'){var r=doc.evaluate(v,root,null,7,null),l=[];"
+			+ "for(var i=0;i<r.snapshotLength;i++){l.push(r.snapshotItem(i));}return list(l);}"
+			+ "if(s=='css')return list(root.querySelectorAll(v));"
+			+ "if(s=='id'||s=='name')return list(attr(s,v));"
+			+ "if(s=='className')return list(root.getElementsByClassName(v));"
+			+ "if(s=='tagName')return list(root.getElementsByTagName(v));"
+			+ "if(s=='jquery'){if(typeof jQuery=='undefined')throw '" + NO_JQUERY + "';"
+			+ "return list((ctx?jQuery(ctx).find(v):jQuery(v)).get());}"
+			+ "if(s=='extDom')return list(ctx?Ext.dom.query('#'+ctx.id+' '+v):Ext.query(v));"
+			+ "if(s=='extComp')return comps(ctx?Ext.ComponentQuery.query('#'+ctx.id)[0].query(v):Ext.ComponentQuery.query(v));"
+			+ "return [];}"
+			+ "try{for(var i=0;i<strategies.length;i++){var found=find(strategies[i][0],strategies[i][1]);"
+			+ "if(found.length)return found;}}catch(e){if(e=='" + NO_JQUERY + "')return e;return '" + LOOKUP_ERROR + "'+e;}"
+			+ "return [];};}"
+			+ "return window.__qafResolver(arguments[0],arguments[1]);";
+	private static final String CALL = "return window.__qafResolver?window.__qafResolver(arguments[0],arguments[1]):'"
+			+ NOT_INJECTED + "';";
+
+	private final QAFExtendedWebDriver driver;
+	// page generation in which resolver was injected or found unsupported
+	private volatile long injectedIn = -1;
+	private volatile long unsupportedIn = -1;
+
+	ElementResolver(QAFExtendedWebDriver driver) {
+		this.driver = driver;
+	}
+
+	/**
+	 * @param context
+	 *            driver or element
+	 * @return resolver of the driver or null if context is not of
+	 *         {@link QAFExtendedWebDriver} or resolver is disabled
+	 */
+	static ElementResolver of(SearchContext context) {
+		QAFExtendedWebDriver driver = context instanceof QAFExtendedWebDriver ? (QAFExtendedWebDriver) context
+				: context instanceof QAFExtendedWebElement ? ((QAFExtendedWebElement) context).getWrappedDriver()
+						: null;
+		if (null == driver || !ConfigurationManager.getBundle()
+				.getBoolean(ApplicationProperties.ELEMENT_SCRIPT_RESOLVER.key, true)) {
+			return null;
+		}
+		return driver.getElementResolver();
+	}
+
+	/**
+	 * @param by
+	 * @return strategy and value that can be evaluated by resolver script,
+	 *         null when by not supported
+	 */
+	static String[] strategyOf(By by) {
+		if (by instanceof ByJQuery) {
+			return new String[] { "jquery", ((ByJQuery) by).getSelector() };
+		}
+		if (by instanceof ByExtDomQuery) {
+			return new String[] { "extDom", ((ByExtDomQuery) by).getSelector() };
+		}
+		if (by instanceof ByExtCompQuery) {
+			return new String[] { "extComp", ((ByExtCompQuery) by).getSelector() };
+		}
+		String strategy = by instanceof By.ByXPath ? "xpath"
+				: by instanceof By.ByCssSelector ? "css"
+						: by instanceof By.ById ? "id"
+								: by instanceof By.ByName ? "name"
+										: by instanceof By.ByClassName ? "className"
+												: by instanceof By.ByTagName ? "tagName" : null;
+		if (null == strategy) {
+			return null;
+		}
+		// By.id: value
+		String str = by.toString();
+		return new String[] { strategy, str.substring(str.indexOf(": ") + 2) };
+	}
+
+	/**
+	 * @param context
+	 *            driver or element to search within
+	 * @param strategies
+	 *            ordered strategy and value pairs
+	 * @return first non empty match set, empty list if none of the strategy
+	 *         matched or null if elements can't be located using script, in
+	 *         that case caller should locate elements by other means. Error
+	 *         in evaluating strategy affects only this look up, page is
+	 *         marked unsupported only when script can't be executed.
+	 */
+	@SuppressWarnings("unchecked")
+	List<WebElement> find(SearchContext context, List<String[]> strategies) {
+		long generation = driver.getElementReferenceCache().getGeneration();
+		if (unsupportedIn == generation) {
+			return null;
+		}
+		Object element = context instanceof WebElement ? context : null;
+		List<List<String>> args = new ArrayList<List<String>>(strategies.size());
+		for (String[] strategy : strategies) {
+			args.add(Arrays.asList(strategy));
+		}
+		try {
+			Object result = injectedIn == generation ? driver.executeReadOnlyScript(CALL, element, args)
+					: NOT_INJECTED;
+			if (NOT_INJECTED.equals(result)) {
+				result = driver.executeReadOnlyScript(RESOLVER, element, args);
+				injectedIn = generation;
+			}
+			if (result instanceof String && ((String) result).startsWith(LOOKUP_ERROR)) {
+				logger.debug("Unable to locate elements using resolver script: " + result);
+			}
+			return result instanceof List ? (List<WebElement>) result : null;
+		} catch (StaleElementReferenceException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			logger.debug("Unable to execute resolver script: " + e.getMessage());
+			unsupportedIn = generation;
+			return null;
+		}
+	}
+}
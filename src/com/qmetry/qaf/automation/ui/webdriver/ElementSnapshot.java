@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.support.Color;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+
+/**
+ * Properties of an element fetched with single script execution. Use
+ * {@link QAFExtendedWebElement#getSnapshot(String...)} for one element or
+ * {@link ElementList#getSnapshots(String...)} or
+ * {@link #of(List, String...)} for many elements in one round trip.
+ * <p>
+ * Snapshot is attached to the element and serves element read commands
+ * (text, attribute, css value, displayed, enabled, selected, tag name) for
+ * the properties it holds until any other command is executed on the driver
+ * or {@link ApplicationProperties#ELEMENT_SNAPSHOT_TTL} elapsed, so existing
+ * verification methods uses fetched values without additional calls.
+ * <p>
+ * Displayed and text are evaluated in browser with script and are close to,
+ * but not exactly same as, WebDriver's visibility rules.
+ * 
+ * @author chirag.jayswal
+ */
+public class ElementSnapshot {
+	public static final String DISPLAYED = "displayed";
+	public static final String ENABLED = "enabled";
+	public static final String SELECTED = "selected";
+	public static final String TEXT = "text";
+	public static final String TAG_NAME = "tagName";
+	private static final String ATTRIBUTE = "attribute:";
+	private static final String CSS = "css:";
+
+	private static final String[] DEFAULT_PROPERTIES = { DISPLAYED, ENABLED, SELECTED, TEXT, TAG_NAME };
+
+	// driver commands that doesn't change state of the page
+	private static final Set<String> READ_COMMANDS = new HashSet<String>(Arrays.asList(DriverCommand.FIND_ELEMENT,
+			DriverCommand.FIND_ELEMENTS, DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS,
+			DriverCommand.GET_ELEMENT_TEXT, DriverCommand.GET_ELEMENT_TAG_NAME, DriverCommand.GET_ELEMENT_ATTRIBUTE,
+			DriverCommand.GET_ELEMENT_VALUE_OF_CSS_PROPERTY, DriverCommand.IS_ELEMENT_DISPLAYED,
+			DriverCommand.IS_ELEMENT_ENABLED, DriverCommand.IS_ELEMENT_SELECTED, DriverCommand.GET_ELEMENT_LOCATION,
+			DriverCommand.GET_ELEMENT_SIZE, DriverCommand.GET_ELEMENT_RECT, DriverCommand.GET_TITLE,
+			DriverCommand.GET_CURRENT_URL, DriverCommand.GET_PAGE_SOURCE, DriverCommand.SCREENSHOT,
+			DriverCommand.GET_CURRENT_WINDOW_HANDLE, DriverCommand.GET_WINDOW_HANDLES));
+
+	private static final String SCRIPT = "var els=arguments[0],props=arguments[1],res=[];"
+			+ "function displayed(e){for(var n=e;n&&n.nodeType==1;n=n.parentNode){var s=window.getComputedStyle(n);"
+			+ "if(s.display=='none'||s.opacity=='0')return false;}"
+			+ "var s=window.getComputedStyle(e);if(s.visibility=='hidden'||s.visibility=='collapse')return false;"
+			+ "return e.tagName=='OPTION'||e.getClientRects().length>0;}"
+			+ "function attr(e,n){var l=n.toLowerCase();if(l=='style')return e.style.cssText;"
+			+ "if(l=='class')return e.getAttribute('class');var p=e[n];if(typeof p=='boolean')return p?'true':null;"
+			+ "if(p!==undefined&&p!==null&&typeof p!='object'&&typeof p!='function')return String(p);"
+			+ "return e.getAttribute(n);}"
+			+ "for(var i=0;i<els.length;i++){var e=els[i],r={};for(var j=0;j<props.length;j++){var p=props[j],v=null;"
+			+ "if(p=='displayed')v=displayed(e);else if(p=='enabled')v=!e.disabled;"
+			+ "else if(p=='selected')v=!!(e.selected||e.checked);"
+			+ "else if(p=='text')v=displayed(e)?(e.innerText||'').replace(/^\\s+|\\s+$/g,''):'';"
+			+ "else if(p=='tagName')v=e.tagName.toLowerCase();"
+			+ "else if(p.indexOf('attribute:')==0)v=attr(e,p.substring(10));"
+			+ "else if(p.indexOf('css:')==0)v=window.getComputedStyle(e).getPropertyValue(p.substring(4));"
+			+ "r[p]=v;}res.push(r);}return res;";
+
+	private final Map<String, Object> properties;
+	private final long commandCycle;
+	private final long expiresAt;
+
+	private ElementSnapshot(Map<String, Object> properties, long commandCycle, long expiresAt) {
+		this.properties = properties;
+		this.commandCycle = commandCycle;
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * @param name
+	 *            attribute name
+	 * @return property name for attribute value
+	 */
+	public static String attribute(String name) {
+		return ATTRIBUTE + name;
+	}
+
+	/**
+	 * @param name
+	 *            css property name
+	 * @return property name for css value
+	 */
+	public static String cssValue(String name) {
+		return CSS + name;
+	}
+
+	/**
+	 * Fetch properties of all elements with single script execution.
+	 * 
+	 * @param elements
+	 *            elements of same driver
+	 * @param properties
+	 *            {@link #DISPLAYED}, {@link #ENABLED}, {@link #SELECTED},
+	 *            {@link #TEXT}, {@link #TAG_NAME}, {@link #attribute(String)}
+	 *            or {@link #cssValue(String)}. When not provided all except
+	 *            attributes and css values.
+	 * @return snapshot for each element in same order
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<ElementSnapshot> of(List<? extends QAFWebElement> elements, String... properties) {
+		if (null == elements || elements.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String[] props = null == properties || properties.length == 0 ? DEFAULT_PROPERTIES : properties;
+		QAFExtendedWebDriver driver = ((QAFExtendedWebElement) elements.get(0)).getWrappedDriver();
+		List<Object> values = (List<Object>) driver.executeScript(SCRIPT, new ArrayList<Object>(elements),
+				Arrays.asList(props));
+
+		long cycle = driver.getCommandCycle();
+		long expiresAt = System.currentTimeMillis()
+				+ ConfigurationManager.getBundle().getLong(ApplicationProperties.ELEMENT_SNAPSHOT_TTL.key, 500);
+		List<ElementSnapshot> snapshots = new ArrayList<ElementSnapshot>(elements.size());
+		for (int i = 0; i < elements.size(); i++) {
+			Map<String, Object> value = (Map<String, Object>) values.get(i);
+			Map<String, Object> snapshotProps = new LinkedHashMap<String, Object>();
+			for (String prop : props) {
+				Object val = null == value ? null : value.get(prop);
+				if (prop.startsWith(CSS) && null != val && val.toString().startsWith("rgb")) {
+					// getCssValue returns color as rgba
+					val = Color.fromString(val.toString()).asRgba();
+				}
+				snapshotProps.put(prop, val);
+			}
+			ElementSnapshot snapshot = new ElementSnapshot(snapshotProps, cycle, expiresAt);
+			((QAFExtendedWebElement) elements.get(i)).setSnapshot(snapshot);
+			snapshots.add(snapshot);
+		}
+		return snapshots;
+	}
+
+	/**
+	 * @param command
+	 *            driver command
+	 * @return true if command doesn't change state of the page
+	 */
+	static boolean isReadCommand(String command) {
+		return READ_COMMANDS.contains(command);
+	}
+
+	/**
+	 * @param command
+	 *            element command
+	 * @param parameters
+	 *            command parameters
+	 * @return snapshot property served by the command or null
+	 */
+	static String propertyOf(String command, Map<String, ?> parameters) {
+		if (DriverCommand.GET_ELEMENT_TEXT.equals(command)) {
+			return TEXT;
+		}
+		if (DriverCommand.IS_ELEMENT_DISPLAYED.equals(command)) {
+			return DISPLAYED;
+		}
+		if (DriverCommand.IS_ELEMENT_ENABLED.equals(command)) {
+			return ENABLED;
+		}
+		if (DriverCommand.IS_ELEMENT_SELECTED.equals(command)) {
+			return SELECTED;
+		}
+		if (DriverCommand.GET_ELEMENT_TAG_NAME.equals(command)) {
+			return TAG_NAME;
+		}
+		if (DriverCommand.GET_ELEMENT_ATTRIBUTE.equals(command)) {
+			return attribute(String.valueOf(parameters.get("name")));
+		}
+		if (DriverCommand.GET_ELEMENT_VALUE_OF_CSS_PROPERTY.equals(command)) {
+			return cssValue(String.valueOf(parameters.get("propertyName")));
+		}
+		return null;
+	}
+
+	/**
+	 * @param driver
+	 * @return true if no command other than read executed after snapshot and
+	 *         it is not expired
+	 */
+	boolean isCurrent(QAFExtendedWebDriver driver) {
+		return commandCycle == driver.getCommandCycle() && System.currentTimeMillis() <= expiresAt;
+	}
+
+	public boolean has(String property) {
+		return properties.containsKey(property);
+	}
+
+	public Object get(String property) {
+		return properties.get(property);
+	}
+
+	public boolean isDisplayed() {
+		return Boolean.TRUE.equals(get(DISPLAYED));
+	}
+
+	public boolean isEnabled() {
+		return Boolean.TRUE.equals(get(ENABLED));
+	}
+
+	public boolean isSelected() {
+		return Boolean.TRUE.equals(get(SELECTED));
+	}
+
+	public String getText() {
+		return (String) get(TEXT);
+	}
+
+	public String getTagName() {
+		return (String) get(TAG_NAME);
+	}
+
+	public String getAttribute(String name) {
+		return (String) get(attribute(name));
+	}
+
+	public String getCssValue(String name) {
+		return (String) get(cssValue(name));
+	}
+
+	/**
+	 * @return map of property name and value
+	 */
+	public Map<String, Object> toMap() {
+		return new HashMap<String, Object>(properties);
+	}
+
+	@Override
+	public String toString() {
+		return properties.toString();
+	}
+}
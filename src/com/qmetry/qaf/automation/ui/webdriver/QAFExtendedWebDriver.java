@@ -66,6 +66,7 @@ import com.qmetry.qaf.automation.ui.util.DynamicWait;
 import com.qmetry.qaf.automation.ui.util.QAFWebDriverExpectedConditions;
 import com.qmetry.qaf.automation.ui.util.QAFWebDriverWait;
 import com.qmetry.qaf.automation.ui.util.QAFWebElementExpectedConditions;
+import com.qmetry.qaf.automation.ui.util.ScriptWait;
 import com.qmetry.qaf.automation.ui.webdriver.CommandTracker.Stage;
 import com.qmetry.qaf.automation.util.LocatorUtil;
 
@@ -80,6 +81,14 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 	private Set<QAFWebDriverCommandListener> listners;
 	private WebDriver underLayingDriver;
 	private Capabilities capabilities;
+	// not initialized with declaration, super constructor executes commands
+	private ElementReferenceCache elementReferenceCache;
+	// incremented by each command that may change page
+	private volatile long commandCycle;
+	private ElementResolver elementResolver;
+	// script being executed doesn't change page
+	private volatile boolean readOnlyScript;
+	private volatile long scriptTimeout = -1;
 
 	public QAFExtendedWebDriver(URL url, Capabilities capabilities) {
 		this(url, capabilities, null);
@@ -160,9 +169,75 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 	}
 
 	public void setReporter(WebDriverCommandLogger reporter) {
+		if (null != listners) {
+			// keep reporter as first listener, same as on init
+			Set<QAFWebDriverCommandListener> updated = new LinkedHashSet<QAFWebDriverCommandListener>();
+			updated.add(reporter);
+			for (QAFWebDriverCommandListener listener : listners) {
+				if (listener != commandLogger) {
+					updated.add(listener);
+				}
+			}
+			listners = updated;
+		}
 		commandLogger = reporter;
 	}
 
+	/**
+	 * @return element reference cache of this driver session
+	 */
+	public ElementReferenceCache getElementReferenceCache() {
+		if (null == elementReferenceCache) {
+			elementReferenceCache = new ElementReferenceCache();
+		}
+		return elementReferenceCache;
+	}
+
+	long getCommandCycle() {
+		return commandCycle;
+	}
+
+	ElementResolver getElementResolver() {
+		if (null == elementResolver) {
+			elementResolver = new ElementResolver(this);
+		}
+		return elementResolver;
+	}
+
+	/**
+	 * Executes script that only reads the page, so it is not counted as
+	 * command that may change page.
+	 */
+	Object executeReadOnlyScript(String script, Object... args) {
+		readOnlyScript = true;
+		try {
+			return executeScript(script, args);
+		} finally {
+			readOnlyScript = false;
+		}
+	}
+
+	/**
+	 * @return script timeout in milliseconds last set for this session, -1 if
+	 *         not set
+	 */
+	public long getScriptTimeout() {
+		return scriptTimeout;
+	}
+
+	private void beforeExecute(String driverCommand, Map<String, ?> parameters) {
+		if (DriverCommand.SET_TIMEOUT.equals(driverCommand) && null != parameters) {
+			Object ms = "script".equals(parameters.get("type")) ? parameters.get("ms") : parameters.get("script");
+			if (ms instanceof Number) {
+				scriptTimeout = ((Number) ms).longValue();
+			}
+		}
+		getElementReferenceCache().onCommand(driverCommand);
+		if (!readOnlyScript && !ElementSnapshot.isReadCommand(driverCommand)) {
+			commandCycle++;
+		}
+	}
+
 	@Override
 	public QAFExtendedWebElement findElement(By by) {
 		QAFExtendedWebElement element = (QAFExtendedWebElement) super.findElement(by);
@@ -199,7 +274,7 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 
 		List<QAFWebElement> proxy;
 		proxy = (List<QAFWebElement>) Proxy.newProxyInstance(this.getClass().getClassLoader(),
-				new Class[] { List.class }, new QAFExtendedWebElementListHandler(this, by));
+				new Class[] { RefreshableElementList.class }, new QAFExtendedWebElementListHandler(this, by));
 		return proxy;
 	}
 
@@ -223,6 +298,7 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 	@Override
 	protected Response execute(String driverCommand, Map<String, ?> parameters) {
 		CommandTracker commandTracker = new CommandTracker(driverCommand, parameters);
+		beforeExecute(driverCommand, parameters);
 
 		try {
 			beforeCommand(this, commandTracker);
@@ -251,6 +327,7 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 	}
 
 	protected Response executeWitoutLog(String driverCommand, Map<String, ?> parameters) {
+		beforeExecute(driverCommand, parameters);
 		return super.execute(driverCommand, parameters);
 	}
 
@@ -470,6 +547,20 @@ public class QAFExtendedWebDriver extends RemoteWebDriver implements QAFWebDrive
 				.until(QAFWebDriverExpectedConditions.jsCondition(JsToolkit.globalWaitCondition()));
 	}
 
+	/**
+	 * Waits until there is no XMLHttpRequest or fetch request for given time.
+	 * 
+	 * @param quietTime
+	 *            time in milliseconds without network activity
+	 * @param timeout
+	 *            optional timeout and interval in milliseconds
+	 * @see ScriptWait#networkIdle(long)
+	 */
+	public void waitForNetworkIdle(long quietTime, long... timeout) {
+		new QAFWebDriverWait(this, timeout).withMessage("Network idle Wait time out.")
+				.until(QAFWebDriverExpectedConditions.jsCondition(ScriptWait.networkIdle(quietTime)));
+	}
+
 	public void waitForAnyElementPresent(QAFWebElement... elements) {
 		new DynamicWait<List<QAFWebElement>>(Arrays.asList(elements))
 				.until(QAFWebElementExpectedConditions.anyElementPresent());
@@ -24,6 +24,7 @@ package com.qmetry.qaf.automation.ui.webdriver;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -44,6 +45,7 @@ import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.RemoteWebElement;
 import org.openqa.selenium.remote.Response;
@@ -87,6 +89,9 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 	protected boolean cacheable = false;
 	private Set<QAFWebElementCommandListener> listners = new LinkedHashSet<QAFWebElementCommandListener>();
 	private String description;
+	// generation of element reference cache in which id was resolved
+	private transient long idGeneration;
+	private transient ElementSnapshot snapshot;
 
 	protected QAFExtendedWebElement(QAFExtendedWebDriver driver) {
 		setParent(driver);
@@ -225,18 +230,16 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 	protected void initLoc(String locator) {
 		this.locator = ConfigurationManager.getBundle().getString(locator, locator);
 		this.locator = ConfigurationManager.getBundle().getSubstitutor().replace(this.locator);
-		if (JSONUtil.isValidJsonString(this.locator)) {
-			try {
-				metaData.putAll(JSONUtil.toMap(this.locator));
-
-				description = metaData.containsKey("desc") ? (String) metaData.get("desc")
-						: metaData.containsKey("description") ? (String) metaData.get("description") : "";
-				cacheable = metaData.containsKey("cacheable") ? (Boolean) metaData.get("cacheable") : false;
-				if (metaData.containsKey("child") && !(Boolean) metaData.get("child")) {
-					parentElement = null;
-				}
-			} catch (JSONException e) {
-				logger.error(e.getMessage());
+		// compiled once per locator, shared with getBy
+		Map<String, Object> locatorMetaData = LocatorUtil.compile(this.locator).getMetaData();
+		if (!locatorMetaData.isEmpty()) {
+			metaData.putAll(locatorMetaData);
+
+			description = metaData.containsKey("desc") ? (String) metaData.get("desc")
+					: metaData.containsKey("description") ? (String) metaData.get("description") : "";
+			cacheable = metaData.containsKey("cacheable") ? (Boolean) metaData.get("cacheable") : false;
+			if (metaData.containsKey("child") && !(Boolean) metaData.get("child")) {
+				parentElement = null;
 			}
 		}
 	}
@@ -244,6 +247,11 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 	@SuppressWarnings({ "unchecked" })
 	@Override
 	protected Response execute(String command, Map<String, ?> parameters) {
+		String property = ElementSnapshot.propertyOf(command, parameters);
+		ElementSnapshot snapshot = null == property ? null : currentSnapshot(property);
+		if (null != snapshot) {
+			return executeFromSnapshot(command, parameters, snapshot.get(property));
+		}
 		CommandTracker commandTracker = new CommandTracker(command, parameters);
 		try {
 			load();
@@ -263,7 +271,7 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 			}
 			afterCommand(this, commandTracker);
 			
-			if ((null != getBy()) && !cacheable) {
+			if ((null != getBy()) && !cacheable && !getElementReferenceCache().isEnabled()) {
 				id = "-1";
 			}
 		} catch (RuntimeException e) {
@@ -284,6 +292,31 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 		return commandTracker.getResponce();
 	}
 
+	/**
+	 * Serves read command from snapshot without calling driver. Listeners are
+	 * notified same as for executed command, so it is logged and listener can
+	 * provide response in before command.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Response executeFromSnapshot(String command, Map<String, ?> parameters, Object value) {
+		CommandTracker commandTracker = new CommandTracker(command, parameters);
+		Map m = new HashMap<String, String>();
+		m.putAll(parameters);
+		m.put("id", id);
+		commandTracker.setParameters(m);
+		beforeCommand(this, commandTracker);
+		if (commandTracker.getResponce() == null) {
+			commandTracker.setStartTime(System.currentTimeMillis());
+			Response response = new Response();
+			response.setStatus(ErrorCodes.SUCCESS);
+			response.setValue(value);
+			commandTracker.setResponce(response);
+			commandTracker.setEndTime(System.currentTimeMillis());
+		}
+		afterCommand(this, commandTracker);
+		return commandTracker.getResponce();
+	}
+
 	protected Response executeWitoutLog(String command, Map<String, ?> parameters){
 		return ((QAFExtendedWebDriver) parent).executeWitoutLog(command,
 				parameters);
@@ -293,8 +326,18 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 		super.setId(id);
 	}
 
+	private ElementReferenceCache getElementReferenceCache() {
+		return ((QAFExtendedWebDriver) parent).getElementReferenceCache();
+	}
+
 	private void load() {
+		if (null != id && id != "-1" && !cacheable && null != getBy() && getElementReferenceCache().isEnabled()
+				&& !getElementReferenceCache().reuse(idGeneration)) {
+			// resolved before page changed
+			id = "-1";
+		}
 		if (null==id || (id == "-1")) {
+			long generation = getElementReferenceCache().getGeneration();
 			Map<String, ?> parameters = new HashMap<String, String>();
 			CommandTracker commandTracker = new CommandTracker(DriverCommand.FIND_ELEMENT, parameters);
 			if (parentElement == null) {
@@ -307,15 +350,14 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 				setId(parentElement.findElement(getBy()).id);
 				afterCommand(this, commandTracker);
 			}
-			
+			idGeneration = generation;
+			getElementReferenceCache().resolved();
 		}
 	}
 
 	@Override
 	public String getId() {
-		if ((id == null) || (id == "-1")) {
-			load();
-		}
+		load();
 		return id;
 	}
 
@@ -334,6 +376,11 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 
 	@Override
 	public boolean isDisplayed() {
+		ElementSnapshot snapshot = currentSnapshot(ElementSnapshot.DISPLAYED);
+		if (null != snapshot) {
+			return (Boolean) executeFromSnapshot(DriverCommand.IS_ELEMENT_DISPLAYED,
+					Collections.<String, Object> emptyMap(), snapshot.isDisplayed()).getValue();
+		}
 		id = getId();
 		return super.isDisplayed();
 	}
@@ -385,6 +432,39 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 		return getWrappedDriver().getReporter();
 	}
 
+	/**
+	 * Fetch given properties of this element with single script execution.
+	 * Fetched values are also used by subsequent read commands on this element
+	 * until any other command executed.
+	 * 
+	 * @param properties
+	 *            properties to fetch, see {@link ElementSnapshot}
+	 * @return snapshot of element properties
+	 */
+	public ElementSnapshot getSnapshot(String... properties) {
+		return ElementSnapshot.of(Collections.singletonList(this), properties).get(0);
+	}
+
+	void setSnapshot(ElementSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * @param property
+	 * @return current snapshot having given property or null
+	 */
+	private ElementSnapshot currentSnapshot(String property) {
+		ElementSnapshot snapshot = this.snapshot;
+		if (null == snapshot || !snapshot.has(property)) {
+			return null;
+		}
+		if (!snapshot.isCurrent(getWrappedDriver())) {
+			this.snapshot = null;
+			return null;
+		}
+		return snapshot;
+	}
+
 	@Override
 	public QAFExtendedWebDriver getWrappedDriver() {
 
@@ -518,6 +598,7 @@ public class QAFExtendedWebElement extends RemoteWebElement implements QAFWebEle
 		if (commandTracker.getException() instanceof StaleElementReferenceException) {
 			logger.warn(commandTracker.getException().getMessage());
 			element.setId("-1");
+			element.getElementReferenceCache().stale();
 			Map parameters = commandTracker.getParameters();
 			parameters.put("id", element.getId());
 			commandTracker.setException(null);
@@ -38,16 +38,28 @@ import com.qmetry.qaf.automation.util.LocatorUtil;
  * @author chirag
  */
 public class QAFExtendedWebElementListHandler implements InvocationHandler {
-	private final SearchContext context;
-	private final By by;
+	private final ElementListSnapshot<WebElement> snapshot;
 
 	public QAFExtendedWebElementListHandler(SearchContext context, By by) {
-		this.context = context;
-		this.by = by;
+		this(context, by, false);
 	}
 
 	public QAFExtendedWebElementListHandler(SearchContext context, String loc) {
-		this(context, LocatorUtil.getBy(loc));
+		this(context, LocatorUtil.getBy(loc), ElementListSnapshot.isLive(loc));
+	}
+
+	private QAFExtendedWebElementListHandler(final SearchContext context, final By by, boolean live) {
+		snapshot = new ElementListSnapshot<WebElement>(live) {
+			@Override
+			protected List<WebElement> find() {
+				return context.findElements(by);
+			}
+
+			@Override
+			protected SearchContext getContext() {
+				return context;
+			}
+		};
 	}
 
 	public QAFExtendedWebElementListHandler(By by) {
@@ -59,12 +71,14 @@ public class QAFExtendedWebElementListHandler implements InvocationHandler {
 	}
 
 	public Object invoke(Object object, Method method, Object[] objects) throws Throwable {
-		List<? extends WebElement> elements = context.findElements(by);
-		try {
-			return method.invoke(elements, objects);
-		} catch (Exception e) {
-			throw e.getCause();
+		if (method.getDeclaringClass() == RefreshableElementList.class) {
+			if (method.getName().equals("refresh")) {
+				snapshot.refresh();
+				return null;
+			}
+			return snapshot.isStale();
 		}
+		return snapshot.invoke(method, objects);
 	}
 
 }
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.List;
+
+/**
+ * List of elements located once and reused for subsequent list calls until
+ * any driver command that may change the page is executed or
+ * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#ELEMENT_LIST_SNAPSHOT_TTL
+ * element.list.snapshot.ttl} elapsed. Element lists provided by
+ * {@link ElementFactory} and {@link QAFExtendedWebDriver#getElements(org.openqa.selenium.By)}
+ * implements this interface. Set <code>"live":true</code> in locator to
+ * locate elements on each list call.
+ * 
+ * @author chirag.jayswal
+ */
+public interface RefreshableElementList<T> extends List<T> {
+	/**
+	 * Locate elements again.
+	 */
+	void refresh();
+
+	/**
+	 * Locates elements and compares with elements in the list. List is
+	 * refreshed when stale.
+	 * 
+	 * @return true if elements in the list are not same as on the page
+	 */
+	boolean isStale();
+}
@@ -22,13 +22,16 @@
 package com.qmetry.qaf.automation.util;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.LogFactoryImpl;
@@ -140,56 +143,112 @@ public class CSVUtil {
 	 * @return Iterator of object array which contains Map
 	 */
 	public static List<Object[]> getCSVDataAsMap(String strFile) {
-		ArrayList<Object[]> rows = new ArrayList<Object[]>();
-		BufferedReader br = null;
+		return ListUtils.toList(getCSVDataAsMapIterator(strFile));
+	}
+
+	/**
+	 * Get csv file data as lazy Iterator of Map for each row data with column
+	 * names as key. It assumes first row as header row. Rows are read from
+	 * file on demand and file is closed when all rows are read or iterator is
+	 * closed.
+	 * 
+	 * @param strFile
+	 *            - csv file
+	 * @return Iterator of object array which contains Map, also implements
+	 *         {@link Closeable}
+	 */
+	public static Iterator<Object[]> getCSVDataAsMapIterator(String strFile) {
+		logger.info("loading csv data file: " + strFile);
 		try {
+			return new CSVMapIterator(strFile);
+		} catch (Exception e) {
+			logger.error("Exception while reading csv file: " + strFile + e);
+			throw new DataProviderException("Error while fetching data from " + strFile, e);
+		}
+	}
 
-			logger.info("loading csv data file: " + strFile);
-			File csvFile = new File(strFile);
-			br = new BufferedReader(new FileReader(csvFile));
-			String strLine = "";
-			char separatorChar = ',';
-			// read comma separated file line by line
-			// exclude blank lines and comments
-			Object[] colsNames = null;
-			while ((strLine = br.readLine()) != null) {
-				if (!("".equalsIgnoreCase(strLine.trim()) || "#!".contains("" + strLine.trim().charAt(0)))) {
-					if (colsNames == null) {
-						colsNames = StringUtil.parseCSV(strLine, separatorChar);
-					} else {
-						Object[] cols = StringUtil.parseCSV(strLine, separatorChar);
-						Map<String, Object> map = new LinkedHashMap<String, Object>();
-						for (int i = 0; i < cols.length; i++) {
-							try {
-								map.put(colsNames[i].toString().trim(), cols[i]);
-							} catch (ArrayIndexOutOfBoundsException e) {
-								logger.warn(String.format(
-										"Missing column header for column[%d] in data file: %s. It will be included by lineNo",
-										i + 1, strFile));
-								map.put(String.valueOf(i), cols[i]);
-
-							}
-						}
-						rows.add(new Object[] { map });
+	private static class CSVMapIterator implements Iterator<Object[]>, Closeable {
+		private final String strFile;
+		private final BufferedReader br;
+		private char separatorChar = ',';
+		private Object[] colsNames;
+		private Object[] next;
 
+		CSVMapIterator(String strFile) throws IOException {
+			this.strFile = strFile;
+			br = new BufferedReader(new FileReader(new File(strFile)));
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (null == next) {
+				next = readNext();
+			}
+			return null != next;
+		}
+
+		@Override
+		public Object[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object[] row = next;
+			next = null;
+			return row;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			try {
+				br.close();
+			} catch (IOException e) {
+			}
+		}
+
+		private Object[] readNext() {
+			try {
+				String strLine = "";
+				// read comma separated file line by line
+				// exclude blank lines and comments
+				while ((strLine = br.readLine()) != null) {
+					if (!("".equalsIgnoreCase(strLine.trim()) || "#!".contains("" + strLine.trim().charAt(0)))) {
+						if (colsNames == null) {
+							colsNames = StringUtil.parseCSV(strLine, separatorChar);
+						} else {
+							return new Object[] { toMap(StringUtil.parseCSV(strLine, separatorChar)) };
+						}
+					} else if (strLine.contains("col.separator")) {
+						separatorChar = strLine.split("=")[1].trim().charAt(0);
 					}
-				} else if (strLine.contains("col.separator")) {
-					separatorChar = strLine.split("=")[1].trim().charAt(0);
 				}
+			} catch (Exception e) {
+				close();
+				logger.error("Exception while reading csv file: " + strFile + e);
+				throw new DataProviderException("Error while fetching data from " + strFile, e);
 			}
+			close();
+			return null;
+		}
 
-		} catch (Exception e) {
-			logger.error("Exception while reading csv file: " + strFile + e);
-			throw new DataProviderException("Error while fetching data from " + strFile, e);
-
-		} finally {
-			if (br != null) {
+		private Map<String, Object> toMap(Object[] cols) {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			for (int i = 0; i < cols.length; i++) {
 				try {
-					br.close();
-				} catch (IOException e) {
+					map.put(colsNames[i].toString().trim(), cols[i]);
+				} catch (ArrayIndexOutOfBoundsException e) {
+					logger.warn(String.format(
+							"Missing column header for column[%d] in data file: %s. It will be included by lineNo",
+							i + 1, strFile));
+					map.put(String.valueOf(i), cols[i]);
+
 				}
 			}
+			return map;
 		}
-		return rows;
 	}
 }
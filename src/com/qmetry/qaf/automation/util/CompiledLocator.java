@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+
+/**
+ * Locator compiled by {@link LocatorUtil#compile(String, PropertyUtil)}.
+ * Holds resolved locator, meta-data provided with self descriptive locator
+ * and {@link By} to find element. Instances are immutable and may be shared
+ * between threads.
+ * 
+ * @author chirag.jayswal
+ */
+public final class CompiledLocator {
+	private final String locator;
+	private final String byLocator;
+	private final Map<String, Object> metaData;
+	private final boolean cacheable;
+	private final int version;
+	private final Object source;
+	// null for cached locator, by of which doesn't depend on properties
+	private volatile PropertyUtil props;
+	private volatile By by;
+
+	CompiledLocator(String locator, String byLocator, Map<String, Object> metaData, boolean cacheable,
+			int version, Object source, PropertyUtil props) {
+		this.locator = locator;
+		this.byLocator = byLocator;
+		this.metaData = Collections.unmodifiableMap(metaData);
+		this.cacheable = cacheable;
+		this.version = version;
+		this.source = source;
+		this.props = props;
+	}
+
+	/**
+	 * @return locator after resolving key and parameters, for self descriptive
+	 *         locator it will be json string
+	 */
+	public String getLocator() {
+		return locator;
+	}
+
+	/**
+	 * @return meta-data provided with self descriptive locator, empty map
+	 *         otherwise
+	 */
+	public Map<String, Object> getMetaData() {
+		return metaData;
+	}
+
+	/**
+	 * @return by to find element, created on first call
+	 */
+	public By getBy() {
+		By result = by;
+		if (null == result) {
+			synchronized (this) {
+				result = by;
+				if (null == result) {
+					result = LocatorUtil.createBy(byLocator, props);
+					by = result;
+					props = null;
+				}
+			}
+		}
+		return result;
+	}
+
+	boolean isCacheable() {
+		return cacheable;
+	}
+
+	/**
+	 * @param version
+	 *            current resources version
+	 * @param source
+	 *            current value of locator key
+	 * @return whether this locator was compiled from same resources
+	 */
+	boolean isValid(int version, Object source) {
+		return this.version == version && (null == this.source ? null == source : this.source.equals(source));
+	}
+
+	@Override
+	public String toString() {
+		return locator;
+	}
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Simple pool of database connections for one url and user. Connection
+ * returned by pool is proxy, {@link Connection#close() closing} it returns
+ * connection to the pool. Idle connection is validated before reuse.
+ * Prepared statements are cached per connection, so repeated queries on
+ * pooled connection are not prepared again.
+ * 
+ * @author chirag.jayswal
+ */
+final class ConnectionPool {
+	private static final Logger log = Logger.getLogger(ConnectionPool.class);
+	private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<String, ConnectionPool>();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				for (ConnectionPool pool : POOLS.values()) {
+					pool.closeIdle();
+				}
+			}
+		});
+	}
+
+	private final String url;
+	private final String user;
+	private final String pwd;
+	private final int validationTimeout;
+	private final int statementCacheSize;
+	private final long waitTimeout;
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<PooledConnection>();
+
+	private ConnectionPool(String url, String user, String pwd, int size, int validationTimeout,
+			int statementCacheSize, long waitTimeout) {
+		this.url = url;
+		this.user = user;
+		this.pwd = pwd;
+		this.validationTimeout = validationTimeout;
+		this.statementCacheSize = statementCacheSize;
+		this.waitTimeout = waitTimeout;
+		permits = new Semaphore(size, true);
+	}
+
+	/**
+	 * @param url
+	 * @param user
+	 * @param pwd
+	 * @param size
+	 *            max number of connections
+	 * @param validationTimeout
+	 *            seconds to wait while validating idle connection
+	 * @param statementCacheSize
+	 *            max number of prepared statements cached per connection
+	 * @param waitTimeout
+	 *            milliseconds to wait for connection when all connections are
+	 *            in use
+	 * @return pool for given url and user, created on first call
+	 */
+	static ConnectionPool getPool(String url, String user, String pwd, int size, int validationTimeout,
+			int statementCacheSize, long waitTimeout) {
+		String key = url + "|" + user;
+		ConnectionPool pool = POOLS.get(key);
+		if (null == pool) {
+			synchronized (POOLS) {
+				pool = POOLS.get(key);
+				if (null == pool) {
+					pool = new ConnectionPool(url, user, pwd, size, validationTimeout, statementCacheSize,
+							waitTimeout);
+					POOLS.put(key, pool);
+				}
+			}
+		}
+		return pool;
+	}
+
+	Connection getConnection() throws SQLException {
+		try {
+			if (!permits.tryAcquire(waitTimeout, TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Timed out waiting for connection from pool: " + url);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for connection from pool: " + url, e);
+		}
+		try {
+			PooledConnection connection;
+			while (null != (connection = idle.pollFirst())) {
+				if (connection.validate()) {
+					return connection.borrow();
+				}
+				connection.destroy();
+			}
+			return new PooledConnection(DriverManager.getConnection(url, user, pwd)).borrow();
+		} catch (SQLException e) {
+			permits.release();
+			throw e;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return number of idle connections in pool
+	 */
+	int getIdleCount() {
+		return idle.size();
+	}
+
+	private void release(PooledConnection connection) {
+		try {
+			connection.reset();
+			idle.offerFirst(connection);
+		} catch (SQLException e) {
+			log.warn("Discarding database connection unable to reset", e);
+			connection.destroy();
+		} finally {
+			permits.release();
+		}
+	}
+
+	private void closeIdle() {
+		PooledConnection connection;
+		while (null != (connection = idle.pollFirst())) {
+			connection.destroy();
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class PooledConnection implements InvocationHandler {
+		private final Connection connection;
+		private final Map<String, CachedStatement> statements;
+		private Connection proxy;
+
+		PooledConnection(Connection connection) {
+			this.connection = connection;
+			statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+					if (size() > statementCacheSize) {
+						eldest.getValue().destroy();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		Connection borrow() {
+			proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, this);
+			return proxy;
+		}
+
+		boolean validate() {
+			try {
+				return connection.isValid(validationTimeout);
+			} catch (Throwable e) {
+				return false;
+			}
+		}
+
+		void reset() throws SQLException {
+			for (CachedStatement statement : statements.values()) {
+				statement.recycle();
+			}
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			connection.clearWarnings();
+		}
+
+		void destroy() {
+			for (CachedStatement statement : statements.values()) {
+				statement.destroy();
+			}
+			statements.clear();
+			DatabaseUtil.close(connection);
+		}
+
+		@Override
+		public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			boolean closed = this.proxy != proxy;
+			if (name.equals("isClosed")) {
+				return closed || connection.isClosed();
+			}
+			if (name.equals("close")) {
+				if (!closed) {
+					this.proxy = null;
+					release(this);
+				}
+				return null;
+			}
+			if (closed) {
+				throw new SQLException("Connection is closed");
+			}
+			if (name.equals("prepareStatement") && args.length == 1 && statementCacheSize > 0) {
+				String sql = (String) args[0];
+				CachedStatement statement = statements.get(sql);
+				if (null == statement || statement.inUse) {
+					if (null != statement) {
+						// nested use of same query, don't cache
+						return connection.prepareStatement(sql);
+					}
+					statement = new CachedStatement(connection.prepareStatement(sql));
+					statements.put(sql, statement);
+				}
+				return statement.borrow(this.proxy);
+			}
+			return ConnectionPool.invoke(connection, method, args);
+		}
+	}
+
+	private static class CachedStatement implements InvocationHandler {
+		private final PreparedStatement statement;
+		private Connection connection;
+		private PreparedStatement proxy;
+		private volatile boolean inUse;
+
+		CachedStatement(PreparedStatement statement) {
+			this.statement = statement;
+		}
+
+		PreparedStatement borrow(Connection connection) {
+			this.connection = connection;
+			inUse = true;
+			proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, this);
+			return proxy;
+		}
+
+		void recycle() throws SQLException {
+			if (inUse) {
+				proxy = null;
+				inUse = false;
+				DatabaseUtil.close(statement.getResultSet());
+				statement.clearParameters();
+			}
+		}
+
+		void destroy() {
+			DatabaseUtil.close(statement);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			boolean closed = this.proxy != proxy;
+			if (name.equals("isClosed")) {
+				return closed || statement.isClosed();
+			}
+			if (name.equals("close")) {
+				if (!closed) {
+					recycle();
+				}
+				return null;
+			}
+			if (closed) {
+				throw new SQLException("Statement is closed");
+			}
+			if (name.equals("getConnection")) {
+				return connection;
+			}
+			return ConnectionPool.invoke(statement, method, args);
+		}
+	}
+}
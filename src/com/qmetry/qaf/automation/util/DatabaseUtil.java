@@ -21,17 +21,20 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.util;
 
+import java.io.Closeable;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.log4j.Logger;
@@ -140,12 +143,7 @@ public class DatabaseUtil {
 	 * @throws Exception
 	 */
 	public static Connection getConnection() throws Exception {
-		PropertyUtil props = ConfigurationManager.getBundle();
-		String url = props.getString("db.connection.url");
-		String driverclass = props.getString("db.driver.class");
-		String user = props.getString("db.user");
-		String pwd = props.getString("db.pwd");
-		return getConnection(driverclass, url, user, pwd);
+		return getConnection("");
 	}
 
 	/**
@@ -165,20 +163,39 @@ public class DatabaseUtil {
 	 * <li>con1.db.pwd</li>
 	 * </ol>
 	 * to use another configuration: <code>{@link #getConnection(String) getConnection("con1")}
+	 * <p>
+	 * To use connection pool for the configuration provide <code>db.pool.size</code> (with prefix if any)
+	 * greater than 0. Closing connection from pool returns it to the pool. Optional pool properties:
+	 * <ol>
+	 * <li>db.pool.validation.timeout - seconds to wait while validating idle connection, default 5</li>
+	 * <li>db.pool.wait.timeout - milliseconds to wait for connection when all are in use, default 60000</li>
+	 * <li>db.pool.statement.cache.size - prepared statements cached per connection, default 20</li>
+	 * </ol>
 	 * @param prefix - prefix of the database configuration to be used
 	 * @return
 	 * @throws Exception
 	 */
 	public static Connection getConnection(String prefix) throws Exception {
-		Configuration props = StringUtil.isBlank(prefix) ? ConfigurationManager.getBundle()
-				: ConfigurationManager.getBundle().subset(prefix);
+		Configuration props = getConfiguration(prefix);
 		String url = props.getString("db.connection.url");
 		String driverclass = props.getString("db.driver.class");
 		String user = props.getString("db.user");
 		String pwd = props.getString("db.pwd");
+		int poolSize = props.getInt("db.pool.size", 0);
+		if (poolSize > 0) {
+			Class.forName(driverclass);// loads the driver
+			return ConnectionPool.getPool(url, user, pwd, poolSize, props.getInt("db.pool.validation.timeout", 5),
+					props.getInt("db.pool.statement.cache.size", 20), props.getLong("db.pool.wait.timeout", 60000))
+					.getConnection();
+		}
 		return getConnection(driverclass, url, user, pwd);
 	}
 
+	private static Configuration getConfiguration(String prefix) {
+		return StringUtil.isBlank(prefix) ? ConfigurationManager.getBundle()
+				: ConfigurationManager.getBundle().subset(prefix);
+	}
+
 	/**
 	 * @param driverCls
 	 * @param url
@@ -200,31 +217,7 @@ public class DatabaseUtil {
 	 * @return
 	 */
 	public static Object[][] getData(String query) {
-		ArrayList<Object[]> rows = new ArrayList<Object[]>();
-		Connection con = null;
-		Statement stmt = null;
-		ResultSet rs = null;
-		try {
-			con = DatabaseUtil.getConnection();
-			stmt = con.createStatement();
-			rs = stmt.executeQuery(query);
-
-			while (rs.next()) {
-				int colsCnt = rs.getMetaData().getColumnCount();
-				Object[] cols = new Object[colsCnt];
-				for (int indx = 0; indx < colsCnt; indx++) {
-					cols[indx] = rs.getObject(indx + 1);
-				}
-				rows.add(cols);
-			}
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			DatabaseUtil.close(stmt, rs);
-			DatabaseUtil.close(con);
-		}
-
+		List<Object[]> rows = readAll("", query, false);
 		return rows.toArray(new Object[][] {});
 	}
 
@@ -234,34 +227,26 @@ public class DatabaseUtil {
 	 * @return
 	 */
 	public static Object[][] getRecordDataAsMap(String query) {
-		ArrayList<Object[]> rows = new ArrayList<Object[]>();
-		Connection con = null;
-		Statement stmt = null;
-		ResultSet rs = null;
-		try {
-			con = DatabaseUtil.getConnection();
-			stmt = con.createStatement();
-			rs = stmt.executeQuery(query);
-
-			while (rs.next()) {
-				HashMap<String, Object> map = new LinkedHashMap<String, Object>();
-
-				int colsCnt = rs.getMetaData().getColumnCount();
-				for (int indx = 1; indx <= colsCnt; indx++) {
-					map.put(rs.getMetaData().getColumnLabel(indx), (rs.getObject(indx)));
-				}
-				rows.add(new Object[] { map });
-			}
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			DatabaseUtil.close(stmt, rs);
-			DatabaseUtil.close(con);
-		}
+		List<Object[]> rows = readAll("", query, true);
 		return rows.toArray(new Object[][] {});
 	}
-	
+
+	/**
+	 * Lazy version of {@link #getRecordDataAsMap(String)}. Records are fetched
+	 * from database on demand using fetch size <code>db.fetch.size</code> if
+	 * provided. The iterator holds connection (and pool permit if pooled) until
+	 * all records are read or iterator is closed, so caller must close it when
+	 * not reading all records. Database error is thrown as
+	 * {@link RuntimeException} after closing the connection.
+	 * 
+	 * @param query
+	 * @return Iterator of object array which contains Map, also implements
+	 *         {@link Closeable}
+	 */
+	public static Iterator<Object[]> getRecordDataAsMapIterator(String query) {
+		return getResultSetIterator("", query, true);
+	}
+
 	/**
 	 * use this method when you want to run query using default database configuration
 	 * @param query
@@ -279,31 +264,169 @@ public class DatabaseUtil {
 	 * @return
 	 */
 	public static List<Map<String, Object>> getRecordAsMap(String connectionPrefix,String query) {
+		return getPreparedRecordAsMap(connectionPrefix, query);
+	}
+
+	/**
+	 * Use this method to run parameterized query repeatedly with different
+	 * parameter values. With connection pool, prepared statement is reused for
+	 * the same query.
+	 * 
+	 * @see #getConnection(String)
+	 * @param connectionPrefix
+	 * @param query
+	 *            query with <code>?</code> place holders for parameters
+	 * @param params
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Map<String, Object>> getPreparedRecordAsMap(String connectionPrefix, String query,
+			Object... params) {
 		ArrayList<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (Object[] record : readAll(connectionPrefix, query, true, params)) {
+			rows.add((Map<String, Object>) record[0]);
+		}
+		return rows;
+	}
+
+	/**
+	 * Reads all records and releases connection. As before, error is printed
+	 * and records read so far are returned.
+	 */
+	private static List<Object[]> readAll(String connectionPrefix, String query, boolean asMap,
+			Object... params) {
+		List<Object[]> rows = new ArrayList<Object[]>();
+		ResultSetIterator records = null;
+		try {
+			records = getResultSetIterator(connectionPrefix, query, asMap, params);
+			while (records.hasNext()) {
+				rows.add(records.next());
+			}
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+		} finally {
+			if (null != records) {
+				records.close();
+			}
+		}
+		return rows;
+	}
+
+	private static ResultSetIterator getResultSetIterator(String connectionPrefix, String query, boolean asMap,
+			Object... params) {
 		Connection con = null;
 		Statement stmt = null;
 		ResultSet rs = null;
 		try {
 			con = DatabaseUtil.getConnection(connectionPrefix);
-			stmt = con.createStatement();
-			rs = stmt.executeQuery(query);
-
-			while (rs.next()) {
-				HashMap<String, Object> map = new HashMap<String, Object>();
-
-				int colsCnt = rs.getMetaData().getColumnCount();
-				for (int indx = 1; indx <= colsCnt; indx++) {
-					map.put(rs.getMetaData().getColumnLabel(indx), rs.getObject(indx));
+			// query without parameters may have literal '?', for example
+			// json operator
+			boolean parameterized = null != params && params.length > 0;
+			stmt = parameterized ? con.prepareStatement(query) : con.createStatement();
+			int fetchSize = getConfiguration(connectionPrefix).getInt("db.fetch.size", 0);
+			if (fetchSize > 0) {
+				stmt.setFetchSize(fetchSize);
+			}
+			if (parameterized) {
+				PreparedStatement pstmt = (PreparedStatement) stmt;
+				for (int i = 0; i < params.length; i++) {
+					pstmt.setObject(i + 1, params[i]);
 				}
-				rows.add(map);
+				rs = pstmt.executeQuery();
+			} else {
+				rs = stmt.executeQuery(query);
 			}
-
+			return new ResultSetIterator(con, stmt, rs, asMap);
 		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
 			DatabaseUtil.close(stmt, rs);
 			DatabaseUtil.close(con);
+			throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Iterates over result set, column labels are read once per result set.
+	 */
+	private static class ResultSetIterator implements Iterator<Object[]>, Closeable {
+		private final Connection con;
+		private final Statement stmt;
+		private final ResultSet rs;
+		private final boolean asMap;
+		private final String[] labels;
+		private Object[] next;
+		private boolean closed;
+
+		ResultSetIterator(Connection con, Statement stmt, ResultSet rs, boolean asMap) throws SQLException {
+			this.con = con;
+			this.stmt = stmt;
+			this.rs = rs;
+			this.asMap = asMap;
+			ResultSetMetaData metaData = rs.getMetaData();
+			labels = new String[metaData.getColumnCount()];
+			for (int indx = 0; indx < labels.length; indx++) {
+				labels[indx] = metaData.getColumnLabel(indx + 1);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (null == next && !closed) {
+				next = fetch();
+			}
+			return null != next;
+		}
+
+		@Override
+		public Object[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object[] row = next;
+			next = null;
+			return row;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				DatabaseUtil.close(stmt, rs);
+				DatabaseUtil.close(con);
+			}
+		}
+
+		private Object[] fetch() {
+			boolean fetched = false;
+			try {
+				if (rs.next()) {
+					if (!asMap) {
+						Object[] cols = new Object[labels.length];
+						for (int indx = 0; indx < labels.length; indx++) {
+							cols[indx] = rs.getObject(indx + 1);
+						}
+						fetched = true;
+						return cols;
+					}
+					Map<String, Object> map = new LinkedHashMap<String, Object>();
+					for (int indx = 0; indx < labels.length; indx++) {
+						map.put(labels[indx], rs.getObject(indx + 1));
+					}
+					fetched = true;
+					return new Object[] { map };
+				}
+				return null;
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			} finally {
+				if (!fetched) {
+					close();
+				}
+			}
 		}
-		return rows;
 	}
 }
@@ -0,0 +1,401 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.util;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.RenderedImage;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Image matching engine used by {@link ImageCompareUtil}. Pixels are copied
+ * once in packed RGB <code>int[]</code> and all searches work on that array.
+ * Search positions are split in row bands processed in parallel using
+ * fork-join.
+ * 
+ * @author chirag.jayswal
+ */
+final class ImageMatcher {
+	/**
+	 * image is rescaled to this size for calculating signature
+	 */
+	static final int BASE_SIZE = 300;
+	private static final float[] SIGNATURE_POINTS = { 1f / 10f, 3f / 10f, 5f / 10f, 7f / 10f, 9f / 10f };
+	private static final int SAMPLE_SIZE = 15;
+	private static final int SAMPLES = SAMPLE_SIZE * 2;
+	private static final int BAND_ROWS = 8;
+
+	private final int width;
+	private final int height;
+	private final int[] rgb;
+
+	ImageMatcher(RenderedImage image) {
+		width = image.getWidth();
+		height = image.getHeight();
+		rgb = toBufferedImage(image).getRGB(0, 0, width, height, null, 0, width);
+	}
+
+	int getWidth() {
+		return width;
+	}
+
+	int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Distance between signatures of this and other image, each rescaled to
+	 * {@link #BASE_SIZE}.
+	 * 
+	 * @param other
+	 * @return
+	 */
+	double getDifference(ImageMatcher other) {
+		return distance(signature(0, 0, width, height), other.signature(0, 0, other.width, other.height));
+	}
+
+	/**
+	 * Minimum signature distance of template with area of same size of this
+	 * image, for areas starting at every <code>step</code> pixels.
+	 * 
+	 * @param template
+	 * @param step
+	 * @return minimum distance or {@link Double#MAX_VALUE} if template is
+	 *         larger than this image
+	 */
+	double minDistance(ImageMatcher template, int step) {
+		int tw = template.width, th = template.height;
+		if (tw > width || th > height) {
+			return Double.MAX_VALUE;
+		}
+		int rows = (height - th) / step + 1;
+		AtomicBoolean exact = new AtomicBoolean();
+		return ForkJoinPool.commonPool().invoke(new SignatureSearch(template.signature(0, 0, tw, th),
+				offsets(tw), offsets(th), tw, step, 0, rows, exact));
+	}
+
+	/**
+	 * Searches template in this image. Template is considered found at a
+	 * position when sum of absolute differences of each diagonal block of 5
+	 * pixels in template area is not more than <code>maxDiff</code> * 5.
+	 * 
+	 * @param template
+	 * @param sRect
+	 *            area of this image to search, empty for entire image
+	 * @param tRect
+	 *            area of template, empty for entire template
+	 * @param maxDiff
+	 * @return top-left position of matched area, or <code>null</code> if not
+	 *         found
+	 */
+	Point find(ImageMatcher template, Rectangle sRect, Rectangle tRect, int maxDiff) {
+		int tRight = Math.min(tRect.width > 0 ? tRect.x + tRect.width : template.width, template.width);
+		int tBottom = Math.min(tRect.height > 0 ? tRect.y + tRect.height : template.height, template.height);
+		int sRight = sRect.width > 0 ? sRect.x + sRect.width
+				: (tRect.width > 0 ? width - tRect.width : width - template.width);
+		int sBottom = sRect.height > 0 ? sRect.y + sRect.height
+				: (tRect.height > 0 ? height - tRect.height : height - template.height);
+
+		// diagonal blocks of template: top-left of block
+		int cols = Math.max(0, (tRight - 5 - tRect.x + 4) / 5);
+		int rows = Math.max(0, (tBottom - 5 - tRect.y + 4) / 5);
+		int[] blockX = new int[cols * rows];
+		int[] blockY = new int[cols * rows];
+		int n = 0;
+		for (int i = tRect.x; i < tRight - 5; i += 5) {
+			for (int j = tRect.y; j < tBottom - 5; j += 5) {
+				blockX[n] = i;
+				blockY[n++] = j;
+			}
+		}
+		// keep search positions for which all blocks are within this image
+		int minX = sRect.x, minY = sRect.y, maxX = sRight, maxY = sBottom;
+		if (n > 0) {
+			minX = Math.max(minX, tRect.x - blockX[0]);
+			minY = Math.max(minY, tRect.y - blockY[0]);
+			maxX = Math.min(maxX, width - 5 - blockX[n - 1] + tRect.x);
+			maxY = Math.min(maxY, height - 5 - blockY[n - 1] + tRect.y);
+		}
+		if (minX > maxX || minY > maxY) {
+			return null;
+		}
+		BlockSearch search = new BlockSearch(template, blockX, blockY, n, tRect.x, tRect.y, maxDiff * 5, minX,
+				maxX, minY, maxY + 1, new AtomicBoolean());
+		return ForkJoinPool.commonPool().invoke(search);
+	}
+
+	/**
+	 * Searches position of template with average difference of all pixels
+	 * less than 2.
+	 * 
+	 * @param template
+	 * @return top-left position of matched area, or <code>null</code> if not
+	 *         found
+	 */
+	Point findAverage(ImageMatcher template) {
+		int tw = template.width, th = template.height;
+		long max = (long) tw * th;
+		for (int y = 0; y < height - th; y++) {
+			for (int x = 0; x < width - tw; x++) {
+				long r = 0, g = 0, b = 0;
+				for (int j = 0; j < th; j++) {
+					int s = (y + j) * width + x, t = j * tw;
+					for (int i = 0; i < tw; i++) {
+						int sp = rgb[s + i], tp = template.rgb[t + i];
+						r += Math.abs(((sp >> 16) & 0xff) - ((tp >> 16) & 0xff));
+						g += Math.abs(((sp >> 8) & 0xff) - ((tp >> 8) & 0xff));
+						b += Math.abs((sp & 0xff) - (tp & 0xff));
+					}
+				}
+				if ((r / max + g / max + b / max) / 3 < 2) {
+					return new Point(x, y);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Signature of area rescaled to {@link #BASE_SIZE}: average color around
+	 * 5x5 points, as 25 packed RGB values.
+	 */
+	private int[] signature(int x0, int y0, int w, int h) {
+		int[][] xOffsets = offsets(w);
+		int[][] yOffsets = offsets(h);
+		int[] sig = new int[SIGNATURE_POINTS.length * SIGNATURE_POINTS.length];
+		for (int px = 0; px < xOffsets.length; px++) {
+			for (int py = 0; py < yOffsets.length; py++) {
+				int r = 0, g = 0, b = 0;
+				for (int yo : yOffsets[py]) {
+					int row = (y0 + yo) * width + x0;
+					for (int xo : xOffsets[px]) {
+						int p = rgb[row + xo];
+						r += (p >> 16) & 0xff;
+						g += (p >> 8) & 0xff;
+						b += p & 0xff;
+					}
+				}
+				sig[px * SIGNATURE_POINTS.length + py] = pack(r, g, b);
+			}
+		}
+		return sig;
+	}
+
+	private static int pack(int r, int g, int b) {
+		int n = SAMPLES * SAMPLES;
+		return ((r / n) << 16) | ((g / n) << 8) | (b / n);
+	}
+
+	/**
+	 * Offsets, in image of given size, of pixels sampled around each signature
+	 * point after nearest neighbor rescale to {@link #BASE_SIZE}.
+	 */
+	private static int[][] offsets(int size) {
+		int[][] offsets = new int[SIGNATURE_POINTS.length][SAMPLES];
+		for (int p = 0; p < SIGNATURE_POINTS.length; p++) {
+			double start = SIGNATURE_POINTS[p] * BASE_SIZE - SAMPLE_SIZE;
+			for (int s = 0; s < SAMPLES; s++) {
+				int scaled = (int) (start + s);
+				offsets[p][s] = Math.min(size - 1, (int) ((scaled + 0.5) * size / BASE_SIZE));
+			}
+		}
+		return offsets;
+	}
+
+	private static double distance(int[] signature, int[] other) {
+		double dist = 0;
+		for (int i = 0; i < signature.length; i++) {
+			int dr = ((signature[i] >> 16) & 0xff) - ((other[i] >> 16) & 0xff);
+			int dg = ((signature[i] >> 8) & 0xff) - ((other[i] >> 8) & 0xff);
+			int db = (signature[i] & 0xff) - (other[i] & 0xff);
+			dist += Math.sqrt(dr * dr + dg * dg + db * db);
+		}
+		return dist;
+	}
+
+	private static BufferedImage toBufferedImage(RenderedImage image) {
+		if (image instanceof BufferedImage) {
+			return (BufferedImage) image;
+		}
+		ColorModel cm = image.getColorModel();
+		WritableRaster raster = cm.createCompatibleWritableRaster(image.getWidth(), image.getHeight());
+		image.copyData(raster);
+		return new BufferedImage(cm, raster, cm.isAlphaPremultiplied(), new Hashtable<Object, Object>());
+	}
+
+	/**
+	 * Computes signatures of areas with top-left on rows <code>from</code> to
+	 * <code>to</code> of search grid. Column sums of sampled rows are
+	 * calculated once per band and shared by all areas in the band.
+	 */
+	private class SignatureSearch extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 6211340376618547457L;
+		private final int[] templateSignature;
+		private final int[][] xOffsets, yOffsets;
+		private final int tw, step, from, to;
+		private final AtomicBoolean exact;
+
+		SignatureSearch(int[] templateSignature, int[][] xOffsets, int[][] yOffsets, int tw, int step, int from,
+				int to, AtomicBoolean exact) {
+			this.templateSignature = templateSignature;
+			this.xOffsets = xOffsets;
+			this.yOffsets = yOffsets;
+			this.tw = tw;
+			this.step = step;
+			this.from = from;
+			this.to = to;
+			this.exact = exact;
+		}
+
+		@Override
+		protected Double compute() {
+			if (to - from > BAND_ROWS) {
+				int mid = (from + to) >>> 1;
+				SignatureSearch upper = new SignatureSearch(templateSignature, xOffsets, yOffsets, tw, step, from,
+						mid, exact);
+				SignatureSearch lower = new SignatureSearch(templateSignature, xOffsets, yOffsets, tw, step, mid,
+						to, exact);
+				lower.fork();
+				return Math.min(upper.compute(), lower.join());
+			}
+			int points = SIGNATURE_POINTS.length;
+			int cols = (width - tw) / step + 1;
+			// per signature row: sums of sampled rows for each image column
+			int[][] r = new int[points][width], g = new int[points][width], b = new int[points][width];
+			int[] sig = new int[points * points];
+			double min = Double.MAX_VALUE;
+			for (int row = from; row < to && !exact.get(); row++) {
+				int y0 = row * step;
+				for (int py = 0; py < points; py++) {
+					int[] rs = r[py], gs = g[py], bs = b[py];
+					Arrays.fill(rs, 0);
+					Arrays.fill(gs, 0);
+					Arrays.fill(bs, 0);
+					for (int yo : yOffsets[py]) {
+						int offset = (y0 + yo) * width;
+						for (int x = 0; x < width; x++) {
+							int p = rgb[offset + x];
+							rs[x] += (p >> 16) & 0xff;
+							gs[x] += (p >> 8) & 0xff;
+							bs[x] += p & 0xff;
+						}
+					}
+				}
+				for (int col = 0; col < cols; col++) {
+					int x0 = col * step;
+					for (int px = 0; px < points; px++) {
+						for (int py = 0; py < points; py++) {
+							int rsum = 0, gsum = 0, bsum = 0;
+							for (int xo : xOffsets[px]) {
+								rsum += r[py][x0 + xo];
+								gsum += g[py][x0 + xo];
+								bsum += b[py][x0 + xo];
+							}
+							sig[px * points + py] = pack(rsum, gsum, bsum);
+						}
+					}
+					min = Math.min(min, distance(sig, templateSignature));
+					if (min == 0) {
+						exact.set(true);
+						return min;
+					}
+				}
+			}
+			return min;
+		}
+	}
+
+	/**
+	 * Looks for template at positions with top-left y from <code>from</code>
+	 * to <code>to</code>. Position is rejected on first block exceeding max
+	 * difference.
+	 */
+	private class BlockSearch extends RecursiveTask<Point> {
+		private static final long serialVersionUID = -3270733416052012384L;
+		private final ImageMatcher template;
+		private final int[] blockX, blockY;
+		private final int blocks, tx, ty, maxSum, minX, maxX, from, to;
+		private final AtomicBoolean found;
+
+		BlockSearch(ImageMatcher template, int[] blockX, int[] blockY, int blocks, int tx, int ty, int maxSum,
+				int minX, int maxX, int from, int to, AtomicBoolean found) {
+			this.template = template;
+			this.blockX = blockX;
+			this.blockY = blockY;
+			this.blocks = blocks;
+			this.tx = tx;
+			this.ty = ty;
+			this.maxSum = maxSum;
+			this.minX = minX;
+			this.maxX = maxX;
+			this.from = from;
+			this.to = to;
+			this.found = found;
+		}
+
+		@Override
+		protected Point compute() {
+			if (to - from > BAND_ROWS) {
+				int mid = (from + to) >>> 1;
+				BlockSearch upper = new BlockSearch(template, blockX, blockY, blocks, tx, ty, maxSum, minX, maxX,
+						from, mid, found);
+				BlockSearch lower = new BlockSearch(template, blockX, blockY, blocks, tx, ty, maxSum, minX, maxX, mid,
+						to, found);
+				lower.fork();
+				Point match = upper.compute();
+				Point lowerMatch = lower.join();
+				return null != match ? match : lowerMatch;
+			}
+			int[] t = template.rgb;
+			int tWidth = template.width;
+			for (int y = from; y < to && !found.get(); y++) {
+				for (int x = minX; x <= maxX; x++) {
+					boolean match = true;
+					for (int n = 0; n < blocks && match; n++) {
+						int s = (y + blockY[n] - ty) * width + x + blockX[n] - tx;
+						int tp = blockY[n] * tWidth + blockX[n];
+						int sum = 0;
+						for (int p = 0; p < 5; p++, s += width + 1, tp += tWidth + 1) {
+							int a = rgb[s], c = t[tp];
+							sum += Math.abs(((a >> 16) & 0xff) - ((c >> 16) & 0xff))
+									+ Math.abs(((a >> 8) & 0xff) - ((c >> 8) & 0xff))
+									+ Math.abs((a & 0xff) - (c & 0xff));
+						}
+						match = sum <= maxSum;
+					}
+					if (match) {
+						found.set(true);
+						return new Point(x, y);
+					}
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -21,13 +21,22 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.util;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.logging.Log;
@@ -46,6 +55,8 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.google.gson.stream.MalformedJsonException;
 import com.qmetry.qaf.automation.core.AutomationError;
 import com.qmetry.qaf.automation.gson.GsonDeserializerObjectWrapper;
@@ -59,6 +70,14 @@ import com.qmetry.qaf.automation.keys.ApplicationProperties;
  */
 public class JSONUtil {
 	private static final Log logger = LogFactoryImpl.getLog(JSONUtil.class);
+	// Gson is thread safe and caches type adapters, so instances are shared
+	private static final Gson gson = new Gson();
+	private static final Gson fileGson = new GsonBuilder().disableHtmlEscaping().create();
+	private static final Gson prettyFileGson =
+			new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+	private static final Type DATA_TYPE = new TypeToken<Map<String, Object>>() {
+		private static final long serialVersionUID = -2245217224530781235L;
+	}.getType();
 
 	/**
 	 * 
@@ -174,10 +193,13 @@ public class JSONUtil {
 
 		File f = new File(file);
 		try {
-			Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
-			String jsonStr = gson.toJson(obj, obj.getClass());
-
-			FileUtil.writeStringToFile(f, jsonStr, "UTF-8");
+			JsonWriter writer = prettyFileGson.newJsonWriter(new BufferedWriter(
+					new OutputStreamWriter(FileUtil.openOutputStream(f), "UTF-8")));
+			try {
+				prettyFileGson.toJson(obj, obj.getClass(), writer);
+			} finally {
+				writer.close();
+			}
 		} catch (Throwable e) {
 			System.err.println("Unable to write : " + obj.getClass().getCanonicalName() + " in file: " + file + " :"
 					+ e.getMessage());
@@ -189,32 +211,92 @@ public class JSONUtil {
 	/**
 	 * 
 	 * @param file
+	 *            json file or json array string
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	public static Object[][] getJsonArrayOfMaps(String file) {
+		List<Object[]> mapData = ListUtils.toList(getJsonArrayOfMapsIterator(file));
+		return mapData.toArray(new Object[mapData.size()][]);
+	}
+
+	/**
+	 * Get lazy iterator of maps from json array. Array elements are parsed
+	 * from file on demand and file is closed when all elements are read or
+	 * iterator is closed.
+	 * 
+	 * @param file
+	 *            json file or json array string
+	 * @return Iterator of object array which contains Map, also implements
+	 *         {@link Closeable}
+	 */
+	public static Iterator<Object[]> getJsonArrayOfMapsIterator(String file) {
 		try {
-			/*Gson gson = new Gson();*/
-			final Type DATASET_TYPE = new TypeToken<List<Map<String, Object>>>() {
-				private static final long serialVersionUID = 4426388930719377223L;
-			}.getType();
+			Reader reader = file.startsWith("[") ? new StringReader(file)
+					: new BufferedReader(new InputStreamReader(new FileInputStream(file),
+							ApplicationProperties.LOCALE_CHAR_ENCODING.getStringVal("UTF-8")));
+			return new JsonArrayIterator(reader);
+		} catch (Throwable e) {
+			throw new AutomationError(e);
+		}
+	}
 
-			List<Map<String, Object>[]> mapData;
-			if (file.startsWith("["))
-				mapData =  (List<Map<String, Object>[]>) toObject(file, DATASET_TYPE, new GsonBuilder());//gson.fromJson(file, DATASET_TYPE);
-			else {
-				String jsonStr = FileUtil.readFileToString(new File(file),
-						ApplicationProperties.LOCALE_CHAR_ENCODING.getStringVal("UTF-8"));
-				mapData = (List<Map<String, Object>[]>) toObject(jsonStr, DATASET_TYPE, new GsonBuilder());//gson.fromJson(jsonStr, DATASET_TYPE);
+	private static class JsonArrayIterator implements Iterator<Object[]>, Closeable {
+		private final JsonReader reader;
+		// deserializer is not stateless, so not shared between iterators
+		private final Gson dataGson = new GsonBuilder().setLenient().serializeNulls()
+				.registerTypeAdapter(ObjectWrapper.class, new GsonDeserializerObjectWrapper(DATA_TYPE))
+				.create();
+		private boolean closed;
+
+		JsonArrayIterator(Reader in) throws IOException {
+			reader = new JsonReader(in);
+			reader.setLenient(true);
+			try {
+				reader.beginArray();
+			} catch (IOException e) {
+				close();
+				throw e;
+			} catch (RuntimeException e) {
+				close();
+				throw e;
 			}
-			Object[][] objecttoreturn = new Object[mapData.size()][1];
-			for (int i = 0; i < mapData.size(); i++) {
-				objecttoreturn[i][0] = mapData.get(i);
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				if (!closed && reader.hasNext()) {
+					return true;
+				}
+			} catch (IOException e) {
+				close();
+				throw new AutomationError(e);
 			}
-			return objecttoreturn;// mapData.toArray(new Object[][]{});
+			close();
+			return false;
+		}
 
-		} catch (Throwable e) {
-			throw new AutomationError(e);
+		@Override
+		public Object[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ObjectWrapper val = dataGson.fromJson(reader, ObjectWrapper.class);
+			return new Object[] { val.getObject() };
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			try {
+				reader.close();
+			} catch (IOException e) {
+			}
 		}
 	}
 
@@ -227,19 +309,25 @@ public class JSONUtil {
 	public static <T> T getJsonObjectFromFile(final String file, final Class<T> cls) {
 
 		File f = new File(file);
-		String json;
 		String defVal = List.class.isAssignableFrom(cls) || cls.isArray() ? "[]"
 				: ClassUtil.isPrimitiveOrWrapperType(cls) ? "" : "{}";
+		Reader reader;
 		try {
-			json = FileUtil.readFileToString(f, "UTF-8");
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(f), "UTF-8"));
 		} catch (IOException e) {
-			json = defVal;
+			return fileGson.fromJson(defVal, cls);
 		} catch (Throwable e) {
 			logger.error("unable to load [" + cls.getName() + "] from file[ " + file + "] - " + e.getMessage());
-			json = defVal;
+			return fileGson.fromJson(defVal, cls);
+		}
+		try {
+			return fileGson.fromJson(reader, cls);
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException e) {
+			}
 		}
-		Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-		return gson.fromJson(json, cls);
 
 	}
 	
@@ -287,7 +375,7 @@ public class JSONUtil {
 		if (String.class.isAssignableFrom(o.getClass()) || o.getClass().isPrimitive()) {
 			return String.valueOf(o);
 		}
-		return new Gson().toJson(o);
+		return gson.toJson(o);
 	}
 	
 }
@@ -21,15 +21,25 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
 import org.json.JSONException;
 import org.openqa.selenium.By;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.qmetry.qaf.automation.core.ConfigurationManager;
 import com.qmetry.qaf.automation.ui.webdriver.ByAny;
 import com.qmetry.qaf.automation.ui.webdriver.ByCustom;
@@ -38,6 +48,23 @@ import com.qmetry.qaf.automation.ui.webdriver.ByExtDomQuery;
 import com.qmetry.qaf.automation.ui.webdriver.ByJQuery;
 
 public class LocatorUtil {
+	private static final Log logger = LogFactoryImpl.getLog(LocatorUtil.class);
+	private static final Gson GSON = new Gson();
+	private static final Set<String> STRATEGIES = new HashSet<String>(Arrays.asList("jquery", "extdom", "extcomp",
+			"name", "id", "xpath", "css", "link", "linktext", "partiallink", "partiallinktext", "classname", "tagname"));
+	private static final int MAX_CACHED_LOCATORS = 2000;
+	// least recently used locators are discarded when cache is full
+	private static final Map<String, CompiledLocator> CACHE = Collections
+			.synchronizedMap(new LinkedHashMap<String, CompiledLocator>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CompiledLocator> eldest) {
+					return size() > MAX_CACHED_LOCATORS;
+				}
+			});
+	private static final AtomicLong cacheHits = new AtomicLong();
+	private static final AtomicLong cacheMisses = new AtomicLong();
 
 	public static String getXPathLoc(String id) {
 		return "//*[@id='" + id + "']";
@@ -65,20 +92,127 @@ public class LocatorUtil {
 	}
 
 	public static By getBy(String loc, PropertyUtil props) {
-		Gson gson = new Gson();
-		loc = props.getSubstitutor().replace(loc);
-		loc = props.getString(loc, loc);
-		JsonElement element = JSONUtil.getGsonElement(loc);
+		return compile(loc, props).getBy();
+	}
+
+	public static CompiledLocator compile(String loc) {
+		return compile(loc, ConfigurationManager.getBundle());
+	}
+
+	/**
+	 * Compiles locator or locator key into {@link CompiledLocator}. Compiled
+	 * locators are cached by locator text and reused until resources are
+	 * reloaded using {@link ConfigurationManager#addBundle(String)} or value of
+	 * the key changes. Locators having parameters or referring other keys are
+	 * compiled on each call. At most 2000 compiled locators are cached, least
+	 * recently used are discarded first.
+	 * 
+	 * @param loc
+	 *            locator or key of locator
+	 * @param props
+	 *            bundle to resolve key and parameters
+	 * @return compiled locator
+	 */
+	public static CompiledLocator compile(String loc, PropertyUtil props) {
+		boolean cacheable = !hasParameters(loc);
+		Object source = null;
+		if (cacheable) {
+			source = props.getProperty(loc);
+			cacheable = null == source || ((source instanceof String) && !hasParameters((String) source));
+		}
+		int version = ConfigurationManager.getBundleVersion();
+		if (cacheable) {
+			CompiledLocator compiled = CACHE.get(loc);
+			if ((null != compiled) && compiled.isValid(version, source)) {
+				cacheHits.incrementAndGet();
+				return compiled;
+			}
+		}
+		cacheMisses.incrementAndGet();
+
+		String locator = props.getSubstitutor().replace(loc);
+		locator = props.getString(locator, locator);
+		String byLocator = locator;
+		Map<String, Object> metaData = new HashMap<String, Object>();
+		JsonElement element = JSONUtil.getGsonElement(locator);
 		if ((null != element) && element.isJsonObject()) {
-			Object obj = gson.fromJson(element, Map.class).get("locator");
+			JsonElement obj = element.getAsJsonObject().get("locator");
+			byLocator = (null != obj) && obj.isJsonPrimitive() ? obj.getAsString()
+					: GSON.toJson(null == obj ? JsonNull.INSTANCE : obj);
+			try {
+				metaData.putAll(JSONUtil.toMap(locator));
+			} catch (JSONException e) {
+				logger.error(e.getMessage());
+			}
+		}
+		cacheable = cacheable && isStable(byLocator);
+		// by of stable locator doesn't depend on properties, cached locator
+		// shouldn't keep reference of the bundle
+		CompiledLocator compiled = new CompiledLocator(locator, byLocator, metaData, cacheable, version, source,
+				cacheable ? null : props);
+		if (cacheable) {
+			CACHE.put(loc, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * @return number of locators served from compiled locator cache
+	 */
+	public static long getCacheHitCount() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * @return number of locators compiled
+	 */
+	public static long getCacheMissCount() {
+		return cacheMisses.get();
+	}
+
+	/**
+	 * @return ratio of locators served from compiled locator cache
+	 */
+	public static double getCacheHitRate() {
+		long hits = cacheHits.get();
+		long total = hits + cacheMisses.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Removes all compiled locators and resets statistics.
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+		cacheHits.set(0);
+		cacheMisses.set(0);
+	}
 
-			loc = obj instanceof String ? (String) obj :
+	private static boolean hasParameters(String str) {
+		return str.indexOf("${") >= 0 || str.indexOf("<%") >= 0;
+	}
 
-					gson.toJson(obj);
+	/**
+	 * @param loc
+	 * @return false if by depends on other properties, for instance key or
+	 *         custom strategy
+	 */
+	private static boolean isStable(String loc) {
+		if (loc.startsWith("//") || loc.indexOf("=") <= 0) {
+			return true;
+		}
+		JsonElement element = JSONUtil.getGsonElement(loc);
+		if ((null != element) && element.isJsonArray()) {
+			// members are resolved while finding element
+			return true;
 		}
-		element = JSONUtil.getGsonElement(loc);
+		return STRATEGIES.contains(loc.split("=", 2)[0].toLowerCase());
+	}
+
+	static By createBy(String loc, PropertyUtil props) {
+		JsonElement element = JSONUtil.getGsonElement(loc);
 		if ((null != element) && element.isJsonArray()) {
-			String[] locs = new Gson().fromJson(element, String[].class);
+			String[] locs = GSON.fromJson(element, String[].class);
 			return new ByAny(locs);
 		}
 		if (loc.startsWith("//")) {
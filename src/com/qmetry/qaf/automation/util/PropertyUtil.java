@@ -26,14 +26,19 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.net.ProxySelector;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -44,10 +49,12 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
 import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.configuration.MapConfiguration;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.commons.configuration.PropertyConverter;
 import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.tree.ConfigurationNode;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.impl.LogFactoryImpl;
 
@@ -59,6 +66,10 @@ import com.qmetry.qaf.automation.keys.ApplicationProperties;
 
 /**
  * com.qmetry.qaf.automation.util.PropUtil.java
+ * <p>
+ * Property values are cached by key until any property is changed. A copy
+ * created using {@link #PropertyUtil(PropertyUtil)} shares properties with the
+ * source until either of them is modified.
  * 
  * @author chirag.jayswal
  */
@@ -67,8 +78,14 @@ public class PropertyUtil extends XMLConfiguration {
 	 * 
 	 */
 	private static final long serialVersionUID = -8633909707831110230L;
+	private static final Object NULL = new Object();
 	private Log logger = LogFactoryImpl.getLog(PropertyUtil.class);
 
+	private transient Map<String, Object> cache = new ConcurrentHashMap<String, Object>();
+	private transient AtomicInteger modCount = new AtomicInteger();
+	// root node is shared with copy, need to be cloned before modification
+	private volatile boolean sharedRoot;
+
 	public PropertyUtil() {
 		super();
 		setLogger(logger);
@@ -92,12 +109,96 @@ public class PropertyUtil extends XMLConfiguration {
 
 	@Override
 	protected Object resolveContainerStore(String key) {
-	    key=key.replace("<%", "${").replace("%>", "}");
-		key = getSubstitutor().replace(key);
+		if (key.indexOf("${") >= 0 || key.indexOf("<%") >= 0) {
+			key = key.replace("<%", "${").replace("%>", "}");
+			key = getSubstitutor().replace(key);
+		}
 		return super.resolveContainerStore(key);
 	}
+
+	@Override
+	public Object getProperty(String key) {
+		Object value = cache.get(key);
+		if (null == value) {
+			int mod = modCount.get();
+			value = super.getProperty(key);
+			if (null == value) {
+				value = NULL;
+			}
+			cache.put(key, value);
+			if (mod != modCount.get()) {
+				// modified while reading
+				cache.remove(key, value);
+			}
+		}
+		if (value == NULL) {
+			return null;
+		}
+		// list is created on each call by super
+		return value instanceof List<?> ? new ArrayList<Object>((List<?>) value) : value;
+	}
+
+	@Override
+	protected void fireEvent(int type, String propName, Object propValue, boolean before) {
+		if (before) {
+			copyOnWrite();
+		} else {
+			modified();
+		}
+		super.fireEvent(type, propName, propValue, before);
+	}
+
+	@Override
+	public void setRootNode(ConfigurationNode rootNode) {
+		sharedRoot = false;
+		super.setRootNode(rootNode);
+		modified();
+	}
+
+	@Override
+	public void load(InputStream in) throws ConfigurationException {
+		copyOnWrite();
+		super.load(in);
+		modified();
+	}
+
+	@Override
+	public void load(Reader in) throws ConfigurationException {
+		copyOnWrite();
+		super.load(in);
+		modified();
+	}
+
+	private void copyOnWrite() {
+		if (sharedRoot) {
+			sharedRoot = false;
+			super.setRootNode(new HierarchicalConfiguration(this).getRootNode());
+		}
+	}
+
+	private void modified() {
+		if (null != cache) { // null while constructing
+			modCount.incrementAndGet();
+			cache.clear();
+		}
+	}
+
+	private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		cache = new ConcurrentHashMap<String, Object>();
+		modCount = new AtomicInteger();
+	}
 	@Override
 	protected void addPropertyDirect(String key, Object value) {
+		copyOnWrite();
+		try {
+			addPropertyDirect0(key, value);
+		} finally {
+			modified();
+		}
+	}
+
+	private void addPropertyDirect0(String key, Object value) {
 		if (!System.getProperties().containsKey(key)) {
 			if (key.toLowerCase().startsWith("system.")) {
 				super.addPropertyDirect(key, value);
@@ -162,9 +263,19 @@ public class PropertyUtil extends XMLConfiguration {
 		}
 	}
 
+	/**
+	 * Creates copy of given properties. Properties are shared until this or
+	 * given properties are modified.
+	 * 
+	 * @param prop
+	 */
 	public PropertyUtil(PropertyUtil prop) {
-		this();
-		append(prop);
+		super();
+		setLogger(logger);
+		setDelimiterParsingDisabled(true);
+		prop.sharedRoot = true;
+		super.setRootNode(prop.getRootNode());
+		sharedRoot = true;
 	}
 
 	public PropertyUtil(String... file) {
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.util;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.impl.LogFactoryImpl;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+
+/**
+ * Writes base64 screen-shots to file. File name is reserved and returned
+ * immediately, decoding and writing is done by bounded background executor
+ * unless {@link ApplicationProperties#SCREENSHOT_ASYNC} is false. When queue
+ * is full screen-shot is written on calling thread, which is counted as
+ * {@link #getInlineCount() back-pressure}. Capture identical to the previous
+ * capture of the same thread is not written again, file name of previous
+ * capture is returned instead. Screen-shot can be downscaled or saved as jpg
+ * using {@link ApplicationProperties#SCREENSHOT_SCALE} and
+ * {@link ApplicationProperties#SCREENSHOT_FORMAT}.
+ * 
+ * @author chirag.jayswal
+ */
+public final class ScreenShotWriter {
+	private static final Log logger = LogFactoryImpl.getLog(ScreenShotWriter.class);
+	private static final ThreadLocal<Capture> LAST_CAPTURE = new ThreadLocal<Capture>();
+	private static final Object LOCK = new Object();
+
+	private static final AtomicInteger pending = new AtomicInteger();
+	private static final AtomicInteger maxPending = new AtomicInteger();
+	private static final AtomicLong written = new AtomicLong();
+	private static final AtomicLong inline = new AtomicLong();
+	private static final AtomicLong deduplicated = new AtomicLong();
+	private static final AtomicLong failed = new AtomicLong();
+	private static ThreadPoolExecutor pool;
+
+	private ScreenShotWriter() {
+	}
+
+	/**
+	 * @param base64Image
+	 *            screen-shot as base64 png
+	 * @param prefix
+	 *            file name prefix
+	 * @param dir
+	 *            directory to save screen-shot
+	 * @return name of file that has or will have screen-shot
+	 * @throws IOException
+	 */
+	public static String write(String base64Image, String prefix, String dir) throws IOException {
+		Capture last = LAST_CAPTURE.get();
+		if ((null != last) && last.isSame(base64Image, dir)) {
+			deduplicated.incrementAndGet();
+			return last.fileName;
+		}
+		String format = getFormat();
+		File file;
+		synchronized (LOCK) {
+			// generateFile uses shared counter
+			file = FileUtil.generateFile(prefix, "." + format, dir);
+		}
+		LAST_CAPTURE.set(new Capture(base64Image, dir, file.getName()));
+
+		WriteTask task = new WriteTask(base64Image, file, format, getScale());
+		if (ApplicationProperties.SCREENSHOT_ASYNC.getBoolenVal(true)) {
+			int count = pending.incrementAndGet();
+			updateMaxPending(count);
+			getPool().execute(task);
+		} else {
+			task.save();
+		}
+		return file.getName();
+	}
+
+	/**
+	 * Waits till all submitted screen-shots are written.
+	 */
+	public static void flush() {
+		synchronized (LOCK) {
+			while (pending.get() > 0) {
+				try {
+					LOCK.wait(1000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits till all submitted screen-shots are written and stops background
+	 * executor.
+	 */
+	public static void awaitTermination() {
+		flush();
+		synchronized (LOCK) {
+			if (null != pool) {
+				pool.shutdown();
+				pool = null;
+				logger.info(String.format(
+						"Screenshot writer: written %d, written on test thread %d, duplicates %d, failed %d, max pending %d",
+						written.get(), inline.get(), deduplicated.get(), failed.get(), maxPending.get()));
+			}
+		}
+	}
+
+	/**
+	 * @return number of screen-shots waiting to be written
+	 */
+	public static int getPendingCount() {
+		return pending.get();
+	}
+
+	/**
+	 * @return max number of screen-shots that were waiting to be written at a
+	 *         time
+	 */
+	public static int getMaxPendingCount() {
+		return maxPending.get();
+	}
+
+	/**
+	 * @return number of screen-shots written
+	 */
+	public static long getWrittenCount() {
+		return written.get();
+	}
+
+	/**
+	 * @return number of screen-shots written on calling thread because queue
+	 *         was full
+	 */
+	public static long getInlineCount() {
+		return inline.get();
+	}
+
+	/**
+	 * @return number of captures not written because same as previous
+	 *         capture
+	 */
+	public static long getDeduplicatedCount() {
+		return deduplicated.get();
+	}
+
+	/**
+	 * @return number of screen-shots failed to write
+	 */
+	public static long getFailedCount() {
+		return failed.get();
+	}
+
+	private static void updateMaxPending(int count) {
+		int max;
+		while (count > (max = maxPending.get())) {
+			if (maxPending.compareAndSet(max, count)) {
+				return;
+			}
+		}
+	}
+
+	private static ThreadPoolExecutor getPool() {
+		synchronized (LOCK) {
+			if (null == pool) {
+				int threads = Math.min(2, Runtime.getRuntime().availableProcessors());
+				pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+						new ArrayBlockingQueue<Runnable>(
+								Math.max(1, ApplicationProperties.SCREENSHOT_QUEUE_SIZE.getIntVal(50))),
+						new WriterThreadFactory(), new RejectedExecutionHandler() {
+							@Override
+							public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+								// back-pressure: write on calling thread
+								inline.incrementAndGet();
+								r.run();
+							}
+						});
+				pool.allowCoreThreadTimeOut(true);
+			}
+			return pool;
+		}
+	}
+
+	private static String getFormat() {
+		String format = ApplicationProperties.SCREENSHOT_FORMAT.getStringVal("png").trim().toLowerCase();
+		format = "jpeg".equals(format) ? "jpg" : format;
+		if (!"png".equals(format) && !ImageIO.getImageWritersByFormatName(format).hasNext()) {
+			logger.warn("No image writer for screenshot format " + format + ", using png");
+			return "png";
+		}
+		return format;
+	}
+
+	private static double getScale() {
+		try {
+			double scale = Double.parseDouble(ApplicationProperties.SCREENSHOT_SCALE.getStringVal("1"));
+			return (scale > 0) && (scale < 1) ? scale : 1;
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+	private static class Capture {
+		private final int hash;
+		private final String base64Image;
+		private final String dir;
+		private final String fileName;
+
+		Capture(String base64Image, String dir, String fileName) {
+			hash = base64Image.hashCode();
+			this.base64Image = base64Image;
+			this.dir = dir;
+			this.fileName = fileName;
+		}
+
+		boolean isSame(String base64Image, String dir) {
+			return (hash == base64Image.hashCode()) && this.dir.equals(dir) && this.base64Image.equals(base64Image);
+		}
+	}
+
+	private static class WriteTask implements Runnable {
+		private final String base64Image;
+		private final File file;
+		private final String format;
+		private final double scale;
+
+		WriteTask(String base64Image, File file, String format, double scale) {
+			this.base64Image = base64Image;
+			this.file = file;
+			this.format = format;
+			this.scale = scale;
+		}
+
+		@Override
+		public void run() {
+			try {
+				save();
+			} catch (Exception e) {
+				failed.incrementAndGet();
+				logger.error("Unable to write screenshot " + file, e);
+			} finally {
+				if (pending.decrementAndGet() == 0) {
+					synchronized (LOCK) {
+						LOCK.notifyAll();
+					}
+				}
+			}
+		}
+
+		void save() throws IOException {
+			byte[] decoded = Base64.decodeBase64(base64Image.getBytes());
+			BufferedImage image = ("png".equals(format) && (scale == 1)) ? null
+					: ImageIO.read(new ByteArrayInputStream(decoded));
+			if ((null == image) || !ImageIO.write(convert(image), format, file)) {
+				if (null != image) {
+					logger.warn("Unable to write screenshot as " + format + ", writing png " + file);
+				}
+				write(decoded);
+			}
+			written.incrementAndGet();
+		}
+
+		private void write(byte[] decoded) throws IOException {
+			FileOutputStream fos = new FileOutputStream(file);
+			try {
+				fos.write(decoded);
+			} finally {
+				fos.close();
+			}
+		}
+
+		private BufferedImage convert(BufferedImage image) {
+			int width = Math.max(1, (int) (image.getWidth() * scale));
+			int height = Math.max(1, (int) (image.getHeight() * scale));
+			// jpg doesn't support alpha
+			int type = "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+			BufferedImage converted = new BufferedImage(width, height, type);
+			Graphics2D g = converted.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.drawImage(image, 0, 0, width, height, null);
+			} finally {
+				g.dispose();
+			}
+			return converted;
+		}
+	}
+
+	private static class WriterThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "qaf-screenshot-writer-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
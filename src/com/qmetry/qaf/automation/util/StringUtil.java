@@ -27,7 +27,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -35,10 +37,14 @@ import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang.StringUtils;
@@ -503,6 +509,12 @@ public class StringUtil extends StringUtils {
 	}
 
 	/**
+	 * Evaluates java script expression using script engine of current thread.
+	 * Expression is compiled once (when engine supports it) and reused for
+	 * subsequent calls. Context entries are available to expression as
+	 * variables and take precedence over built-in objects with same name, for
+	 * example <code>Date</code>. Variables assigned by expression are not
+	 * visible to subsequent calls.
 	 * 
 	 * @param expression
 	 * @param context
@@ -512,12 +524,93 @@ public class StringUtil extends StringUtils {
 	@SuppressWarnings("unchecked")
 	public static <T> T eval(String expression, Map<? extends String, ? extends Object> context)
 			throws ScriptException {
-		ScriptEngineManager engineManager = new ScriptEngineManager();
-		ScriptEngine jsEngine = engineManager.getEngineByName("JavaScript");
-		jsEngine.getBindings(ScriptContext.ENGINE_SCOPE).putAll(context);
-		return (T) jsEngine.eval(expression);
+		return (T) SCRIPT_EVALUATOR.get().eval(expression, context);
 	}
 
+	private static final ThreadLocal<ScriptEvaluator> SCRIPT_EVALUATOR = new ThreadLocal<ScriptEvaluator>() {
+		@Override
+		protected ScriptEvaluator initialValue() {
+			return new ScriptEvaluator();
+		}
+	};
+
+	/**
+	 * Script engine with compiled expressions. Not thread-safe, one instance
+	 * per thread.
+	 */
+	private static class ScriptEvaluator {
+		private static final int MAX_COMPILED_SCRIPTS = 500;
+		private final ScriptEngine engine = new ScriptEngineManager().getEngineByName("JavaScript");
+		private final Map<String, CompiledScript> compiledScripts = new LinkedHashMap<String, CompiledScript>(16,
+				0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+				return size() > MAX_COMPILED_SCRIPTS;
+			}
+		};
+		// engine scope reused across evaluations
+		private ScriptContext scriptContext;
+
+		Object eval(String expression, Map<? extends String, ? extends Object> context) throws ScriptException {
+			if (null == engine) {
+				throw new ScriptException("JavaScript engine not available to evaluate: " + expression);
+			}
+			if (null == scriptContext) {
+				resetScope();
+			}
+			// context in engine scope takes precedence over built-in objects
+			Bindings bindings = scriptContext.getBindings(ScriptContext.ENGINE_SCOPE);
+			Map<String, Object> shadowed = new HashMap<String, Object>();
+			if (null != context) {
+				for (Map.Entry<? extends String, ? extends Object> entry : context.entrySet()) {
+					if (bindings.containsKey(entry.getKey()) && !shadowed.containsKey(entry.getKey())) {
+						shadowed.put(entry.getKey(), bindings.get(entry.getKey()));
+					}
+					bindings.put(entry.getKey(), entry.getValue());
+				}
+			}
+			try {
+				if (!(engine instanceof Compilable)) {
+					return engine.eval(expression, scriptContext);
+				}
+				CompiledScript compiledScript = compiledScripts.get(expression);
+				if (null == compiledScript) {
+					compiledScript = ((Compilable) engine).compile(expression);
+					compiledScripts.put(expression, compiledScript);
+				}
+				return compiledScript.eval(scriptContext);
+			} finally {
+				clear(bindings, shadowed);
+			}
+		}
+
+		/**
+		 * Removes context and variables assigned by expression and restores
+		 * built-in objects shadowed by context, so engine scope can be reused
+		 * for next evaluation.
+		 */
+		private void clear(Bindings bindings, Map<String, Object> shadowed) {
+			bindings.putAll(shadowed);
+			for (String key : new ArrayList<String>(bindings.keySet())) {
+				if (!shadowed.containsKey(key)) {
+					bindings.remove(key);
+				}
+			}
+			if (!bindings.keySet().isEmpty()) {
+				// variable declared by expression can't be removed
+				resetScope();
+			}
+		}
+
+		private void resetScope() {
+			scriptContext = new SimpleScriptContext();
+			scriptContext.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+		}
+	}
+
+
 	/**
 	 * Try to convert a string into java primitive type, java object or null. If the
 	 * string can't be converted, return the string. It will return null for empty string.
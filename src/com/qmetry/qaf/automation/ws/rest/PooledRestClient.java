@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ws.rest;
+
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.REST_CLIENT_POOL_HOST_LIMITS;
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.REST_CLIENT_POOL_MAX_PER_HOST;
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.REST_CLIENT_POOL_MAX_TOTAL;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+
+import com.google.gson.Gson;
+import com.qmetry.qaf.automation.util.StringUtil;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
+import com.sun.jersey.client.apache.ApacheHttpClient;
+import com.sun.jersey.client.apache.ApacheHttpClientHandler;
+import com.sun.jersey.multipart.impl.MultiPartWriter;
+
+/**
+ * Rest client factory that shares pool of keep-alive connections across all
+ * tests. Each test context gets its own client, with its own request logger
+ * and tracker, backed by the same thread-safe connection pool. To use it set
+ * <code>rest.client.impl</code> to this class. Pool limits can be configured
+ * using {@link com.qmetry.qaf.automation.keys.ApplicationProperties#REST_CLIENT_POOL_MAX_TOTAL
+ * rest.client.pool.max.total},
+ * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#REST_CLIENT_POOL_MAX_PER_HOST
+ * rest.client.pool.max.per.host} and
+ * {@link com.qmetry.qaf.automation.keys.ApplicationProperties#REST_CLIENT_POOL_HOST_LIMITS
+ * rest.client.pool.host.limits}.
+ * 
+ * @author chirag.jayswal
+ */
+public class PooledRestClient extends DefaultRestClient {
+	private static ApacheHttpClientHandler handler;
+
+	public PooledRestClient() {
+		super(createClient(getHandler()));
+	}
+
+	private static Client createClient(ApacheHttpClientHandler handler) {
+		ClientConfig config = new DefaultClientConfig();
+		config.getClasses().add(MultiPartWriter.class);
+		return new ApacheHttpClient(handler, config, null);
+	}
+
+	/**
+	 * @return handler with connection pool shared by all clients
+	 */
+	static synchronized ApacheHttpClientHandler getHandler() {
+		if (null == handler) {
+			MultiThreadedHttpConnectionManager connectionManager = new MultiThreadedHttpConnectionManager();
+			configure(connectionManager.getParams());
+			handler = new ApacheHttpClientHandler(new HttpClient(connectionManager));
+		}
+		return handler;
+	}
+
+	/**
+	 * Closes all pooled connections. Next client will create new pool.
+	 */
+	public static synchronized void shutdown() {
+		if (null != handler) {
+			((MultiThreadedHttpConnectionManager) handler.getHttpClient().getHttpConnectionManager()).shutdown();
+			handler = null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static void configure(HttpConnectionManagerParams params) {
+		params.setMaxTotalConnections(REST_CLIENT_POOL_MAX_TOTAL.getIntVal(100));
+		params.setDefaultMaxConnectionsPerHost(REST_CLIENT_POOL_MAX_PER_HOST.getIntVal(20));
+
+		String hostLimits = REST_CLIENT_POOL_HOST_LIMITS.getStringVal();
+		if (StringUtil.isBlank(hostLimits)) {
+			return;
+		}
+		Map<String, Object> limits = new Gson().fromJson(hostLimits, Map.class);
+		for (Entry<String, Object> limit : limits.entrySet()) {
+			URI uri = URI.create(limit.getKey());
+			HostConfiguration hostConfiguration = new HostConfiguration();
+			hostConfiguration.setHost(uri.getHost(), uri.getPort(),
+					StringUtil.isBlank(uri.getScheme()) ? "http" : uri.getScheme());
+			params.setMaxConnectionsPerHost(hostConfiguration, ((Number) limit.getValue()).intValue());
+		}
+	}
+}
@@ -21,12 +21,16 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.ws.rest;
 
+import static com.qmetry.qaf.automation.keys.ApplicationProperties.REST_LOG_ENTITY_MAX;
+
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -62,6 +66,8 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 
 	private static final String RESPONSE_PREFIX = "<< ";
 
+	private static final String TRUNCATED = "...[truncated]";
+
 	// private long startTime, resStartTime, endTime;
 
 	private final class Adapter extends AbstractClientRequestAdapter {
@@ -81,7 +87,7 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 	private final class LoggingOutputStream extends OutputStream {
 		private final OutputStream out;
 
-		private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		private final EntityBuffer baos = new EntityBuffer(maxEntitySize);
 
 		private final StringBuilder b;
 
@@ -110,14 +116,48 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 
 		@Override
 		public void close() throws IOException {
-			printEntity(b, baos.toByteArray());
+			printEntity(b, baos.toByteArray(), baos.truncated);
 			log(b.toString());
 			out.close();
 		}
 	}
 
+	/**
+	 * Keeps entity bytes up to max size, rest of the bytes are discarded.
+	 */
+	private static final class EntityBuffer extends ByteArrayOutputStream {
+		private final int max;
+		private boolean truncated;
+
+		EntityBuffer(int max) {
+			this.max = max;
+		}
+
+		@Override
+		public synchronized void write(int b) {
+			if (max <= 0 || count < max) {
+				super.write(b);
+			} else {
+				truncated = true;
+			}
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			int n = max <= 0 ? len : Math.min(len, max - count);
+			if (n < len) {
+				truncated = true;
+			}
+			if (n > 0) {
+				super.write(b, off, n);
+			}
+		}
+	}
+
 	private final PrintStream loggingStream;
 
+	private final int maxEntitySize = REST_LOG_ENTITY_MAX.getIntVal(0);
+
 	private long _id = 0;
 
 	/**
@@ -177,7 +217,11 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 		printRequestLine(b, id, request);
 		printRequestHeaders(b, id, request.getHeaders());
 		if (request.getEntity() != null) {
-			prefixId(b, id).append(REQUEST_PREFIX).append(request.getEntity());
+			String entity = String.valueOf(request.getEntity());
+			if (maxEntitySize > 0 && entity.length() > maxEntitySize) {
+				entity = entity.substring(0, maxEntitySize) + TRUNCATED;
+			}
+			prefixId(b, id).append(REQUEST_PREFIX).append(entity);
 			request.setAdapter(new Adapter(request.getAdapter(), b));
 		}
 		log(b.toString());
@@ -218,14 +262,8 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 		printResponseLine(b, id, response);
 		printResponseHeaders(b, id, response.getHeaders());
 
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		InputStream in = response.getEntityInputStream();
 		try {
-			ReaderWriter.writeTo(in, out);
-
-			byte[] requestEntity = out.toByteArray();
-			printEntity(b, requestEntity);
-			response.setEntityInputStream(new ByteArrayInputStream(requestEntity));
+			printResponseEntity(b, response);
 		} catch (IOException ex) {
 			throw new ClientHandlerException(ex);
 		}
@@ -233,6 +271,39 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 		return b;
 	}
 
+	/**
+	 * Reads entity up to max size for logging. If entity is larger, response
+	 * entity stream continues with bytes read followed by remaining stream, so
+	 * the entity is never held in memory completely.
+	 */
+	private void printResponseEntity(StringBuilder b, ClientResponse response) throws IOException {
+		InputStream in = response.getEntityInputStream();
+		if (maxEntitySize <= 0) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ReaderWriter.writeTo(in, out);
+
+			byte[] responseEntity = out.toByteArray();
+			printEntity(b, responseEntity, false);
+			response.setEntityInputStream(new ByteArrayInputStream(responseEntity));
+			return;
+		}
+		// one extra byte to know whether there is more
+		byte[] head = new byte[maxEntitySize + 1];
+		int len = 0;
+		int n;
+		while (len < head.length && (n = in.read(head, len, head.length - len)) != -1) {
+			len += n;
+		}
+		if (len < head.length) {
+			in.close();
+			printEntity(b, Arrays.copyOf(head, len), false);
+			response.setEntityInputStream(new ByteArrayInputStream(head, 0, len));
+		} else {
+			printEntity(b, Arrays.copyOf(head, maxEntitySize), true);
+			response.setEntityInputStream(new SequenceInputStream(new ByteArrayInputStream(head), in));
+		}
+	}
+
 	private void printResponseLine(StringBuilder b, long id, ClientResponse response) {
 		prefixId(b, id).append(NOTIFICATION_PREFIX).append("Client in-bound response").append("\n");
 		prefixId(b, id).append(RESPONSE_PREFIX).append(Integer.toString(response.getStatus())).append("\n");
@@ -248,11 +319,15 @@ public class RequestLogger extends ClientFilter implements OnStartConnectionList
 		prefixId(b, id).append(RESPONSE_PREFIX).append("\n");
 	}
 
-	private void printEntity(StringBuilder b, byte[] entity) throws IOException {
+	private void printEntity(StringBuilder b, byte[] entity, boolean truncated) throws IOException {
 		if (entity.length == 0) {
 			return;
 		}
-		b.append(new String(entity)).append("\n");
+		b.append(new String(entity));
+		if (truncated) {
+			b.append(TRUNCATED);
+		}
+		b.append("\n");
 	}
 
 	private StringBuilder noPrifix(StringBuilder sb) {
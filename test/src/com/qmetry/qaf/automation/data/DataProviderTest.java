@@ -31,6 +31,7 @@ import com.qmetry.qaf.automation.impl.CustomDataProvider;
 import com.qmetry.qaf.automation.impl.Item;
 import com.qmetry.qaf.automation.impl.LoginBean;
 import com.qmetry.qaf.automation.testng.dataprovider.QAFDataProvider;
+import com.qmetry.qaf.automation.testng.dataprovider.QAFInetrceptableDataProvider;
 import com.qmetry.qaf.automation.util.Validator;
 
 /**
@@ -81,6 +82,22 @@ public class DataProviderTest{
 		Validator.assertThat(data.get("id"), Matchers.isIn(new Object[]{1,2,3}));
 	}
 	
+	@MetaData("{'from':2,'to':3}")
+	@QAFDataProvider(dataFile = "resources/testdata.txt", filter = "number>20")
+	@Test(description = "filter and slice csv data", dataProvider = QAFDataProvider.NAME, dataProviderClass = QAFInetrceptableDataProvider.class)
+	public void testCsvFilterFromTo(Map<String, Object> data) {
+		Validator.assertThat(data.get("TestCaseId"), Matchers.isIn(new Object[] { "TC-Quote1", "TC-Quote12" }));
+		Validator.assertThat(data.get("__index"), Matchers.isIn(new Object[] { 2, 3 }));
+		Validator.assertThat(data.get("__baseindex"), Matchers.isIn(new Object[] { 3, 4 }));
+	}
+
+	@MetaData("{'indices':[2,0]}")
+	@QAFDataProvider(dataFile = "resources/testdata.txt")
+	@Test(description = "csv data indices [2,0]", dataProvider = QAFDataProvider.NAME, dataProviderClass = QAFInetrceptableDataProvider.class)
+	public void testCsvIndices(Map<String, Object> data) {
+		Validator.assertThat(data.get("TestCaseId"), Matchers.isIn(new Object[] { "TC-001", "TC-Quote1" }));
+	}
+
 	@Test(dataProvider="dp-for-filter", dataProviderClass=CustomDataProvider.class)
 	public void testArgs(LoginBean bean, Item item){
 		Validator.assertThat(bean, Matchers.notNullValue());
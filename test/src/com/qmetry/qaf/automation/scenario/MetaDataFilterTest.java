@@ -22,6 +22,8 @@
 package com.qmetry.qaf.automation.scenario;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -31,6 +33,7 @@ import org.testng.annotations.Test;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.qmetry.qaf.automation.data.MetaDataFilter;
 import com.qmetry.qaf.automation.data.MetaDataScanner;
 
 public class MetaDataFilterTest {
@@ -51,6 +54,11 @@ public class MetaDataFilterTest {
 				excludeMeta);
 
 		Assert.assertEquals(binclude, expectedOutcome);
+
+		// same outcome using index
+		MetaDataFilter filter = MetaDataFilter.compile(includeMetastr, excludeMetastr);
+		BitSet selected = filter.select(Collections.singletonList(scenarioMetadata));
+		Assert.assertEquals(selected.get(0), expectedOutcome);
 	}
 	/*
 	 * It contains tests with below different scenarios
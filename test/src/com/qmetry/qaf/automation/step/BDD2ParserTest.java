@@ -21,16 +21,22 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.step;
 
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
 import org.hamcrest.Matchers;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.DefaultBDDStepMatcher;
 import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.GherkinStepMatcher;
 import com.qmetry.qaf.automation.step.client.Scenario;
@@ -132,6 +138,46 @@ public class BDD2ParserTest {
 		}
 	}
 
+	@Test
+	public void parseFilesInParallelWithCache() throws Exception {
+		List<String> files = Arrays.asList("resources/features/gherkin.feature",
+				"resources/features/featureWithDetails.feature", "resources/features/gherkinWithBackground.feature",
+				"resources/scenarios2/featureWithDetails2.feature");
+		List<String> expected = new ArrayList<String>();
+		for (String file : files) {
+			List<Scenario> scenarios = new ArrayList<Scenario>();
+			new BDDFileParser2().parse(file, scenarios);
+			expected.addAll(getNames(scenarios));
+		}
+
+		File cacheDir = File.createTempFile("scenariocache", "");
+		cacheDir.delete();
+		getBundle().setProperty(ApplicationProperties.SCENARIO_CACHE_DIR.key, cacheDir.getPath());
+		try {
+			List<Scenario> scenarios = new ArrayList<Scenario>();
+			new BDDFileParser2().parse(files, scenarios);
+			Validator.assertThat(getNames(scenarios), Matchers.equalTo(expected));
+			Validator.assertThat(cacheDir.list(), Matchers.arrayWithSize(files.size()));
+
+			// from cache
+			scenarios = new ArrayList<Scenario>();
+			new BDDFileParser2().parse(files, scenarios);
+			Validator.assertThat(getNames(scenarios), Matchers.equalTo(expected));
+			Validator.assertThat("Steps in scenario", scenarios.get(0).getSteps(), Matchers.hasSize(4));
+		} finally {
+			getBundle().clearProperty(ApplicationProperties.SCENARIO_CACHE_DIR.key);
+			FileUtils.deleteDirectory(cacheDir);
+		}
+	}
+
+	private static List<String> getNames(List<Scenario> scenarios) {
+		List<String> names = new ArrayList<String>();
+		for (Scenario scenario : scenarios) {
+			names.add(scenario.getTestName());
+		}
+		return names;
+	}
+
 	@Test(dataProvider = "testQAFStepMathcerDP")
 	public void testQAFStepMathcer(String stepDescription, String stepCall, boolean expectedMathch, Object[] expectedArgs) {
 		BDDStepMatcher matcher = new  DefaultBDDStepMatcher();
@@ -62,4 +62,22 @@ public class BDDKeywordTest {
 			Validator.assertThat(keywordFromBdd, Matchers.equalToIgnoringCase(keyword));
 		}
 	}
+
+	@Test
+	public void keywordSynonymChangeTest() {
+		ConfigurationManager.getBundle().setProperty("Having", "Possessing");
+		Validator.assertThat(BDDKeyword.getKeywordFrom("Possessing some step"),
+				Matchers.equalTo("Possessing"));
+
+		// compiled keyword pattern should reflect changed synonyms
+		ConfigurationManager.getBundle().setProperty("Having", "Owning");
+		Validator.assertThat(BDDKeyword.getKeywordFrom("Possessing some step"),
+				Matchers.equalTo(""));
+		Validator.assertThat(BDDKeyword.getKeywordFrom("Owning some step"),
+				Matchers.equalTo("Owning"));
+
+		ConfigurationManager.getBundle().clearProperty("Having");
+		Validator.assertThat(BDDKeyword.getKeywordFrom("Owning some step"),
+				Matchers.equalTo(""));
+	}
 }
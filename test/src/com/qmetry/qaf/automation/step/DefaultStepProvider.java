@@ -23,6 +23,7 @@ package com.qmetry.qaf.automation.step;
 
 import org.testng.Assert;
 
+import com.qmetry.qaf.automation.data.MetaData;
 import com.qmetry.qaf.automation.step.QAFTestStep;
 import com.qmetry.qaf.automation.step.QAFTestStepProvider;
 
@@ -48,4 +49,12 @@ public class DefaultStepProvider {
 		System.out.println("anotherStep invoked!.....");
 	}
 
+	/**
+	 * first call starts and second call ends transaction
+	 */
+	@MetaData("{'qafstep-transaction':true}")
+	@QAFTestStep(stepName = "transaction", description = "transaction {0} with threshold {1}")
+	public static void transaction(String name, String threshold) {
+	}
+
 }
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.DefaultBDDStepMatcher;
+import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.GherkinStepMatcher;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class StepIndexTest {
+
+	@Test
+	public void testLiterals() {
+		BDDStepMatcher qaf = new DefaultBDDStepMatcher();
+		BDDStepMatcher gherkin = new GherkinStepMatcher();
+
+		Validator.assertThat(Arrays.asList(StepIndex.getLiterals("click on {loc} button", qaf)),
+				Matchers.containsInAnyOrder("CLICK", "ON", "BUTTON"));
+		Validator.assertThat(Arrays.asList(StepIndex.getLiterals("{0}items in {cart name}", qaf)),
+				Matchers.containsInAnyOrder("IN"));
+		Validator.assertThat(Arrays.asList(StepIndex.getLiterals("^I have (\\d+) cukes? in my (?:big )?belly$", gherkin)),
+				Matchers.containsInAnyOrder("I", "HAVE", "IN", "MY"));
+
+		Validator.assertThat(StepIndex.getLiterals("login|sign in", qaf), Matchers.nullValue());
+		Validator.assertThat(StepIndex.getLiterals("I am on page ?home", gherkin), Matchers.nullValue());
+		Validator.assertThat(StepIndex.getLiterals("the following data:$", gherkin), Matchers.nullValue());
+		Validator.assertThat(StepIndex.getLiterals("{param}", qaf), Matchers.nullValue());
+	}
+
+	@Test
+	public void testCandidates() {
+		TestStep click = new IndexedStep("click", "click on {loc}", new DefaultBDDStepMatcher());
+		TestStep type = new IndexedStep("type", "type {text} into {loc}", new DefaultBDDStepMatcher());
+		TestStep cukes = new IndexedStep("cukes", "^I have (\\d+) cukes$", new GherkinStepMatcher());
+		TestStep any = new IndexedStep("any", "(.*)", new GherkinStepMatcher());
+
+		StepIndex index = new StepIndex(Arrays.asList(click, type, cukes, any));
+		List<TestStep> candidates = index.getCandidates("Click on 'button'");
+		Validator.assertThat(candidates, Matchers.contains(click, any));
+
+		candidates = index.getCandidates("i HAVE 5 cukes");
+		Validator.assertThat(candidates, Matchers.contains(cukes, any));
+
+		Validator.assertThat(index.find("type 'abc' into 'textbox'", new HashMap<String, Object>()),
+				Matchers.sameInstance(type));
+		Validator.assertThat(index.find("I have 5 cukes", new HashMap<String, Object>()),
+				Matchers.sameInstance(cukes));
+		// resolved from cache
+		Validator.assertThat(index.find("I have 5 cukes", new HashMap<String, Object>()),
+				Matchers.sameInstance(cukes));
+		// no literal step matches, falls back to step without literals
+		Validator.assertThat(index.find("type into", new HashMap<String, Object>()),
+				Matchers.sameInstance(any));
+	}
+
+	@Test
+	public void testMappingInvalidatesIndex() {
+		StepMapping mapping = new StepMapping();
+		mapping.put("CLICK", new IndexedStep("click", "click on {loc}", new DefaultBDDStepMatcher()));
+		Validator.assertThat(mapping.getIndex().find("submit form", new HashMap<String, Object>()),
+				Matchers.nullValue());
+
+		TestStep submit = new IndexedStep("submit", "submit form", new DefaultBDDStepMatcher());
+		mapping.put("SUBMIT", submit);
+		Validator.assertThat(mapping.getIndex().size(), Matchers.equalTo(2));
+		Validator.assertThat(mapping.getIndex().find("submit form", new HashMap<String, Object>()),
+				Matchers.sameInstance(submit));
+	}
+
+	@Test
+	public void testMappingViewsAndDefaultMethodsInvalidateIndex() {
+		StepMapping mapping = new StepMapping();
+		final TestStep submit = new IndexedStep("submit", "submit form", new DefaultBDDStepMatcher());
+		mapping.computeIfAbsent("SUBMIT", new Function<String, TestStep>() {
+			@Override
+			public TestStep apply(String key) {
+				return submit;
+			}
+		});
+		Validator.assertThat(mapping.getIndex().size(), Matchers.equalTo(1));
+
+		mapping.keySet().remove("SUBMIT");
+		Validator.assertThat(mapping.getIndex().size(), Matchers.equalTo(0));
+
+		mapping.merge("SUBMIT", submit, new BiFunction<TestStep, TestStep, TestStep>() {
+			@Override
+			public TestStep apply(TestStep oldStep, TestStep newStep) {
+				return newStep;
+			}
+		});
+		Validator.assertThat(mapping.getIndex().size(), Matchers.equalTo(1));
+
+		final TestStep click = new IndexedStep("click", "click on {loc}", new DefaultBDDStepMatcher());
+		mapping.replaceAll(new BiFunction<String, TestStep, TestStep>() {
+			@Override
+			public TestStep apply(String key, TestStep step) {
+				return click;
+			}
+		});
+		Validator.assertThat(mapping.getIndex().find("submit form", new HashMap<String, Object>()),
+				Matchers.nullValue());
+
+		Iterator<Map.Entry<String, TestStep>> iter = mapping.entrySet().iterator();
+		iter.next();
+		iter.remove();
+		Validator.assertThat(mapping.getIndex().size(), Matchers.equalTo(0));
+		Validator.assertThat(mapping.isEmpty(), Matchers.is(true));
+	}
+
+	@Test
+	public void testStepAddedWhileIndexBuilding() throws Exception {
+		final CountDownLatch building = new CountDownLatch(1);
+		final CountDownLatch added = new CountDownLatch(1);
+		final StepMapping mapping = new StepMapping();
+		mapping.put("CLICK", new IndexedStep("click", "click on {loc}", new DefaultBDDStepMatcher()) {
+			@Override
+			public BDDStepMatcher getStepMatcher() {
+				building.countDown();
+				try {
+					added.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.getStepMatcher();
+			}
+		});
+		Thread builder = new Thread() {
+			@Override
+			public void run() {
+				mapping.getIndex();
+			}
+		};
+		builder.start();
+		building.await(5, TimeUnit.SECONDS);
+
+		TestStep submit = new IndexedStep("submit", "submit form", new DefaultBDDStepMatcher());
+		mapping.put("SUBMIT", submit);
+		added.countDown();
+		builder.join(5000);
+
+		Validator.assertThat(mapping.getIndex().find("submit form", new HashMap<String, Object>()),
+				Matchers.sameInstance(submit));
+	}
+
+	private static class IndexedStep extends BaseTestStep {
+		IndexedStep(String name, String description, BDDStepMatcher matcher) {
+			super(name, description);
+			setStepMatcher(matcher);
+		}
+
+		@Override
+		public String getSignature() {
+			return name;
+		}
+
+		@Override
+		public TestStep clone() {
+			return new IndexedStep(name, description, stepMatcher);
+		}
+
+		@Override
+		protected Object doExecute() {
+			return null;
+		}
+	}
+}
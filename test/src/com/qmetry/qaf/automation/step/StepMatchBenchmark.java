@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.text.StrLookup;
+import org.apache.commons.lang.text.StrSubstitutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.DefaultBDDStepMatcher;
+import com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper;
+import com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper.BDDKeyword;
+import com.qmetry.qaf.automation.step.client.text.BDDDefinitionHelper.ParamType;
+import com.qmetry.qaf.automation.util.JSONUtil;
+import com.qmetry.qaf.automation.util.StringMatcher;
+import com.qmetry.qaf.automation.util.StringUtil;
+
+/**
+ * Compares {@link DefaultBDDStepMatcher#matches(String, String, Map)} with
+ * previous implementation, kept here as
+ * {@link #previousMatches(String, String, Map)}, by finding step call in
+ * 5000 step definitions. Previous implementation compiled regular
+ * expressions on each call. Argument check of the only matching definition
+ * uses current implementation in both cases.
+ * <p>
+ * Requires jmh annotation processor while compiling test sources. Run with
+ * <code>ant benchmark -Dbenchmark.args=StepMatchBenchmark</code> or main
+ * method of this class.
+ * 
+ * @author chirag.jayswal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class StepMatchBenchmark {
+	private static final int STEPS = 5000;
+
+	private String[] definitions;
+	private BDDStepMatcher[] matchers;
+	private Map<String, Object> context;
+	private String call;
+
+	@Setup
+	public void setup() {
+		definitions = new String[STEPS];
+		matchers = new BDDStepMatcher[STEPS];
+		for (int i = 0; i < STEPS; i++) {
+			definitions[i] = "user performs action " + i + " with {value} on {target} page";
+			matchers[i] = new DefaultBDDStepMatcher();
+		}
+		context = new HashMap<String, Object>();
+		context.put("page", "home");
+		call = "When user performs action " + (STEPS - 1) + " with 'submit' on '${page}' page";
+	}
+
+	@Benchmark
+	public int matches() {
+		for (int i = 0; i < STEPS; i++) {
+			if (matchers[i].matches(definitions[i], call, context)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Benchmark
+	public int previousMatches() {
+		for (int i = 0; i < STEPS; i++) {
+			if (previousMatches(definitions[i], call, context)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Previous implementation of
+	 * {@link DefaultBDDStepMatcher#matches(String, String, Map)}.
+	 */
+	private static boolean previousMatches(String def, String call, Map<String, Object> context) {
+		def = Pattern.compile("\\\\\\((.*?)\\)").matcher(def).replaceAll("\\\\\\($1\\\\\\)");
+		def = Pattern.compile("\\\\\\{(.*?)\\}").matcher(def).replaceAll("\\\\\\{$1\\\\\\}");
+		call = previousReplaceParams(call, context);
+		call = previousQuoteParams(call);
+
+		String origDef = def;
+		def = def.replaceAll(ParamType.getParamDefRegx(), ParamType.getParamValueRegx().replaceAll("\\\\", "\\\\\\\\"));
+		if (!StringMatcher.likeIgnoringCase("(((" + previousKeyWordRegEx() + ")\\s)?" + def + ")").match(call)) {
+			return false;
+		}
+		return BDDDefinitionHelper.getArgNames(origDef).size() == BDDDefinitionHelper
+				.getArgsFromCall(origDef, call).size();
+	}
+
+	private static String previousKeyWordRegEx() {
+		StringBuilder sb = new StringBuilder("^(");
+		for (String keyword : BDDKeyword.getAllKeyWords()) {
+			sb.append(keyword);
+			sb.append("|");
+		}
+		sb.deleteCharAt(sb.length() - 1);
+		sb.append(")");
+		return sb.toString();
+	}
+
+	private static String previousReplaceParams(String stepCall, final Map<String, Object> context) {
+		Matcher m = Pattern.compile("(?<!\\\\)<([^>]).*?>").matcher(stepCall);
+		while (m.find()) {
+			String param = m.group();
+			stepCall = stepCall.replace(param, param.replace("<", "${").replace(">", "}"));
+		}
+		stepCall = stepCall.replace("\\<", "<");
+		stepCall = stepCall.replace("\"${", "\"<%{");
+		StrLookup lookup = new StrLookup() {
+			@Override
+			public String lookup(String var) {
+				Object prop = context.get(var);
+				if (prop == null) {
+					prop = getBundle().getSubstitutor().getVariableResolver().lookup(var);
+				}
+				return (prop != null) ? JSONUtil.toString(prop) : null;
+			}
+		};
+		stepCall = new StrSubstitutor(lookup).replace(stepCall);
+		return stepCall.replace("\"<%{", "\"${");
+	}
+
+	private static String previousQuoteParams(String call) {
+		Matcher matcher = Pattern.compile("(\\s|^)\\$\\{[\\w\\.]*}(\\s|$)").matcher(call);
+		String resultString = call;
+		while (matcher.find()) {
+			for (int i = 0; i <= matcher.groupCount(); i++) {
+				String unQuatedparam = matcher.group(i);
+				if (StringUtil.isNotBlank(unQuatedparam)) {
+					String quatedparam = unQuatedparam.replace("${", "'${").replace("}", "}'");
+					resultString = StringUtil.replace(resultString, unQuatedparam, quatedparam);
+				}
+			}
+		}
+		return resultString;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(StepMatchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
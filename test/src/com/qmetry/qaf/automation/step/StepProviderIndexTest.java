@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.step;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class StepProviderIndexTest {
+
+	@Test
+	public void testIndexRoundTrip() throws Exception {
+		File file = File.createTempFile("stepindex", ".properties");
+		file.delete();
+		try {
+			String pkg = StepProviderIndexTest.class.getPackage().getName();
+			String checksum = StepProviderIndex.getChecksum(pkg);
+			Validator.assertThat(checksum, Matchers.notNullValue());
+			Validator.assertThat(StepProviderIndex.getChecksum(pkg), Matchers.equalTo(checksum));
+
+			StepProviderIndex index = new StepProviderIndex(file.getPath());
+			Validator.assertThat(index.getClasses(pkg, checksum), Matchers.nullValue());
+			index.put(pkg, checksum, Arrays.<Class<?>> asList(SampleStepProvider.class, DefaultStepProvider.class));
+			index.save();
+
+			index = new StepProviderIndex(file.getPath());
+			List<Class<?>> classes = index.getClasses(pkg, checksum);
+			Validator.assertThat(classes,
+					Matchers.<Class<?>> contains(SampleStepProvider.class, DefaultStepProvider.class));
+			Validator.assertThat(index.getClasses(pkg, "changed"), Matchers.nullValue());
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -24,12 +24,19 @@ package com.qmetry.qaf.automation.step;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
 import com.google.gson.Gson;
+import com.qmetry.qaf.automation.core.CheckpointResultBean;
 import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.core.ExecutionLog;
+import com.qmetry.qaf.automation.core.LoggingBean;
+import com.qmetry.qaf.automation.core.MessageTypes;
+import com.qmetry.qaf.automation.core.QAFTestBase;
+import com.qmetry.qaf.automation.core.TestBaseProvider;
 import com.qmetry.qaf.automation.step.BDDStepMatcherFactory.GherkinStepMatcher;
 import com.qmetry.qaf.automation.util.JSONUtil;
 import com.qmetry.qaf.automation.util.Validator;
@@ -50,6 +57,111 @@ public class TestStepTest {
 
 	}
 
+	@Test(description = "step results are nested under step without copying previous results")
+	public void stepLogFrameTest() {
+		QAFTestBase stb = TestBaseProvider.instance().get();
+		List<CheckpointResultBean> checkPoints = stb.getCheckPointResults();
+		List<LoggingBean> commands = stb.getLog();
+		int size = checkPoints.size();
+		int commandsSize = commands.size();
+
+		StringTestStep.execute("step2", "first");
+		StringTestStep.execute("step2", "second");
+		Validator.assertThat(checkPoints, Matchers.hasSize(size + 2));
+		Validator.assertThat(commands, Matchers.hasSize(commandsSize + 2));
+		Validator.assertThat(checkPoints.get(size + 1).getType(), Matchers.equalTo(MessageTypes.TestStepPass.name()));
+		Validator.assertThat(((ExecutionLog<?>) checkPoints).getDepth(), Matchers.equalTo(0));
+		Validator.assertThat(((ExecutionLog<?>) commands).getDepth(), Matchers.equalTo(0));
+	}
+
+	@Test
+	public void executionLogRetentionTest() {
+		ExecutionLog<Integer> log = new ExecutionLog<Integer>(4);
+		log.add(0);
+		log.push();
+		for (int i = 1; i <= 10; i++) {
+			log.add(i);
+		}
+		Validator.assertThat(log.size(), Matchers.lessThanOrEqualTo(5));
+		Validator.assertThat(log.get(log.size() - 1), Matchers.equalTo(10));
+		Validator.assertThat(log.getDiscardedCount(), Matchers.greaterThan(0L));
+
+		List<Integer> frame = log.pop();
+		Validator.assertThat(frame, Matchers.hasItems(7, 8, 9, 10));
+		Validator.assertThat(log, Matchers.contains(0));
+	}
+
+	@Test
+	public void executionLogRetainedEntriesTest() {
+		ExecutionLog<Integer> log = new ExecutionLog<Integer>(4, new Predicate<Integer>() {
+			@Override
+			public boolean test(Integer entry) {
+				return entry % 5 == 0;
+			}
+		});
+		for (int i = 0; i <= 20; i++) {
+			log.add(i);
+		}
+		Validator.assertThat(log, Matchers.hasItems(0, 5, 10, 15, 20));
+		Validator.assertThat(log.get(log.size() - 2), Matchers.equalTo(19));
+		Validator.assertThat(log.getDiscardedCount(), Matchers.greaterThan(0L));
+	}
+
+	@Test(description = "retained entries are not checked again on each add")
+	public void executionLogManyRetainedEntriesTest() {
+		final int[] checks = new int[1];
+		ExecutionLog<Integer> log = new ExecutionLog<Integer>(4, new Predicate<Integer>() {
+			@Override
+			public boolean test(Integer entry) {
+				checks[0]++;
+				return entry % 2 == 0;
+			}
+		});
+		for (int i = 0; i < 1000; i++) {
+			log.add(i);
+		}
+		Validator.assertThat(countOdd(log), Matchers.lessThanOrEqualTo(4 + 500 / 4));
+		Validator.assertThat(log.size() - countOdd(log), Matchers.equalTo(500));
+		Validator.assertThat(log, Matchers.hasItems(0, 500, 998, 999));
+		Validator.assertThat(checks[0], Matchers.lessThan(10000));
+
+		// retained entries removed other than by add
+		log.removeIf(new Predicate<Integer>() {
+			@Override
+			public boolean test(Integer entry) {
+				return entry < 500;
+			}
+		});
+		for (int i = 1000; i < 2000; i++) {
+			log.add(i);
+		}
+		Validator.assertThat(log.size() - countOdd(log), Matchers.equalTo(750));
+		Validator.assertThat(countOdd(log), Matchers.lessThanOrEqualTo(4 + 750 / 4));
+		Validator.assertThat(log, Matchers.hasItems(500, 1998, 1999));
+	}
+
+	private int countOdd(List<Integer> entries) {
+		int count = 0;
+		for (Integer entry : entries) {
+			if (entry % 2 != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test(description = "transaction start step discarded by max entries limit")
+	public void transactionWithDiscardedStartTest() {
+		QAFTestBase stb = TestBaseProvider.instance().get();
+		StringTestStep.execute("transaction", "tx", "0");
+		stb.getLog().clear();
+		stb.getCheckPointResults().clear();
+		StringTestStep.execute("transaction", "tx", "0");
+
+		Validator.assertThat(stb.getCheckPointResults().get(0).getMessage(), Matchers.equalTo("tx"));
+		Validator.assertThat(stb.getLog().get(0).getCommandName(), Matchers.equalTo("transaction"));
+	}
+
 	@Test(description = "Method annotted with QAFTestStep in class which is not step provider")
 	public void stepExecuterTest() {
 		StringTestStep.execute("testStep", "aaa");
@@ -152,4 +264,43 @@ public class TestStepTest {
 
 		StringTestStep.execute("step from class extending another class", new Object[]{});
 
-	}}
+	}
+
+	@Test(description = "clone shares step definition and has own state")
+	public void javaStepCloneTest() throws Exception {
+		JavaStep step = new JavaStep(DefaultStepProvider.class.getMethod("step", String.class));
+		step.setActualArgs("world");
+		JavaStep clone = (JavaStep) step.clone();
+
+		Validator.assertThat(clone.getName(), Matchers.equalTo("step2"));
+		Validator.assertThat(clone.getDescription(), Matchers.equalTo("say hello to {0}"));
+		Validator.assertThat(clone.getStepMatcher(), Matchers.sameInstance(step.getStepMatcher()));
+		Validator.assertThat(clone.getActualArgs(), Matchers.arrayContaining((Object) "world"));
+		Validator.assertThat(clone.getActualArgs(), Matchers.not(Matchers.sameInstance(step.getActualArgs())));
+
+		clone.getMetaData().put("key", "val");
+		Validator.assertThat(step.getMetaData(), Matchers.not(Matchers.hasKey("key")));
+
+		clone.execute();
+	}
+
+	@Test(description = "primitive parameter accepts wrapper with widening conversion")
+	public void javaStepDefinitionPrimitiveArgsTest() throws Exception {
+		JavaStepDefinition definition = new JavaStepDefinition(
+				TestStepTest.class.getMethod("sum", int.class, long.class), "", "");
+
+		Validator.assertThat(definition.invoke(null, new Object[] { (short) 1, 2 }), Matchers.equalTo((Object) 3L));
+	}
+
+	@Test(description = "primitive parameter rejects argument of other type", expectedExceptions = IllegalArgumentException.class)
+	public void javaStepDefinitionPrimitiveArgMismatchTest() throws Exception {
+		JavaStepDefinition definition = new JavaStepDefinition(
+				TestStepTest.class.getMethod("sum", int.class, long.class), "", "");
+
+		definition.invoke(null, new Object[] { 1, "2" });
+	}
+
+	public static long sum(int a, long b) {
+		return a + b;
+	}
+}
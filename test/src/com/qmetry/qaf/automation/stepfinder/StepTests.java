@@ -23,6 +23,9 @@ package com.qmetry.qaf.automation.stepfinder;
 
 import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
@@ -192,6 +195,24 @@ public class StepTests extends WebDriverTestCase {
 				Matchers.equalTo("Only In android"));
 	}
 
+	@Test(description = "steps are scanned again for other class loader")
+	public void stepsScannedForClassLoader() {
+		ConfigurationManager.getBundle().setProperty("step.provider.pkg",
+				"com.qmetry.qaf.automation.stepfinder.android");
+		Validator.assertThat(JavaStepFinder.getAllJavaSteps(), Matchers.hasKey("ONLYINANDROID"));
+
+		Thread thread = Thread.currentThread();
+		ClassLoader classLoader = thread.getContextClassLoader();
+		// class loader without any step provider package
+		thread.setContextClassLoader(new URLClassLoader(new URL[0], null));
+		try {
+			Validator.assertThat(JavaStepFinder.getAllJavaSteps().size(), Matchers.equalTo(0));
+		} finally {
+			thread.setContextClassLoader(classLoader);
+		}
+		Validator.assertThat(JavaStepFinder.getAllJavaSteps(), Matchers.hasKey("ONLYINANDROID"));
+	}
+
 	@Test(description = "verify step finder should find common steps")
 	public void shouldFindCommonSteps() {
 		ConfigurationManager.getBundle().setProperty("step.provider.pkg", "com.qmetry.qaf");
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.testng.dataprovider;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+import org.testng.internal.annotations.DefaultAnnotationTransformer;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qmetry.qaf.automation.core.QAFListenerAdapter;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.step.client.TestNGScenario;
+import com.qmetry.qaf.automation.testng.dataprovider.QAFDataProvider.params;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class QAFInetrceptableDataProviderTest {
+	private static int fetchCount;
+	private static int interceptCount;
+
+	@Test
+	public void testBeforeFetchListener() throws Exception {
+		getBundle().setProperty(ApplicationProperties.QAF_LISTENERS.key, FetchListener.class.getName());
+		try {
+			fetchCount = 0;
+			Iterator<Object[]> data = QAFInetrceptableDataProvider.interceptedDataProvider(getScenario(), null);
+			Validator.assertThat(fetchCount, Matchers.equalTo(1));
+			Validator.assertThat(data, Matchers.instanceOf(TestDataIterator.class));
+			Validator.assertThat(data.hasNext(), Matchers.is(true));
+		} finally {
+			getBundle().clearProperty(ApplicationProperties.QAF_LISTENERS.key);
+		}
+	}
+
+	@Test
+	public void testInterceptListener() throws Exception {
+		getBundle().setProperty(ApplicationProperties.QAF_LISTENERS.key,
+				Arrays.asList(FetchListener.class.getName(), InterceptListener.class.getName()));
+		try {
+			fetchCount = 0;
+			interceptCount = 0;
+			Iterator<Object[]> data = QAFInetrceptableDataProvider.interceptedDataProvider(getScenario(), null);
+			Validator.assertThat(fetchCount, Matchers.equalTo(1));
+			Validator.assertThat(interceptCount, Matchers.equalTo(1));
+			Validator.assertThat(data.hasNext(), Matchers.is(true));
+		} finally {
+			getBundle().clearProperty(ApplicationProperties.QAF_LISTENERS.key);
+		}
+	}
+
+	public void sample(Map<String, Object> data) {
+	}
+
+	private TestNGScenario getScenario() throws Exception {
+		TestNGScenario scenario = new TestNGScenario(getClass().getMethod("sample", Map.class),
+				new JDK15AnnotationFinder(new DefaultAnnotationTransformer()), new XmlTest(new XmlSuite()), this);
+		scenario.getMetaData().put(params.DATAFILE.name(), "resources/testdata.txt");
+		return scenario;
+	}
+
+	public static class FetchListener extends QAFListenerAdapter {
+		@Override
+		public void beforeFech(TestNGScenario scenario, ITestContext context) {
+			fetchCount++;
+		}
+	}
+
+	public static class InterceptListener extends QAFListenerAdapter {
+		@Override
+		public List<Object[]> intercept(TestNGScenario scenario, ITestContext context, List<Object[]> testdata) {
+			interceptCount++;
+			return testdata;
+		}
+	}
+}
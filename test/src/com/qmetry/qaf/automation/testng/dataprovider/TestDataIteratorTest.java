@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.testng.dataprovider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.Test;
+import org.testng.internal.annotations.DefaultAnnotationTransformer;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.qmetry.qaf.automation.step.client.TestNGScenario;
+import com.qmetry.qaf.automation.testng.dataprovider.QAFDataProvider.params;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class TestDataIteratorTest {
+
+	@Test
+	public void testFromTo() throws Exception {
+		Iterator<Object[]> data = TestDataIterator.create(getScenario(2, 3), getData(5));
+		List<Object> ids = new ArrayList<Object>();
+		while (data.hasNext()) {
+			ids.add(((Map<?, ?>) data.next()[0]).get("id"));
+		}
+		Validator.assertThat(ids, Matchers.<Object> contains(2, 3));
+	}
+
+	@Test
+	public void testFromNextToLast() throws Exception {
+		Iterator<Object[]> data = TestDataIterator.create(getScenario(6, null), getData(5));
+		Validator.assertThat(data.hasNext(), Matchers.is(false));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testFromOutOfRange() throws Exception {
+		Iterator<Object[]> data = TestDataIterator.create(getScenario(7, null), getData(5));
+		data.hasNext();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testFromAfterTo() throws Exception {
+		TestDataIterator.create(getScenario(5, 3), getData(5));
+	}
+
+	public void sample(Map<String, Object> data) {
+	}
+
+	private TestNGScenario getScenario(Integer from, Integer to) throws Exception {
+		TestNGScenario scenario = new TestNGScenario(getClass().getMethod("sample", Map.class),
+				new JDK15AnnotationFinder(new DefaultAnnotationTransformer()), new XmlTest(new XmlSuite()), this);
+		if (null != from) {
+			scenario.getMetaData().put(params.FROM.name(), from);
+		}
+		if (null != to) {
+			scenario.getMetaData().put(params.TO.name(), to);
+		}
+		return scenario;
+	}
+
+	private static Iterator<Object[]> getData(int size) {
+		List<Object[]> data = new ArrayList<Object[]>();
+		for (int i = 1; i <= size; i++) {
+			Map<String, Object> record = new HashMap<String, Object>();
+			record.put("id", i);
+			data.add(new Object[] { record });
+		}
+		return data.iterator();
+	}
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.testng.report;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.util.FileUtil;
+import com.qmetry.qaf.automation.util.JSONUtil;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ReportWriterTest {
+	private static final String DIR = "test-results/report-writer";
+
+	public static class Values {
+		private List<Integer> values = new ArrayList<Integer>();
+
+		public List<Integer> getValues() {
+			return values;
+		}
+	}
+
+	private static class Add extends ReportWriter.Update<Values> {
+		private final int value;
+
+		Add(String file, int value) {
+			super(file, Values.class);
+			this.value = value;
+		}
+
+		@Override
+		Values apply(Values model) {
+			model.getValues().add(value);
+			return model;
+		}
+	}
+
+	private static List<Integer> read(String file) {
+		return JSONUtil.getJsonObjectFromFile(file, Values.class).getValues();
+	}
+
+	@BeforeMethod
+	public void cleanDir() {
+		FileUtil.deleteQuietly(new File(DIR));
+		FileUtil.checkCreateDir(DIR);
+	}
+
+	@Test
+	public void testUpdatesAppliedInOrderOnFlush() {
+		ReportWriter writer = new ReportWriter(TimeUnit.MINUTES.toMillis(10), 1000);
+		String file = DIR + "/order.json";
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			writer.submit(new Add(file, i));
+			expected.add(i);
+		}
+		writer.flush();
+		Validator.assertThat(read(file), Matchers.equalTo(expected));
+
+		// model is loaded again from file after flush
+		writer.submit(new Add(file, 100));
+		writer.flush();
+		expected.add(100);
+		Validator.assertThat(read(file), Matchers.equalTo(expected));
+	}
+
+	@Test
+	public void testWriteReplacesFile() {
+		ReportWriter writer = new ReportWriter(TimeUnit.MINUTES.toMillis(10), 1000);
+		String file = DIR + "/replace.json";
+		writer.submit(new Add(file, 1));
+		Values values = new Values();
+		values.getValues().add(5);
+		writer.write(file, values);
+		writer.submit(new Add(file, 6));
+		writer.flush();
+
+		Validator.assertThat(read(file), Matchers.contains(5, 6));
+	}
+
+	@Test
+	public void testWrittenWhenPendingSizeReached() throws InterruptedException {
+		ReportWriter writer = new ReportWriter(TimeUnit.MINUTES.toMillis(10), 5);
+		String file = DIR + "/size.json";
+		for (int i = 0; i < 5; i++) {
+			writer.submit(new Add(file, i));
+		}
+		long end = System.currentTimeMillis() + 5000;
+		while (!new File(file).exists() && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		Validator.assertThat(new File(file).exists(), Matchers.is(true));
+		writer.flush();
+		Validator.assertThat(read(file), Matchers.hasSize(5));
+	}
+
+	@Test(timeOut = 10000)
+	public void testFailedUpdateDoesNotBlockOthers() {
+		ReportWriter writer = new ReportWriter(TimeUnit.MINUTES.toMillis(10), 1000);
+		String file = DIR + "/error.json";
+		writer.submit(new Add(file, 1));
+		writer.submit(new ReportWriter.Update<Values>(file, Values.class) {
+			@Override
+			Values apply(Values model) {
+				throw new RuntimeException("failed update");
+			}
+		});
+		writer.submit(new ReportWriter.Update<Values>(DIR + "/other.json", Values.class) {
+			@Override
+			Values apply(Values model) {
+				throw new AssertionError("failed update");
+			}
+		});
+		writer.submit(new Add(file, 2));
+		writer.flush();
+
+		Validator.assertThat(read(file), Matchers.contains(1, 2));
+		Validator.assertThat(new File(DIR + "/other.json").exists(), Matchers.is(false));
+	}
+}
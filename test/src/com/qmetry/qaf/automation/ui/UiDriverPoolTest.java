@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.core.LoggingBean;
+import com.qmetry.qaf.automation.core.QAFTestBase.STBArgs;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.webdriver.FakeCommandExecutor;
+import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
+import com.qmetry.qaf.automation.util.FileUtil;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class UiDriverPoolTest {
+
+	@AfterMethod
+	public void clearProperties() {
+		UiDriverPool.instance().shutdown();
+		getBundle().clearProperty(ApplicationProperties.DRIVER_POOL_SIZE.key);
+		getBundle().clearProperty(ApplicationProperties.DRIVER_POOL_MAX_USES.key);
+		getBundle().clearProperty(ApplicationProperties.DRIVER_POOL_MAX_IDLE.key);
+		getBundle().clearProperty("driver.capabilities.driverClass");
+		getBundle().clearProperty("other.resources");
+		getBundle().clearProperty("pool.test.resource");
+	}
+
+	@Test
+	public void testPrewarmAndLease() throws Exception {
+		File resource = File.createTempFile("pool", ".properties");
+		resource.deleteOnExit();
+		FileUtil.writeStringToFile(resource, "pool.test.resource=loaded", "UTF-8");
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_SIZE.key, "1");
+		getBundle().setProperty("driver.capabilities.driverClass", PoolTestDriver.class.getName());
+		getBundle().setProperty("other.resources", resource.getAbsolutePath());
+		UiDriverPool pool = UiDriverPool.instance();
+		String[] stb = STBArgs.browser_str.set("otherDriver", UiDriverPool.getConfiguredArgs());
+
+		pool.prewarm(stb);
+		ArrayList<LoggingBean> commandLog = new ArrayList<LoggingBean>();
+		// test leasing session should get driver resources and capabilities
+		Object localResources = getBundle().getProperty("local.reasources");
+		getBundle().clearProperty("pool.test.resource");
+		getBundle().clearProperty("local.reasources");
+		getBundle().clearProperty("driver.desiredCapabilities");
+		UiDriver leased;
+		try {
+			leased = pool.lease(commandLog, stb);
+		} finally {
+			getBundle().setProperty("local.reasources", localResources);
+		}
+
+		Validator.assertThat(leased, Matchers.instanceOf(QAFExtendedWebDriver.class));
+		Validator.assertThat(getBundle().getString("pool.test.resource"), Matchers.equalTo("loaded"));
+		Validator.assertThat(getBundle().getProperty("driver.desiredCapabilities"), Matchers.notNullValue());
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(0));
+
+		((QAFExtendedWebDriver) leased).getTitle();
+		Validator.assertThat(commandLog, Matchers.hasSize(1));
+	}
+
+	@Test
+	public void testIdleSessionEvicted() throws Exception {
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_SIZE.key, "1");
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_MAX_IDLE.key, "1");
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.GET_WINDOW_HANDLES, Arrays.asList("main"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		UiDriverPool pool = UiDriverPool.instance();
+
+		pool.register(driver, "chromeDriver");
+		pool.release(driver);
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(1));
+		Thread.sleep(10);
+		pool.evictIdle();
+
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(0));
+		Validator.assertThat(executor.count(DriverCommand.QUIT), Matchers.equalTo(1));
+		Validator.assertThat(pool.lease(new ArrayList<LoggingBean>(), "chromeDriver"), Matchers.nullValue());
+	}
+
+	@Test
+	public void testSessionResetAndReused() {
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_SIZE.key, "1");
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.GET_WINDOW_HANDLES, Arrays.asList("main", "popup"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		UiDriverPool pool = UiDriverPool.instance();
+
+		pool.register(driver, "chromeDriver");
+		pool.release(driver);
+		Validator.assertThat(executor.count(DriverCommand.CLOSE), Matchers.equalTo(1));
+		Validator.assertThat(executor.count(DriverCommand.DELETE_ALL_COOKIES), Matchers.equalTo(1));
+		Validator.assertThat(executor.count(DriverCommand.GET), Matchers.equalTo(1));
+		Validator.assertThat(executor.count(DriverCommand.QUIT), Matchers.equalTo(0));
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(1));
+
+		Validator.assertThat(pool.lease(new ArrayList<LoggingBean>(), "firefoxDriver"), Matchers.nullValue());
+		ArrayList<LoggingBean> commandLog = new ArrayList<LoggingBean>();
+		UiDriver leased = pool.lease(commandLog, "chromeDriver");
+		Validator.assertThat(leased, Matchers.sameInstance((UiDriver) driver));
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(0));
+
+		driver.getTitle();
+		Validator.assertThat(commandLog, Matchers.hasSize(1));
+	}
+
+	@Test
+	public void testSessionQuitOnMaxUses() {
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_SIZE.key, "1");
+		getBundle().setProperty(ApplicationProperties.DRIVER_POOL_MAX_USES.key, "1");
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		UiDriverPool pool = UiDriverPool.instance();
+
+		pool.register(driver, "chromeDriver");
+		pool.release(driver);
+		Validator.assertThat(executor.count(DriverCommand.QUIT), Matchers.equalTo(1));
+		Validator.assertThat(pool.getIdleCount(), Matchers.equalTo(0));
+	}
+
+	public static class PoolTestDriver extends RemoteWebDriver {
+		public PoolTestDriver(Capabilities capabilities) {
+			super(new FakeCommandExecutor(), capabilities);
+		}
+	}
+}
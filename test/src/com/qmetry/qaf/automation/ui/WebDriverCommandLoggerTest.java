@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.selenium.AdaptiveWait;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
+import com.qmetry.qaf.automation.ui.util.ExpectedCondition;
+import com.qmetry.qaf.automation.ui.util.QAFWebDriverWait;
+import com.qmetry.qaf.automation.ui.webdriver.FakeCommandExecutor;
+import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebDriver;
+import com.qmetry.qaf.automation.util.Validator;
+import com.thoughtworks.selenium.Wait;
+
+/**
+ * @author chirag.jayswal
+ */
+public class WebDriverCommandLoggerTest {
+
+	@Test
+	public void testCommandsInsideWaitLogged() {
+		WebDriverCommandLogger commandLogger = new WebDriverCommandLogger();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(new FakeCommandExecutor(), new DesiredCapabilities(),
+				commandLogger);
+		commandLogger.getLog().clear();
+
+		waitForTitle(driver);
+		Validator.assertThat(DynamicWait.isWaitInProgress(), Matchers.is(false));
+		Validator.assertThat(commandLogger.getLog(), Matchers.hasSize(1));
+		Validator.assertThat(commandLogger.getLog().get(0).getCommandName(), Matchers.equalTo(DriverCommand.GET_TITLE));
+	}
+
+	@Test
+	public void testCommandsInsideWaitExcluded() {
+		getBundle().setProperty(ApplicationProperties.REPORTER_LOG_EXCLUDE_WAIT_CMD.key, "true");
+		try {
+			WebDriverCommandLogger commandLogger = new WebDriverCommandLogger();
+			QAFExtendedWebDriver driver = new QAFExtendedWebDriver(new FakeCommandExecutor(),
+					new DesiredCapabilities(), commandLogger);
+			commandLogger.getLog().clear();
+
+			driver.getTitle();
+			Validator.assertThat(commandLogger.getLog(), Matchers.hasSize(1));
+
+			waitForTitle(driver);
+			Validator.assertThat(commandLogger.getLog(), Matchers.hasSize(1));
+		} finally {
+			getBundle().clearProperty(ApplicationProperties.REPORTER_LOG_EXCLUDE_WAIT_CMD.key);
+		}
+	}
+
+	@Test
+	public void testCommandsInsideSeleniumWaitNotLogged() {
+		WebDriverCommandLogger commandLogger = new WebDriverCommandLogger();
+		final QAFExtendedWebDriver driver = new QAFExtendedWebDriver(new FakeCommandExecutor(),
+				new DesiredCapabilities(), commandLogger);
+		commandLogger.getLog().clear();
+
+		new AdaptiveWait() {
+			@Override
+			public boolean until() {
+				Validator.assertThat(AdaptiveWait.isWaitInProgress(), Matchers.is(true));
+				return null != driver.getTitle();
+			}
+		}.wait("title not available");
+		Validator.assertThat(AdaptiveWait.isWaitInProgress(), Matchers.is(false));
+		new Wait() {
+			@Override
+			public boolean until() {
+				return null != driver.getTitle();
+			}
+		}.wait("title not available");
+		Validator.assertThat(commandLogger.getLog(), Matchers.empty());
+
+		driver.getTitle();
+		Validator.assertThat(commandLogger.getLog(), Matchers.hasSize(1));
+	}
+
+	private static void waitForTitle(QAFExtendedWebDriver driver) {
+		new QAFWebDriverWait(driver).until(new ExpectedCondition<QAFExtendedWebDriver, Boolean>() {
+			@Override
+			public Boolean apply(QAFExtendedWebDriver driver) {
+				Validator.assertThat(DynamicWait.isWaitInProgress(), Matchers.is(true));
+				return null != driver.getTitle();
+			}
+		});
+	}
+}
@@ -25,9 +25,12 @@ import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
 import static com.qmetry.qaf.automation.util.Validator.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 
+import org.apache.commons.io.FileUtils;
 import org.hamcrest.Matchers;
 import org.openqa.selenium.By.ByCssSelector;
 import org.openqa.selenium.By.ById;
@@ -39,9 +42,11 @@ import org.openqa.selenium.By.ByXPath;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.qmetry.qaf.automation.core.ConfigurationManager;
 import com.qmetry.qaf.automation.keys.ApplicationProperties;
 import com.qmetry.qaf.automation.ui.webdriver.ByAny;
 import com.qmetry.qaf.automation.ui.webdriver.QAFExtendedWebElement;
+import com.qmetry.qaf.automation.util.CompiledLocator;
 import com.qmetry.qaf.automation.util.LocatorUtil;
 
 /*******************************************************************************
@@ -91,6 +96,71 @@ public class LocatorUtilTest {
 		assertThat(LocatorUtil.getBy("test.loc"), instanceOf(ByCssSelector.class));
 	}
 
+	@Test
+	public void compiledLocatorIsReused() {
+		getBundle().setProperty("compiled.loc", "{'locator':'id=eleId','desc':'compiled element'}");
+		CompiledLocator compiled = LocatorUtil.compile("compiled.loc");
+		long hits = LocatorUtil.getCacheHitCount();
+
+		assertThat(LocatorUtil.compile("compiled.loc"), Matchers.sameInstance(compiled));
+		assertThat(LocatorUtil.getBy("compiled.loc"), Matchers.sameInstance(compiled.getBy()));
+		assertThat(LocatorUtil.getCacheHitCount(), Matchers.equalTo(hits + 2));
+		assertThat(LocatorUtil.getCacheHitRate(), Matchers.greaterThan(0d));
+		assertThat(compiled.getBy(), instanceOf(ById.class));
+		assertThat((String) compiled.getMetaData().get("desc"), Matchers.equalTo("compiled element"));
+
+		getBundle().setProperty("compiled.loc", "name=eleName");
+		assertThat(LocatorUtil.getBy("compiled.loc"), instanceOf(ByName.class));
+	}
+
+	@Test
+	public void compiledLocatorInvalidatedOnAddBundle() throws IOException {
+		getBundle().setProperty("compiled.loc2", "id=eleId");
+		CompiledLocator compiled = LocatorUtil.compile("compiled.loc2");
+
+		File locFile = File.createTempFile("compiled", ".loc");
+		locFile.deleteOnExit();
+		FileUtils.writeStringToFile(locFile, "compiled.loc3=css=#eleId");
+		String localResources = getBundle().getString("local.reasources");
+		try {
+			ConfigurationManager.addBundle(locFile.getAbsolutePath());
+			assertThat(LocatorUtil.compile("compiled.loc2"), Matchers.not(Matchers.sameInstance(compiled)));
+			assertThat(LocatorUtil.getBy("compiled.loc3"), instanceOf(ByCssSelector.class));
+		} finally {
+			getBundle().clearProperty("local.reasources");
+			if (null != localResources) {
+				getBundle().setProperty("local.reasources", localResources);
+			}
+		}
+	}
+
+	@Test
+	public void compiledLocatorCacheIsBounded() {
+		LocatorUtil.clearCache();
+		CompiledLocator first = LocatorUtil.compile("id=bounded0");
+		CompiledLocator last = null;
+		for (int i = 1; i <= 2000; i++) {
+			last = LocatorUtil.compile("id=bounded" + i);
+		}
+		// least recently used discarded
+		assertThat(LocatorUtil.compile("id=bounded2000"), Matchers.sameInstance(last));
+		assertThat(LocatorUtil.compile("id=bounded0"), Matchers.not(Matchers.sameInstance(first)));
+		assertThat(first.getBy(), instanceOf(ById.class));
+	}
+
+	@Test
+	public void parameterizedLocatorIsNotCached() {
+		getBundle().setProperty("compiled.param", "ele");
+		getBundle().setProperty("compiled.loc4", "id=${compiled.param}");
+		CompiledLocator compiled = LocatorUtil.compile("compiled.loc4");
+		assertThat(compiled.getLocator(), Matchers.equalTo("id=ele"));
+
+		getBundle().setProperty("compiled.param", "other");
+		CompiledLocator recompiled = LocatorUtil.compile("compiled.loc4");
+		assertThat(recompiled, Matchers.not(Matchers.sameInstance(compiled)));
+		assertThat(recompiled.getLocator(), Matchers.equalTo("id=other"));
+	}
+
 	//@Test(groups = "UI")
 	public void testLocatorKey() {
 		getBundle().setProperty("test.loc",
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.qmetry.qaf.automation.ui.WebDriverCommandLogger;
+
+/**
+ * Measures framework overhead of dispatching driver and element commands
+ * through {@link QAFExtendedWebDriver#execute(String, java.util.Map)},
+ * including listeners and command logging, against a command executor that
+ * responds without browser.
+ * <p>
+ * Requires jmh annotation processor while compiling test sources. Run with
+ * <code>ant benchmark -Dbenchmark.args=CommandDispatchBenchmark</code>, main
+ * method of this class or <code>org.openjdk.jmh.Main</code>.
+ * 
+ * @author chirag.jayswal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDispatchBenchmark {
+
+	@Param({ "WARN", "INFO" })
+	public String logLevel;
+
+	private WebDriverCommandLogger commandLogger;
+	private QAFExtendedWebDriver driver;
+	private QAFExtendedWebElement element;
+
+	@Setup
+	public void setup() {
+		Logger.getLogger(WebDriverCommandLogger.class).setLevel(Level.toLevel(logLevel));
+		commandLogger = new WebDriverCommandLogger();
+		driver = new QAFExtendedWebDriver(new FakeCommandExecutor(), new DesiredCapabilities(), commandLogger);
+		element = new QAFExtendedWebElement(driver, By.id("benchmark"), true);
+	}
+
+	@Benchmark
+	public String driverCommand() {
+		commandLogger.getLog().clear();
+		return driver.getTitle();
+	}
+
+	@Benchmark
+	public String elementCommand() {
+		commandLogger.getLog().clear();
+		return element.getText();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CommandDispatchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.FindBy;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ElementFactoryTest {
+
+	public static class SamplePage {
+		@FindBy(id = "username")
+		private QAFWebElement userName;
+
+		@com.qmetry.qaf.automation.ui.annotations.FindBy(locator = "css=.item")
+		private List<QAFWebElement> items;
+
+		private String notDecorated;
+	}
+
+	public static class SampleComponent extends QAFWebComponent {
+		public SampleComponent(QAFExtendedWebElement parent, String locator) {
+			super(parent, locator);
+		}
+	}
+
+	@Test
+	public void testFieldsInitializedFromCachedPlan() {
+		QAFExtendedWebDriver driver =
+				new QAFExtendedWebDriver(new FakeCommandExecutor(), new DesiredCapabilities(), null);
+		ElementFactory factory = new ElementFactory(driver);
+		SamplePage first = new SamplePage();
+		SamplePage second = new SamplePage();
+
+		factory.initFields(first);
+		factory.initFields(second);
+
+		Validator.assertThat(first.userName, Matchers.notNullValue());
+		Validator.assertThat(first.items != null, Matchers.is(true));
+		Validator.assertThat(first.notDecorated, Matchers.nullValue());
+		Validator.assertThat(second.userName, Matchers.not(Matchers.sameInstance(first.userName)));
+		Validator.assertThat(((QAFExtendedWebElement) second.userName).getBy(),
+				Matchers.sameInstance(((QAFExtendedWebElement) first.userName).getBy()));
+		Validator.assertThat(((QAFExtendedWebElement) second.userName).getMetaData().get("objectName"),
+				Matchers.<Object> equalTo("userName"));
+		Validator.assertThat(((QAFExtendedWebElement) second.userName).getMetaData().get("pageClass"),
+				Matchers.<Object> equalTo(SamplePage.class));
+	}
+
+	@Test
+	public void testComponentConstructorLookup() {
+		QAFExtendedWebDriver driver =
+				new QAFExtendedWebDriver(new FakeCommandExecutor(), new DesiredCapabilities(), null);
+		QAFExtendedWebElement parent = new QAFExtendedWebElement(driver, By.id("parent"));
+		Object first = ComponentFactory.getObject(SampleComponent.class, "id=a", this, parent);
+		Object second = ComponentFactory.getObject(SampleComponent.class, "id=b", this, parent);
+
+		Validator.assertThat(first, Matchers.instanceOf(SampleComponent.class));
+		Validator.assertThat(second, Matchers.instanceOf(SampleComponent.class));
+		Validator.assertThat(((QAFExtendedWebElement) second).getBy().toString(), Matchers.containsString("b"));
+		Validator.assertThat(((QAFExtendedWebElement) second).parentElement, Matchers.sameInstance(parent));
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ElementListSnapshotTest {
+
+	@Test
+	public void testListLocatedOnceForIteration() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1", "e2", "e3"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		List<QAFWebElement> list = driver.getElements(By.name("row"));
+
+		for (int i = 0; i < list.size(); i++) {
+			list.get(i).getText();
+		}
+		for (QAFWebElement element : list) {
+			element.getText();
+		}
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(1));
+
+		driver.get("about:blank");
+		Validator.assertThat(list, Matchers.hasSize(3));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+
+		((RefreshableElementList<QAFWebElement>) list).refresh();
+		list.size();
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(3));
+	}
+
+	@Test
+	public void testStaleList() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1", "e2"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		RefreshableElementList<QAFWebElement> list = (RefreshableElementList<QAFWebElement>) driver
+				.getElements(By.name("row"));
+
+		Validator.assertThat(list, Matchers.hasSize(2));
+		Validator.assertThat(list.isStale(), Matchers.is(false));
+
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e3"));
+		Validator.assertThat(list.isStale(), Matchers.is(true));
+		Validator.assertThat(list, Matchers.hasSize(1));
+		Validator.assertThat(((QAFExtendedWebElement) list.get(0)).getId(), Matchers.equalTo("e3"));
+	}
+
+	@Test
+	public void testStaleCheckRenewsSnapshot() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1", "e2"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		RefreshableElementList<QAFWebElement> list = (RefreshableElementList<QAFWebElement>) driver
+				.getElements(By.name("row"));
+		list.size();
+
+		driver.get("about:blank");
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e3"));
+		Validator.assertThat(list.isStale(), Matchers.is(true));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+
+		Validator.assertThat(list, Matchers.hasSize(1));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+	}
+
+	@Test
+	public void testLiveList() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1", "e2"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		@SuppressWarnings("unchecked")
+		List<QAFWebElement> list = (List<QAFWebElement>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class[] { RefreshableElementList.class },
+				new QAFExtendedWebElementListHandler(driver, "{\"locator\":\"name=row\",\"live\":true}"));
+
+		list.size();
+		list.get(0);
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+	}
+
+	private static List<Map<String, Object>> getElements(String... ids) {
+		List<Map<String, Object>> elements = new ArrayList<Map<String, Object>>();
+		for (String id : ids) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			element.put("ELEMENT", id);
+			elements.add(element);
+		}
+		return elements;
+	}
+}
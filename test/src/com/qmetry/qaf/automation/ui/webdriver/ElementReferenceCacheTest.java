@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ElementReferenceCacheTest {
+
+	@AfterMethod
+	public void clearProperties() {
+		getBundle().clearProperty(ApplicationProperties.ELEMENT_REFERENCE_CACHE.key);
+	}
+
+	@Test
+	public void testReferenceReusedUntilNavigation() {
+		getBundle().setProperty(ApplicationProperties.ELEMENT_REFERENCE_CACHE.key, true);
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		QAFExtendedWebElement element = new QAFExtendedWebElement(driver, By.id("q"));
+
+		element.getText();
+		element.getText();
+		element.getTagName();
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENT), Matchers.equalTo(1));
+
+		driver.get("about:blank");
+		element.getText();
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENT), Matchers.equalTo(2));
+
+		executor.stale = true;
+		Validator.assertThat(element.getText(), Matchers.equalTo("text"));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENT), Matchers.equalTo(3));
+
+		ElementReferenceCache cache = driver.getElementReferenceCache();
+		Validator.assertThat(cache.getMisses(), Matchers.equalTo(3L));
+		Validator.assertThat(cache.getStaleCount(), Matchers.equalTo(1L));
+		Validator.assertThat(cache.getHits(), Matchers.greaterThan(0L));
+	}
+
+	@Test
+	public void testReferenceNotReusedByDefault() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		QAFExtendedWebElement element = new QAFExtendedWebElement(driver, By.id("q"));
+
+		element.getText();
+		element.getText();
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENT), Matchers.equalTo(2));
+		Validator.assertThat(driver.getElementReferenceCache().getHits(), Matchers.equalTo(0L));
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ElementResolverTest {
+
+	@AfterMethod
+	public void clearProperties() {
+		getBundle().clearProperty(ApplicationProperties.ELEMENT_SCRIPT_RESOLVER.key);
+	}
+
+	@Test
+	public void testAlternativesResolvedWithSingleScript() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, getElements("e1", "e2"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		long cycle = driver.getCommandCycle();
+
+		List<WebElement> elements = driver.findElements(new ByAny("id=eleId", "css=.row", "jquery=div.row"));
+		Validator.assertThat(elements, Matchers.hasSize(2));
+		Validator.assertThat(((QAFExtendedWebElement) elements.get(1)).getId(), Matchers.equalTo("e2"));
+		driver.findElement(new ByJQuery("div.row"));
+
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(2));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(0));
+		Validator.assertThat(driver.getCommandCycle(), Matchers.equalTo(cycle));
+	}
+
+	@Test
+	public void testFallbackToDriverCommands() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, ElementResolver.NO_JQUERY);
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		List<WebElement> elements = driver.findElements(new ByAny("id=eleId", "css=.row"));
+		Validator.assertThat(elements, Matchers.hasSize(1));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(1));
+	}
+
+	@Test
+	public void testLookupErrorFallsBackForSingleLookup() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, ElementResolver.LOOKUP_ERROR + "SyntaxError");
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		Validator.assertThat(driver.findElements(new ByAny("xpath=//a[", "css=.row")), Matchers.hasSize(1));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(1));
+
+		// next look up still uses resolver script
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, getElements("e1", "e2"));
+		Validator.assertThat(driver.findElements(new ByAny("id=eleId", "css=.row")), Matchers.hasSize(2));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(2));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(1));
+	}
+
+	@Test
+	public void testScriptFailureMarksPageUnsupported() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.fail(DriverCommand.EXECUTE_SCRIPT, ErrorCodes.JAVASCRIPT_ERROR);
+		executor.respond(DriverCommand.FIND_ELEMENTS, getElements("e1"));
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		Validator.assertThat(driver.findElements(new ByAny("id=eleId", "css=.row")), Matchers.hasSize(1));
+		Validator.assertThat(driver.findElements(new ByAny("id=eleId", "css=.row")), Matchers.hasSize(1));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(1));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+	}
+
+	@Test
+	public void testResolverDisabled() {
+		getBundle().setProperty(ApplicationProperties.ELEMENT_SCRIPT_RESOLVER.key, "false");
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.FIND_ELEMENTS, new ArrayList<Object>());
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		List<WebElement> elements = driver.findElements(new ByAny("id=eleId", "css=.row"));
+		Validator.assertThat(elements, Matchers.hasSize(0));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(0));
+		Validator.assertThat(executor.count(DriverCommand.FIND_ELEMENTS), Matchers.equalTo(2));
+	}
+
+	@Test
+	public void testStrategyOf() {
+		Validator.assertThat(ElementResolver.strategyOf(new ByJQuery("div.row")),
+				Matchers.arrayContaining("jquery", "div.row"));
+		Validator.assertThat(ElementResolver.strategyOf(org.openqa.selenium.By.xpath("//a[@id='x: y']")),
+				Matchers.arrayContaining("xpath", "//a[@id='x: y']"));
+		Validator.assertThat(ElementResolver.strategyOf(org.openqa.selenium.By.linkText("x")), Matchers.nullValue());
+	}
+
+	private static List<Map<String, Object>> getElements(String... ids) {
+		List<Map<String, Object>> elements = new ArrayList<Map<String, Object>>();
+		for (String id : ids) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			element.put("ELEMENT", id);
+			elements.add(element);
+		}
+		return elements;
+	}
+}
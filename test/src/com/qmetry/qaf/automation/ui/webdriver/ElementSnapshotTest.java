@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.ui.WebDriverCommandLogger;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ElementSnapshotTest {
+
+	private static Map<String, Object> values(String text, boolean displayed, String cls, String color) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put(ElementSnapshot.TEXT, text);
+		values.put(ElementSnapshot.DISPLAYED, displayed);
+		values.put(ElementSnapshot.attribute("class"), cls);
+		values.put(ElementSnapshot.cssValue("color"), color);
+		return values;
+	}
+
+	@Test
+	public void testSnapshotServesReadCommands() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		QAFExtendedWebElement first = new QAFExtendedWebElement(driver, By.id("first"), true);
+		QAFExtendedWebElement second = new QAFExtendedWebElement(driver, By.id("second"), true);
+		executor.respond(DriverCommand.EXECUTE_SCRIPT,
+				Arrays.asList(values("one", true, "a b", "rgb(255, 0, 0)"), values("two", false, "c", null)));
+
+		List<ElementSnapshot> snapshots = ElementSnapshot.of(Arrays.asList(first, second), ElementSnapshot.TEXT,
+				ElementSnapshot.DISPLAYED, ElementSnapshot.attribute("class"), ElementSnapshot.cssValue("color"));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(1));
+		Validator.assertThat(snapshots.get(0).getText(), Matchers.equalTo("one"));
+		Validator.assertThat(snapshots.get(0).getCssValue("color"), Matchers.equalTo("rgba(255, 0, 0, 1)"));
+		Validator.assertThat(snapshots.get(1).isDisplayed(), Matchers.is(false));
+
+		executor.reset();
+		Validator.assertThat(first.getText(), Matchers.equalTo("one"));
+		Validator.assertThat(first.isDisplayed(), Matchers.is(true));
+		Validator.assertThat(second.getAttribute("class"), Matchers.equalTo("c"));
+		Validator.assertThat(second.getCssValue("color"), Matchers.nullValue());
+		Validator.assertThat(first.verifyCssClass("b"), Matchers.is(true));
+		Validator.assertThat(executor.count(DriverCommand.GET_ELEMENT_TEXT), Matchers.equalTo(0));
+		Validator.assertThat(executor.count(DriverCommand.GET_ELEMENT_ATTRIBUTE), Matchers.equalTo(0));
+		Validator.assertThat(executor.count(DriverCommand.IS_ELEMENT_DISPLAYED), Matchers.equalTo(0));
+
+		// property not in snapshot
+		Validator.assertThat(first.getTagName(), Matchers.equalTo("input"));
+		Validator.assertThat(executor.count(DriverCommand.GET_ELEMENT_TAG_NAME), Matchers.equalTo(1));
+
+		// any other command discards snapshot
+		first.click();
+		Validator.assertThat(first.getText(), Matchers.equalTo("text"));
+		Validator.assertThat(executor.count(DriverCommand.GET_ELEMENT_TEXT), Matchers.equalTo(1));
+	}
+
+	@Test
+	public void testCommandServedFromSnapshotIsLogged() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		WebDriverCommandLogger commandLogger = new WebDriverCommandLogger();
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), commandLogger);
+		QAFExtendedWebElement element = new QAFExtendedWebElement(driver, By.id("first"), true);
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, Arrays.asList(values("one", true, "a", null)));
+		element.getSnapshot(ElementSnapshot.TEXT, ElementSnapshot.DISPLAYED);
+
+		executor.reset();
+		commandLogger.getLog().clear();
+		Validator.assertThat(element.getText(), Matchers.equalTo("one"));
+		Validator.assertThat(element.isDisplayed(), Matchers.is(true));
+
+		Validator.assertThat(executor.count(DriverCommand.GET_ELEMENT_TEXT), Matchers.equalTo(0));
+		Validator.assertThat(commandLogger.getLog(), Matchers.hasSize(2));
+		Validator.assertThat(commandLogger.getLog().get(0).getCommandName(),
+				Matchers.equalTo(DriverCommand.GET_ELEMENT_TEXT));
+		Validator.assertThat(commandLogger.getLog().get(1).getCommandName(),
+				Matchers.equalTo(DriverCommand.IS_ELEMENT_DISPLAYED));
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.Response;
+
+/**
+ * Responds to driver commands without browser and records executed commands.
+ * 
+ * @author chirag.jayswal
+ */
+public class FakeCommandExecutor implements CommandExecutor {
+	private final Map<String, Integer> counts = new HashMap<String, Integer>();
+	private final Map<String, Object> values = new HashMap<String, Object>();
+	private final Map<String, Integer> errors = new HashMap<String, Integer>();
+	private int elements;
+	public boolean stale;
+
+	public FakeCommandExecutor() {
+		values.put(DriverCommand.NEW_SESSION, new HashMap<String, Object>());
+		values.put(DriverCommand.GET_ELEMENT_TEXT, "text");
+		values.put(DriverCommand.GET_ELEMENT_TAG_NAME, "input");
+	}
+
+	public int count(String command) {
+		Integer count = counts.get(command);
+		return null == count ? 0 : count;
+	}
+
+	public void reset() {
+		counts.clear();
+	}
+
+	public void respond(String command, Object value) {
+		values.put(command, value);
+	}
+
+	/**
+	 * @param command
+	 * @param status
+	 *            one of {@link ErrorCodes}, responded once
+	 */
+	public void fail(String command, int status) {
+		errors.put(command, status);
+	}
+
+	@Override
+	public Response execute(Command command) throws IOException {
+		String name = command.getName();
+		counts.put(name, count(name) + 1);
+
+		Response response = new Response();
+		response.setSessionId("fake-session");
+		response.setStatus(ErrorCodes.SUCCESS);
+		if (errors.containsKey(name)) {
+			response.setStatus(errors.remove(name));
+			Map<String, Object> error = new HashMap<String, Object>();
+			error.put("message", "failed " + name);
+			response.setValue(error);
+		} else if (DriverCommand.FIND_ELEMENT.equals(name)) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			element.put("ELEMENT", "e" + (++elements));
+			response.setValue(element);
+		} else if (stale && !DriverCommand.FIND_ELEMENTS.equals(name)) {
+			stale = false;
+			response.setStatus(ErrorCodes.STALE_ELEMENT_REFERENCE);
+			Map<String, Object> error = new HashMap<String, Object>();
+			error.put("message", "stale element reference");
+			response.setValue(error);
+		} else {
+			response.setValue(values.get(name));
+		}
+		return response;
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ui.webdriver;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.ui.util.DynamicWait;
+import com.qmetry.qaf.automation.ui.util.WaitStatistics;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ScriptWaitTest {
+
+	@AfterMethod
+	public void clearProperties() {
+		getBundle().clearProperty(ApplicationProperties.WAIT_IN_BROWSER.key);
+		getBundle().clearProperty(ApplicationProperties.WAIT_INTERVAL_INITIAL.key);
+	}
+
+	@Test
+	public void testJsConditionResolvedInBrowser() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_ASYNC_SCRIPT, true);
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+		long browserWaits = WaitStatistics.getBrowserWaitCount();
+
+		driver.waitForAjax();
+		driver.waitForNetworkIdle(500);
+
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_ASYNC_SCRIPT), Matchers.equalTo(2));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(0));
+		// set for first wait and restored to default, which is enough for second wait
+		Validator.assertThat(executor.count(DriverCommand.SET_TIMEOUT), Matchers.equalTo(2));
+		Validator.assertThat(driver.getScriptTimeout(), Matchers.equalTo(30000L));
+		Validator.assertThat(WaitStatistics.getBrowserWaitCount(), Matchers.equalTo(browserWaits + 2));
+	}
+
+	@Test
+	public void testFallbackToPolling() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_ASYNC_SCRIPT, "error: ReferenceError");
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, true);
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		driver.waitForAjax();
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(1));
+
+		getBundle().setProperty(ApplicationProperties.WAIT_IN_BROWSER.key, "false");
+		driver.waitForAjax();
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_ASYNC_SCRIPT), Matchers.equalTo(1));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(2));
+	}
+
+	@Test
+	public void testAdaptivePolling() {
+		getBundle().setProperty(ApplicationProperties.WAIT_INTERVAL_INITIAL.key, "50");
+		final int[] evaluations = new int[1];
+		long waits = WaitStatistics.getWaitCount();
+		long start = System.currentTimeMillis();
+
+		new DynamicWait<int[]>(evaluations).withTimeout(10, TimeUnit.SECONDS)
+				.pollingUpTo(2000, TimeUnit.MILLISECONDS).until(new Predicate<int[]>() {
+					@Override
+					public boolean apply(int[] input) {
+						return ++input[0] == 4;
+					}
+				});
+
+		// 50 + 100 + 200 instead of 3 * 2000
+		Validator.assertThat(System.currentTimeMillis() - start, Matchers.lessThan(2000L));
+		Validator.assertThat(evaluations[0], Matchers.equalTo(4));
+		Validator.assertThat(WaitStatistics.getWaitCount(), Matchers.equalTo(waits + 1));
+	}
+
+	@Test
+	public void testExplicitIntervalNotAdapted() {
+		final int[] evaluations = new int[1];
+		long start = System.currentTimeMillis();
+
+		new DynamicWait<int[]>(evaluations).withTimeout(10, TimeUnit.SECONDS)
+				.pollingEvery(300, TimeUnit.MILLISECONDS).until(new Predicate<int[]>() {
+					@Override
+					public boolean apply(int[] input) {
+						return ++input[0] == 3;
+					}
+				});
+
+		Validator.assertThat(System.currentTimeMillis() - start, Matchers.greaterThanOrEqualTo(600L));
+	}
+
+	@Test
+	public void testFallbackForSingleWaitOnError() {
+		FakeCommandExecutor executor = new FakeCommandExecutor();
+		executor.respond(DriverCommand.EXECUTE_SCRIPT, true);
+		QAFExtendedWebDriver driver = new QAFExtendedWebDriver(executor, new DesiredCapabilities(), null);
+
+		// for instance document unloaded while waiting
+		executor.fail(DriverCommand.EXECUTE_ASYNC_SCRIPT, ErrorCodes.JAVASCRIPT_ERROR);
+		driver.waitForAjax();
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(1));
+
+		executor.respond(DriverCommand.EXECUTE_ASYNC_SCRIPT, true);
+		driver.waitForAjax();
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_ASYNC_SCRIPT), Matchers.equalTo(2));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(1));
+
+		executor.fail(DriverCommand.EXECUTE_ASYNC_SCRIPT, ErrorCodes.UNKNOWN_COMMAND);
+		driver.waitForAjax();
+		driver.waitForAjax();
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_ASYNC_SCRIPT), Matchers.equalTo(3));
+		Validator.assertThat(executor.count(DriverCommand.EXECUTE_SCRIPT), Matchers.equalTo(3));
+	}
+}
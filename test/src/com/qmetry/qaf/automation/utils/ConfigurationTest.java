@@ -25,6 +25,7 @@ import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
 import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.util.PropertyUtil;
 import com.qmetry.qaf.automation.util.Validator;
 
 /**
@@ -108,4 +109,27 @@ public class ConfigurationTest {
 		Validator.assertThat(val, Matchers.equalTo("abcdef"));
 
 	}
+
+	@Test
+	public void testCopyOnWrite() {
+		PropertyUtil prop = new PropertyUtil();
+		prop.setProperty("cow.a", "1");
+		prop.setProperty("cow.list", "x;y");
+		Validator.assertThat(prop.getString("cow.a"), Matchers.equalTo("1"));
+
+		PropertyUtil copy = new PropertyUtil(prop);
+		Validator.assertThat(copy.getString("cow.a"), Matchers.equalTo("1"));
+		Validator.assertThat(copy.getStringArray("cow.list"), Matchers.arrayContaining("x", "y"));
+
+		copy.setProperty("cow.a", "2");
+		Validator.assertThat(copy.getString("cow.a"), Matchers.equalTo("2"));
+		Validator.assertThat(prop.getString("cow.a"), Matchers.equalTo("1"));
+
+		prop.setProperty("cow.b", "b");
+		prop.clearProperty("cow.list");
+		Validator.assertThat(prop.getString("cow.b"), Matchers.equalTo("b"));
+		Validator.assertThat(prop.containsKey("cow.list"), Matchers.is(false));
+		Validator.assertThat(copy.containsKey("cow.b"), Matchers.is(false));
+		Validator.assertThat(copy.getStringArray("cow.list"), Matchers.arrayContaining("x", "y"));
+	}
 }
@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.utils;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.core.ConfigurationManager;
+import com.qmetry.qaf.automation.util.DatabaseUtil;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * Uses stub jdbc driver which returns 3 records with columns id and name.
+ * 
+ * @author chirag.jayswal
+ */
+public class DatabaseUtilTest {
+	private static final String PREFIX = "stubdb";
+	private static final StubDriver DRIVER = new StubDriver();
+
+	@BeforeClass
+	public void registerDriver() throws SQLException {
+		DriverManager.registerDriver(DRIVER);
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.driver.class", StubDriver.class.getName());
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.connection.url", StubDriver.URL);
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.user", "user");
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.pwd", "pwd");
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.pool.size", 2);
+		ConfigurationManager.getBundle().setProperty(PREFIX + ".db.pool.wait.timeout", 100);
+	}
+
+	@AfterClass
+	public void deregisterDriver() throws SQLException {
+		DriverManager.deregisterDriver(DRIVER);
+	}
+
+	@Test
+	public void testPooledConnection() throws Exception {
+		Connection con = DatabaseUtil.getConnection(PREFIX);
+		con.close();
+		Validator.assertThat(con.isClosed(), Matchers.equalTo(true));
+		int opened = DRIVER.connections.get();
+		int prepared = DRIVER.statements.get();
+
+		for (int i = 0; i < 5; i++) {
+			List<Map<String, Object>> records = DatabaseUtil.getPreparedRecordAsMap(PREFIX,
+					"select * from stub where id > ?", i);
+			Validator.assertThat(records, Matchers.hasSize(3));
+			Validator.assertThat(records.get(0), Matchers.hasEntry("name", (Object) "name-1"));
+		}
+		Validator.assertThat(DRIVER.connections.get(), Matchers.equalTo(opened));
+		Validator.assertThat(DRIVER.statements.get(), Matchers.equalTo(prepared + 1));
+	}
+
+	@Test
+	public void testQueryWithoutParameters() throws Exception {
+		int prepared = DRIVER.statements.get();
+		int created = DRIVER.createdStatements.get();
+
+		List<Map<String, Object>> records = DatabaseUtil.getRecordAsMap(PREFIX,
+				"select * from stub where data ? 'name'");
+		Validator.assertThat(records, Matchers.hasSize(3));
+		Validator.assertThat(DRIVER.statements.get(), Matchers.equalTo(prepared));
+		Validator.assertThat(DRIVER.createdStatements.get(), Matchers.equalTo(created + 1));
+	}
+
+	@Test
+	public void testPoolWaitTimeout() throws Exception {
+		Connection con1 = DatabaseUtil.getConnection(PREFIX);
+		Connection con2 = DatabaseUtil.getConnection(PREFIX);
+		try {
+			DatabaseUtil.getConnection(PREFIX);
+			Validator.assertTrue(false, "Expected timeout", "");
+		} catch (SQLException e) {
+			Validator.assertThat(e.getMessage(), Matchers.containsString("Timed out"));
+		} finally {
+			con1.close();
+			con2.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLazyRecords() throws Exception {
+		ConfigurationManager.getBundle().setProperty("db.driver.class", StubDriver.class.getName());
+		ConfigurationManager.getBundle().setProperty("db.connection.url", StubDriver.URL);
+		try {
+			Iterator<Object[]> records = DatabaseUtil.getRecordDataAsMapIterator("select * from stub");
+			Validator.assertThat(DRIVER.rowsRead.get(), Matchers.equalTo(0));
+			Validator.assertThat((Map<String, Object>) records.next()[0], Matchers.hasEntry("id", (Object) 1));
+			Validator.assertThat(DRIVER.rowsRead.get(), Matchers.equalTo(1));
+
+			Object[][] data = DatabaseUtil.getData("select * from stub");
+			Validator.assertThat(data.length, Matchers.equalTo(3));
+			Validator.assertThat(data[2], Matchers.arrayContaining((Object) 3, "name-3"));
+		} finally {
+			ConfigurationManager.getBundle().clearProperty("db.driver.class");
+			ConfigurationManager.getBundle().clearProperty("db.connection.url");
+			DRIVER.rowsRead.set(0);
+		}
+	}
+
+	@Test
+	public void testConnectionReleasedOnErrorAndClose() throws Exception {
+		ConfigurationManager.getBundle().setProperty("db.driver.class", StubDriver.class.getName());
+		ConfigurationManager.getBundle().setProperty("db.connection.url", StubDriver.URL);
+		int closed = DRIVER.closedConnections.get();
+		try {
+			Iterator<Object[]> records = DatabaseUtil.getRecordDataAsMapIterator("select * from stub");
+			records.next();
+			((Closeable) records).close();
+			Validator.assertThat(DRIVER.closedConnections.get(), Matchers.equalTo(closed + 1));
+			Validator.assertThat(records.hasNext(), Matchers.equalTo(false));
+
+			DRIVER.failAtRow.set(2);
+			records = DatabaseUtil.getRecordDataAsMapIterator("select * from stub");
+			records.next();
+			try {
+				records.hasNext();
+				Validator.assertTrue(false, "Expected database error", "");
+			} catch (RuntimeException e) {
+				Validator.assertThat(e.getCause(), Matchers.instanceOf(SQLException.class));
+			}
+			Validator.assertThat(DRIVER.closedConnections.get(), Matchers.equalTo(closed + 2));
+
+			Object[][] data = DatabaseUtil.getRecordDataAsMap("select * from stub");
+			Validator.assertThat(data.length, Matchers.equalTo(1));
+			Validator.assertThat(DRIVER.closedConnections.get(), Matchers.equalTo(closed + 3));
+		} finally {
+			ConfigurationManager.getBundle().clearProperty("db.driver.class");
+			ConfigurationManager.getBundle().clearProperty("db.connection.url");
+			DRIVER.failAtRow.set(0);
+			DRIVER.rowsRead.set(0);
+		}
+	}
+
+	public static class StubDriver implements Driver {
+		static final String URL = "jdbc:qafstub:test";
+		final AtomicInteger connections = new AtomicInteger();
+		final AtomicInteger statements = new AtomicInteger();
+		final AtomicInteger createdStatements = new AtomicInteger();
+		final AtomicInteger rowsRead = new AtomicInteger();
+		final AtomicInteger closedConnections = new AtomicInteger();
+		final AtomicInteger failAtRow = new AtomicInteger();
+
+		@Override
+		public Connection connect(String url, Properties info) throws SQLException {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			connections.incrementAndGet();
+			return proxy(Connection.class, new InvocationHandler() {
+				boolean closed;
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					if (method.getName().equals("prepareStatement")) {
+						statements.incrementAndGet();
+						return proxy(PreparedStatement.class, new StatementHandler());
+					}
+					if (method.getName().equals("createStatement")) {
+						createdStatements.incrementAndGet();
+						return proxy(Statement.class, new StatementHandler());
+					}
+					if (method.getName().equals("close") && !closed) {
+						closed = true;
+						closedConnections.incrementAndGet();
+					}
+					if (method.getName().equals("isClosed")) {
+						return closed;
+					}
+					return defaultValue(method);
+				}
+			});
+		}
+
+		private class StatementHandler implements InvocationHandler {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("executeQuery")) {
+					return proxy(ResultSet.class, new InvocationHandler() {
+						int row;
+
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							if (method.getName().equals("next")) {
+								if (row + 1 == failAtRow.get()) {
+									throw new SQLException("stub failure");
+								}
+								if (row < 3) {
+									rowsRead.incrementAndGet();
+								}
+								return ++row <= 3;
+							}
+							if (method.getName().equals("getObject")) {
+								return (Integer) args[0] == 1 ? (Object) row : "name-" + row;
+							}
+							if (method.getName().equals("getMetaData")) {
+								return proxy(ResultSetMetaData.class, new InvocationHandler() {
+									@Override
+									public Object invoke(Object proxy, Method method, Object[] args) {
+										if (method.getName().equals("getColumnCount")) {
+											return 2;
+										}
+										if (method.getName().equals("getColumnLabel")) {
+											return (Integer) args[0] == 1 ? "id" : "name";
+										}
+										return defaultValue(method);
+									}
+								});
+							}
+							return defaultValue(method);
+						}
+					});
+				}
+				return defaultValue(method);
+			}
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return URL.equals(url);
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+			throw new SQLFeatureNotSupportedException();
+		}
+
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+		}
+
+		private static Object defaultValue(Method method) {
+			Class<?> type = method.getReturnType();
+			if (type == boolean.class) {
+				return method.getName().equals("isValid") || method.getName().equals("getAutoCommit");
+			}
+			if (type == int.class) {
+				return 0;
+			}
+			if (type == long.class) {
+				return 0L;
+			}
+			return null;
+		}
+	}
+}
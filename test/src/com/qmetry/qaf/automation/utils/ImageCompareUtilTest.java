@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.utils;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.hamcrest.Matchers;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.util.ImageCompareUtil;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ImageCompareUtilTest {
+	private File page;
+	private File part;
+	private File other;
+
+	@BeforeClass
+	public void createImages() throws IOException {
+		BufferedImage image = randomImage(400, 300, 1);
+		page = write(image);
+		part = write(image.getSubimage(125, 75, 60, 40));
+		other = write(randomImage(60, 40, 2));
+	}
+
+	@AfterClass
+	public void deleteImages() {
+		page.delete();
+		part.delete();
+		other.delete();
+	}
+
+	@Test
+	public void testDoMatch() throws IOException {
+		ImageCompareUtil util = new ImageCompareUtil();
+		Validator.assertThat(util.doMatch(page.getPath(), part.getPath()), Matchers.is(true));
+		Validator.assertThat(util.doMatch(page.getPath(), other.getPath()), Matchers.is(false));
+		// search area excluding template position
+		Validator.assertThat(util.doMatch(page.getPath(), part.getPath(), new Rectangle(0, 0, 100, 60)),
+				Matchers.is(false));
+	}
+
+	@Test
+	public void testGetDifference() throws Exception {
+		ImageCompareUtil util = new ImageCompareUtil();
+		Validator.assertThat(util.getDifference(page.getPath(), page.getPath()), Matchers.is(0.0));
+		Validator.assertThat(util.compare(part.getPath(), part.getPath()), Matchers.is(true));
+		Validator.assertThat(util.contains(page.getPath(), part.getPath(), null), Matchers.is(true));
+	}
+
+	private static BufferedImage randomImage(int width, int height, long seed) {
+		Random random = new Random(seed);
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				image.setRGB(x, y, random.nextInt(0xffffff));
+			}
+		}
+		return image;
+	}
+
+	private static File write(BufferedImage image) throws IOException {
+		File file = File.createTempFile("img", ".png");
+		ImageIO.write(image, "png", file);
+		return file;
+	}
+}
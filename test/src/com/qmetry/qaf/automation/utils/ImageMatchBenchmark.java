@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.utils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.qmetry.qaf.automation.util.ImageCompareUtil;
+
+/**
+ * Compares {@link ImageCompareUtil#doMatch(RenderedImage, RenderedImage, java.awt.Rectangle...)}
+ * with previous implementation of the same search, kept here as
+ * {@link #previousDoMatch(RenderedImage, RenderedImage)}, on 1366x768 page
+ * and 100x50 template near bottom right corner. Previous implementation read
+ * pixels through JAI RandomIter, here it reads through {@link Raster} so that
+ * benchmark doesn't need JAI.
+ * <p>
+ * Requires jmh annotation processor while compiling test sources. Run with
+ * <code>ant benchmark -Dbenchmark.args=ImageMatchBenchmark</code> or main
+ * method of this class.
+ * 
+ * @author chirag.jayswal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ImageMatchBenchmark {
+	private static final int MAX_DIFF = 100;
+
+	private BufferedImage page;
+	private BufferedImage template;
+	private File pageFile;
+	private File templateFile;
+	private ImageCompareUtil util;
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(1);
+		page = new BufferedImage(1366, 768, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < page.getWidth(); x++) {
+			for (int y = 0; y < page.getHeight(); y++) {
+				page.setRGB(x, y, random.nextInt(0xffffff));
+			}
+		}
+		template = page.getSubimage(1200, 700, 100, 50);
+		pageFile = File.createTempFile("page", ".png");
+		templateFile = File.createTempFile("template", ".png");
+		ImageIO.write(page, "png", pageFile);
+		ImageIO.write(template, "png", templateFile);
+		util = new ImageCompareUtil();
+	}
+
+	@TearDown
+	public void tearDown() {
+		pageFile.delete();
+		templateFile.delete();
+	}
+
+	@Benchmark
+	public boolean doMatch() {
+		return util.doMatch(page, template);
+	}
+
+	@Benchmark
+	public boolean previousDoMatch() {
+		return previousDoMatch(page, template);
+	}
+
+	@Benchmark
+	public boolean contains() throws Exception {
+		return util.contains(pageFile.getPath(), templateFile.getPath(), null);
+	}
+
+	/**
+	 * Search loop of previous implementation for whole template and search
+	 * image.
+	 */
+	static boolean previousDoMatch(RenderedImage search, RenderedImage template) {
+		Raster searchiterator = search.getData();
+		Raster templateiterator = template.getData();
+
+		int T_rows = template.getWidth();
+		int S_rows = search.getWidth() - template.getWidth();
+		int T_cols = template.getHeight();
+		int S_cols = search.getHeight() - template.getHeight();
+
+		double[] p_SearchIMG = new double[5];
+		double[] p_TemplateIMG = new double[5];
+		double[] S_accum = new double[3];
+		boolean match = false;
+		for (int x = 0; x <= S_rows; x += 1) {
+			for (int y = 0; y <= S_cols; y += 1) {
+				match = true;
+				for (int i = 0; i < T_rows - 5; i += 5) {
+					for (int j = 0; j < T_cols - 5; j += 5) {
+						S_accum[0] = S_accum[1] = S_accum[2] = 0;
+						for (int ploat = 0; ploat < 5; ploat++) {
+							searchiterator.getPixel(x + i + ploat, y + j + ploat, p_SearchIMG);
+							templateiterator.getPixel(i + ploat, j + ploat, p_TemplateIMG);
+							S_accum[0] += Math.abs(p_SearchIMG[0] - p_TemplateIMG[0]);
+							S_accum[1] += Math.abs(p_SearchIMG[1] - p_TemplateIMG[1]);
+							S_accum[2] += Math.abs(p_SearchIMG[2] - p_TemplateIMG[2]);
+						}
+						Double tempSad = (S_accum[0] + S_accum[1] + S_accum[2]) / 5;
+						if ((tempSad > MAX_DIFF)) {
+							match = false;
+							break;
+						}
+					}
+				}
+				if (match) {
+					break;
+				}
+			}
+			if (match) {
+				break;
+			}
+		}
+		return match;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ImageMatchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -43,6 +43,7 @@ import com.google.gson.reflect.TypeToken;
 import com.qmetry.qaf.automation.data.MetaData;
 import com.qmetry.qaf.automation.impl.Item;
 import com.qmetry.qaf.automation.util.ClassUtil;
+import com.qmetry.qaf.automation.util.FileUtil;
 import com.qmetry.qaf.automation.util.JSONUtil;
 import com.qmetry.qaf.automation.util.Validator;
 
@@ -192,9 +193,44 @@ public class JsonUtilTest {
 		Validator.assertThat(map0.get("id").toString(), Matchers.is("1"));
 	}
 
-	// @Test
-	public void testGetJsonObjectFromFile() {
+	@Test
+	public void testGetJsonObjectFromFile() throws IOException {
+		File f = File.createTempFile("overview", ".json");
+		try {
+			Map<String, Object> obj = Maps.newHashMap();
+			obj.put("name", "<b>a</b>");
+			obj.put("total", 2);
+			JSONUtil.writeJsonObjectToFile(f.getPath(), obj);
+
+			@SuppressWarnings("unchecked")
+			Map<String, Object> result = JSONUtil.getJsonObjectFromFile(f.getPath(), Map.class);
+			Validator.assertThat(result.get("name"), Matchers.<Object> equalTo("<b>a</b>"));
+			Validator.assertThat(result.get("total"), Matchers.<Object> equalTo(2.0));
+		} finally {
+			f.delete();
+		}
+		Validator.assertThat(JSONUtil.getJsonObjectFromFile(f.getPath(), Map.class).isEmpty(), Matchers.is(true));
+	}
 
+	@Test
+	public void getJsonArrayOfMapsIteratorTest() throws IOException {
+		File f = File.createTempFile("data", ".json");
+		try {
+			FileUtil.writeStringToFile(f, "[{'name':'a','id':1},{'name':'b','id':2,'price':2.5}]", "UTF-8");
+			Iterator<Object[]> iter = JSONUtil.getJsonArrayOfMapsIterator(f.getPath());
+			List<Object[]> result = new ArrayList<Object[]>();
+			while (iter.hasNext()) {
+				result.add(iter.next());
+			}
+			Validator.assertThat(result, Matchers.hasSize(2));
+			@SuppressWarnings("unchecked")
+			Map<String, Object> map1 = (Map<String, Object>) result.get(1)[0];
+			Validator.assertThat(map1.get("id"), Matchers.instanceOf(Long.class));
+			Validator.assertThat(map1.get("price"), Matchers.instanceOf(Double.class));
+			Validator.assertThat(iter.hasNext(), Matchers.is(false));
+		} finally {
+			f.delete();
+		}
 	}
 
 	Object[][] getJsonFiles() throws IOException {
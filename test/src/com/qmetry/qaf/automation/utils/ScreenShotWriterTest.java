@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.utils;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.codec.binary.Base64;
+import org.hamcrest.Matchers;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.util.ScreenShotWriter;
+import com.qmetry.qaf.automation.util.Validator;
+
+/**
+ * @author chirag.jayswal
+ */
+public class ScreenShotWriterTest {
+	private static final String DIR = "test-results/screenshot-writer";
+
+	@AfterMethod
+	public void clearProperties() {
+		getBundle().clearProperty(ApplicationProperties.SCREENSHOT_FORMAT.key);
+		getBundle().clearProperty(ApplicationProperties.SCREENSHOT_SCALE.key);
+	}
+
+	@Test
+	public void testIdenticalCaptureWrittenOnce() throws Exception {
+		new File(DIR).mkdirs();
+		String image = createImage(40, 20, 0xff0000);
+		long deduplicated = ScreenShotWriter.getDeduplicatedCount();
+
+		String first = ScreenShotWriter.write(image, "writer", DIR);
+		String second = ScreenShotWriter.write(image, "writer", DIR);
+		String third = ScreenShotWriter.write(createImage(40, 20, 0x00ff00), "writer", DIR);
+		Validator.assertThat(second, Matchers.equalTo(first));
+		Validator.assertThat(third, Matchers.not(Matchers.equalTo(first)));
+		Validator.assertThat(ScreenShotWriter.getDeduplicatedCount(), Matchers.equalTo(deduplicated + 1));
+
+		ScreenShotWriter.flush();
+		Validator.assertThat(ScreenShotWriter.getPendingCount(), Matchers.equalTo(0));
+		Validator.assertThat(ImageIO.read(new File(DIR, first)).getWidth(), Matchers.equalTo(40));
+		Validator.assertThat(new File(DIR, third).exists(), Matchers.is(true));
+	}
+
+	@Test
+	public void testDownscaleAndRecompress() throws Exception {
+		new File(DIR).mkdirs();
+		getBundle().setProperty(ApplicationProperties.SCREENSHOT_FORMAT.key, "jpg");
+		getBundle().setProperty(ApplicationProperties.SCREENSHOT_SCALE.key, "0.5");
+
+		String file = ScreenShotWriter.write(createImage(40, 20, 0x0000ff), "writer", DIR);
+		Validator.assertThat(file, Matchers.endsWith(".jpg"));
+
+		ScreenShotWriter.flush();
+		BufferedImage saved = ImageIO.read(new File(DIR, file));
+		Validator.assertThat(saved.getWidth(), Matchers.equalTo(20));
+		Validator.assertThat(saved.getHeight(), Matchers.equalTo(10));
+	}
+
+	@Test
+	public void testFallbackToPng() throws Exception {
+		new File(DIR).mkdirs();
+		// no image writer
+		getBundle().setProperty(ApplicationProperties.SCREENSHOT_FORMAT.key, "unknown");
+		String file = ScreenShotWriter.write(createImage(40, 20, 0xffff00), "writer", DIR);
+		Validator.assertThat(file, Matchers.endsWith(".png"));
+
+		// writer can't encode rgb image
+		getBundle().setProperty(ApplicationProperties.SCREENSHOT_FORMAT.key, "wbmp");
+		long failed = ScreenShotWriter.getFailedCount();
+		String wbmp = ScreenShotWriter.write(createImage(40, 20, 0x00ffff), "writer", DIR);
+
+		ScreenShotWriter.flush();
+		Validator.assertThat(ImageIO.read(new File(DIR, file)).getWidth(), Matchers.equalTo(40));
+		Validator.assertThat(ScreenShotWriter.getFailedCount(), Matchers.equalTo(failed));
+		Validator.assertThat(new File(DIR, wbmp).length(), Matchers.greaterThan(0L));
+		Validator.assertThat(ImageIO.read(new File(DIR, wbmp)).getWidth(), Matchers.equalTo(40));
+	}
+
+	private static String createImage(int width, int height, int rgb) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				image.setRGB(x, y, rgb);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return new String(Base64.encodeBase64(out.toByteArray()));
+	}
+}
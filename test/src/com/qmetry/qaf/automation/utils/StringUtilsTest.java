@@ -21,6 +21,9 @@
  ******************************************************************************/
 package com.qmetry.qaf.automation.utils;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.hamcrest.Matchers;
 import org.json.JSONArray;
 import org.testng.annotations.DataProvider;
@@ -44,6 +47,36 @@ public class StringUtilsTest {
 		Validator.assertThat(actual, Matchers.equalTo(expected));
 	}
 
+	@Test
+	public void testEval() throws Exception {
+		Map<String, Object> record = new HashMap<String, Object>();
+		record.put("name", "a");
+		record.put("id", 3);
+
+		Boolean res = StringUtil.eval("name=='a' && id>2", record);
+		Validator.assertThat(res, Matchers.equalTo(true));
+		record.put("id", 1);
+		res = StringUtil.eval("name=='a' && id>2", record);
+		Validator.assertThat(res, Matchers.equalTo(false));
+		Validator.assertThat(record.size(), Matchers.equalTo(2));
+
+		Object ts = StringUtil.eval("java.lang.System.currentTimeMillis()");
+		Validator.assertThat(ts, Matchers.instanceOf(Number.class));
+
+		// variable assigned by expression doesn't shadow context of next record
+		StringUtil.eval("var leaked=5; var name='b'; true", record);
+		res = StringUtil.eval("name=='a' && typeof leaked=='undefined'", record);
+		Validator.assertThat(res, Matchers.equalTo(true));
+
+		// column with name of built-in object
+		record.put("Date", "2020");
+		record.put("Number", 5);
+		res = StringUtil.eval("Date=='2020' && Number==5 && name=='a'", record);
+		Validator.assertThat(res, Matchers.equalTo(true));
+		res = StringUtil.eval("typeof Date=='function' && typeof name=='undefined'");
+		Validator.assertThat(res, Matchers.equalTo(true));
+	}
+
 	@Test(dataProvider="csvTestDp")
 	public void testToCSV(String csvStr, char seperator, Object[] expectedResult) {
 		Object[] csv = StringUtil.parseCSV(csvStr,seperator);
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2019 Infostretch Corporation
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.qmetry.qaf.automation.ws.rest;
+
+import static com.qmetry.qaf.automation.core.ConfigurationManager.getBundle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.lang.StringUtils;
+import org.hamcrest.Matchers;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.qmetry.qaf.automation.keys.ApplicationProperties;
+import com.qmetry.qaf.automation.util.Validator;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+/**
+ * @author chirag.jayswal
+ */
+public class RequestLoggerTest {
+
+	@AfterMethod
+	public void clearProperties() {
+		getBundle().clearProperty(ApplicationProperties.REST_LOG_ENTITY_MAX.key);
+		getBundle().clearProperty(ApplicationProperties.REST_CLIENT_POOL_MAX_PER_HOST.key);
+		getBundle().clearProperty(ApplicationProperties.REST_CLIENT_POOL_HOST_LIMITS.key);
+	}
+
+	@Test
+	public void testLargeEntityIsTruncatedInLog() {
+		getBundle().setProperty(ApplicationProperties.REST_LOG_ENTITY_MAX.key, "10");
+		String entity = StringUtils.repeat("0123456789", 100);
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+		Client client = getClient(entity, log);
+		String response = client.resource("http://localhost/test").post(String.class, entity);
+
+		Validator.assertThat("complete entity", response, Matchers.equalTo(entity));
+		Validator.assertThat(log.toString(), Matchers.containsString("0123456789...[truncated]"));
+		Validator.assertThat(log.toString(), Matchers.not(Matchers.containsString("01234567890")));
+	}
+
+	@Test
+	public void testSmallEntityIsLogged() {
+		getBundle().setProperty(ApplicationProperties.REST_LOG_ENTITY_MAX.key, "10");
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+		Client client = getClient("0123", log);
+		String response = client.resource("http://localhost/test").get(String.class);
+
+		Validator.assertThat(response, Matchers.equalTo("0123"));
+		Validator.assertThat(log.toString(), Matchers.containsString("0123"));
+		Validator.assertThat(log.toString(), Matchers.not(Matchers.containsString("[truncated]")));
+	}
+
+	@Test
+	public void testPoolHostLimits() {
+		getBundle().setProperty(ApplicationProperties.REST_CLIENT_POOL_MAX_PER_HOST.key, "5");
+		getBundle().setProperty(ApplicationProperties.REST_CLIENT_POOL_HOST_LIMITS.key,
+				"{\"https://api.example.com\":50}");
+		HttpConnectionManagerParams params = new HttpConnectionManagerParams();
+		PooledRestClient.configure(params);
+
+		HostConfiguration host = new HostConfiguration();
+		host.setHost("api.example.com", -1, "https");
+		Validator.assertThat(params.getMaxConnectionsPerHost(host), Matchers.equalTo(50));
+		host = new HostConfiguration();
+		host.setHost("localhost", 8080, "http");
+		Validator.assertThat(params.getMaxConnectionsPerHost(host), Matchers.equalTo(5));
+	}
+
+	private Client getClient(final String responseEntity, ByteArrayOutputStream log) {
+		final Client[] client = new Client[1];
+		client[0] = new Client(new ClientHandler() {
+			@Override
+			public ClientResponse handle(ClientRequest request) throws ClientHandlerException {
+				return new ClientResponse(200, new InBoundHeaders(),
+						new ByteArrayInputStream(responseEntity.getBytes()), client[0].getMessageBodyWorkers());
+			}
+		});
+		client[0].addFilter(new RequestLogger(new PrintStream(log, true)));
+		return client[0];
+	}
+}